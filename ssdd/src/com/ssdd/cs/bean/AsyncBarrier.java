@@ -0,0 +1,200 @@
+package com.ssdd.cs.bean;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.Response.Status;
+
+/**
+ * counter based barrier which doesn't block the threads of the waiting parties: each party is stored as a callback, and all
+ * of them are called when the last party arrives. A suspended {@link javax.ws.rs.container.AsyncResponse} is resumed with
+ * an empty response, or with a {@link javax.ws.rs.core.Response.Status#SERVICE_UNAVAILABLE} if the barrier is broken.
+ * As in {@link java.util.concurrent.CyclicBarrier}, when a party times out the barrier is broken for all the parties,
+ * until it is reset with {@link #reset()}.
+ *
+ * @version 1.0
+ * @author Hctor Snchez San Blas
+ * @author Francisco Pinto Santos
+ */
+public final class AsyncBarrier {
+
+	/**
+     * number of parties to wait for
+     * */
+	private final int parties;
+	/**
+     * callbacks of the parties waiting in current generation of the barrier. Are called with true when the barrier is
+     * passed, and with false when it is broken
+     * */
+	private List<Consumer<Boolean>> waiting;
+	/**
+     * true if the barrier is broken, and not yet reset
+     * */
+	private boolean broken;
+	/**
+     * lock to serialize the operations over the barrier
+     * */
+	private final ReentrantLock lock;
+
+	public AsyncBarrier(int parties) {
+		this.parties = parties;
+		this.waiting = new ArrayList<>();
+		this.broken = false;
+		this.lock = new ReentrantLock();
+	}
+
+	/**
+	 * waits in the barrier without blocking the calling thread. The response is resumed when all the parties have arrived,
+	 * or when the barrier is broken. If the party doesn't pass the barrier in the given time, the barrier is broken.
+	 *
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 *
+	 * @param response the suspended response
+	 * @param timeout maximum time (in seconds) to wait
+	 */
+	public void await(AsyncResponse response, long timeout) {
+		Consumer<Boolean> party = passed -> response.resume(passed ? Response.noContent().build() : Response.status(Status.SERVICE_UNAVAILABLE).build());
+		response.setTimeout(timeout, TimeUnit.SECONDS);
+		response.setTimeoutHandler(r -> this.breakBarrier(party));
+		this.await(party);
+	}
+
+	/**
+	 * waits in the barrier blocking the calling thread. Is the in-process counterpart of {@link #await(AsyncResponse, long)}.
+	 *
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 *
+	 * @param timeout maximum time (in seconds) to wait
+	 *
+	 * @return true if the barrier has been passed, false if it is broken
+	 *
+	 * @throws InterruptedException if the calling thread is interrupted while waiting
+	 */
+	public boolean await(long timeout) throws InterruptedException {
+		CompletableFuture<Boolean> passed = new CompletableFuture<>();
+		Consumer<Boolean> party = passed::complete;
+		this.await(party);
+		try {
+			return passed.get(timeout, TimeUnit.SECONDS);
+		} catch (TimeoutException e) {
+			this.breakBarrier(party);
+			return passed.join();
+		} catch (ExecutionException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * breaks the barrier, releasing all the waiting parties as broken, and starts a new generation of the barrier.
+	 *
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 */
+	public void reset() {
+		List<Consumer<Boolean>> released = null;
+		this.lock.lock();
+		try {
+			released = this.nextGeneration();
+			this.broken = false;
+		}finally {
+			this.lock.unlock();
+		}
+		released.forEach(party -> party.accept(false));
+	}
+
+	/**
+	 * adds a party to the barrier. If it is the last one, all the parties are released. If the barrier is broken, the party
+	 * is released immediately as broken.
+	 *
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 *
+	 * @param party the callback of the party
+	 */
+	private void await(Consumer<Boolean> party) {
+		List<Consumer<Boolean>> released = null;
+		boolean broken = false;
+		this.lock.lock();
+		try {
+			if(this.broken) {
+				broken = true;
+			}else {
+				this.waiting.add(party);
+				if(this.waiting.size() >= this.parties) {
+					released = this.nextGeneration();
+				}
+			}
+		}finally {
+			this.lock.unlock();
+		}
+		if(broken) {
+			party.accept(false);
+		}else if(released != null) {
+			released.forEach(p -> p.accept(true));
+		}
+	}
+
+	/**
+	 * breaks the barrier when a party times out, releasing all the waiting parties as broken. If the party has already
+	 * passed the barrier, does nothing.
+	 *
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 *
+	 * @param party the callback of the party which timed out
+	 */
+	private void breakBarrier(Consumer<Boolean> party) {
+		List<Consumer<Boolean>> released = null;
+		this.lock.lock();
+		try {
+			if(this.waiting.contains(party)) {
+				released = this.nextGeneration();
+				this.broken = true;
+			}
+		}finally {
+			this.lock.unlock();
+		}
+		if(released != null) {
+			released.forEach(p -> p.accept(false));
+		}
+	}
+
+	/**
+	 * takes all the waiting parties, leaving the barrier empty for the next generation.
+	 *
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 *
+	 * @return the waiting parties
+	 */
+	private List<Consumer<Boolean>> nextGeneration() {
+		List<Consumer<Boolean>> waiting = this.waiting;
+		this.waiting = new ArrayList<>();
+		return waiting;
+	}
+
+	public boolean isBroken() {
+		this.lock.lock();
+		try {
+			return this.broken;
+		}finally {
+			this.lock.unlock();
+		}
+	}
+}
@@ -1,9 +1,14 @@
 package com.ssdd.cs.bean;
 
-import java.util.concurrent.Semaphore;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 /** 
  * stores all the relative information to a process's in the critical section context in the server side.
+ * The operations are lock-free: the critical section's state, the mode and the timestamp of the last request
+ * are packed into a single word, which is read to take the decisions over the requests and updated atomically.
  * 
  * @version 1.0
  * @author Hctor Snchez San Blas
@@ -11,66 +16,103 @@ import java.util.concurrent.Semaphore;
  */
 public class CritialSectionProcessState {
 
+	/**
+     * number of bits of the packed word used to store the {@link com.ssdd.cs.bean.CriticalSectionState}
+     * */
+	private static final int STATE_BITS = 2;
+	/**
+     * number of bits of the packed word used to store the {@link com.ssdd.cs.bean.CriticalSectionMode}
+     * */
+	private static final int MODE_BITS = 1;
+	
 	/**
      * the process's id
      * */
-    private String id;
+    private int id;
     /**
      * process's time counter based in the Lamport's counter (guided by events)
      * */
 	private LamportCounter counter;
     /**
-     * process's timestamp (Lamport counter value) for the last message
+     * packed word with the process's timestamp (Lamport counter value) for the last request, the mode of 
+     * the last request and the critical section's state in the process's context
      * */
-    private long lastTimeStamp;
+	private AtomicLong word;
     /**
-     * critical section's state in the process's context
+     * to manage process trying to enter critical section queue
      * */
-	private CriticalSectionState state;
+	private CriticalSectionQueue queue;
     /**
-     * to lock operations on the process
+     * ids of the processes to which the access has been granted since they last granted the access to this
+     * process (Roucairol and Carvalho's optimization). The permission of any other process is still held.
      * */
-	private Semaphore lock;
+	private Set<Integer> repliedTo;
     /**
-     * to manage process trying to enter critical section queue
+     * mode of the requests by which the permissions held by the process were obtained, or null before the first acquire. 
+     * When it isn't null, {@link #repliedTo} describes the permissions held by the process. A process inside the critical section 
+     * in shared mode grants the shared requests, so the permissions obtained in shared mode aren't valid to acquire in exclusive mode.
      * */
-	private CriticalSectionQueue queue;
+	private volatile CriticalSectionMode permissionsMode;
+    /**
+     * flag that indicates that some process has been requested in the current acquire
+     * */
+	private volatile boolean requesting;
+    /**
+     * flag that indicates that all processes have been requested in the current acquire
+     * */
+	private volatile boolean requestingAll;
+    /**
+     * ids of the processes requested again in the current acquire. Their permission is held once they grant the access, 
+     * also if the access has been granted to them meanwhile: a process with priority over this one grants the access after its release.
+     * */
+	private Set<Integer> awaited;
 	
-	public CritialSectionProcessState(String id, LamportCounter counter, CriticalSectionState state) {
+	public CritialSectionProcessState(int id, LamportCounter counter, CriticalSectionState state) {
 		super();
 		this.id = id;
 		this.counter = counter;
-		this.state = state;
-		this.lastTimeStamp = 0;
+		this.word = new AtomicLong(CritialSectionProcessState.pack(state, CriticalSectionMode.EXCLUSIVE, 0));
+		this.permissionsMode = null;
+		this.requesting = false;
+		this.requestingAll = false;
 		
-		this.lock = new Semaphore(1);
-		this.queue = new CriticalSectionQueue();
+		this.awaited = ConcurrentHashMap.newKeySet();
+		this.repliedTo = ConcurrentHashMap.newKeySet();
+		this.queue = new CriticalSectionQueue(this.repliedTo);
 	}
 
 	/** 
 	 * when a request is received, decides if the process has access to critical section with the 
-	 * criteria set on the Ricart and Argawala's algorithm.
+	 * criteria set on the Ricart and Argawala's algorithm. Requests in shared mode are always accepted when the process
+	 * requests or holds the critical section in shared mode too.
 	 * 
 	 * @version 1.0
 	 * @author Hctor Snchez San Blas
 	 * @author Francisco Pinto Santos
 	 * 
+	 * @param word the packed word with the process's state to take the decision over
 	 * @param senderId the process's id of the request's sender
 	 * @param senderTimeStamp the Lamport counter value of the request's sender at the moment of the build of request
+	 * @param senderMode the mode of the request
 	 * 
 	 * @return true if the request is accepted and false if the request should be queued
 	 */
-	public boolean permitEnter(String senderId, long senderTimeStamp) {
-		switch(this.state) {
+	private boolean permitEnter(long word, int senderId, long senderTimeStamp, CriticalSectionMode senderMode) {
+		// shared requests don't exclude each other
+		if(CritialSectionProcessState.mode(word) == CriticalSectionMode.SHARED && senderMode == CriticalSectionMode.SHARED) {
+			return true;
+		}
+		long lastTimeStamp = CritialSectionProcessState.timeStamp(word);
+		switch(CritialSectionProcessState.state(word)) {
 			case FREE:
 				return true;
 			case ACQUIRED:
 				return false;
 			case REQUESTED:
-				if(this.lastTimeStamp == senderTimeStamp) {
-					return (senderId.compareTo(this.id) < 0);
+				if(lastTimeStamp == senderTimeStamp) {
+					return (senderId < this.id);
 				}else {
-					return (senderTimeStamp < this.lastTimeStamp);
+					return (senderTimeStamp < lastTimeStamp);
 				}
 			default:
 				// NOTE: this won't never be reached by the program, but is neccesary to shut up the eclipse warnings
@@ -79,45 +121,206 @@ public class CritialSectionProcessState {
 	}
 	
 	/** 
-	 * stores the process's current counter value, to be used as last message timestamp
+	 * processes a request to the critical section without blocking. The request is granted if it is permitted by 
+	 * {@link #permitEnter(long, int, long, CriticalSectionMode)}, and deferred in the queue otherwise. The grant is registered as
+	 * a lost permission, unless it's given while requesting the access to the sender, whose grant will still arrive.
+	 * The decision is taken over a read of the packed word, which is read again after registering the grant or the deferral: 
+	 * if it has changed meanwhile, the grant or the deferral is taken back and the decision is taken again.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param reply the record of the request, granted now or when the critical section is released
+	 * 
+	 * @return true if the request has been granted at the moment and false if it has been deferred
+	 */
+	public boolean request(DeferredReply reply) {
+		// update local lamport time
+		this.counter.update(reply.getTimeStamp());
+		while(true) {
+			long word = this.word.get();
+			if(this.permitEnter(word, reply.getSender(), reply.getTimeStamp(), reply.getMode())) {
+				// register the grant before checking that the decision is still valid, see acquireOrDrainReplied()
+				boolean added = !this.isAwaited(word, reply.getSender()) && this.repliedTo.add(reply.getSender());
+				if(this.word.get() == word) {
+					reply.grant();
+					return true;
+				}else if(added) {
+					this.repliedTo.remove(reply.getSender());
+				}
+			}else {
+				// defer the reply, and take it back if the state has changed meanwhile
+				if(!this.queue.defer(reply) || this.word.get() == word || !this.queue.withdraw(reply)) {
+					return false;
+				}
+			}
+		}
+	}
+	
+	/** 
+	 * sets the critical section's state as requested, storing the process's current counter value
+	 * to be used as the request's timestamp.
 	 * 
 	 * @version 1.0
 	 * @author Hctor Snchez San Blas
 	 * @author Francisco Pinto Santos
 	 * 
+	 * @param mode the mode in which the critical section is requested
+	 * 
 	 * @return the process's current counter value, to be used as message timestamp
 	 */
-	public long saveLastTimeStamp() {
-		this.lastTimeStamp = this.counter.getCounter();
-		return this.lastTimeStamp;
+	public long setRequested(CriticalSectionMode mode) {
+		long lastTimeStamp = this.counter.getCounter();
+		// before the first acquire, or in exclusive mode after an acquire in shared mode, no valid permission is held and all processes are requested
+		this.requestingAll = !this.holdsPermissions(mode);
+		this.requesting = this.requestingAll;
+		this.awaited.clear();
+		if(this.requestingAll) {
+			this.repliedTo.clear();
+		}
+		// enable queueing before publishing the new state, so requests deferred against it find the queue active
+		this.queue.activate();
+		this.word.set(CritialSectionProcessState.pack(CriticalSectionState.REQUESTED, mode, lastTimeStamp));
+		return lastTimeStamp;
 	}
 	
 	/** 
-	 * locks operations relative to process in the critical section
+	 * returns and forgets the processes whose permission is not held by this process, because the access has been granted
+	 * to them since they last granted it to this process. If there is none, all the permissions are held and
+	 * the critical section is acquired. If any process has been requested, the permissions held are valid for the mode of the request.
+	 * As the requests are processed without locks, a request can be granted concurrently with the acquisition. In that case,
+	 * the acquisition is undone, the deferred requests are evaluated again against the requested state, and the processes
+	 * granted meanwhile are returned.
 	 * 
 	 * @version 1.0
 	 * @author Hctor Snchez San Blas
 	 * @author Francisco Pinto Santos
+	 * 
+	 * @return the ids of the processes to request again, empty if the critical section has been acquired
 	 */
-	public void lock() {
-		try {
-			this.lock.acquire();
-		} catch (InterruptedException e) {
-			e.printStackTrace();
+	public Set<Integer> acquireOrDrainReplied() {
+		while(true) {
+			Set<Integer> pending = this.drainReplied();
+			if(!pending.isEmpty()) {
+				this.requesting = true;
+				return pending;
+			}
+			long requested = this.word.get();
+			long acquired = CritialSectionProcessState.pack(CriticalSectionState.ACQUIRED, CritialSectionProcessState.mode(requested), CritialSectionProcessState.timeStamp(requested));
+			this.word.compareAndSet(requested, acquired);
+			if(this.repliedTo.isEmpty()) {
+				this.counter.update();
+				if(this.requesting) {
+					this.permissionsMode = CritialSectionProcessState.mode(requested);
+				}
+				return pending;
+			}
+			// a request has been granted while acquiring: undo the acquisition and grant the deferred requests with priority
+			this.word.compareAndSet(acquired, requested);
+			this.queue.grantIf(r -> this.permitEnter(requested, r.getSender(), r.getTimeStamp(), r.getMode()));
 		}
 	}
 	
 	/** 
-	 * unlocks operations relative to process in the critical section
+	 * sets the critical section's state as free, and grants all the deferred requests.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 */
+	public void release() {
+		long word = this.word.get();
+		// publish the new state before draining the queue, so requests deferred concurrently notice the change
+		this.word.set(CritialSectionProcessState.pack(CriticalSectionState.FREE, CritialSectionProcessState.mode(word), CritialSectionProcessState.timeStamp(word)));
+		this.queue.deactivateAndRelease();
+	}
+	
+	/** 
+	 * checks if the permissions held by the process are valid to acquire the critical section in the given mode, without 
+	 * requesting all processes: the permissions obtained in exclusive mode are valid for both modes, and the permissions 
+	 * obtained in shared mode only for the shared mode.
 	 * 
 	 * @version 1.0
 	 * @author Hctor Snchez San Blas
 	 * @author Francisco Pinto Santos
+	 * 
+	 * @param mode the mode in which the critical section is requested
+	 * 
+	 * @return true if the permissions held are valid for the mode
+	 */
+	public boolean holdsPermissions(CriticalSectionMode mode) {
+		CriticalSectionMode held = this.permissionsMode;
+		return held == CriticalSectionMode.EXCLUSIVE || (held == CriticalSectionMode.SHARED && mode == CriticalSectionMode.SHARED);
+	}
+	
+	/** 
+	 * checks if the process is requesting the access to a sender in the current acquire, so the access granted to the sender
+	 * doesn't lose its permission.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param word the packed word with the process's state
+	 * @param senderId the process's id of the request's sender
+	 * 
+	 * @return true if the sender's grant to the current acquire is awaited
+	 */
+	private boolean isAwaited(long word, int senderId) {
+		return CritialSectionProcessState.state(word) == CriticalSectionState.REQUESTED && (this.requestingAll || this.awaited.contains(senderId));
+	}
+	
+	/** 
+	 * returns and forgets the processes to which the access has been granted, which are awaited from now on.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @return the ids of the processes to which the access has been granted
+	 */
+	private Set<Integer> drainReplied() {
+		Set<Integer> replied = new HashSet<>(this.repliedTo);
+		// await them before forgetting them, so a grant given meanwhile is registered or awaited
+		this.awaited.addAll(replied);
+		this.repliedTo.removeAll(replied);
+		return replied;
+	}
+	
+	/** 
+	 * packs the critical section's state, the request mode and the request timestamp into a single word.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param state the critical section's state
+	 * @param mode the request mode
+	 * @param timeStamp the request timestamp
+	 * 
+	 * @return the packed word
 	 */
-	public void unlock() {
-		this.lock.release();
+	private static long pack(CriticalSectionState state, CriticalSectionMode mode, long timeStamp) {
+		return (timeStamp << (STATE_BITS + MODE_BITS)) | (mode.ordinal() << STATE_BITS) | state.ordinal();
 	}
 	
+	private static CriticalSectionState state(long word) {
+		return CriticalSectionState.values()[(int) (word & ((1 << STATE_BITS) - 1))];
+	}
+	
+	private static CriticalSectionMode mode(long word) {
+		return CriticalSectionMode.values()[(int) ((word >>> STATE_BITS) & ((1 << MODE_BITS) - 1))];
+	}
+	
+	private static long timeStamp(long word) {
+		return word >>> (STATE_BITS + MODE_BITS);
+	}
+	
+	public int getId() {
+		return id;
+	}
+
 	public LamportCounter getCounter() {
 		return counter;
 	}
@@ -125,21 +328,22 @@ public class CritialSectionProcessState {
 		this.counter = counter;
 	}
 	public CriticalSectionState getState() {
-		return state;
+		return CritialSectionProcessState.state(this.word.get());
 	}
-	public void setState(CriticalSectionState state) {
-		this.state = state;
+
+	public CriticalSectionMode getMode() {
+		return CritialSectionProcessState.mode(this.word.get());
 	}
 
 	public long getLastTimeStamp() {
-		return lastTimeStamp;
+		return CritialSectionProcessState.timeStamp(this.word.get());
 	}
 
 	public CriticalSectionQueue getQueue() {
 		return queue;
 	}
 
-	public void setQueue(CriticalSectionQueue queue) {
-		this.queue = queue;
+	public CriticalSectionMode getPermissionsMode() {
+		return permissionsMode;
 	}	
 }
@@ -0,0 +1,19 @@
+package com.ssdd.cs.bean;
+
+/** 
+ * possible modes to request the critical section.
+ * 
+ * @version 1.0
+ * @author Hctor Snchez San Blas
+ * @author Francisco Pinto Santos
+*/
+public enum CriticalSectionMode {
+	/**
+	 * the critical section can be held at the same time by other nodes in shared mode (readers)
+	 * */
+	SHARED, 
+	/**
+	 * the critical section can only be held by the node (writers)
+	 * */
+	EXCLUSIVE
+}
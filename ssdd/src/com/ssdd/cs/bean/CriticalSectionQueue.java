@@ -1,91 +1,130 @@
 package com.ssdd.cs.bean;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.concurrent.Semaphore;
-import java.util.logging.Level;
-import java.util.logging.Logger;
-
-import com.ssdd.util.logging.SSDDLogFactory;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Predicate;
 
 /** 
- * manages the critical section queue in a synchronized way.
+ * manages the critical section queue in a lock-free way. The deferred requests are stored as
+ * {@link com.ssdd.cs.bean.DeferredReply} records in a multi-producer {@link java.util.concurrent.ConcurrentLinkedQueue}.
  * 
  * @version 1.0
  * @author Hctor Snchez San Blas
  * @author Francisco Pinto Santos
  */
 public class CriticalSectionQueue {
-
-	/**
-	 * Class logger generated with {@link com.ssdd.util.logging.SSDDLogFactory#logger(Class)}
-	 * */
-    private final static Logger LOGGER = SSDDLogFactory.logger(CriticalSectionQueue.class);
  
 	/**
      * flag that indicates that the queuing is allowed
      * */
-	private boolean queueingAllowed;
+	private volatile boolean queueingAllowed;
 	/**
-     * queue of semaphores where the threads are waiting
+     * queue of the deferred requests, waiting for the critical section to be released
      * */
-	private List<Semaphore> waitingProcesses;
+	private Queue<DeferredReply> deferredReplies;
+	/**
+     * set where the sender of every granted reply is registered
+     * */
+	private Set<Integer> grantedSenders;
 	
-	public CriticalSectionQueue(){
+	public CriticalSectionQueue(Set<Integer> grantedSenders){
 		this.queueingAllowed = false;
-		this.waitingProcesses = new ArrayList<>();
+		this.deferredReplies = new ConcurrentLinkedQueue<>();
+		this.grantedSenders = grantedSenders;
 	}
 	
 	/** 
-	 * enables the queuing, allowing processes to wait in the critical section in the {@link #waitInQueue()} method.
+	 * enables the queuing, allowing requests to be deferred in the {@link #defer(DeferredReply)} method.
 	 * 
 	 * @version 1.0
 	 * @author Hctor Snchez San Blass
 	 * @author Francisco Pinto Santos
 	 */
-	public synchronized void activate(){
+	public void activate(){
 		this.queueingAllowed = true;
 	}
 
 	/** 
-	 * disables the queuing, forbidding processes to wait in the critical section in the {@link #waitInQueue()} method.
-	 * Also releases all processes waiting in {@link #waitInQueue()}, making a release over every  {@link java.util.concurrent.Semaphore},
-	 * and cleans the {@link #waitingProcesses} list.
+	 * disables the queuing, forbidding processes to wait in the critical section. Then grants all the deferred 
+	 * requests, draining the {@link #deferredReplies} queue in one pass, and registers their senders in {@link #grantedSenders}.
+	 * The replies sent through the same {@link com.ssdd.cs.bean.GrantChannel} are coalesced in a single message.
 	 * 
 	 * @version 1.0
 	 * @author Hctor Snchez San Blas
 	 * @author Francisco Pinto Santos
 	 */
-	public synchronized void deactivateAndRelease(){
-		this.waitingProcesses.forEach(s -> s.release());
-		this.waitingProcesses.clear();
+	public void deactivateAndRelease(){
 		this.queueingAllowed = false;
+		DeferredGrants grants = new DeferredGrants();
+		DeferredReply reply;
+		while((reply = this.deferredReplies.poll()) != null) {
+			this.grantedSenders.add(reply.getSender());
+			reply.grant(grants);
+		}
+		grants.deliver();
 	}	
 	
 	/** 
-	 * synchronously checks if the queuing is allowed. In that case instances a  {@link java.util.concurrent.Semaphore} with 0
-	 * permits and pushes it into the {@link #waitingProcesses} list. Then goes out the synchronized code fragment and waits for the semaphore.
-	 * In the case that is not allowed, the semaphore is not instanced, and in the not synchronized part of the method, is not waited for.
+	 * pushes the reply into the queue if the queuing is allowed, and grants it otherwise. 
+	 * As the queue is drained in {@link #deactivateAndRelease()} after disabling the queuing, the flag is checked again
+	 * after the push: if the queuing has been disabled meanwhile, the reply is taken back and granted, unless
+	 * the drain has already taken it. The calling thread is never blocked.
 	 * 
 	 * @version 1.0
 	 * @author Hctor Snchez San Blas
 	 * @author Francisco Pinto Santos
+	 * 
+	 * @param reply the reply to defer
+	 * 
+	 * @return true if the reply remains deferred and false if it has been granted
 	 */
-	
-	public void waitInQueue(){
-		Semaphore s = null;
-		synchronized(this){
-			if(queueingAllowed){
-				s = new Semaphore(0);
-				this.waitingProcesses.add(s);
+	public boolean defer(DeferredReply reply) {
+		if(this.queueingAllowed) {
+			this.deferredReplies.offer(reply);
+			if(this.queueingAllowed || !this.deferredReplies.remove(reply)) {
+				return true;
 			}
 		}
-		if(null != s){
-			try {
-				s.acquire();
-			} catch (InterruptedException e) {
-				LOGGER.log(Level.WARNING, String.format("error waiting in queue"), e);
+		this.grantedSenders.add(reply.getSender());
+		reply.grant();
+		return false;
+	}
+	
+	/** 
+	 * takes back a deferred reply from the queue without granting it.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param reply the deferred reply
+	 * 
+	 * @return true if the reply has been taken back and false if it has been already granted
+	 */
+	public boolean withdraw(DeferredReply reply) {
+		return this.deferredReplies.remove(reply);
+	}
+	
+	/** 
+	 * grants the deferred replies that satisfy the given condition, registering their senders in {@link #grantedSenders}.
+	 * The rest of the replies remain deferred. As in {@link #deactivateAndRelease()}, the replies sent through the same channel
+	 * are coalesced.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param condition the condition to grant a deferred reply
+	 */
+	public void grantIf(Predicate<DeferredReply> condition) {
+		DeferredGrants grants = new DeferredGrants();
+		for(DeferredReply reply : this.deferredReplies) {
+			if(condition.test(reply) && this.deferredReplies.remove(reply)) {
+				this.grantedSenders.add(reply.getSender());
+				reply.grant(grants);
 			}
 		}
+		grants.deliver();
 	}
 }
@@ -0,0 +1,165 @@
+package com.ssdd.cs.bean;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.core.Response;
+
+/** 
+ * completion of a group of requests to the critical section sent in the same message, one for each target process. 
+ * Counts the requests not yet granted, and delivers the reply once all of them have been granted: resuming a suspended 
+ * {@link javax.ws.rs.container.AsyncResponse}, running a callback, unparking the thread parked in {@link #await()} or 
+ * through a {@link com.ssdd.cs.bean.GrantChannel}, where it can be coalesced with the replies of other groups.
+ * The suspended response can be replaced with {@link #retarget(AsyncResponse)} when the client retries the same group of 
+ * requests, so the requests aren't queued twice.
+ * 
+ * @version 1.0
+ * @author Hctor Snchez San Blas
+ * @author Francisco Pinto Santos
+ */
+public final class DeferredBatch {
+
+	/**
+     * number of requests of the group not yet granted
+     * */
+	private final AtomicInteger remaining;
+	/**
+     * suspended response to resume when all the requests are granted, null if the reply is waited with {@link #await()}
+     * */
+	private volatile AsyncResponse response;
+	/**
+     * callback to run when all the requests are granted, null if there isn't any
+     * */
+	private final Runnable callback;
+	/**
+     * thread waiting in {@link #await()}, null if the reply is delivered through the {@link #response} or the {@link #callback}
+     * */
+	private final Thread waiter;
+	/**
+     * channel through which the reply is delivered, null if it isn't delivered through a channel
+     * */
+	private final GrantChannel channel;
+	/**
+     * id of the group of requests in the {@link #channel}
+     * */
+	private final int id;
+	
+	public DeferredBatch(int size, AsyncResponse response) {
+		this(size, response, null);
+	}
+
+	public DeferredBatch(int size, AsyncResponse response, Runnable callback) {
+		this.remaining = new AtomicInteger(size);
+		this.response = response;
+		this.callback = callback;
+		this.waiter = null;
+		this.channel = null;
+		this.id = 0;
+	}
+
+	public DeferredBatch(int size, Runnable callback) {
+		this(size, null, callback);
+	}
+
+	public DeferredBatch(int size, GrantChannel channel, int id) {
+		this.remaining = new AtomicInteger(size);
+		this.response = null;
+		this.callback = null;
+		this.waiter = null;
+		this.channel = channel;
+		this.id = id;
+	}
+
+	public DeferredBatch(int size) {
+		this.remaining = new AtomicInteger(size);
+		this.response = null;
+		this.callback = null;
+		this.waiter = Thread.currentThread();
+		this.channel = null;
+		this.id = 0;
+	}
+	
+	/** 
+	 * grants one of the requests of the group. When the last one is granted, resumes the suspended response and runs the 
+	 * callback, or unparks the waiting thread, or sends the reply through the channel.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 */
+	public void grant() {
+		this.grant(null);
+	}
+	
+	/** 
+	 * grants one of the requests of the group, as {@link #grant()}. If the reply is delivered through a channel, it is added 
+	 * to the given replies instead of being sent, to be sent together with the other replies of the same channel.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param grants the replies granted together, null to send the reply immediately
+	 */
+	public void grant(DeferredGrants grants) {
+		if(this.remaining.decrementAndGet() == 0) {
+			if(null != this.channel) {
+				if(null != grants) {
+					grants.add(this.channel, this.id);
+				}else {
+					this.channel.granted(new int [] {this.id});
+				}
+				return;
+			}
+			AsyncResponse response = this.response;
+			if(null != response) {
+				response.resume(Response.noContent().build());
+			}
+			if(null != this.callback) {
+				this.callback.run();
+			}else if(null == response) {
+				LockSupport.unpark(this.waiter);
+			}
+		}
+	}
+	
+	/** 
+	 * replaces the suspended response of the group with the response of a retry of the same requests. The previous response 
+	 * is cancelled, as its client has given up on it. If all the requests have already been granted, the new response is 
+	 * resumed immediately.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param response the suspended response of the retry
+	 */
+	public void retarget(AsyncResponse response) {
+		AsyncResponse previous = this.response;
+		this.response = response;
+		if(null != previous) {
+			previous.cancel();
+		}
+		if(this.isGranted()) {
+			response.resume(Response.noContent().build());
+		}
+	}
+	
+	/** 
+	 * parks the thread who built the group until all the requests are granted with {@link #grant()}.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 */
+	public void await() {
+		while(this.remaining.get() > 0) {
+			LockSupport.park(this);
+		}
+	}
+	
+	public boolean isGranted() {
+		return this.remaining.get() <= 0;
+	}
+}
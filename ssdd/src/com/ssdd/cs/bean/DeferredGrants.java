@@ -0,0 +1,54 @@
+package com.ssdd.cs.bean;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/** 
+ * replies of the deferred requests granted together, as when the critical section is released. The replies delivered 
+ * through a {@link com.ssdd.cs.bean.GrantChannel} are grouped by channel, and sent in {@link #deliver()} with one message 
+ * per channel, so the messages sent scale with the number of hosts instead of the number of waiting processes. 
+ * Is used by a single thread.
+ * 
+ * @version 1.0
+ * @author Hctor Snchez San Blas
+ * @author Francisco Pinto Santos
+ */
+public final class DeferredGrants {
+
+	/**
+     * ids of the granted requests, grouped by the channel of their replies
+     * */
+	private final Map<GrantChannel, List<Integer>> grants;
+	
+	public DeferredGrants() {
+		this.grants = new IdentityHashMap<>();
+	}
+	
+	/** 
+	 * adds the reply of a granted request, to be delivered with the other replies of its channel.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param channel the channel of the reply
+	 * @param id the id of the request in the channel
+	 */
+	public void add(GrantChannel channel, int id) {
+		this.grants.computeIfAbsent(channel, c -> new ArrayList<>()).add(id);
+	}
+	
+	/** 
+	 * delivers the added replies, with one message per channel.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 */
+	public void deliver() {
+		this.grants.forEach((channel, ids) -> channel.granted(ids.stream().mapToInt(Integer::intValue).toArray()));
+		this.grants.clear();
+	}
+}
@@ -0,0 +1,105 @@
+package com.ssdd.cs.bean;
+
+import javax.ws.rs.container.AsyncResponse;
+
+/** 
+ * compact record of a request to the critical section whose reply has been deferred. 
+ * Stores the sender, the timestamp and the mode of the request, and the {@link com.ssdd.cs.bean.DeferredBatch} 
+ * to deliver the reply once the request is granted: a request sent alone is a group of one request.
+ * 
+ * @version 1.0
+ * @author Hctor Snchez San Blas
+ * @author Francisco Pinto Santos
+ */
+public final class DeferredReply {
+
+	/**
+     * the id of the process who sent the request
+     * */
+	private final int sender;
+	/**
+     * the Lamport counter value of the sender at the moment of the build of request
+     * */
+	private final long timeStamp;
+	/**
+     * the mode in which the critical section is requested
+     * */
+	private final CriticalSectionMode mode;
+	/**
+     * the group of requests sent in the same message, through which the reply is delivered
+     * */
+	private final DeferredBatch batch;
+	/**
+     * flag that indicates that the request has been granted
+     * */
+	private volatile boolean granted;
+	
+	public DeferredReply(int sender, long timeStamp, CriticalSectionMode mode, DeferredBatch batch) {
+		this.sender = sender;
+		this.timeStamp = timeStamp;
+		this.mode = mode;
+		this.batch = batch;
+		this.granted = false;
+	}
+	
+	public DeferredReply(int sender, long timeStamp, CriticalSectionMode mode, AsyncResponse response) {
+		this(sender, timeStamp, mode, new DeferredBatch(1, response));
+	}
+
+	public DeferredReply(int sender, long timeStamp, CriticalSectionMode mode) {
+		this(sender, timeStamp, mode, new DeferredBatch(1));
+	}
+	
+	/** 
+	 * grants the deferred request, delivering the reply through its {@link com.ssdd.cs.bean.DeferredBatch}.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 */
+	public void grant() {
+		this.grant(null);
+	}
+	
+	/** 
+	 * grants the deferred request, adding the reply to the given replies granted together if it is delivered through a 
+	 * {@link com.ssdd.cs.bean.GrantChannel}, see {@link com.ssdd.cs.bean.DeferredBatch#grant(DeferredGrants)}.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param grants the replies granted together, null to deliver the reply immediately
+	 */
+	public void grant(DeferredGrants grants) {
+		this.granted = true;
+		this.batch.grant(grants);
+	}
+	
+	/** 
+	 * parks the thread who built the record until the request is granted with {@link #grant()}.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 */
+	public void await() {
+		this.batch.await();
+	}
+
+	public int getSender() {
+		return sender;
+	}
+
+	public long getTimeStamp() {
+		return timeStamp;
+	}
+
+	public CriticalSectionMode getMode() {
+		return mode;
+	}
+
+	public boolean isGranted() {
+		return granted;
+	}
+}
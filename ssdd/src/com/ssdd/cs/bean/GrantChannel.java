@@ -0,0 +1,25 @@
+package com.ssdd.cs.bean;
+
+/** 
+ * persistent channel through which the replies of many deferred requests are delivered, as the connection shared by all 
+ * the processes of a host. Each request is identified in the channel by an id, so the requests granted together can be 
+ * answered with a single message, see {@link com.ssdd.cs.bean.DeferredGrants}.
+ * 
+ * @version 1.0
+ * @author Hctor Snchez San Blas
+ * @author Francisco Pinto Santos
+ */
+@FunctionalInterface
+public interface GrantChannel {
+
+	/** 
+	 * delivers the replies of a group of granted requests in a single message.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param ids the ids of the granted requests in the channel
+	 */
+	void granted(int [] ids);
+}
@@ -1,7 +1,9 @@
 package com.ssdd.cs.bean;
 
+import java.util.concurrent.atomic.AtomicLong;
+
 /** 
- * Represents a Lamport clock.
+ * Represents a Lamport clock. The updates are atomic, so the clock can be shared between threads without locks.
  * 
  * @version 1.0
  * @author Hctor Snchez San Blas
@@ -12,16 +14,16 @@ public class LamportCounter {
 	/** 
 	 * The internal counter for the clock
 	 */
-	private long counter;
+	private AtomicLong counter;
 	
 	public LamportCounter() {
 		super();
-		this.counter = 0;
+		this.counter = new AtomicLong(0);
 	}
 
 	public LamportCounter(long counter) {
 		super();
-		this.counter = counter;
+		this.counter = new AtomicLong(counter);
 	}
 
 	/** 
@@ -32,7 +34,7 @@ public class LamportCounter {
 	 * @author Francisco Pinto Santos
 	 */
 	public void update() {
-		this.counter++;
+		this.counter.incrementAndGet();
 	}
 
 	/** 
@@ -46,15 +48,15 @@ public class LamportCounter {
 	 * @param otherCounter the value of other Lamport time counter
 	 */
 	public void update(long otherCounter) {
-		this.counter = ((this.counter > otherCounter) ? this.counter : otherCounter) + 1;
+		this.counter.accumulateAndGet(otherCounter, (current, other) -> ((current > other) ? current : other) + 1);
 	}
 	
 	public long getCounter() {
-		return counter;
+		return counter.get();
 	}
 
 	public void setCounter(long counter) {
-		this.counter = counter;
+		this.counter.set(counter);
 	}
 
 }
@@ -0,0 +1,131 @@
+package com.ssdd.cs.bean;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/** 
+ * mailbox of a process in the Maekawa's algorithm: stores the messages sent to the process, in arrival order, until the
+ * process receives them.
+ * 
+ * @version 1.0
+ * @author Hctor Snchez San Blas
+ * @author Francisco Pinto Santos
+ */
+public class MaekawaMailbox {
+
+	/**
+     * messages not yet received by the process
+     * */
+	private List<MaekawaMessage> messages;
+	/**
+     * receiver waiting for messages, null if the process isn't waiting
+     * */
+	private Consumer<List<MaekawaMessage>> receiver;
+	/**
+     * lock to serialize the operations over the mailbox
+     * */
+	private ReentrantLock lock;
+	
+	public MaekawaMailbox() {
+		this.messages = new ArrayList<>();
+		this.receiver = null;
+		this.lock = new ReentrantLock();
+	}
+	
+	/** 
+	 * stores a message in the mailbox. If the process is waiting for messages, the message is delivered to it.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param message the message
+	 */
+	public void post(MaekawaMessage message) {
+		Consumer<List<MaekawaMessage>> receiver = null;
+		List<MaekawaMessage> messages = null;
+		this.lock.lock();
+		try {
+			this.messages.add(message);
+			if(this.receiver != null) {
+				receiver = this.receiver;
+				messages = this.drain();
+			}
+		}finally {
+			this.lock.unlock();
+		}
+		if(receiver != null) {
+			receiver.accept(messages);
+		}
+	}
+	
+	/** 
+	 * receives the messages of the mailbox, without blocking the calling thread. If there are messages, they are delivered immediately.
+	 * Otherwise, they are delivered when the next message is posted, or when the wait is cancelled with {@link #cancel(Consumer)}.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param receiver the receiver of the messages
+	 */
+	public void receive(Consumer<List<MaekawaMessage>> receiver) {
+		List<MaekawaMessage> messages = null;
+		this.lock.lock();
+		try {
+			if(this.messages.isEmpty()) {
+				this.receiver = receiver;
+			}else {
+				messages = this.drain();
+			}
+		}finally {
+			this.lock.unlock();
+		}
+		if(messages != null) {
+			receiver.accept(messages);
+		}
+	}
+	
+	/** 
+	 * cancels the wait of a receiver, delivering it an empty list of messages.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param receiver the waiting receiver
+	 */
+	public void cancel(Consumer<List<MaekawaMessage>> receiver) {
+		boolean cancelled = false;
+		this.lock.lock();
+		try {
+			if(this.receiver == receiver) {
+				this.receiver = null;
+				cancelled = true;
+			}
+		}finally {
+			this.lock.unlock();
+		}
+		if(cancelled) {
+			receiver.accept(new ArrayList<>());
+		}
+	}
+	
+	/** 
+	 * takes all the messages of the mailbox, and forgets the waiting receiver.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @return the messages, in arrival order
+	 */
+	private List<MaekawaMessage> drain() {
+		List<MaekawaMessage> messages = this.messages;
+		this.messages = new ArrayList<>();
+		this.receiver = null;
+		return messages;
+	}
+}
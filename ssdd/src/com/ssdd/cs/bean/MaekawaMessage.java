@@ -0,0 +1,70 @@
+package com.ssdd.cs.bean;
+
+/** 
+ * message of the Maekawa's algorithm, exchanged between the processes through their mailboxes.
+ * 
+ * @version 1.0
+ * @author Hctor Snchez San Blas
+ * @author Francisco Pinto Santos
+ */
+public class MaekawaMessage {
+
+	/**
+     * the type of the message
+     * */
+	private MaekawaMessageType type;
+	/**
+     * the name of the resource's critical section
+     * */
+	private String resource;
+	/**
+     * the id of the process who sent the message
+     * */
+	private int sender;
+	/**
+     * the Lamport counter value of the sender when the message was sent. In a {@link com.ssdd.cs.bean.MaekawaMessageType#REQUEST}, 
+     * the request's priority together with the sender's id
+     * */
+	private long timeStamp;
+	
+	public MaekawaMessage(MaekawaMessageType type, String resource, int sender, long timeStamp) {
+		this.type = type;
+		this.resource = resource;
+		this.sender = sender;
+		this.timeStamp = timeStamp;
+	}
+	
+	/** 
+	 * compares the priority of two requests: the lowest timestamp has the highest priority, and the ties are broken with the sender's id.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param other the other request
+	 * 
+	 * @return true if this request has higher priority than the other
+	 */
+	public boolean before(MaekawaMessage other) {
+		if(this.timeStamp == other.timeStamp) {
+			return this.sender < other.sender;
+		}
+		return this.timeStamp < other.timeStamp;
+	}
+
+	public MaekawaMessageType getType() {
+		return type;
+	}
+
+	public String getResource() {
+		return resource;
+	}
+
+	public int getSender() {
+		return sender;
+	}
+
+	public long getTimeStamp() {
+		return timeStamp;
+	}
+}
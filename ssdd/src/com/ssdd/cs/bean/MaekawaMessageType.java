@@ -0,0 +1,35 @@
+package com.ssdd.cs.bean;
+
+/** 
+ * types of the messages of the Maekawa's algorithm.
+ * 
+ * @version 1.0
+ * @author Hctor Snchez San Blas
+ * @author Francisco Pinto Santos
+ */
+public enum MaekawaMessageType {
+	/**
+	 * a process requests the lock of a member of its quorum
+	 * */
+	REQUEST,
+	/**
+	 * the lock is granted to a process
+	 * */
+	LOCKED,
+	/**
+	 * the lock can't be granted to a process, because a request with higher priority is waiting or holds it
+	 * */
+	FAILED,
+	/**
+	 * a request with higher priority asks the lock's holder if it can give it back
+	 * */
+	INQUIRE,
+	/**
+	 * the lock's holder gives it back, to be granted to the request with higher priority
+	 * */
+	RELINQUISH,
+	/**
+	 * the lock's holder releases it after leaving the critical section
+	 * */
+	RELEASE;
+}
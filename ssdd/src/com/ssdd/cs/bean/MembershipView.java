@@ -0,0 +1,43 @@
+package com.ssdd.cs.bean;
+
+/**
+ * view of the processes subscribed to a service, from a given slot. Each change of the subscribed processes increases the
+ * service's membership version, so a client that already knows a version only needs to fetch the slots it doesn't know.
+ *
+ * @version 1.0
+ * @author Hctor Snchez San Blas
+ * @author Francisco Pinto Santos
+ */
+public class MembershipView {
+
+	/**
+     * the service's membership version when the view was taken
+     * */
+	private long version;
+	/**
+     * the slot of the first process of the view
+     * */
+	private int from;
+	/**
+     * the ids of the subscribed processes, from the slot {@link #from}. -1 in the slots not yet filled
+     * */
+	private int [] processes;
+
+	public MembershipView(long version, int from, int [] processes) {
+		this.version = version;
+		this.from = from;
+		this.processes = processes;
+	}
+
+	public long getVersion() {
+		return version;
+	}
+
+	public int getFrom() {
+		return from;
+	}
+
+	public int[] getProcesses() {
+		return processes;
+	}
+}
@@ -0,0 +1,229 @@
+package com.ssdd.cs.bean;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.ssdd.util.logging.SSDDLogFactory;
+
+/** 
+ * stores all the relative information to a process's in the Suzuki and Kasami's algorithm context in the server side. 
+ * The operations are serialized with a lock, as the token's transfer depends on the whole state.
+ * 
+ * @version 1.0
+ * @author Hctor Snchez San Blas
+ * @author Francisco Pinto Santos
+ */
+public class SuzukiKasamiProcessState {
+	
+	/**
+	 * Class logger generated with {@link com.ssdd.util.logging.SSDDLogFactory#logger(Class)}
+	 * */
+	private final static Logger LOGGER = SSDDLogFactory.logger(SuzukiKasamiProcessState.class);
+	
+	/**
+     * value returned by {@link #setRequested()} when the process already holds the token, so no message is needed
+     * */
+	public static final long TOKEN_HELD = -1;
+	
+	/**
+     * the process's id
+     * */
+	private int id;
+	/**
+     * highest request number received from each process, associated to the process's id
+     * */
+	private Map<Integer, Long> requests;
+	/**
+     * the token, null if it isn't held by the process
+     * */
+	private SuzukiKasamiToken token;
+	/**
+     * critical section's state in the process's context
+     * */
+	private CriticalSectionState state;
+	/**
+     * reply of the process waiting for the token, null if the process isn't waiting
+     * */
+	private DeferredBatch waiter;
+	/**
+     * lock to serialize the operations over the state
+     * */
+	private ReentrantLock lock;
+	
+	public SuzukiKasamiProcessState(int id, boolean tokenHolder) {
+		this.id = id;
+		this.requests = new HashMap<>();
+		this.token = (tokenHolder) ? new SuzukiKasamiToken(id) : null;
+		this.state = CriticalSectionState.FREE;
+		this.waiter = null;
+		this.lock = new ReentrantLock();
+	}
+	
+	/** 
+	 * sets the critical section's state as requested. If the process holds the token, the critical section is acquired directly.
+	 * Otherwise the process's request number is incremented, to be broadcast to all processes.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @return the process's request number, or {@link #TOKEN_HELD} if the critical section has been acquired
+	 */
+	public long setRequested() {
+		this.lock.lock();
+		try {
+			if(this.token != null) {
+				this.state = CriticalSectionState.ACQUIRED;
+				return TOKEN_HELD;
+			}
+			long requestNumber = this.getRequest(this.id) + 1;
+			this.requests.put(this.id, requestNumber);
+			this.state = CriticalSectionState.REQUESTED;
+			return requestNumber;
+		}finally {
+			this.lock.unlock();
+		}
+	}
+	
+	/** 
+	 * processes a request from other process. If the process holds the token without using it and the request is outstanding, 
+	 * the token is given up to the sender.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param sender the id of the process who sent the request
+	 * @param requestNumber the request number of the sender
+	 * 
+	 * @return the token, or null if it isn't given up
+	 */
+	public SuzukiKasamiToken request(int sender, long requestNumber) {
+		this.lock.lock();
+		try {
+			long highest = Math.max(this.getRequest(sender), requestNumber);
+			this.requests.put(sender, highest);
+			if(this.token != null && this.state == CriticalSectionState.FREE && highest == this.token.getLastRequest(sender) + 1) {
+				return this.giveUpToken(sender);
+			}
+			return null;
+		}finally {
+			this.lock.unlock();
+		}
+	}
+	
+	/** 
+	 * receives the token. If the process is waiting for it, the critical section is acquired and the waiting reply is delivered.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param token the received token
+	 */
+	public void deliverToken(SuzukiKasamiToken token) {
+		this.lock.lock();
+		try {
+			this.token = token;
+			if(this.waiter != null) {
+				this.state = CriticalSectionState.ACQUIRED;
+				this.waiter.grant();
+				this.waiter = null;
+			}
+		}finally {
+			this.lock.unlock();
+		}
+	}
+	
+	/** 
+	 * waits for the token without blocking the calling thread. If the token is held, the critical section is acquired and
+	 * the reply is delivered immediately. Otherwise it is delivered in {@link #deliverToken(SuzukiKasamiToken)}.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param waiter the reply to deliver when the token is held
+	 */
+	public void awaitToken(DeferredBatch waiter) {
+		this.lock.lock();
+		try {
+			if(this.token != null) {
+				this.state = CriticalSectionState.ACQUIRED;
+				waiter.grant();
+			}else {
+				this.waiter = waiter;
+			}
+		}finally {
+			this.lock.unlock();
+		}
+	}
+	
+	/** 
+	 * sets the critical section's state as free, marks the process's request as satisfied, and appends to the token's queue 
+	 * the processes with an outstanding request. If the queue is not empty, the token is given up to its first process.
+	 * A release of a process which doesn't hold the critical section (a retried or duplicated release, after the token has 
+	 * been given up) is ignored.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @return the token to send to its next holder, or null if it's kept by the process or the release is ignored
+	 */
+	public SuzukiKasamiToken release() {
+		this.lock.lock();
+		try {
+			if(this.token == null || this.state != CriticalSectionState.ACQUIRED) {
+				LOGGER.log(Level.WARNING, String.format("[process: %d] release ignored: the critical section isn't held", this.id));
+				return null;
+			}
+			this.state = CriticalSectionState.FREE;
+			this.token.setLastRequest(this.id, this.getRequest(this.id));
+			this.requests.forEach((process, requestNumber) -> {
+				if(!this.token.getQueue().contains(process) && requestNumber == this.token.getLastRequest(process) + 1) {
+					this.token.getQueue().add(process);
+				}
+			});
+			if(this.token.getQueue().isEmpty()) {
+				return null;
+			}
+			return this.giveUpToken(this.token.getQueue().remove(0));
+		}finally {
+			this.lock.unlock();
+		}
+	}
+	
+	/** 
+	 * gives up the token to other process.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param holder the id of the next holder
+	 * 
+	 * @return the token
+	 */
+	private SuzukiKasamiToken giveUpToken(int holder) {
+		SuzukiKasamiToken token = this.token;
+		token.setHolder(holder);
+		this.token = null;
+		return token;
+	}
+	
+	private long getRequest(int process) {
+		return this.requests.getOrDefault(process, 0L);
+	}
+
+	public int getId() {
+		return id;
+	}
+
+	public CriticalSectionState getState() {
+		return state;
+	}
+}
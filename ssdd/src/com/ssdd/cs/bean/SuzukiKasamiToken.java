@@ -0,0 +1,67 @@
+package com.ssdd.cs.bean;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/** 
+ * the privilege of the Suzuki and Kasami's algorithm: only the process who holds the token can access the critical section.
+ * Stores the request number of the last request satisfied for each process, and the queue of processes waiting for the token.
+ * 
+ * @version 1.0
+ * @author Hctor Snchez San Blas
+ * @author Francisco Pinto Santos
+ */
+public class SuzukiKasamiToken {
+
+	/**
+     * the id of the process to which the token is sent
+     * */
+	private int holder;
+	/**
+     * request number of the last request satisfied for each process, associated to the process's id
+     * */
+	private Map<Integer, Long> lastRequests;
+	/**
+     * ids of the processes waiting for the token, in the order they will receive it
+     * */
+	private List<Integer> queue;
+	
+	public SuzukiKasamiToken(int holder) {
+		this.holder = holder;
+		this.lastRequests = new HashMap<>();
+		this.queue = new ArrayList<>();
+	}
+	
+	/** 
+	 * returns the request number of the last request satisfied for a process.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param process the process's id
+	 * 
+	 * @return the request number, 0 if no request has been satisfied
+	 */
+	public long getLastRequest(int process) {
+		return this.lastRequests.getOrDefault(process, 0L);
+	}
+	
+	public void setLastRequest(int process, long requestNumber) {
+		this.lastRequests.put(process, requestNumber);
+	}
+
+	public int getHolder() {
+		return holder;
+	}
+
+	public void setHolder(int holder) {
+		this.holder = holder;
+	}
+
+	public List<Integer> getQueue() {
+		return queue;
+	}
+}
@@ -2,14 +2,17 @@ package com.ssdd.cs.client;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import com.ssdd.cs.bean.CriticalSectionMode;
+import com.ssdd.cs.client.algorithm.MutualExclusionAlgorithm;
+import com.ssdd.cs.client.algorithm.MutualExclusionAlgorithmType;
 import com.ssdd.cs.client.senders.CritialSectionFinishedConcurrentSender;
 import com.ssdd.cs.client.senders.CritialSectionReadyConcurrentSender;
-import com.ssdd.cs.client.senders.CriticalSectionRequestConcurrentSender;
 import com.ssdd.cs.service.CriticalSectionService;
-import com.ssdd.cs.service.ProcessNotFoundException;
 import com.ssdd.util.constants.IConstants;
 import com.ssdd.util.logging.SSDDLogFactory;
 
@@ -31,6 +34,14 @@ public class CriticalSectionClient {
 	 * client's process id
 	 * */
 	private String ID;
+	/**
+	 * client's process id as a number, used by the services to break the ties between requests' timestamps
+	 * */
+	private int numericID;
+	/**
+	 * slot assigned to the client's process in its associated service, at the subscription
+	 * */
+	private int slot;
 	/**
 	 * the other processes's trying to access critical section, ids
 	 * */
@@ -39,12 +50,31 @@ public class CriticalSectionClient {
 	 * router to access other processes
 	 * */
 	private CriticalSectionRouter router;
+	/**
+	 * algorithm to acquire and release the critical sections
+	 * */
+	private MutualExclusionAlgorithm algorithm;
+	/**
+	 * plan to send messages to the other processes, built when all of them are ready
+	 * */
+	private volatile CriticalSectionFanOutPlan plan;
+	/**
+	 * lock to build the {@link #plan} once. Building it may refresh the router through the network, so a monitor would pin
+	 * the carrier of a virtual thread
+	 * */
+	private final ReentrantLock planLock = new ReentrantLock();
 	
 	public CriticalSectionClient(String ID, CriticalSectionService selectedService, String [] processes, CriticalSectionService [] services) {
+		this(ID, selectedService, processes, services, MutualExclusionAlgorithmType.RICART_AGRAWALA);
+	}
+	
+	public CriticalSectionClient(String ID, CriticalSectionService selectedService, String [] processes, CriticalSectionService [] services, MutualExclusionAlgorithmType algorithm) {
 		this.ID = ID;
+		this.numericID = Integer.parseInt(ID);
 		this.router = new CriticalSectionRouter(processes, services);
 		this.router.update(ID, selectedService);
 		this.processes = this.buildProcessArray(processes);
+		this.algorithm = algorithm.build(this);
 	}
 	
 	/** 
@@ -69,7 +99,7 @@ public class CriticalSectionClient {
 	}
 
 	/** 
-	 * Subscribes this client to a service
+	 * Subscribes this client to a service, stores the slot assigned to the client's process and initializes the algorithm
 	 * 
 	 * @version 1.0
 	 * @author Hctor Snchez San Blas
@@ -78,7 +108,28 @@ public class CriticalSectionClient {
 	public void suscribe() {
 		CriticalSectionService myService = this.router.route(this.ID);
 		LOGGER.log(Level.INFO, String.format("suscribing to %s", myService.toString()));
-		myService.suscribe(this.ID);
+		this.suscribe(myService.suscribe(this.numericID));
+	}
+	
+	/** 
+	 * stores the slot assigned to the client's process when it has been subscribed together with other processes, 
+	 * with {@link com.ssdd.cs.service.CriticalSectionService#suscribeRange(int, int)}, and initializes the algorithm
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param slot the slot assigned to the client's process in its associated service
+	*/
+	public void suscribe(int slot) {
+		CriticalSectionService myService = this.router.route(this.ID);
+		this.slot = slot;
+		if(this.slot < 0) {
+			LOGGER.log(Level.WARNING, String.format("suscribe: no free slot in %s", myService.toString()));
+			System.exit(IConstants.EXIT_CODE_SIMULATION_ERROR);
+		}
+		this.router.update(this.ID, myService, this.slot);
+		this.algorithm.init();
 		LOGGER.log(Level.INFO, String.format("suscribed to %s", myService.toString()));
 	}
 	
@@ -95,11 +146,12 @@ public class CriticalSectionClient {
 		List<Runnable>tasks = multicastSender.buildCommunicationTasks(this.router.getServices());
 		multicastSender.multicastSend(tasks);
 		multicastSender.await();
+		this.buildPlan();
 		LOGGER.log(Level.INFO, "ready end");
 	}
 	
 	/** 
-	 * indicates the services that the current process has finished and waits until all processes has finished
+	 * indicates the services that the current process has finished, waits until all processes has finished and stops the algorithm
 	 * 
 	 * @version 1.0
 	 * @author Hctor Snchez San Blas
@@ -111,61 +163,183 @@ public class CriticalSectionClient {
 		List<Runnable>tasks = multicastSender.buildCommunicationTasks(this.router.getServices());
 		multicastSender.multicastSend(tasks);
 		multicastSender.await();
+		this.algorithm.finish();
 		LOGGER.log(Level.INFO, "finished end");
 	}
 	
 	/** 
-	 * acquires the critical section with the Ricart and Argawala's algorithm.
+	 * acquires the default resource's critical section. See {@link #acquire(String)}
 	 * 
 	 * @version 1.0
 	 * @author Hctor Snchez San Blas
 	 * @author Francisco Pinto Santos
 	*/
 	public void acquire() {
-		LOGGER.log(Level.INFO, "acquire");
-		try {
-			// get my associated service to send messages
-			CriticalSectionService myservice = this.router.route(this.ID);
-
-			// set requested in associated service adn retrieve the message timestamp
-			long messageTimeStamp = myservice.setRequested(this.ID);
-			
-			// send requests
-			LOGGER.log(Level.INFO, String.format("requesting access with %d", messageTimeStamp));
-			CriticalSectionRequestConcurrentSender multicastSender = new CriticalSectionRequestConcurrentSender();
-			List<Runnable>tasks = multicastSender.buildCommunicationTasks(this.ID, this.processes, router, messageTimeStamp);
-			multicastSender.multicastSend(tasks);
-		
-			// wait for responses
-			multicastSender.await();
-			
-			// notify the associated service that critical section is acquired (because all responses has arrived)
-			myservice.setAcquired(this.ID);
-			
-		} catch (ProcessNotFoundException e) {
-			LOGGER.log(Level.WARNING, String.format("acquire: error %s", e.getMessage()), e);
-			System.exit(IConstants.EXIT_CODE_SIMULATION_ERROR);
-		}
+		this.acquire(IConstants.DEFAULT_RESOURCE);
+	}
+	
+	/** 
+	 * acquires a resource's critical section in exclusive mode. See {@link #acquire(String, CriticalSectionMode)}
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param resource the name of the resource's critical section
+	*/
+	public void acquire(String resource) {
+		this.acquire(resource, CriticalSectionMode.EXCLUSIVE);
+	}
+	
+	/** 
+	 * acquires a resource's critical section with the client's {@link com.ssdd.cs.client.algorithm.MutualExclusionAlgorithm}.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param resource the name of the resource's critical section
+	 * @param mode the mode in which the critical section is requested
+	*/
+	public void acquire(String resource, CriticalSectionMode mode) {
+		LOGGER.log(Level.INFO, String.format("acquire %s %s", resource, mode));
+		this.algorithm.acquire(resource, mode);
+	}
+	
+	/** 
+	 * acquires the default resource's critical section without blocking the calling thread. See {@link #acquireAsync(String)}
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @return the handle to release the critical section, completed when the access is permitted
+	*/
+	public CompletableFuture<LockHandle> acquireAsync() {
+		return this.acquireAsync(IConstants.DEFAULT_RESOURCE);
+	}
+	
+	/** 
+	 * acquires a resource's critical section in exclusive mode without blocking the calling thread. See {@link #acquireAsync(String, CriticalSectionMode)}
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param resource the name of the resource's critical section
+	 * 
+	 * @return the handle to release the critical section, completed when the access is permitted
+	*/
+	public CompletableFuture<LockHandle> acquireAsync(String resource) {
+		return this.acquireAsync(resource, CriticalSectionMode.EXCLUSIVE);
+	}
+	
+	/** 
+	 * acquires a resource's critical section with the client's {@link com.ssdd.cs.client.algorithm.MutualExclusionAlgorithm}, 
+	 * without blocking the calling thread, so a few threads can wait for many critical sections at the same time. The result 
+	 * may be completed in a thread of the transport, so the actions chained to it must not block.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param resource the name of the resource's critical section
+	 * @param mode the mode in which the critical section is requested
+	 * 
+	 * @return the handle to release the critical section, completed when the access is permitted
+	*/
+	public CompletableFuture<LockHandle> acquireAsync(String resource, CriticalSectionMode mode) {
+		LOGGER.log(Level.INFO, String.format("acquire async %s %s", resource, mode));
+		return this.algorithm.acquireAsync(resource, mode).thenApply(acquired -> new LockHandle(this, resource, mode));
 	}
 	
 	/** 
-	 *  releases the critical section with the Ricart and Argawala's algorithm.
+	 *  releases the default resource's critical section. See {@link #release(String)}
 	 * 
 	 * @version 1.0
 	 * @author Hctor Snchez San Blas
 	 * @author Francisco Pinto Santos
 	*/
 	public void release() {
-		LOGGER.log(Level.INFO, "release");
+		this.release(IConstants.DEFAULT_RESOURCE);
+	}
+	
+	/** 
+	 *  releases a resource's critical section with the client's {@link com.ssdd.cs.client.algorithm.MutualExclusionAlgorithm}.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param resource the name of the resource's critical section
+	*/
+	public void release(String resource) {
+		LOGGER.log(Level.INFO, String.format("release %s", resource));
+		this.algorithm.release(resource);
+	}
+	
+	/** 
+	 *  releases a resource's critical section with the client's {@link com.ssdd.cs.client.algorithm.MutualExclusionAlgorithm}, 
+	 *  without blocking the calling thread.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param resource the name of the resource's critical section
+	 * 
+	 * @return completed when the critical section has been released
+	*/
+	public CompletableFuture<Void> releaseAsync(String resource) {
+		LOGGER.log(Level.INFO, String.format("release async %s", resource));
+		return this.algorithm.releaseAsync(resource);
+	}
+
+	/** 
+	 * builds the plan to send messages to the other processes, if it isn't built yet. Is called once all the processes are ready, 
+	 * so all of them are subscribed and can be routed.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @return the plan to send messages to the other processes
+	*/
+	private CriticalSectionFanOutPlan buildPlan() {
+		this.planLock.lock();
 		try {
-			// get my associated service to send messages
-			CriticalSectionService myservice = this.router.route(this.ID);
-			// release the critical section
-			myservice.release(this.ID);
-		} catch (ProcessNotFoundException e) {
-			LOGGER.log(Level.WARNING, String.format("release: error %s", e.getMessage()), e);
-			System.exit(IConstants.EXIT_CODE_SIMULATION_ERROR);
+			if(this.plan == null) {
+				this.plan = new CriticalSectionFanOutPlan(this.ID, this.processes, this.router);
+			}
+			return this.plan;
+		}finally {
+			this.planLock.unlock();
 		}
 	}
+
+	public String getID() {
+		return ID;
+	}
+
+	public int getNumericID() {
+		return numericID;
+	}
+
+	public int getSlot() {
+		return slot;
+	}
+
+	public List<String> getProcesses() {
+		return processes;
+	}
+
+	public CriticalSectionRouter getRouter() {
+		return router;
+	}
+	
+	public CriticalSectionFanOutPlan getPlan() {
+		CriticalSectionFanOutPlan plan = this.plan;
+		return (plan != null) ? plan : this.buildPlan();
+	}
 	
 }
@@ -0,0 +1,183 @@
+package com.ssdd.cs.client;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.ssdd.cs.service.CriticalSectionService;
+
+/**
+ * immutable plan to send messages from a client to all the other processes, built once when all of them are subscribed.
+ * The receivers are grouped by their associated service, with the service and their slots already resolved, so the
+ * messages can be sent without routing each receiver again.
+ *
+ * @version 1.0
+ * @author Hctor Snchez San Blas
+ * @author Francisco Pinto Santos
+ */
+public final class CriticalSectionFanOutPlan {
+
+	/**
+	 * the client's associated service
+	 * */
+	private final CriticalSectionService service;
+	/**
+	 * the services of the groups of receivers
+	 * */
+	private final CriticalSectionService [] services;
+	/**
+	 * the slots of the receivers of each group in its service
+	 * */
+	private final List<List<Integer>> slots;
+	/**
+	 * the ids of the receivers of each group, in the same order than {@link #slots}
+	 * */
+	private final int [][] receivers;
+	/**
+	 * the ids of all the receivers, sorted to be searched
+	 * */
+	private final int [] ids;
+	/**
+	 * the group of each receiver, in the same order than {@link #ids}
+	 * */
+	private final int [] groups;
+	/**
+	 * the slot of each receiver, in the same order than {@link #ids}
+	 * */
+	private final int [] idSlots;
+
+	public CriticalSectionFanOutPlan(String processId, List<String> processes, CriticalSectionRouter router) {
+		this.service = router.route(processId);
+
+		// group the receivers by service
+		Map<CriticalSectionService, List<String>> groups = new LinkedHashMap<>();
+		processes.forEach(process -> groups.computeIfAbsent(router.route(process), s -> new ArrayList<>()).add(process));
+
+		this.services = new CriticalSectionService [groups.size()];
+		this.receivers = new int [groups.size()][];
+		List<List<Integer>> slots = new ArrayList<>();
+		int group = 0;
+		for(Map.Entry<CriticalSectionService, List<String>> entry : groups.entrySet()) {
+			List<Integer> groupSlots = new ArrayList<>();
+			this.services[group] = entry.getKey();
+			this.receivers[group] = new int [entry.getValue().size()];
+			for(int i=0; i<this.receivers[group].length; i++) {
+				String process = entry.getValue().get(i);
+				this.receivers[group][i] = Integer.parseInt(process);
+				groupSlots.add(router.slot(process));
+			}
+			slots.add(Collections.unmodifiableList(groupSlots));
+			group++;
+		}
+		this.slots = Collections.unmodifiableList(slots);
+
+		// index the receivers by id
+		this.ids = processes.stream().mapToInt(Integer::parseInt).sorted().toArray();
+		this.groups = new int [this.ids.length];
+		this.idSlots = new int [this.ids.length];
+		for(group=0; group<this.receivers.length; group++) {
+			for(int i=0; i<this.receivers[group].length; i++) {
+				int position = Arrays.binarySearch(this.ids, this.receivers[group][i]);
+				this.groups[position] = group;
+				this.idSlots[position] = this.slots.get(group).get(i);
+			}
+		}
+	}
+
+	/**
+	 * groups a subset of the receivers by service, with the same groups than {@link #getSlots()}.
+	 *
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 *
+	 * @param processes the ids of the receivers
+	 *
+	 * @return the slots of the given receivers in each group, empty for the groups without any of them
+	 */
+	public List<List<Integer>> slotsOf(int [] processes) {
+		List<List<Integer>> slots = new ArrayList<>(this.services.length);
+		for(int group=0; group<this.services.length; group++) {
+			slots.add(new ArrayList<>());
+		}
+		for(int process : processes) {
+			int position = this.position(process);
+			slots.get(this.groups[position]).add(this.idSlots[position]);
+		}
+		return slots;
+	}
+
+	/**
+	 * given a receiver, provides its associated service.
+	 *
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 *
+	 * @param process the receiver's id
+	 *
+	 * @return the receiver's associated service
+	 */
+	public CriticalSectionService route(int process) {
+		return this.services[this.groups[this.position(process)]];
+	}
+
+	/**
+	 * given a receiver, provides its slot in its associated service.
+	 *
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 *
+	 * @param process the receiver's id
+	 *
+	 * @return the receiver's slot
+	 */
+	public int slot(int process) {
+		return this.idSlots[this.position(process)];
+	}
+
+	/**
+	 * searches the position of a receiver in {@link #ids}.
+	 *
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 *
+	 * @param process the receiver's id
+	 *
+	 * @return the receiver's position
+	 *
+	 * @throws IllegalArgumentException when the process is not a receiver of the plan
+	 */
+	private int position(int process) {
+		int position = Arrays.binarySearch(this.ids, process);
+		if(position < 0) {
+			throw new IllegalArgumentException(String.format("process %d is not a receiver", process));
+		}
+		return position;
+	}
+
+	public CriticalSectionService getService() {
+		return service;
+	}
+
+	public int getGroups() {
+		return services.length;
+	}
+
+	public CriticalSectionService getService(int group) {
+		return services[group];
+	}
+
+	public List<List<Integer>> getSlots() {
+		return slots;
+	}
+
+	public int [] getReceivers(int group) {
+		return receivers[group];
+	}
+}
@@ -2,18 +2,23 @@ package com.ssdd.cs.client;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
 
+import com.ssdd.cs.bean.MembershipView;
+import com.ssdd.cs.client.senders.CriticalSectionMembershipConcurrentSender;
 import com.ssdd.cs.service.CriticalSectionService;
-import com.ssdd.cs.service.CriticalSectionServiceProxy;
 
 /** 
- * Provides access to a process by it's associated service.
+ * Provides access to a process by it's associated service, and the slot assigned to the process in it.
  * If the process is not found, the class will request all available services
  * for the subscribed processes, to know which service is the one associated with
- * the requested process.
+ * the requested process. Each service is only requested for the processes subscribed since the last request, 
+ * see {@link com.ssdd.cs.service.CriticalSectionService#membership(long, int)}.
  * 
  * @version 1.0
  * @author Hctor Snchez San Blas
@@ -26,17 +31,48 @@ public class CriticalSectionRouter {
 	 * */
 	private List<CriticalSectionService> services;
 	/**
-	 * Cached association between process and service
+	 * Cached association between process and service, shared by the client's threads
 	 * */
 	private Map<String, CriticalSectionService> router;
+	/**
+	 * Cached association between process and the slot assigned to it in its service
+	 * */
+	private Map<String, Integer> slots;
+	/**
+	 * membership version of each service known by the router
+	 * */
+	private Map<CriticalSectionService, Long> versions;
+	/**
+	 * number of consecutive slots of each service known by the router, from the first one. The next requests to the
+	 * service only ask for the slots from this one
+	 * */
+	private Map<CriticalSectionService, Integer> known;
+	/**
+	 * lock to perform a single update when several threads don't find a process at the same time
+	 * */
+	private ReentrantLock updateLock;
+	/**
+	 * number of updates performed, to know if an update has been performed while waiting for the {@link #updateLock}
+	 * */
+	private volatile long updates;
 
 	public CriticalSectionRouter() {
-		this.router = new HashMap<>();
+		this.router = Collections.synchronizedMap(new HashMap<>());
+		this.slots = Collections.synchronizedMap(new HashMap<>());
+		this.versions = new ConcurrentHashMap<>();
+		this.known = new ConcurrentHashMap<>();
+		this.updateLock = new ReentrantLock();
+		this.updates = 0;
 		this.services = new ArrayList<>();
 	}
 	
 	public CriticalSectionRouter(String [] processes, CriticalSectionService [] services) {
-		this.router = new HashMap<>();
+		this.router = Collections.synchronizedMap(new HashMap<>());
+		this.slots = Collections.synchronizedMap(new HashMap<>());
+		this.versions = new ConcurrentHashMap<>();
+		this.known = new ConcurrentHashMap<>();
+		this.updateLock = new ReentrantLock();
+		this.updates = 0;
 		this.services = Arrays.asList(services);
 		// store the processes as keys on the map
 		for(String process : processes)
@@ -65,6 +101,27 @@ public class CriticalSectionRouter {
 		return this.router.get(processId);
 	}
 	
+	/** 
+	 * given a process, provides the slot assigned to it in its associated service.
+	 * If the process is not found, it will request all available services
+	 * for the subscribed processes, as in {@link #route(String)}.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param processId the requested process's id
+	 * 
+	 * @return the process's slot in its associated {@link com.ssdd.cs.service.CriticalSectionService}
+	*/
+	public int slot(String processId) {
+		// if the requested process is not registered in router, update it
+		if(this.slots.get(processId) == null) {
+			this.updateAll();
+		}
+		return this.slots.get(processId);
+	}
+	
 	/** 
 	 * updates the local association information with a new association between a process and a service.
 	 * 
@@ -80,22 +137,76 @@ public class CriticalSectionRouter {
 	}
 	
 	/** 
-	 * requests all services for all subscribed processes, and updates the local association information.
+	 * updates the local association information with a new association between a process, a service and 
+	 * the slot assigned to the process in it.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param processId a process's id
+	 * @param service the process's associated service
+	 * @param slot the process's slot in the associated service
+	*/
+	public void update(String processId, CriticalSectionService service, int slot) {
+		this.router.put(processId, service);
+		this.slots.put(processId, slot);
+	}
+	
+	/** 
+	 * requests all services in a concurrent way for the processes subscribed since the last request, and updates the local 
+	 * association information. If other thread is already updating, waits for it and doesn't request the services again.
 	 * 
 	 * @version 1.0
 	 * @author Hctor Snchez San Blas
 	 * @author Francisco Pinto Santos
 	*/
 	public void updateAll() {
-		this.services.forEach(service -> 
-			{
-				String response = service.suscribed();
-				String [] processes = CriticalSectionServiceProxy.parseSuscribedResponse(response);
-				for(String process : processes) {
-					this.update(process, service);
-				}
+		long updates = this.updates;
+		this.updateLock.lock();
+		try {
+			// other thread has updated while waiting for the lock
+			if(updates != this.updates) {
+				return;
 			}
-		);
+			CriticalSectionMembershipConcurrentSender multicastSender = new CriticalSectionMembershipConcurrentSender();
+			List<Runnable> tasks = multicastSender.buildCommunicationTasks(this);
+			multicastSender.multicastSend(tasks);
+			multicastSender.await();
+			this.updates++;
+		}finally {
+			this.updateLock.unlock();
+		}
+	}
+	
+	/** 
+	 * requests a service for the processes subscribed since the last request, and updates the local association information.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param service the service to request
+	*/
+	public void refresh(CriticalSectionService service) {
+		MembershipView view = service.membership(this.versions.getOrDefault(service, -1L), this.known.getOrDefault(service, 0));
+		if(view == null) {
+			return;
+		}
+		int [] processes = view.getProcesses();
+		// the position of each process in the view, plus the view's first slot, is its slot
+		for(int i=0; i<processes.length; i++) {
+			if(processes[i] >= 0) {
+				this.update(String.valueOf(processes[i]), service, view.getFrom() + i);
+			}
+		}
+		// advance the known slots until the first one not yet filled
+		int known = view.getFrom();
+		while(known - view.getFrom() < processes.length && processes[known - view.getFrom()] >= 0) {
+			known++;
+		}
+		this.known.put(service, known);
+		this.versions.put(service, view.getVersion());
 	}
 
 	public List<String> getProcesses(){
@@ -0,0 +1,285 @@
+package com.ssdd.cs.client;
+
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.ssdd.cs.bean.CriticalSectionMode;
+import com.ssdd.cs.client.algorithm.MutualExclusionAlgorithmType;
+import com.ssdd.cs.service.CriticalSectionService;
+import com.ssdd.util.constants.IConstants;
+import com.ssdd.util.logging.SSDDLogFactory;
+
+/**
+ * Client for the {@link com.ssdd.cs.service.CriticalSectionService} service, shared by all the processes of a host, that
+ * arbitrates the access to the critical section in two levels: the host's processes wait first their turn in a local 
+ * FIFO queue, and only the local winner takes part in the Ricart and Argawala's algorithm among hosts. While there are local 
+ * processes waiting, the critical section is handed off to them without releasing it to other hosts, up to
+ * {@link com.ssdd.util.constants.IConstants#HIERARCHICAL_MAX_LOCAL_HANDOFFS} consecutive times. The turns aren't owned by
+ * threads, so the blocking and the asynchronous acquires of the local processes share the same queue, and a critical 
+ * section acquired asynchronously can be released from any thread.
+ * 
+ * @version 1.0
+ * @author Hctor Snchez San Blas
+ * @author Francisco Pinto Santos
+ * */
+public class HierarchicalCriticalSectionClient extends CriticalSectionClient{
+
+	/**
+	 * Class logger generated with {@link com.ssdd.util.logging.SSDDLogFactory#logger(Class)}
+	 * */
+	private final static Logger LOGGER = SSDDLogFactory.logger(HierarchicalCriticalSectionClient.class);
+	
+	/**
+	 * local arbitration of each resource's critical section among the host's processes
+	 * */
+	private Map<String, LocalArbiter> arbiters;
+	
+	public HierarchicalCriticalSectionClient(String ID, CriticalSectionService selectedService, String [] processes, CriticalSectionService [] services) {
+		this(ID, selectedService, processes, services, MutualExclusionAlgorithmType.RICART_AGRAWALA);
+	}
+	
+	public HierarchicalCriticalSectionClient(String ID, CriticalSectionService selectedService, String [] processes, CriticalSectionService [] services, MutualExclusionAlgorithmType algorithm) {
+		super(ID, selectedService, processes, services, algorithm);
+		this.arbiters = new ConcurrentHashMap<>();
+	}
+
+	/** 
+	 * acquires a resource's critical section. The calling process waits its turn in the local queue, and then
+	 * acquires the critical section among hosts with {@link com.ssdd.cs.client.CriticalSectionClient#acquire(String, CriticalSectionMode)}, 
+	 * unless the host still holds it from a local handoff. As the local turns are exclusive, the processes of a host enter the critical section
+	 * one by one also in shared mode.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param resource the name of the resource's critical section
+	 * @param mode the mode in which the critical section is requested
+	*/
+	@Override
+	public void acquire(String resource, CriticalSectionMode mode) {
+		LocalArbiter arbiter = this.arbiters.computeIfAbsent(resource, r -> new LocalArbiter());
+		arbiter.enter().join();
+		try {
+			// a critical section held in other mode is released, to be requested again in the new one
+			if(arbiter.held && arbiter.mode != mode) {
+				arbiter.held = false;
+				super.release(resource);
+			}
+			if(arbiter.held) {
+				LOGGER.log(Level.INFO, String.format("acquire %s %s: local handoff %d", resource, mode, arbiter.handoffs));
+			}else {
+				super.acquire(resource, mode);
+				arbiter.held = true;
+				arbiter.mode = mode;
+				arbiter.handoffs = 0;
+			}
+		} catch (RuntimeException e) {
+			arbiter.leave();
+			throw e;
+		}
+	}
+
+	/** 
+	 * acquires a resource's critical section as {@link #acquire(String, CriticalSectionMode)}, without blocking the calling 
+	 * thread: the turn in the local queue and the critical section among hosts are waited asynchronously, with
+	 * {@link com.ssdd.cs.client.CriticalSectionClient#acquireAsync(String, CriticalSectionMode)}. If the acquire fails, the turn 
+	 * is given to the next local process.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param resource the name of the resource's critical section
+	 * @param mode the mode in which the critical section is requested
+	 * 
+	 * @return the handle to release the critical section, completed when the access is permitted
+	*/
+	@Override
+	public CompletableFuture<LockHandle> acquireAsync(String resource, CriticalSectionMode mode) {
+		LocalArbiter arbiter = this.arbiters.computeIfAbsent(resource, r -> new LocalArbiter());
+		CompletableFuture<LockHandle> acquired = new CompletableFuture<>();
+		arbiter.enter().thenCompose(turn -> {
+			// a critical section held in other mode is released, to be requested again in the new one
+			CompletableFuture<Void> released = CompletableFuture.completedFuture(null);
+			if(arbiter.held && arbiter.mode != mode) {
+				arbiter.held = false;
+				released = super.releaseAsync(resource);
+			}
+			return released.thenCompose(r -> {
+				if(arbiter.held) {
+					LOGGER.log(Level.INFO, String.format("acquire %s %s: local handoff %d", resource, mode, arbiter.handoffs));
+					return CompletableFuture.completedFuture(null);
+				}
+				return super.acquireAsync(resource, mode).thenRun(() -> {
+					arbiter.held = true;
+					arbiter.mode = mode;
+					arbiter.handoffs = 0;
+				});
+			});
+		}).whenComplete((result, error) -> {
+			if(null == error) {
+				acquired.complete(new LockHandle(this, resource, mode));
+			}else {
+				arbiter.leave();
+				acquired.completeExceptionally(error);
+			}
+		});
+		return acquired;
+	}
+
+	/** 
+	 * releases a resource's critical section. If there are local processes waiting and the limit of consecutive local 
+	 * handoffs is not reached, the critical section is kept by the host for the next local process. Otherwise it is released
+	 * with {@link com.ssdd.cs.client.CriticalSectionClient#release(String)}.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param resource the name of the resource's critical section
+	*/
+	@Override
+	public void release(String resource) {
+		LocalArbiter arbiter = this.arbiters.get(resource);
+		try {
+			if(arbiter.isWaited() && arbiter.handoffs < IConstants.HIERARCHICAL_MAX_LOCAL_HANDOFFS) {
+				arbiter.handoffs++;
+			}else {
+				arbiter.held = false;
+				super.release(resource);
+			}
+		}finally {
+			arbiter.leave();
+		}
+	}
+
+	/** 
+	 * releases a resource's critical section as {@link #release(String)}, without blocking the calling thread. The turn is 
+	 * given to the next local process once the critical section has been released among hosts, or immediately in a local handoff.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param resource the name of the resource's critical section
+	 * 
+	 * @return completed when the critical section has been released
+	*/
+	@Override
+	public CompletableFuture<Void> releaseAsync(String resource) {
+		LocalArbiter arbiter = this.arbiters.get(resource);
+		if(arbiter.isWaited() && arbiter.handoffs < IConstants.HIERARCHICAL_MAX_LOCAL_HANDOFFS) {
+			arbiter.handoffs++;
+			arbiter.leave();
+			return CompletableFuture.completedFuture(null);
+		}
+		arbiter.held = false;
+		return super.releaseAsync(resource).whenComplete((released, error) -> arbiter.leave());
+	}
+	
+	/**
+	 * local arbitration of a resource's critical section. The critical section's fields are only accessed by the owner of 
+	 * the current turn, and each turn is handed to the next one through the lock, so they don't need more synchronization.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * */
+	private static class LocalArbiter{
+		/**
+		 * lock to serialize the operations over the queue of turns
+		 * */
+		private final ReentrantLock lock = new ReentrantLock();
+		/**
+		 * the local processes waiting their turn, in arrival order
+		 * */
+		private final Queue<CompletableFuture<Void>> waiting = new ArrayDeque<>();
+		/**
+		 * flag that indicates that a local process has the turn
+		 * */
+		private boolean busy = false;
+		/**
+		 * flag that indicates that the host holds the critical section among hosts
+		 * */
+		private boolean held = false;
+		/**
+		 * the mode in which the host holds the critical section
+		 * */
+		private CriticalSectionMode mode = CriticalSectionMode.EXCLUSIVE;
+		/**
+		 * number of consecutive local handoffs since the critical section was acquired among hosts
+		 * */
+		private int handoffs = 0;
+		
+		/**
+		 * waits the turn of a local process, at the end of the queue.
+		 * 
+		 * @version 1.0
+		 * @author Hctor Snchez San Blas
+		 * @author Francisco Pinto Santos
+		 * 
+		 * @return completed when the process has the turn
+		 * */
+		private CompletableFuture<Void> enter() {
+			CompletableFuture<Void> turn = new CompletableFuture<>();
+			this.lock.lock();
+			try {
+				if(this.busy) {
+					this.waiting.add(turn);
+					return turn;
+				}
+				this.busy = true;
+			}finally {
+				this.lock.unlock();
+			}
+			turn.complete(null);
+			return turn;
+		}
+		
+		/**
+		 * ends the turn of the current process, giving it to the first waiting process.
+		 * 
+		 * @version 1.0
+		 * @author Hctor Snchez San Blas
+		 * @author Francisco Pinto Santos
+		 * */
+		private void leave() {
+			CompletableFuture<Void> next = null;
+			this.lock.lock();
+			try {
+				next = this.waiting.poll();
+				this.busy = (next != null);
+			}finally {
+				this.lock.unlock();
+			}
+			if(next != null) {
+				next.complete(null);
+			}
+		}
+		
+		/**
+		 * checks if there are local processes waiting their turn.
+		 * 
+		 * @version 1.0
+		 * @author Hctor Snchez San Blas
+		 * @author Francisco Pinto Santos
+		 * 
+		 * @return true if any local process is waiting
+		 * */
+		private boolean isWaited() {
+			this.lock.lock();
+			try {
+				return !this.waiting.isEmpty();
+			}finally {
+				this.lock.unlock();
+			}
+		}
+	}
+}
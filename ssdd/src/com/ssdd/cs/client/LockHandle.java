@@ -0,0 +1,71 @@
+package com.ssdd.cs.client;
+
+import java.util.concurrent.CompletableFuture;
+
+import com.ssdd.cs.bean.CriticalSectionMode;
+
+/**
+ * handle of a resource's critical section acquired with {@link com.ssdd.cs.client.CriticalSectionClient#acquireAsync(String, CriticalSectionMode)}, 
+ * to release it once it isn't needed anymore.
+ *
+ * @version 1.0
+ * @author Hctor Snchez San Blas
+ * @author Francisco Pinto Santos
+ */
+public final class LockHandle {
+
+	/**
+	 * the client which holds the critical section
+	 * */
+	private final CriticalSectionClient client;
+	/**
+	 * the name of the resource's critical section
+	 * */
+	private final String resource;
+	/**
+	 * the mode in which the critical section is held
+	 * */
+	private final CriticalSectionMode mode;
+
+	public LockHandle(CriticalSectionClient client, String resource, CriticalSectionMode mode) {
+		this.client = client;
+		this.resource = resource;
+		this.mode = mode;
+	}
+
+	/**
+	 * releases the critical section without blocking the calling thread. See {@link com.ssdd.cs.client.CriticalSectionClient#releaseAsync(String)}
+	 *
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 *
+	 * @return completed when the critical section has been released
+	 */
+	public CompletableFuture<Void> releaseAsync() {
+		return this.client.releaseAsync(this.resource);
+	}
+
+	/**
+	 * releases the critical section. See {@link com.ssdd.cs.client.CriticalSectionClient#release(String)}
+	 *
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 */
+	public void release() {
+		this.client.release(this.resource);
+	}
+
+	public CriticalSectionClient getClient() {
+		return client;
+	}
+
+	public String getResource() {
+		return resource;
+	}
+
+	public CriticalSectionMode getMode() {
+		return mode;
+	}
+}
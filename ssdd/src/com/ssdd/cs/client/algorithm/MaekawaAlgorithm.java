@@ -0,0 +1,235 @@
+package com.ssdd.cs.client.algorithm;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.google.gson.Gson;
+import com.ssdd.cs.bean.CriticalSectionMode;
+import com.ssdd.cs.bean.MaekawaMessage;
+import com.ssdd.cs.client.CriticalSectionClient;
+import com.ssdd.cs.client.CriticalSectionFanOutPlan;
+import com.ssdd.cs.service.CriticalSectionService;
+import com.ssdd.cs.service.CriticalSectionServiceProxy;
+import com.ssdd.cs.service.ProcessNotFoundException;
+import com.ssdd.util.concurrent.VirtualThreads;
+import com.ssdd.util.constants.IConstants;
+import com.ssdd.util.http.ServiceCallException;
+import com.ssdd.util.logging.SSDDLogFactory;
+
+/**
+ * Maekawa's quorum based algorithm. The processes are placed in a grid of ceil(sqrt(N)) columns, and the quorum of each process 
+ * is formed by the processes in its row and its column, so any two quorums intersect. Each access needs O(sqrt(N)) messages: 
+ * a REQUEST, a LOCKED and a RELEASE by process in the quorum, plus the INQUIRE, FAILED and RELINQUISH messages used to 
+ * avoid the deadlocks. The messages are exchanged through the services' mailboxes, and received by a dedicated thread until the 
+ * client has finished. 
+ * The locks are exclusive, so the critical section is acquired in exclusive mode also when it is requested in shared mode.
+ * 
+ * @version 1.0
+ * @author Hctor Snchez San Blas
+ * @author Francisco Pinto Santos
+ * */
+public class MaekawaAlgorithm implements MutualExclusionAlgorithm{
+
+	/**
+	 * Class logger generated with {@link com.ssdd.util.logging.SSDDLogFactory#logger(Class)}
+	 * */
+	private final static Logger LOGGER = SSDDLogFactory.logger(MaekawaAlgorithm.class);
+	
+	/**
+	 * the client who uses the algorithm
+	 * */
+	private CriticalSectionClient client;
+	/**
+	 * the client's process quorum, including the process itself
+	 * */
+	private List<Integer> quorum;
+	/**
+	 * the algorithm's state for each resource
+	 * */
+	private Map<String, MaekawaEngine> engines;
+	/**
+	 * flag that indicates that the messages are received, until the client has finished
+	 * */
+	private volatile boolean receiving;
+	/**
+	 * the thread which receives the messages
+	 * */
+	private Thread receiver;
+	
+	public MaekawaAlgorithm(CriticalSectionClient client) {
+		this.client = client;
+		this.engines = new ConcurrentHashMap<>();
+		this.receiving = false;
+	}
+	
+	/** 
+	 * builds the client's process quorum, and starts the thread which receives the messages from the client's associated service.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	*/
+	@Override
+	public void init() {
+		this.quorum = MaekawaAlgorithm.buildQuorum(this.client.getNumericID(), this.client.getProcesses());
+		LOGGER.log(Level.INFO, String.format("quorum %s", this.quorum));
+		this.receiving = true;
+		this.receiver = VirtualThreads.startDaemon(String.format("%s.maekawa", Thread.currentThread().getName()), this::receive);
+	}
+	
+	/** 
+	 * stops the thread which receives the messages. It's interrupted to stop waiting for messages, so it doesn't receive 
+	 * the messages of the process which takes the client's slot after a restart of the service.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	*/
+	@Override
+	public void finish() {
+		this.receiving = false;
+		if(this.receiver != null) {
+			this.receiver.interrupt();
+		}
+	}
+	
+	/** 
+	 * builds the quorum of a process: all processes' ids are sorted and placed in a grid of ceil(sqrt(N)) columns, and the 
+	 * quorum is formed by the processes in the same row and the same column than the given process. If the last row is incomplete 
+	 * and two processes' row and column don't cross, both processes are in the last row, so their quorums still intersect.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param id the process's id
+	 * @param others the other processes' ids
+	 * 
+	 * @return the ids of the processes in the quorum, including the given process
+	*/
+	public static List<Integer> buildQuorum(int id, List<String> others) {
+		List<Integer> processes = new ArrayList<>();
+		processes.add(id);
+		others.forEach(process -> processes.add(Integer.parseInt(process)));
+		Collections.sort(processes);
+		
+		int columns = (int) Math.ceil(Math.sqrt(processes.size()));
+		int position = processes.indexOf(id);
+		int row = position / columns;
+		int column = position % columns;
+		
+		List<Integer> quorum = new ArrayList<>();
+		for(int i=row*columns; i<Math.min((row+1)*columns, processes.size()); i++) {
+			quorum.add(processes.get(i));
+		}
+		for(int i=column; i<processes.size(); i+=columns) {
+			if(i / columns != row) {
+				quorum.add(processes.get(i));
+			}
+		}
+		return quorum;
+	}
+	
+	/** 
+	 * acquires a resource's critical section with the Maekawa's algorithm, blocking the calling thread until all the processes 
+	 * in the quorum are locked for the request.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param resource the name of the resource's critical section
+	 * @param mode the mode in which the critical section is requested
+	*/
+	@Override
+	public void acquire(String resource, CriticalSectionMode mode) {
+		this.engine(resource).acquire();
+	}
+	
+	/** 
+	 *  releases a resource's critical section with the Maekawa's algorithm, unlocking all the processes in the quorum.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param resource the name of the resource's critical section
+	*/
+	@Override
+	public void release(String resource) {
+		this.engine(resource).release();
+	}
+	
+	/** 
+	 * sends a message to a process. The messages to the client's process are handled directly, without accessing the service.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param receiver the id of the process who receives the message
+	 * @param message the message
+	*/
+	public void send(int receiver, MaekawaMessage message) {
+		if(receiver == this.client.getNumericID()) {
+			this.engine(message.getResource()).handle(message);
+			return;
+		}
+		try {
+			CriticalSectionFanOutPlan plan = this.client.getPlan();
+			plan.route(receiver).maekawaSend(plan.slot(receiver), new Gson().toJson(message));
+		} catch (ProcessNotFoundException e) {
+			LOGGER.log(Level.WARNING, String.format("send: error %s", e.getMessage()), e);
+			System.exit(IConstants.EXIT_CODE_SIMULATION_ERROR);
+		}
+	}
+	
+	/** 
+	 * receives the messages sent to the client's process, and dispatches them to their resource's engine, until the client 
+	 * has finished or the client's process isn't subscribed to its service anymore.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	*/
+	private void receive() {
+		try {
+			CriticalSectionService myservice = this.client.getRouter().route(this.client.getID());
+			while(this.receiving) {
+				String response = myservice.maekawaReceive(this.client.getSlot());
+				for(MaekawaMessage message : CriticalSectionServiceProxy.parseMaekawaResponse(response)) {
+					this.engine(message.getResource()).handle(message);
+				}
+			}
+		} catch (ProcessNotFoundException e) {
+			// the service has been restarted, so there is nothing left to receive
+			LOGGER.log(Level.WARNING, String.format("receive: stopped, %s", e.getMessage()));
+		} catch (ServiceCallException e) {
+			if(this.receiving) {
+				LOGGER.log(Level.WARNING, String.format("receive: error %s", e.getMessage()), e);
+				System.exit(IConstants.EXIT_CODE_HTTP_REQUEST_ERROR);
+			}
+		}
+		LOGGER.log(Level.INFO, "receive: end");
+	}
+	
+	/** 
+	 * provides the algorithm's state for a resource. If it doesn't exist, is created.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param resource the name of the resource's critical section
+	 * 
+	 * @return the resource's engine
+	*/
+	private MaekawaEngine engine(String resource) {
+		return this.engines.computeIfAbsent(resource, r -> new MaekawaEngine(this, r, this.client.getNumericID(), this.quorum));
+	}
+}
@@ -0,0 +1,375 @@
+package com.ssdd.cs.client.algorithm;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.ssdd.cs.bean.LamportCounter;
+import com.ssdd.cs.bean.MaekawaMessage;
+import com.ssdd.cs.bean.MaekawaMessageType;
+import com.ssdd.util.logging.SSDDLogFactory;
+
+/**
+ * state of the Maekawa's algorithm for a resource's critical section, in a process. Each process plays two roles: as requester 
+ * it collects the locks of all the processes in its quorum, and as arbiter it locks itself for one request at a time, 
+ * queueing the others by priority. The deadlocks between requests are solved with the INQUIRE, FAILED and RELINQUISH messages.
+ * 
+ * @version 1.0
+ * @author Hctor Snchez San Blas
+ * @author Francisco Pinto Santos
+ * */
+public class MaekawaEngine {
+
+	/**
+	 * Class logger generated with {@link com.ssdd.util.logging.SSDDLogFactory#logger(Class)}
+	 * */
+	private final static Logger LOGGER = SSDDLogFactory.logger(MaekawaEngine.class);
+	
+	/**
+	 * the algorithm who owns the engine, used to send the messages
+	 * */
+	private MaekawaAlgorithm algorithm;
+	/**
+	 * the name of the resource's critical section
+	 * */
+	private String resource;
+	/**
+	 * the process's id
+	 * */
+	private int id;
+	/**
+	 * the process's quorum, including the process itself
+	 * */
+	private List<Integer> quorum;
+	/**
+	 * the process's Lamport counter for the resource
+	 * */
+	private LamportCounter clock;
+	/**
+	 * lock to serialize the handling of the messages and the requests
+	 * */
+	private ReentrantLock lock;
+	/**
+	 * condition signaled when all the quorum's locks are granted
+	 * */
+	private Condition granted;
+	
+	/**
+	 * true if the process is requesting or holding the critical section
+	 * */
+	private boolean requesting;
+	/**
+	 * true if the process is holding the critical section
+	 * */
+	private boolean acquired;
+	/**
+	 * the current request of the process
+	 * */
+	private MaekawaMessage request;
+	/**
+	 * processes of the quorum locked for the current request
+	 * */
+	private Set<Integer> grants;
+	/**
+	 * true if a process of the quorum has answered the current request with a FAILED
+	 * */
+	private boolean failed;
+	/**
+	 * processes of the quorum that have inquired for the lock, and are waiting for a relinquish
+	 * */
+	private Set<Integer> inquiredBy;
+	
+	/**
+	 * the request for which the process is locked as arbiter, null if it isn't locked
+	 * */
+	private MaekawaMessage lockedFor;
+	/**
+	 * requests waiting for the lock, ordered by priority
+	 * */
+	private PriorityQueue<MaekawaMessage> waiting;
+	/**
+	 * true if an INQUIRE was sent for the current lock
+	 * */
+	private boolean inquired;
+	
+	public MaekawaEngine(MaekawaAlgorithm algorithm, String resource, int id, List<Integer> quorum) {
+		this.algorithm = algorithm;
+		this.resource = resource;
+		this.id = id;
+		this.quorum = quorum;
+		this.clock = new LamportCounter();
+		this.lock = new ReentrantLock();
+		this.granted = this.lock.newCondition();
+		this.requesting = false;
+		this.acquired = false;
+		this.grants = new HashSet<>();
+		this.inquiredBy = new HashSet<>();
+		this.lockedFor = null;
+		this.waiting = new PriorityQueue<>((a, b) -> a.before(b) ? -1 : (b.before(a) ? 1 : 0));
+		this.inquired = false;
+	}
+	
+	/** 
+	 * sends a REQUEST to all the processes in the quorum, and blocks the calling thread until all of them are locked for it.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	*/
+	public void acquire() {
+		this.lock.lock();
+		try {
+			this.clock.update();
+			this.request = new MaekawaMessage(MaekawaMessageType.REQUEST, this.resource, this.id, this.clock.getCounter());
+			this.requesting = true;
+			this.acquired = false;
+			this.grants.clear();
+			this.failed = false;
+			this.inquiredBy.clear();
+			LOGGER.log(Level.INFO, String.format("requesting %s to quorum %s with %d", this.resource, this.quorum, this.request.getTimeStamp()));
+			for(int receiver : this.quorum) {
+				this.algorithm.send(receiver, this.request);
+			}
+			while(this.grants.size() < this.quorum.size()) {
+				this.granted.awaitUninterruptibly();
+			}
+			this.acquired = true;
+		}finally {
+			this.lock.unlock();
+		}
+	}
+	
+	/** 
+	 * sends a RELEASE to all the processes in the quorum.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	*/
+	public void release() {
+		this.lock.lock();
+		try {
+			this.requesting = false;
+			this.acquired = false;
+			this.grants.clear();
+			this.clock.update();
+			MaekawaMessage release = new MaekawaMessage(MaekawaMessageType.RELEASE, this.resource, this.id, this.clock.getCounter());
+			for(int receiver : this.quorum) {
+				this.algorithm.send(receiver, release);
+			}
+		}finally {
+			this.lock.unlock();
+		}
+	}
+	
+	/** 
+	 * handles a message received from other process of the quorum, or from the process itself.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param message the received message
+	*/
+	public void handle(MaekawaMessage message) {
+		this.lock.lock();
+		try {
+			this.clock.update(message.getTimeStamp());
+			LOGGER.log(Level.INFO, String.format("%s %s from P%d", message.getType(), this.resource, message.getSender()));
+			switch(message.getType()) {
+				case REQUEST:
+					this.onRequest(message);
+					break;
+				case LOCKED:
+					this.onLocked(message);
+					break;
+				case FAILED:
+					this.onFailed(message);
+					break;
+				case INQUIRE:
+					this.onInquire(message);
+					break;
+				case RELINQUISH:
+					this.onRelinquish(message);
+					break;
+				case RELEASE:
+					this.onRelease(message);
+					break;
+			}
+		}finally {
+			this.lock.unlock();
+		}
+	}
+	
+	/** 
+	 * locks the process for the request if it isn't locked. Otherwise queues the request, and if it has the highest priority 
+	 * inquires the current lock's holder, and fails the previous highest request. If it hasn't, fails the request.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param request the received request
+	*/
+	private void onRequest(MaekawaMessage request) {
+		if(this.lockedFor == null) {
+			this.lockFor(request);
+			return;
+		}
+		MaekawaMessage head = this.waiting.peek();
+		boolean highest = request.before(this.lockedFor) && (head == null || request.before(head));
+		this.waiting.add(request);
+		if(highest) {
+			if(head != null) {
+				this.reply(MaekawaMessageType.FAILED, head.getSender());
+			}
+			if(!this.inquired) {
+				this.inquired = true;
+				this.reply(MaekawaMessageType.INQUIRE, this.lockedFor.getSender());
+			}
+		}else {
+			this.reply(MaekawaMessageType.FAILED, request.getSender());
+		}
+	}
+	
+	/** 
+	 * stores the lock, and wakes up the requester when all the quorum is locked.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param message the received LOCKED message
+	*/
+	private void onLocked(MaekawaMessage message) {
+		this.grants.add(message.getSender());
+		if(this.grants.size() == this.quorum.size()) {
+			this.granted.signalAll();
+		}
+	}
+	
+	/** 
+	 * marks the current request as failed, and relinquishes the locks of the processes which inquired for them.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param message the received FAILED message
+	*/
+	private void onFailed(MaekawaMessage message) {
+		if(!this.requesting || this.acquired) {
+			return;
+		}
+		this.failed = true;
+		for(int inquirer : new ArrayList<>(this.inquiredBy)) {
+			this.relinquish(inquirer);
+		}
+		this.inquiredBy.clear();
+	}
+	
+	/** 
+	 * relinquishes the inquirer's lock if the current request has failed. Otherwise, the inquiry is remembered until a 
+	 * FAILED message is received. If the critical section is already acquired, the inquiry is ignored, because the 
+	 * lock will be released on exit.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param message the received INQUIRE message
+	*/
+	private void onInquire(MaekawaMessage message) {
+		int inquirer = message.getSender();
+		if(!this.requesting || this.acquired || !this.grants.contains(inquirer)) {
+			return;
+		}
+		if(this.failed) {
+			this.relinquish(inquirer);
+		}else {
+			this.inquiredBy.add(inquirer);
+		}
+	}
+	
+	/** 
+	 * queues again the relinquished request, and locks the process for the highest priority request.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param message the received RELINQUISH message
+	*/
+	private void onRelinquish(MaekawaMessage message) {
+		this.waiting.add(this.lockedFor);
+		this.lockFor(this.waiting.poll());
+	}
+	
+	/** 
+	 * unlocks the process, and locks it for the highest priority request if any.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param message the received RELEASE message
+	*/
+	private void onRelease(MaekawaMessage message) {
+		this.lockedFor = null;
+		this.inquired = false;
+		MaekawaMessage next = this.waiting.poll();
+		if(next != null) {
+			this.lockFor(next);
+		}
+	}
+	
+	/** 
+	 * locks the process for a request, and sends the LOCKED message to the requester.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param request the request
+	*/
+	private void lockFor(MaekawaMessage request) {
+		this.lockedFor = request;
+		this.inquired = false;
+		this.reply(MaekawaMessageType.LOCKED, request.getSender());
+	}
+	
+	/** 
+	 * gives back the inquirer's lock.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param inquirer the id of the process which inquired for the lock
+	*/
+	private void relinquish(int inquirer) {
+		this.grants.remove(inquirer);
+		this.reply(MaekawaMessageType.RELINQUISH, inquirer);
+	}
+	
+	/** 
+	 * sends a message of the given type to a process.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param type the message's type
+	 * @param receiver the id of the process who receives the message
+	*/
+	private void reply(MaekawaMessageType type, int receiver) {
+		this.clock.update();
+		this.algorithm.send(receiver, new MaekawaMessage(type, this.resource, this.id, this.clock.getCounter()));
+	}
+}
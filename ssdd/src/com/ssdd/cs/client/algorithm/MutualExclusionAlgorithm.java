@@ -0,0 +1,112 @@
+package com.ssdd.cs.client.algorithm;
+
+import java.util.concurrent.CompletableFuture;
+
+import com.ssdd.cs.bean.CriticalSectionMode;
+import com.ssdd.util.concurrent.VirtualThreads;
+
+/**
+ * algorithm used by a {@link com.ssdd.cs.client.CriticalSectionClient} to acquire and release the resources' critical sections.
+ * 
+ * @version 1.0
+ * @author Hctor Snchez San Blas
+ * @author Francisco Pinto Santos
+ * */
+public interface MutualExclusionAlgorithm {
+
+	/** 
+	 * initializes the algorithm once the client is subscribed to its service, and its slot is known. Does nothing by default.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	*/
+	public default void init() {
+	}
+	
+	/** 
+	 * stops the algorithm's helper threads once the client has finished, so they don't outlive the client's process. 
+	 * Does nothing by default.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	*/
+	public default void finish() {
+	}
+
+	/** 
+	 * acquires a resource's critical section, blocking the calling thread until the access is permitted.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param resource the name of the resource's critical section
+	 * @param mode the mode in which the critical section is requested
+	*/
+	public void acquire(String resource, CriticalSectionMode mode);
+	
+	/** 
+	 * releases a resource's critical section.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param resource the name of the resource's critical section
+	*/
+	public void release(String resource);
+	
+	/** 
+	 * acquires a resource's critical section without blocking the calling thread. By default the blocking 
+	 * {@link #acquire(String, CriticalSectionMode)} is run in a new thread (virtual if they are enabled), so the algorithms
+	 * which can't wait without a thread still can be used asynchronously.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param resource the name of the resource's critical section
+	 * @param mode the mode in which the critical section is requested
+	 * 
+	 * @return completed when the access is permitted
+	*/
+	public default CompletableFuture<Void> acquireAsync(String resource, CriticalSectionMode mode) {
+		CompletableFuture<Void> acquired = new CompletableFuture<>();
+		VirtualThreads.start(String.format("acquire.%s", resource), () -> {
+			try {
+				this.acquire(resource, mode);
+				acquired.complete(null);
+			} catch (RuntimeException e) {
+				acquired.completeExceptionally(e);
+			}
+		});
+		return acquired;
+	}
+	
+	/** 
+	 * releases a resource's critical section without blocking the calling thread. By default the blocking 
+	 * {@link #release(String)} is run in a new thread, as in {@link #acquireAsync(String, CriticalSectionMode)}.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param resource the name of the resource's critical section
+	 * 
+	 * @return completed when the critical section has been released
+	*/
+	public default CompletableFuture<Void> releaseAsync(String resource) {
+		CompletableFuture<Void> released = new CompletableFuture<>();
+		VirtualThreads.start(String.format("release.%s", resource), () -> {
+			try {
+				this.release(resource);
+				released.complete(null);
+			} catch (RuntimeException e) {
+				released.completeExceptionally(e);
+			}
+		});
+		return released;
+	}
+}
@@ -0,0 +1,110 @@
+package com.ssdd.cs.client.algorithm;
+
+import com.ssdd.cs.client.CriticalSectionClient;
+import com.ssdd.cs.service.algorithm.MaekawaServer;
+import com.ssdd.cs.service.algorithm.MutualExclusionServer;
+import com.ssdd.cs.service.algorithm.RicartAgrawalaServer;
+import com.ssdd.cs.service.algorithm.SuscribedProcesses;
+import com.ssdd.cs.service.algorithm.SuzukiKasamiServer;
+
+/**
+ * available implementations of {@link com.ssdd.cs.client.algorithm.MutualExclusionAlgorithm}, selectable by name. Each
+ * one builds the client side of the algorithm and its server side in the service (see {@link com.ssdd.cs.service.algorithm.MutualExclusionServer}).
+ * 
+ * @version 1.0
+ * @author Hctor Snchez San Blas
+ * @author Francisco Pinto Santos
+ * */
+public enum MutualExclusionAlgorithmType {
+	/**
+	 * Ricart and Argawala's algorithm, see {@link com.ssdd.cs.client.algorithm.RicartAgrawalaAlgorithm}
+	 * */
+	RICART_AGRAWALA("ra"),
+	/**
+	 * Suzuki and Kasami's algorithm, see {@link com.ssdd.cs.client.algorithm.SuzukiKasamiAlgorithm}
+	 * */
+	SUZUKI_KASAMI("sk"),
+	/**
+	 * Maekawa's algorithm, see {@link com.ssdd.cs.client.algorithm.MaekawaAlgorithm}
+	 * */
+	MAEKAWA("mk");
+	
+	/**
+	 * short name of the algorithm, used to select it from the command line
+	 * */
+	private String name;
+	
+	private MutualExclusionAlgorithmType(String name) {
+		this.name = name;
+	}
+	
+	/** 
+	 * builds an instance of the algorithm for the given client.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param client the client who uses the algorithm
+	 * 
+	 * @return the algorithm's instance
+	*/
+	public MutualExclusionAlgorithm build(CriticalSectionClient client) {
+		switch(this) {
+			case SUZUKI_KASAMI:
+				return new SuzukiKasamiAlgorithm(client);
+			case MAEKAWA:
+				return new MaekawaAlgorithm(client);
+			case RICART_AGRAWALA:
+			default:
+				return new RicartAgrawalaAlgorithm(client);
+		}
+	}
+	
+	/** 
+	 * builds the server side of the algorithm, for a {@link com.ssdd.cs.service.CriticalSectionService}.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param suscribed check of the subscription of the processes to the service
+	 * 
+	 * @return the algorithm's server
+	*/
+	public MutualExclusionServer buildServer(SuscribedProcesses suscribed) {
+		switch(this) {
+			case SUZUKI_KASAMI:
+				return new SuzukiKasamiServer(suscribed);
+			case MAEKAWA:
+				return new MaekawaServer(suscribed);
+			case RICART_AGRAWALA:
+			default:
+				return new RicartAgrawalaServer(suscribed);
+		}
+	}
+	
+	/** 
+	 * finds an algorithm by its short name.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param name the algorithm's short name
+	 * 
+	 * @return the algorithm, or null if there is no algorithm with the given name
+	*/
+	public static MutualExclusionAlgorithmType fromName(String name) {
+		for(MutualExclusionAlgorithmType type : MutualExclusionAlgorithmType.values()) {
+			if(type.name.equals(name)) {
+				return type;
+			}
+		}
+		return null;
+	}
+
+	public String getName() {
+		return name;
+	}
+}
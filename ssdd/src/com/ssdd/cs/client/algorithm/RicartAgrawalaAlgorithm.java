@@ -0,0 +1,246 @@
+package com.ssdd.cs.client.algorithm;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.ssdd.cs.bean.CriticalSectionMode;
+import com.ssdd.cs.client.CriticalSectionClient;
+import com.ssdd.cs.client.CriticalSectionFanOutPlan;
+import com.ssdd.cs.client.senders.CriticalSectionRequestConcurrentSender;
+import com.ssdd.cs.service.CriticalSectionService;
+import com.ssdd.cs.service.CriticalSectionServiceProxy;
+import com.ssdd.cs.service.ProcessNotFoundException;
+import com.ssdd.util.constants.IConstants;
+import com.ssdd.util.logging.SSDDLogFactory;
+
+/**
+ * Ricart and Argawala's algorithm, with the Roucairol and Carvalho's optimization. Needs 2(N-1) messages by access
+ * in the worst case, and none if no process has requested the access since the last release.
+ * 
+ * @version 1.0
+ * @author Hctor Snchez San Blas
+ * @author Francisco Pinto Santos
+ * */
+public class RicartAgrawalaAlgorithm implements MutualExclusionAlgorithm{
+
+	/**
+	 * Class logger generated with {@link com.ssdd.util.logging.SSDDLogFactory#logger(Class)}
+	 * */
+	private final static Logger LOGGER = SSDDLogFactory.logger(RicartAgrawalaAlgorithm.class);
+	
+	/**
+	 * the client who uses the algorithm
+	 * */
+	private CriticalSectionClient client;
+	/**
+	 * resources whose critical section has been acquired at least once, so the permissions of the processes
+	 * that have not requested the access since then are held, with the mode of the requests by which the permissions were obtained
+	 * (see {@link com.ssdd.cs.bean.CritialSectionProcessState#holdsPermissions(CriticalSectionMode)})
+	 * */
+	private Map<String, CriticalSectionMode> heldResources;
+	
+	public RicartAgrawalaAlgorithm(CriticalSectionClient client) {
+		this.client = client;
+		this.heldResources = new ConcurrentHashMap<>();
+	}
+	
+	/** 
+	 * acquires a resource's critical section with the Ricart and Argawala's algorithm, with the Roucairol and Carvalho's optimization:
+	 * only the processes whose permission is not held (because the access has been granted to them since they last granted it to
+	 * the client's process) are requested. If no process has requested the access since the last release, no message is sent to other processes.
+	 * In shared mode, the critical section is held at the same time that other processes holding it in shared mode, so the permissions
+	 * obtained in shared mode aren't used to acquire it in exclusive mode.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param resource the name of the resource's critical section
+	 * @param mode the mode in which the critical section is requested
+	*/
+	@Override
+	public void acquire(String resource, CriticalSectionMode mode) {
+		try {
+			// get the plan to send messages, with my associated service
+			CriticalSectionFanOutPlan plan = this.client.getPlan();
+			CriticalSectionService myservice = plan.getService();
+
+			// set requested in associated service adn retrieve the message timestamp
+			long messageTimeStamp = myservice.setRequested(resource, this.client.getSlot(), mode);
+			
+			// before the first acquire no valid permission is held, so all processes are requested
+			List<List<Integer>> receivers = (this.holdsPermissions(resource, mode)) ? null : plan.getSlots();
+			boolean requested = false;
+			int [] pending;
+			
+			do {
+				if(receivers != null) {
+					requested = true;
+					// send requests
+					LOGGER.log(Level.INFO, String.format("requesting access to processes in %d services with %d", plan.getGroups(), messageTimeStamp));
+					CriticalSectionRequestConcurrentSender multicastSender = new CriticalSectionRequestConcurrentSender();
+					List<Runnable>tasks = multicastSender.buildCommunicationTasks(resource, this.client.getNumericID(), plan, receivers, messageTimeStamp, mode);
+					multicastSender.multicastSend(tasks);
+				
+					// wait for responses
+					multicastSender.await();
+				}
+				// notify the associated service that all responses has arrived, and get the processes to request again
+				pending = this.acquireOrGetPending(resource, myservice);
+				receivers = plan.slotsOf(pending);
+			}while(pending.length > 0);
+			if(requested) {
+				this.heldResources.put(resource, mode);
+			}
+			
+		} catch (ProcessNotFoundException e) {
+			LOGGER.log(Level.WARNING, String.format("acquire: error %s", e.getMessage()), e);
+			System.exit(IConstants.EXIT_CODE_SIMULATION_ERROR);
+		}
+	}
+	
+	/** 
+	 * acquires a resource's critical section as {@link #acquire(String, CriticalSectionMode)}, but without waiting for any 
+	 * response: each message is sent when the previous step has completed, and the requests to the services are sent 
+	 * asynchronously instead of in a thread by service. The errors complete the result exceptionally, instead of exiting.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param resource the name of the resource's critical section
+	 * @param mode the mode in which the critical section is requested
+	 * 
+	 * @return completed when the access is permitted
+	*/
+	@Override
+	public CompletableFuture<Void> acquireAsync(String resource, CriticalSectionMode mode) {
+		// get the plan to send messages, with my associated service
+		CriticalSectionFanOutPlan plan = this.client.getPlan();
+		// before the first acquire no valid permission is held, so all processes are requested
+		List<List<Integer>> receivers = (this.holdsPermissions(resource, mode)) ? null : plan.getSlots();
+		
+		// set requested in associated service, request the access and retrieve the message timestamp
+		return plan.getService().setRequestedAsync(resource, this.client.getSlot(), mode)
+				.thenCompose(messageTimeStamp -> this.requestAsync(resource, mode, plan, receivers, messageTimeStamp))
+				.thenAccept(requested -> {
+					if(requested) {
+						this.heldResources.put(resource, mode);
+					}
+				});
+	}
+	
+	/** 
+	 * sends the requests to the given processes, and once all of them have granted the access, notifies the associated service. 
+	 * The processes whose permission has been lost meanwhile are requested again.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param resource the name of the resource's critical section
+	 * @param mode the mode in which the critical section is requested
+	 * @param plan the plan to send messages
+	 * @param receivers the slots of the processes to request in each group of the plan, or null if no process is requested
+	 * @param messageTimeStamp the message's timestamp
+	 * 
+	 * @return completed when the critical section has been acquired, with true if any process has been requested
+	*/
+	private CompletableFuture<Boolean> requestAsync(String resource, CriticalSectionMode mode, CriticalSectionFanOutPlan plan, List<List<Integer>> receivers, long messageTimeStamp) {
+		List<CompletableFuture<Void>> replies = new ArrayList<>();
+		if(receivers != null) {
+			LOGGER.log(Level.INFO, String.format("requesting access to processes in %d services with %d", plan.getGroups(), messageTimeStamp));
+			for(int group=0; group<plan.getGroups(); group++) {
+				List<Integer> slots = receivers.get(group);
+				if(!slots.isEmpty()) {
+					replies.add(plan.getService(group).requestsAsync(resource, slots, this.client.getNumericID(), messageTimeStamp, mode));
+				}
+			}
+		}
+		// notify the associated service that all responses has arrived, and request again the pending processes
+		return CompletableFuture.allOf(replies.toArray(new CompletableFuture<?> [replies.size()]))
+				.thenCompose(granted -> plan.getService().acquireOrDrainRepliedAsync(resource, this.client.getSlot()))
+				.thenCompose(pending -> (pending.length > 0) ? this.requestAsync(resource, mode, plan, plan.slotsOf(pending), messageTimeStamp) : CompletableFuture.completedFuture(receivers != null));
+	}
+	
+	/** 
+	 * checks if the permissions held by the client's process are valid to acquire a resource's critical section in the given mode, 
+	 * as {@link com.ssdd.cs.bean.CritialSectionProcessState#holdsPermissions(CriticalSectionMode)} does in the associated service.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param resource the name of the resource's critical section
+	 * @param mode the mode in which the critical section is requested
+	 * 
+	 * @return true if the permissions held are valid for the mode
+	*/
+	private boolean holdsPermissions(String resource, CriticalSectionMode mode) {
+		CriticalSectionMode held = this.heldResources.get(resource);
+		return held == CriticalSectionMode.EXCLUSIVE || (held == CriticalSectionMode.SHARED && mode == CriticalSectionMode.SHARED);
+	}
+	
+	/** 
+	 * notifies the associated service that all requested processes have granted the access. The service acquires the
+	 * critical section if all permissions are held, and otherwise returns the processes whose permission has been lost.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param resource the name of the resource's critical section
+	 * @param myservice the client's associated service
+	 * 
+	 * @return the ids of the processes to request again, empty if the critical section has been acquired
+	 * 
+	 * @throws ProcessNotFoundException when the client's process is not suscribed to its associated service
+	*/
+	private int [] acquireOrGetPending(String resource, CriticalSectionService myservice) throws ProcessNotFoundException {
+		String response = myservice.setAcquired(resource, this.client.getSlot());
+		return CriticalSectionServiceProxy.parseSetAcquiredResponse(response);
+	}
+	
+	/** 
+	 *  releases a resource's critical section with the Ricart and Argawala's algorithm.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param resource the name of the resource's critical section
+	*/
+	@Override
+	public void release(String resource) {
+		try {
+			// get my associated service to send messages
+			CriticalSectionService myservice = this.client.getPlan().getService();
+			// release the critical section
+			myservice.release(resource, this.client.getSlot());
+		} catch (ProcessNotFoundException e) {
+			LOGGER.log(Level.WARNING, String.format("release: error %s", e.getMessage()), e);
+			System.exit(IConstants.EXIT_CODE_SIMULATION_ERROR);
+		}
+	}
+	
+	/** 
+	 *  releases a resource's critical section as {@link #release(String)}, without waiting for the response of the associated service.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param resource the name of the resource's critical section
+	 * 
+	 * @return completed when the critical section has been released
+	*/
+	@Override
+	public CompletableFuture<Void> releaseAsync(String resource) {
+		return this.client.getPlan().getService().releaseAsync(resource, this.client.getSlot());
+	}
+}
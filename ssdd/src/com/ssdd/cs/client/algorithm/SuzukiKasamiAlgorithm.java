@@ -0,0 +1,114 @@
+package com.ssdd.cs.client.algorithm;
+
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.ssdd.cs.bean.CriticalSectionMode;
+import com.ssdd.cs.bean.SuzukiKasamiProcessState;
+import com.ssdd.cs.bean.SuzukiKasamiToken;
+import com.ssdd.cs.client.CriticalSectionClient;
+import com.ssdd.cs.client.CriticalSectionFanOutPlan;
+import com.ssdd.cs.client.senders.SuzukiKasamiRequestConcurrentSender;
+import com.ssdd.cs.service.CriticalSectionService;
+import com.ssdd.cs.service.CriticalSectionServiceProxy;
+import com.ssdd.cs.service.ProcessNotFoundException;
+import com.ssdd.util.constants.IConstants;
+import com.ssdd.util.logging.SSDDLogFactory;
+
+/**
+ * Suzuki and Kasami's broadcast token algorithm. Needs no message by access if the client's process holds the token, 
+ * and N otherwise: N-1 requests and the token's transfer. The token is exclusive, so the critical section is acquired 
+ * in exclusive mode also when it is requested in shared mode.
+ * 
+ * @version 1.0
+ * @author Hctor Snchez San Blas
+ * @author Francisco Pinto Santos
+ * */
+public class SuzukiKasamiAlgorithm implements MutualExclusionAlgorithm{
+
+	/**
+	 * Class logger generated with {@link com.ssdd.util.logging.SSDDLogFactory#logger(Class)}
+	 * */
+	private final static Logger LOGGER = SSDDLogFactory.logger(SuzukiKasamiAlgorithm.class);
+	
+	/**
+	 * the client who uses the algorithm
+	 * */
+	private CriticalSectionClient client;
+	
+	public SuzukiKasamiAlgorithm(CriticalSectionClient client) {
+		this.client = client;
+	}
+	
+	/** 
+	 * acquires a resource's critical section with the Suzuki and Kasami's algorithm. If the client's process holds the token, 
+	 * the critical section is acquired without messages. Otherwise the request is broadcast to all processes, and the client waits 
+	 * until the token is delivered to its associated service.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param resource the name of the resource's critical section
+	 * @param mode the mode in which the critical section is requested
+	*/
+	@Override
+	public void acquire(String resource, CriticalSectionMode mode) {
+		try {
+			// get the plan to send messages, with my associated service
+			CriticalSectionFanOutPlan plan = this.client.getPlan();
+			CriticalSectionService myservice = plan.getService();
+			
+			// set requested in associated service and retrieve the request number
+			long requestNumber = myservice.tokenSetRequested(resource, this.client.getSlot());
+			if(requestNumber == SuzukiKasamiProcessState.TOKEN_HELD) {
+				LOGGER.log(Level.INFO, "token held");
+				return;
+			}
+			
+			// broadcast the request
+			LOGGER.log(Level.INFO, String.format("requesting token to %d processes with %d", this.client.getProcesses().size(), requestNumber));
+			SuzukiKasamiRequestConcurrentSender multicastSender = new SuzukiKasamiRequestConcurrentSender();
+			List<Runnable>tasks = multicastSender.buildCommunicationTasks(resource, this.client.getNumericID(), this.client.getSlot(), myservice, plan, requestNumber);
+			multicastSender.multicastSend(tasks);
+			multicastSender.await();
+			
+			// wait for the token
+			myservice.tokenAwait(resource, this.client.getSlot());
+		} catch (ProcessNotFoundException e) {
+			LOGGER.log(Level.WARNING, String.format("acquire: error %s", e.getMessage()), e);
+			System.exit(IConstants.EXIT_CODE_SIMULATION_ERROR);
+		}
+	}
+	
+	/** 
+	 *  releases a resource's critical section with the Suzuki and Kasami's algorithm. If other process is waiting for the token, 
+	 *  it is sent to the process's associated service.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param resource the name of the resource's critical section
+	*/
+	@Override
+	public void release(String resource) {
+		try {
+			// get the plan to send messages, with my associated service
+			CriticalSectionFanOutPlan plan = this.client.getPlan();
+			CriticalSectionService myservice = plan.getService();
+			// release the critical section, and send the token to its next holder
+			String response = myservice.tokenRelease(resource, this.client.getSlot());
+			SuzukiKasamiToken token = CriticalSectionServiceProxy.parseTokenResponse(response);
+			if(token != null) {
+				int holder = token.getHolder();
+				LOGGER.log(Level.INFO, String.format("sending token to P%d", holder));
+				plan.route(holder).tokenDeliver(resource, plan.slot(holder), response);
+			}
+		} catch (ProcessNotFoundException e) {
+			LOGGER.log(Level.WARNING, String.format("release: error %s", e.getMessage()), e);
+			System.exit(IConstants.EXIT_CODE_SIMULATION_ERROR);
+		}
+	}
+}
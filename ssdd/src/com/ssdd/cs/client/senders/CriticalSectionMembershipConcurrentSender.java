@@ -0,0 +1,53 @@
+package com.ssdd.cs.client.senders;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.ssdd.cs.client.CriticalSectionRouter;
+import com.ssdd.cs.service.CriticalSectionService;
+import com.ssdd.util.concurrent.ConcurrentExecutor;
+
+/**
+ * sends in a concurrent way messages to all servers to refresh the router's view of their subscribed processes
+ *
+ * @version 1.0
+ * @author Hctor Snchez San Blas
+ * @author Francisco Pinto Santos
+ */
+public class CriticalSectionMembershipConcurrentSender extends ConcurrentExecutor{
+
+	public CriticalSectionMembershipConcurrentSender() {
+		super();
+	}
+
+	/**
+	 * Builds as many runnable as services to perform all message send tasks in a concurrent way.
+	 *
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 *
+	 * @param router the router whose view of the services is refreshed
+	 *
+	 * @return the list of runnable to perform the send task to each service
+	 */
+	public List<Runnable> buildCommunicationTasks(CriticalSectionRouter router){
+		List<Runnable> tasks = new ArrayList<>();
+		router.getServices().forEach(service -> {
+			tasks.add(new Runnable() {
+					private CriticalSectionService service;
+
+					public Runnable init(CriticalSectionService service) {
+					        this.service = service;
+					        return this;
+					}
+
+					public void run() {
+						 router.refresh(this.service);
+					}
+				}.init(service)
+			);
+		});
+		return tasks;
+	}
+}
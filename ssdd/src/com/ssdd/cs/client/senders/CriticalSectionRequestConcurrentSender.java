@@ -5,7 +5,8 @@ import java.util.List;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
-import com.ssdd.cs.client.CriticalSectionRouter;
+import com.ssdd.cs.bean.CriticalSectionMode;
+import com.ssdd.cs.client.CriticalSectionFanOutPlan;
 import com.ssdd.cs.service.CriticalSectionService;
 import com.ssdd.cs.service.ProcessNotFoundException;
 import com.ssdd.util.concurrent.ConcurrentExecutor;
@@ -13,7 +14,7 @@ import com.ssdd.util.constants.IConstants;
 import com.ssdd.util.logging.SSDDLogFactory;
 
 /**
- * sends in a concurrent way messages to all processes to request the access to critical section.
+ * sends in a concurrent way messages to all processes to request the access to critical section, one message for each service.
  * 
  * @version 1.0
  * @author Hctor Snchez San Blas
@@ -31,49 +32,61 @@ public class CriticalSectionRequestConcurrentSender extends ConcurrentExecutor{
 	}
 	
 	/**
-	 * Builds as many runnable as given processes to perform all message send tasks in a concurrent way.
+	 * Builds as many runnable as services the given processes are subscribed to, to perform all message send tasks in a concurrent way.
+	 * The receivers are already grouped by their associated service in the client's plan, and each task sends a single message to a 
+	 * service with the requests to all its receivers.
 	 * 
 	 * @version 1.0
 	 * @author Hctor Snchez San Blas
 	 * @author Francisco Pinto Santos
 	 * 
+	 * @param resource the name of the requested resource's critical section
 	 * @param sender the sender's process id
-	 * @param receivers the receivers' process id
-	 * @param router to route messages between current sender and receivers
+	 * @param plan the sender's plan, with the receivers grouped by service
+	 * @param receivers the slots of the receivers in each group of the plan, see {@link com.ssdd.cs.client.CriticalSectionFanOutPlan#getSlots()}
 	 * @param messageTimeStamp the timestamp associated with the message
+	 * @param mode the mode in which the critical section is requested
 	 * 
-	 * @return the list of runnable to perform the send task to each process
+	 * @return the list of runnable to perform the send task to each service
 	 */
-	public List<Runnable> buildCommunicationTasks(String sender, List<String> receivers, CriticalSectionRouter router, long messageTimeStamp){
-		List<Runnable> tasks = new ArrayList<>();
-		receivers.forEach(receiver -> {
-			CriticalSectionService service = router.route(receiver);
+	public List<Runnable> buildCommunicationTasks(String resource, int sender, CriticalSectionFanOutPlan plan, List<List<Integer>> receivers, long messageTimeStamp, CriticalSectionMode mode){
+		List<Runnable> tasks = new ArrayList<>(plan.getGroups());
+		for(int group=0; group<plan.getGroups(); group++) {
+			List<Integer> slots = receivers.get(group);
+			if(slots.isEmpty()) {
+				continue;
+			}
+			CriticalSectionService service = plan.getService(group);
 			tasks.add(new Runnable() {		
-					private String sender;
-					private String receiver;
+					private String resource;
+					private int sender;
+					private List<Integer> slots;
 					private long messageTimeStamp;
+					private CriticalSectionMode mode;
 					private CriticalSectionService service;
 					
-					public Runnable init(String sender, String receiver, long messageTimeStamp, CriticalSectionService service) {
+					public Runnable init(String resource, int sender, List<Integer> slots, long messageTimeStamp, CriticalSectionMode mode, CriticalSectionService service) {
+				        this.resource = resource;
 				        this.sender = sender;
-				        this.receiver = receiver;
+				        this.slots = slots;
 				        this.messageTimeStamp = messageTimeStamp;
+				        this.mode = mode;
 					    this.service = service;
 					    return this;
 					}
 					
 					public void run() {
 						try {
-							service.request(this.receiver, this.sender, this.messageTimeStamp);
-							LOGGER.log(Level.INFO, String.format("recived response from P%s", this.receiver));
+							service.requests(this.resource, this.slots, this.sender, this.messageTimeStamp, this.mode);
+							LOGGER.log(Level.INFO, String.format("recived response from %d processes in %s", this.slots.size(), this.service.toString()));
 						} catch (ProcessNotFoundException e) {
 							LOGGER.log(Level.WARNING, String.format("run: ProcessNotFoundException: error %s", e.getMessage()), e);
 							System.exit(IConstants.EXIT_CODE_SIMULATION_ERROR);
 						}
 					}
-				}.init(sender, receiver, messageTimeStamp, service)
+				}.init(resource, sender, slots, messageTimeStamp, mode, service)
 			);
-		});
+		}
 		return tasks;
 	}
 }
@@ -0,0 +1,101 @@
+package com.ssdd.cs.client.senders;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.ssdd.cs.client.CriticalSectionFanOutPlan;
+import com.ssdd.cs.service.CriticalSectionService;
+import com.ssdd.cs.service.CriticalSectionServiceProxy;
+import com.ssdd.cs.service.ProcessNotFoundException;
+import com.ssdd.util.concurrent.ConcurrentExecutor;
+import com.ssdd.util.constants.IConstants;
+import com.ssdd.util.logging.SSDDLogFactory;
+
+/**
+ * sends in a concurrent way messages to all processes to request the token of the Suzuki and Kasami's algorithm. 
+ * If a process gives up the token in its response, the token is delivered to the sender's associated service.
+ * 
+ * @version 1.0
+ * @author Hctor Snchez San Blas
+ * @author Francisco Pinto Santos
+ */
+public class SuzukiKasamiRequestConcurrentSender extends ConcurrentExecutor{
+
+	/**
+	 * Class logger generated with {@link com.ssdd.util.logging.SSDDLogFactory#logger(Class)}
+	 * */
+    private final static Logger LOGGER = SSDDLogFactory.logger(SuzukiKasamiRequestConcurrentSender.class);
+
+	public SuzukiKasamiRequestConcurrentSender() {
+		super();
+	}
+	
+	/**
+	 * Builds as many runnable as given processes to perform all message send tasks in a concurrent way.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param resource the name of the requested resource's critical section
+	 * @param sender the sender's process id
+	 * @param senderSlot the sender's slot in its associated service
+	 * @param senderService the sender's associated service, to which the token is delivered
+	 * @param plan the sender's plan, with the receivers grouped by service
+	 * @param requestNumber the sender's request number
+	 * 
+	 * @return the list of runnable to perform the send task to each process
+	 */
+	public List<Runnable> buildCommunicationTasks(String resource, int sender, int senderSlot, CriticalSectionService senderService, CriticalSectionFanOutPlan plan, long requestNumber){
+		List<Runnable> tasks = new ArrayList<>();
+		for(int group=0; group<plan.getGroups(); group++) {
+			CriticalSectionService service = plan.getService(group);
+			int [] receivers = plan.getReceivers(group);
+			List<Integer> slots = plan.getSlots().get(group);
+			for(int i=0; i<receivers.length; i++) {
+				String receiver = String.valueOf(receivers[i]);
+				int slot = slots.get(i);
+				tasks.add(new Runnable() {		
+						private String resource;
+						private int sender;
+						private int senderSlot;
+						private CriticalSectionService senderService;
+						private String receiver;
+						private int slot;
+						private long requestNumber;
+						private CriticalSectionService service;
+						
+						public Runnable init(String resource, int sender, int senderSlot, CriticalSectionService senderService, String receiver, int slot, long requestNumber, CriticalSectionService service) {
+					        this.resource = resource;
+					        this.sender = sender;
+					        this.senderSlot = senderSlot;
+					        this.senderService = senderService;
+					        this.receiver = receiver;
+					        this.slot = slot;
+					        this.requestNumber = requestNumber;
+						    this.service = service;
+						    return this;
+						}
+						
+						public void run() {
+							try {
+								String response = service.tokenRequest(this.resource, this.slot, this.sender, this.requestNumber);
+								LOGGER.log(Level.INFO, String.format("recived response from P%s", this.receiver));
+								if(CriticalSectionServiceProxy.parseTokenResponse(response) != null) {
+									LOGGER.log(Level.INFO, String.format("recived token from P%s", this.receiver));
+									this.senderService.tokenDeliver(this.resource, this.senderSlot, response);
+								}
+							} catch (ProcessNotFoundException e) {
+								LOGGER.log(Level.WARNING, String.format("run: ProcessNotFoundException: error %s", e.getMessage()), e);
+								System.exit(IConstants.EXIT_CODE_SIMULATION_ERROR);
+							}
+						}
+					}.init(resource, sender, senderSlot, senderService, receiver, slot, requestNumber, service)
+				);
+			}
+		}
+		return tasks;
+	}
+}
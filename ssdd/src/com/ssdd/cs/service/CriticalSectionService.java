@@ -1,29 +1,54 @@
 package com.ssdd.cs.service;
 
 
+import java.util.EnumMap;
+import java.util.List;
 import java.util.Map;
-import java.util.concurrent.BrokenBarrierException;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.inject.Singleton;
+import javax.ws.rs.DefaultValue;
 import javax.ws.rs.GET;
+import javax.ws.rs.HeaderParam;
 import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.Suspended;
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
 
 import com.google.gson.Gson;
-import com.ssdd.cs.bean.CritialSectionProcessState;
-import com.ssdd.cs.bean.CriticalSectionState;
-import com.ssdd.cs.bean.LamportCounter;
+import com.ssdd.cs.bean.AsyncBarrier;
+import com.ssdd.cs.bean.CriticalSectionMode;
+import com.ssdd.cs.bean.GrantChannel;
+import com.ssdd.cs.bean.MembershipView;
+import com.ssdd.cs.client.algorithm.MutualExclusionAlgorithmType;
+import com.ssdd.cs.service.algorithm.MaekawaServer;
+import com.ssdd.cs.service.algorithm.MutualExclusionServer;
+import com.ssdd.cs.service.algorithm.RicartAgrawalaServer;
+import com.ssdd.cs.service.algorithm.SuzukiKasamiServer;
+import com.ssdd.cs.service.tcp.CriticalSectionTcpServer;
+import com.ssdd.cs.service.ws.CriticalSectionWebSocketEndpoint;
 import com.ssdd.util.constants.IConstants;
 import com.ssdd.util.logging.SSDDLogFactory;
 
 /**
- * Service to regulate the access to critical section.
+ * Service to regulate the access to critical section. The service keeps the subscription of the processes and the 
+ * barriers, and delegates the messages of each mutual exclusion algorithm to the algorithm's server (see 
+ * {@link com.ssdd.cs.service.algorithm.MutualExclusionServer}), built by its {@link com.ssdd.cs.client.algorithm.MutualExclusionAlgorithmType}.
+ * The Ricart and Agrawala's endpoints are served at the root of the service, and the ones of the other algorithms under
+ * their own path. The public methods are the contract implemented by the proxies of each transport.
  * 
  * @version 1.0
  * @author Hctor Snchez San Blas
@@ -37,24 +62,51 @@ public class CriticalSectionService{
 	 * Class logger generated with {@link com.ssdd.util.logging.SSDDLogFactory#logger(Class)}
 	 * */
     private final static Logger LOGGER = SSDDLogFactory.logger(CriticalSectionService.class);
+    /**
+     * value of the not yet filled slots in {@link #processes}
+     * */
+    private final static int UNSUSCRIBED = -1;
+    /**
+     * header of the /cs/suscribed response with the slot of the first process in the response
+     * */
+    public final static String SUSCRIBED_FROM_HEADER = "X-Suscribed-From";
  
 	/**
      * barrier to wait all processes to be subscribed
      * */
-	private CyclicBarrier startBarrier;
+	private volatile AsyncBarrier startBarrier;
 
 	/**
      * barrier to wait all processes to finish
      * */
-	private CyclicBarrier finishBarrier;
+	private volatile AsyncBarrier finishBarrier;
+    /**
+     * ids of the subscribed processes, indexed by the slot assigned to each process at its subscription
+     * */
+	private volatile AtomicIntegerArray processes;
+    /**
+     * number of slots assigned to subscribed processes
+     * */
+	private volatile AtomicInteger suscribedCount;
+    /**
+     * monotonically increasing version of the subscribed processes, increased on each subscription and restart
+     * */
+	private final AtomicLong membershipVersion = new AtomicLong(0);
+    /**
+     * membership version of the last restart. The views of previous versions aren't valid anymore, because the slots have been reassigned
+     * */
+	private volatile long restartVersion;
     /**
-     * associates the state of a subscribed process to it's id, and stores the state relative to
-     * the process's critical section state
+     * server side of each mutual exclusion algorithm, which keeps the state of the subscribed processes in the algorithm
      * */
-	private Map<String, CritialSectionProcessState> processes;
+	private final Map<MutualExclusionAlgorithmType, MutualExclusionServer> servers;
 	
 	public CriticalSectionService() {
-		this.processes = new ConcurrentHashMap<String, CritialSectionProcessState>();
+		this.servers = new EnumMap<MutualExclusionAlgorithmType, MutualExclusionServer>(MutualExclusionAlgorithmType.class);
+		for(MutualExclusionAlgorithmType type : MutualExclusionAlgorithmType.values()) {
+			this.servers.put(type, type.buildServer(this::checkSuscribed));
+		}
+		this.clearProcesses(0);
 	}
 
 	/**
@@ -73,6 +125,50 @@ public class CriticalSectionService{
 		return new CriticalSectionServiceProxy(serviceUri);
 	}
 
+	/**
+	 * factory method, to build a proxy to access an instance of this service in remote through the given transport.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param host the IP address and PORT of server in which the service is allocated.
+	 * @param transport the transport used to send the messages of the critical section
+	 * 
+	 * @return CriticalSectionService to serve as proxy for the /cs service, served in the given host
+	 * */
+	public static CriticalSectionService buildProxy(String host, CriticalSectionTransportType transport) {
+		return transport.buildProxy(host);
+	}
+
+	/**
+	 * starts the binary TCP endpoint of the service and binds its WebSocket endpoint, next to the REST endpoints. Is called 
+	 * by Jersey once the singleton instance of the service is built, so it isn't started by the proxies.
+	 * 
+	 * @see com.ssdd.cs.service.tcp.CriticalSectionTcpServer
+	 * @see com.ssdd.cs.service.ws.CriticalSectionWebSocketEndpoint
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * */
+	@PostConstruct
+	public void startEndpoints() {
+		CriticalSectionTcpServer.start(this, IConstants.CS_TCP_PORT);
+		CriticalSectionWebSocketEndpoint.bind(this);
+	}
+
+	/**
+	 * stops the binary TCP endpoint of the service, when Jersey destroys the singleton instance of the service.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * */
+	@PreDestroy
+	public void stopEndpoints() {
+		CriticalSectionTcpServer.stop();
+	}
+
 	/**
 	 * factory method, to build a URI for a CriticalSectionService from the host IP and port.
 	 * 
@@ -120,86 +216,261 @@ public class CriticalSectionService{
 	public void restart(@QueryParam(value="numProcesses") int numProcesses){
 		this.setThreadName();
 		LOGGER.log(Level.INFO, String.format("/cs/restart"));
-		this.processes.clear();
-		this.startBarrier = new CyclicBarrier(numProcesses);
-		this.finishBarrier = new CyclicBarrier(numProcesses);
+		this.clearProcesses(numProcesses);
+		this.startBarrier = new AsyncBarrier(numProcesses);
+		this.finishBarrier = new AsyncBarrier(numProcesses);
 	}
 
 	/**
-	 * waits until all processes are ready
+	 * waits until all processes are ready, without blocking the calling thread. The response is resumed when all processes are ready, 
+	 * or with a {@link javax.ws.rs.core.Response.Status#SERVICE_UNAVAILABLE} if the barrier is broken because a process has waited more 
+	 * than {@link com.ssdd.util.constants.IConstants#BARRIER_TIMEOUT} seconds. A broken barrier can be reset with {@link #resetBarriers()}.
 	 * 
 	 * @version 1.0
 	 * @author Hctor Snchez San Blas
 	 * @author Francisco Pinto Santos
+	 * 
+	 * @param response the suspended response, resumed when all processes are ready
 	 * */
 	@GET
 	@Path("/ready")
-	public void ready(){
+	public void ready(@Suspended AsyncResponse response){
 		this.setThreadName();
 		LOGGER.log(Level.INFO, String.format("/cs/ready"));
-		try {
-			this.startBarrier.await();
-		} catch (InterruptedException | BrokenBarrierException e) {
-			LOGGER.log(Level.WARNING, String.format("/cs/ready ERROR: %s", e.getMessage()), e);
-		}
+		this.startBarrier.await(response, IConstants.BARRIER_TIMEOUT);
 	}
 	
 	/**
-	 * waits until all processes has finished
+	 * waits until all processes are ready in a blocking way. Is the in-process counterpart of {@link #ready(AsyncResponse)}, 
+	 * and is overriden by {@link com.ssdd.cs.service.CriticalSectionServiceProxy}.
 	 * 
 	 * @version 1.0
 	 * @author Hctor Snchez San Blas
 	 * @author Francisco Pinto Santos
 	 * */
+	public void ready(){
+		this.await(this.startBarrier, "/cs/ready");
+	}
+	
+	/**
+	 * waits until all processes has finished, without blocking the calling thread. See {@link #ready(AsyncResponse)}.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param response the suspended response, resumed when all processes has finished
+	 * */
 	@GET
 	@Path("/finished")
-	public void finished(){
+	public void finished(@Suspended AsyncResponse response){
 		this.setThreadName();
 		LOGGER.log(Level.INFO, String.format("/cs/finished"));
+		this.finishBarrier.await(response, IConstants.BARRIER_TIMEOUT);
+	}
+	
+	/**
+	 * waits until all processes has finished in a blocking way. Is the in-process counterpart of {@link #finished(AsyncResponse)}, 
+	 * and is overriden by {@link com.ssdd.cs.service.CriticalSectionServiceProxy}.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * */
+	public void finished(){
+		this.await(this.finishBarrier, "/cs/finished");
+	}
+	
+	/**
+	 * resets the ready and finished barriers, so they can be used again after being broken by a timeout, without 
+	 * restarting the service. The processes waiting in the barriers are released as if the barriers were broken.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * */
+	@GET
+	@Path("/barriers/reset")
+	public void resetBarriers(){
+		this.setThreadName();
+		LOGGER.log(Level.INFO, String.format("/cs/barriers/reset"));
+		this.startBarrier.reset();
+		this.finishBarrier.reset();
+	}
+	
+	/**
+	 * waits in a barrier blocking the calling thread, logging if the barrier is broken.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param barrier the barrier
+	 * @param operation name of the operation, for logging
+	 * */
+	private void await(AsyncBarrier barrier, String operation) {
 		try {
-			this.finishBarrier.await();
-		} catch (InterruptedException | BrokenBarrierException e) {
-			LOGGER.log(Level.WARNING, String.format("/cs/finished ERROR: %s", e.getMessage()), e);
+			if(!barrier.await(IConstants.BARRIER_TIMEOUT)) {
+				LOGGER.log(Level.WARNING, String.format("%s ERROR: broken barrier", operation));
+			}
+		} catch (InterruptedException e) {
+			LOGGER.log(Level.WARNING, String.format("%s ERROR: %s", operation, e.getMessage()), e);
 		}
 	}
 	
 	/**
-	 * registers a process, and create the neccesary structures to work with it.
+	 * registers a process, assigning it the next free slot. The slot is used by the process's clients to refer to it 
+	 * in the rest of the service's methods, and indexes the process's structures. These structures are created in the
+	 * first use of each resource's critical section.
 	 * 
 	 * @version 1.0
 	 * @author Hctor Snchez San Blas
 	 * @author Francisco Pinto Santos
 	 * 
 	 * @param processId the id of the process who wants to suscribe to current service.
+	 * 
+	 * @return the slot assigned to the process, or -1 if all the slots are assigned
 	 * */
 	@GET
 	@Path("/suscribe")
-	public void suscribe(@QueryParam(value="process") String processId){
+	@Produces(MediaType.TEXT_PLAIN)
+	public int suscribe(@QueryParam(value="process") int processId){
 		this.setThreadName(processId);
-		LOGGER.log(Level.INFO, String.format("[process: %s] /cs/suscribe", processId));
-		CritialSectionProcessState process = new CritialSectionProcessState(processId, new LamportCounter(), CriticalSectionState.FREE);
-		this.processes.put(processId, process);
+		LOGGER.log(Level.INFO, String.format("[process: %d] /cs/suscribe", processId));
+		AtomicIntegerArray processes = this.processes;
+		int slot = this.suscribedCount.getAndIncrement();
+		if(slot >= processes.length()) {
+			LOGGER.log(Level.WARNING, String.format("ERROR there is no free slot for process %d", processId));
+			return -1;
+		}
+		processes.set(slot, processId);
+		this.membershipVersion.incrementAndGet();
+		return slot;
+	}
+
+	/**
+	 * registers a range of processes in a single call, assigning them consecutive slots in the order of their ids. 
+	 * See {@link #suscribe(int)}.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param rangeStart the id of the first process of the range
+	 * @param rangeEnd the id of the last process of the range, included
+	 * 
+	 * @return String containing a JSON serialized array with the slot assigned to each process of the range, -1 for the processes without free slot
+	 * */
+	@GET
+	@Path("/suscribe/range")
+	@Produces(MediaType.APPLICATION_JSON)
+	public String suscribeRange(@QueryParam(value="rangeStart") int rangeStart, @QueryParam(value="rangeEnd") int rangeEnd){
+		this.setThreadName();
+		LOGGER.log(Level.INFO, String.format("/cs/suscribe/range %d-%d", rangeStart, rangeEnd));
+		AtomicIntegerArray processes = this.processes;
+		int [] slots = new int [Math.max(0, rangeEnd - rangeStart + 1)];
+		int first = this.suscribedCount.getAndAdd(slots.length);
+		for(int i=0; i<slots.length; i++) {
+			int slot = first + i;
+			if(slot >= processes.length()) {
+				LOGGER.log(Level.WARNING, String.format("ERROR there is no free slot for process %d", rangeStart + i));
+				slots[i] = -1;
+			}else {
+				processes.set(slot, rangeStart + i);
+				slots[i] = slot;
+			}
+		}
+		this.membershipVersion.incrementAndGet();
+		return new Gson().toJson(slots);
 	}
 
 	/**
-	 * return a JSON serialized list of suscribed processes.
+	 * return a JSON serialized list of suscribed processes, from the given slot. The response's ETag is the membership version: if the 
+	 * If-None-Match header has the current version, the response is a 304 (Not Modified). If the If-None-Match header has a version 
+	 * previous to the last restart, the list starts at the first slot regardless of the given one. The slot of the first process 
+	 * in the list is given in the {@link #SUSCRIBED_FROM_HEADER} header. See {@link #membership(long, int)}.
 	 * 
 	 * @version 1.0
 	 * @author Hctor Snchez San Blas
 	 * @author Francisco Pinto Santos
 	 * 
-	 * @return String containing the list of suscribed processes separated with the '_character'.
+	 * @param from the slot of the first process to return
+	 * @param ifNoneMatch the membership version known by the client, if any
+	 * 
+	 * @return the response containing a JSON serialized array with the ids of the suscribed processes, -1 in the slots not yet filled.
 	  */
 	@GET
 	@Path("/suscribed")
 	@Produces(MediaType.APPLICATION_JSON)
-	public String suscribed(){
+	public Response suscribed(@QueryParam(value="from") @DefaultValue("0") int from, @HeaderParam(HttpHeaders.IF_NONE_MATCH) String ifNoneMatch){
 		this.setThreadName();
-		LOGGER.log(Level.INFO, String.format("/cs/suscribed"));
-
+		LOGGER.log(Level.INFO, String.format("/cs/suscribed from %d version %s", from, ifNoneMatch));
+		long version = -1;
+		if(ifNoneMatch != null) {
+			try {
+				version = Long.parseLong(ifNoneMatch.replace("W/", "").replace("\"", "").trim());
+			} catch (NumberFormatException e) {
+				LOGGER.log(Level.WARNING, String.format("/cs/suscribed ERROR: invalid version %s", ifNoneMatch));
+			}
+		}
+		MembershipView view = this.membership(version, from);
+		if(view == null) {
+			return Response.notModified(new EntityTag(String.valueOf(version))).build();
+		}
+		return Response.ok(new Gson().toJson(view.getProcesses()))
+				.tag(new EntityTag(String.valueOf(view.getVersion())))
+				.header(SUSCRIBED_FROM_HEADER, view.getFrom())
+				.build();
+	}
+	
+	/**
+	 * returns the suscribed processes from the given slot, if the membership has changed since the given version. 
+	 * Is the in-process counterpart of {@link #suscribed(int, String)}, and is overriden by {@link com.ssdd.cs.service.CriticalSectionServiceProxy}.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param version the membership version known by the client, -1 if none
+	 * @param from the slot of the first process to return, used only if the given version is not previous to the last restart
+	 * 
+	 * @return the view of the suscribed processes, or null if the membership hasn't changed since the given version
+	 * */
+	public MembershipView membership(long version, int from) {
+		long current = this.membershipVersion.get();
+		if(version == current) {
+			return null;
+		}
+		if(version < this.restartVersion) {
+			from = 0;
+		}
+		AtomicIntegerArray processes = this.processes;
+		int count = Math.min(this.suscribedCount.get(), processes.length());
+		from = Math.max(0, Math.min(from, count));
+		int [] suscribedProcesses = new int[count - from];
+		for(int slot=from; slot<count; slot++) {
+			suscribedProcesses[slot - from] = processes.get(slot);
+		}
+		return new MembershipView(current, from, suscribedProcesses);
+	}
+	
+	/**
+	 * return a JSON serialized list of all the suscribed processes. The position of each process in the list is its slot. 
+	 * Is overriden by {@link com.ssdd.cs.service.CriticalSectionServiceProxy}.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @return String containing a JSON serialized array with the ids of the suscribed processes, -1 in the slots not yet filled.
+	  */
+	public String suscribed(){
 		// get processes
-		String[] suscribedProcesses = new String[this.processes.keySet().size()];
-		this.processes.keySet().toArray(suscribedProcesses);
+		AtomicIntegerArray processes = this.processes;
+		int[] suscribedProcesses = new int[Math.min(this.suscribedCount.get(), processes.length())];
+		for(int slot=0; slot<suscribedProcesses.length; slot++) {
+			suscribedProcesses[slot] = processes.get(slot);
+		}
 		
 		// serialize list of processes to JSON
 		String response = new Gson().toJson(suscribedProcesses);
@@ -213,96 +484,179 @@ public class CriticalSectionService{
 	 * @author Hctor Snchez San Blas
 	 * @author Francisco Pinto Santos
 	 * 
-	 * @param processId the id of the sender. Must be suscribed to current service.
+	 * @param resource the name of the requested resource's critical section
+	 * @param slot the slot of the sender, assigned at its subscription. Must be suscribed to current service.
+	 * @param mode the mode in which the critical section is requested
 	 * 
 	 * @return the message timestamp for the client
 	 * 
-	 * @throws ProcessNotFoundException when then processId doesn't corresponds to any process suscribed to current service
+	 * @throws ProcessNotFoundException when then slot doesn't corresponds to any process suscribed to current service
 	 * */
 	@GET
 	@Path("/set/requested")
 	@Produces(MediaType.TEXT_PLAIN)
-	public long setRequested(@QueryParam(value="process") String processId) throws ProcessNotFoundException {
-		this.setThreadName(processId);
-		LOGGER.log(Level.INFO, String.format("[process: %s] /cs/set/requested", processId));
-		
-		// get process
-		CritialSectionProcessState process = this.getProcessState(processId);
-		// lock operations
-		process.lock();
-		// get process' lamport time and update process's critical section state
-		long messageTimeStamp = process.saveLastTimeStamp();
-		process.setState(CriticalSectionState.REQUESTED);
-		// enable queueing
-		process.getQueue().activate();
-		// unlock operations
-		process.unlock();
-		// return the timestamp to process, for sending the requests
-		return messageTimeStamp;
+	public long setRequested(@QueryParam(value="resource") @DefaultValue(IConstants.DEFAULT_RESOURCE) String resource, @QueryParam(value="process") int slot, @QueryParam(value="mode") @DefaultValue("EXCLUSIVE") CriticalSectionMode mode) throws ProcessNotFoundException {
+		return this.ricartAgrawala().setRequested(resource, slot, mode);
 	}
 	
 	/**
-	 * processes the requests to the critical section access, send by other processes
+	 * processes the requests to the critical section access, send by other processes.
+	 * If the access is not permitted the request is deferred without blocking the calling thread: the 
+	 * {@link javax.ws.rs.container.AsyncResponse} is stored in the process's queue, and resumed when the process
+	 * releases the critical section in {@link #release(String, int)}.
 	 * 
 	 * @version 1.0
 	 * @author Hctor Snchez San Blas
 	 * @author Francisco Pinto Santos
 	 * 
-	 * @param processId the id of the process that will be asked to access the critical section. Must be suscribed to requested service.
-	 * @param sender the id of the process trying to acccess the critical section.
+	 * @param resource the name of the requested resource's critical section
+	 * @param slot the slot of the process that will be asked to access the critical section, assigned at its subscription. Must be suscribed to requested service.
+	 * @param sender the id of the process trying to acccess the critical section, used to break the ties between timestamps.
 	 * @param messageTimeStamp the message's timestamp (process's Lamport time counter value)
+	 * @param mode the mode in which the sender requests the critical section
+	 * @param token idempotency token of the request, the same in all its retries. Can be null
+	 * @param response the suspended response, resumed when the access to the critical section is permited
 	 * 
-	 * @throws ProcessNotFoundException when then processId doesn't corresponds to any process suscribed to current service
+	 * @throws ProcessNotFoundException when then slot doesn't corresponds to any process suscribed to current service
 	 * */
 	@GET
 	@Path("/request")
-	public void request(@QueryParam(value="process") String processId, @QueryParam(value="sender") String sender, @QueryParam(value="messageTimeStamp") long messageTimeStamp) throws ProcessNotFoundException {
-		this.setThreadName(processId);
+	public void request(@QueryParam(value="resource") @DefaultValue(IConstants.DEFAULT_RESOURCE) String resource, @QueryParam(value="process") int slot, @QueryParam(value="sender") int sender, @QueryParam(value="messageTimeStamp") long messageTimeStamp, @QueryParam(value="mode") @DefaultValue("EXCLUSIVE") CriticalSectionMode mode, @QueryParam(value="token") String token, @Suspended AsyncResponse response) throws ProcessNotFoundException {
+		this.ricartAgrawala().request(resource, slot, sender, messageTimeStamp, mode, token, response);
+	}
+	
+	/**
+	 * processes the requests to the critical section access in a blocking way, waiting in the process's queue
+	 * until the access is permited. Is the in-process counterpart of {@link #request(String, int, int, long, CriticalSectionMode, String, AsyncResponse)},
+	 * and is overriden by {@link com.ssdd.cs.service.CriticalSectionServiceProxy} to send the request to the remote service.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param resource the name of the requested resource's critical section
+	 * @param slot the slot of the process that will be asked to access the critical section, assigned at its subscription. Must be suscribed to requested service.
+	 * @param sender the id of the process trying to acccess the critical section, used to break the ties between timestamps.
+	 * @param messageTimeStamp the message's timestamp (process's Lamport time counter value)
+	 * @param mode the mode in which the sender requests the critical section
+	 * 
+	 * @throws ProcessNotFoundException when then slot doesn't corresponds to any process suscribed to current service
+	 * */
+	public void request(String resource, int slot, int sender, long messageTimeStamp, CriticalSectionMode mode) throws ProcessNotFoundException {
+		this.ricartAgrawala().request(resource, slot, sender, messageTimeStamp, mode);
+	}
 
-		// get process
-		CritialSectionProcessState process = this.getProcessState(processId);
-		// lock operations
-		process.lock();
-		// update local lamport time
-		process.getCounter().update(messageTimeStamp);
-		// check if the enter of process is permited or not
-		boolean permitEnter = process.permitEnter(sender, messageTimeStamp);
-		LOGGER.log(Level.INFO, String.format("[process: %s] /cs/request process %s %s", processId, sender,( permitEnter ? "ALLOWED" : "QUEUED" )));
-		// unlock operations
-		process.unlock();
-		
-		if(!permitEnter){
-			// wait until the enter in CS is permited
-			process.getQueue().waitInQueue();
-			LOGGER.log(Level.INFO, String.format("[process: %s] /cs/request process %s DEQUEUED (ALLOWED)", processId, sender));
-		}
+	/**
+	 * processes a group of requests to the critical section access, send by other process to some processes suscribed 
+	 * to current service in the same message. Each request is granted or deferred as in {@link #request(String, int, int, long, CriticalSectionMode, String, AsyncResponse)},
+	 * and the {@link javax.ws.rs.container.AsyncResponse} is resumed once all the processes have granted the access.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param resource the name of the requested resource's critical section
+	 * @param slots the slots of the processes that will be asked to access the critical section, assigned at their subscription. Must be suscribed to requested service.
+	 * @param sender the id of the process trying to acccess the critical section, used to break the ties between timestamps.
+	 * @param messageTimeStamp the message's timestamp (process's Lamport time counter value)
+	 * @param mode the mode in which the sender requests the critical section
+	 * @param token idempotency token of the group of requests, the same in all its retries. Can be null
+	 * @param response the suspended response, resumed when the access to the critical section is permited by all the processes
+	 * 
+	 * @throws ProcessNotFoundException when then any slot doesn't corresponds to any process suscribed to current service
+	 * */
+	@GET
+	@Path("/requests")
+	public void requests(@QueryParam(value="resource") @DefaultValue(IConstants.DEFAULT_RESOURCE) String resource, @QueryParam(value="process") List<Integer> slots, @QueryParam(value="sender") int sender, @QueryParam(value="messageTimeStamp") long messageTimeStamp, @QueryParam(value="mode") @DefaultValue("EXCLUSIVE") CriticalSectionMode mode, @QueryParam(value="token") String token, @Suspended AsyncResponse response) throws ProcessNotFoundException {
+		this.ricartAgrawala().requests(resource, slots, sender, messageTimeStamp, mode, token, response);
+	}
+	
+	/**
+	 * processes a group of requests to the critical section access in a blocking way, waiting until the access is permited by all
+	 * the processes. Is the in-process counterpart of {@link #requests(String, List, int, long, CriticalSectionMode, String, AsyncResponse)},
+	 * and is overriden by {@link com.ssdd.cs.service.CriticalSectionServiceProxy} to send the requests to the remote service.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param resource the name of the requested resource's critical section
+	 * @param slots the slots of the processes that will be asked to access the critical section, assigned at their subscription. Must be suscribed to requested service.
+	 * @param sender the id of the process trying to acccess the critical section, used to break the ties between timestamps.
+	 * @param messageTimeStamp the message's timestamp (process's Lamport time counter value)
+	 * @param mode the mode in which the sender requests the critical section
+	 * 
+	 * @throws ProcessNotFoundException when then any slot doesn't corresponds to any process suscribed to current service
+	 * */
+	public void requests(String resource, List<Integer> slots, int sender, long messageTimeStamp, CriticalSectionMode mode) throws ProcessNotFoundException {
+		this.ricartAgrawala().requests(resource, slots, sender, messageTimeStamp, mode);
 	}
 
 	/**
-	 * used by processes to notify to its associated service that the critical section is acquired
+	 * processes a group of requests to the critical section access without blocking the calling thread, delivering the grant 
+	 * through the channel once the access is permited by all the processes. The grants released together for the same channel
+	 * are sent in a single message. Is the in-process counterpart of {@link #requests(String, List, int, long, CriticalSectionMode, String, AsyncResponse)}
+	 * used by the transports with persistent connections, which don't suspend an {@link javax.ws.rs.container.AsyncResponse}.
 	 * 
 	 * @version 1.0
 	 * @author Hctor Snchez San Blas
 	 * @author Francisco Pinto Santos
 	 * 
-	 * @param processId the id of the sender. Must be suscribed to current service.
+	 * @param resource the name of the requested resource's critical section
+	 * @param slots the slots of the processes that will be asked to access the critical section, assigned at their subscription. Must be suscribed to requested service.
+	 * @param sender the id of the process trying to acccess the critical section, used to break the ties between timestamps.
+	 * @param messageTimeStamp the message's timestamp (process's Lamport time counter value)
+	 * @param mode the mode in which the sender requests the critical section
+	 * @param channel the channel through which the grant is delivered when the access to the critical section is permited by all the processes
+	 * @param id the id of the group of requests in the channel
 	 * 
-	 * @throws ProcessNotFoundException when then processId doesn't corresponds to any process suscribed to current service
+	 * @throws ProcessNotFoundException when then any slot doesn't corresponds to any process suscribed to current service
+	 * */
+	public void requests(String resource, List<Integer> slots, int sender, long messageTimeStamp, CriticalSectionMode mode, GrantChannel channel, int id) throws ProcessNotFoundException {
+		this.ricartAgrawala().requests(resource, slots, sender, messageTimeStamp, mode, channel, id);
+	}
+
+	/**
+	 * used by processes to notify to its associated service that all the requested processes have granted the access.
+	 * Following the Roucairol and Carvalho's optimization, if the process has granted the access to other processes since 
+	 * they granted it to the process, their permission is no longer held and the critical section is not acquired: 
+	 * the ids of these processes are returned, to be requested again. Otherwise the critical section is acquired.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param resource the name of the requested resource's critical section
+	 * @param slot the slot of the sender, assigned at its subscription. Must be suscribed to current service.
+	 * 
+	 * @return JSON serialized list of the processes to request again, empty if the critical section has been acquired
+	 * 
+	 * @throws ProcessNotFoundException when then slot doesn't corresponds to any process suscribed to current service
 	 * */
 	@GET
 	@Path("/set/acquired")
-	public void setAcquired(@QueryParam(value="process") String processId) throws ProcessNotFoundException {
-		this.setThreadName(processId);
-		LOGGER.log(Level.INFO, String.format("[process: %s] /cs/set/acquired", processId));
-		// get process
-		CritialSectionProcessState process = this.getProcessState(processId);
-		// lock operations
-		process.lock();
-		// get process' lamport time and update process's critical section state
-		process.getCounter().update();
-		process.setState(CriticalSectionState.ACQUIRED);
-		// unlock operations
-		process.unlock();
+	@Produces(MediaType.APPLICATION_JSON)
+	public String setAcquired(@QueryParam(value="resource") @DefaultValue(IConstants.DEFAULT_RESOURCE) String resource, @QueryParam(value="process") int slot) throws ProcessNotFoundException {
+		return this.ricartAgrawala().setAcquired(resource, slot);
+	}
+
+	/**
+	 * notifies that all the requested processes have granted the access, as {@link #setAcquired(String, int)}, but returning 
+	 * the processes to request again without serializing them. Is used by the transports which don't send JSON.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param resource the name of the requested resource's critical section
+	 * @param slot the slot of the sender, assigned at its subscription. Must be suscribed to current service.
+	 * 
+	 * @return the ids of the processes to request again, empty if the critical section has been acquired
+	 * 
+	 * @throws ProcessNotFoundException when then slot doesn't corresponds to any process suscribed to current service
+	 * */
+	public int [] acquireOrDrainReplied(String resource, int slot) throws ProcessNotFoundException {
+		return this.ricartAgrawala().acquireOrDrainReplied(resource, slot);
 	}
 
 	/**
@@ -312,56 +666,334 @@ public class CriticalSectionService{
 	 * @author Hctor Snchez San Blas
 	 * @author Francisco Pinto Santos
 	 * 
-	 * @param processId the id of the process trying to accces the critical section. Must be suscribed to requested service
+	 * @param resource the name of the released resource's critical section
+	 * @param slot the slot of the process trying to accces the critical section, assigned at its subscription. Must be suscribed to requested service
 	 * 
-	 * @throws ProcessNotFoundException when then processId doesn't corresponds to any process suscribed to current service
+	 * @throws ProcessNotFoundException when then slot doesn't corresponds to any process suscribed to current service
 	 * */
 	@GET
 	@Path("/release")
-	public void release(@QueryParam(value="process") String processId) throws ProcessNotFoundException {
-		this.setThreadName(processId);
-		LOGGER.log(Level.INFO, String.format("[process: %s] /cs/release", processId));
-		
-		// get process
-		CritialSectionProcessState process = this.getProcessState(processId);
-		// lock operations
-		process.lock();
-		// set new state
-		process.setState(CriticalSectionState.FREE);
-		// release queued processes
-		process.getQueue().deactivateAndRelease();
-		// unlock operations
-		process.unlock();
+	public void release(@QueryParam(value="resource") @DefaultValue(IConstants.DEFAULT_RESOURCE) String resource, @QueryParam(value="process") int slot) throws ProcessNotFoundException {
+		this.ricartAgrawala().release(resource, slot);
+	}
+	
+	/**
+	 * asynchronous counterpart of {@link #setRequested(String, int, CriticalSectionMode)}, used by the non blocking clients 
+	 * (see {@link com.ssdd.cs.client.CriticalSectionClient#acquireAsync(String, CriticalSectionMode)}). In-process it is 
+	 * processed in the calling thread, and the proxies override it to send the message without waiting for its response.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param resource the name of the requested resource's critical section
+	 * @param slot the slot of the sender, assigned at its subscription. Must be suscribed to current service.
+	 * @param mode the mode in which the critical section is requested
+	 * 
+	 * @return the message timestamp for the client, failed with a {@link com.ssdd.cs.service.ProcessNotFoundException} when 
+	 * then slot doesn't corresponds to any process suscribed to current service
+	 * */
+	public CompletableFuture<Long> setRequestedAsync(String resource, int slot, CriticalSectionMode mode) {
+		return CriticalSectionService.completed(() -> this.setRequested(resource, slot, mode));
+	}
+
+	/**
+	 * asynchronous counterpart of {@link #requests(String, List, int, long, CriticalSectionMode)}: the requests are granted
+	 * or deferred without blocking the calling thread, and the result is completed by the thread which grants the last one.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param resource the name of the requested resource's critical section
+	 * @param slots the slots of the processes that will be asked to access the critical section, assigned at their subscription. Must be suscribed to requested service.
+	 * @param sender the id of the process trying to acccess the critical section, used to break the ties between timestamps.
+	 * @param messageTimeStamp the message's timestamp (process's Lamport time counter value)
+	 * @param mode the mode in which the sender requests the critical section
+	 * 
+	 * @return completed when the access to the critical section is permited by all the processes, or failed with a 
+	 * {@link com.ssdd.cs.service.ProcessNotFoundException} when then any slot doesn't corresponds to any process suscribed to current service
+	 * */
+	public CompletableFuture<Void> requestsAsync(String resource, List<Integer> slots, int sender, long messageTimeStamp, CriticalSectionMode mode) {
+		return this.ricartAgrawala().requestsAsync(resource, slots, sender, messageTimeStamp, mode);
+	}
+
+	/**
+	 * asynchronous counterpart of {@link #acquireOrDrainReplied(String, int)}.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param resource the name of the requested resource's critical section
+	 * @param slot the slot of the sender, assigned at its subscription. Must be suscribed to current service.
+	 * 
+	 * @return the ids of the processes to request again, empty if the critical section has been acquired. Failed with a 
+	 * {@link com.ssdd.cs.service.ProcessNotFoundException} when then slot doesn't corresponds to any process suscribed to current service
+	 * */
+	public CompletableFuture<int []> acquireOrDrainRepliedAsync(String resource, int slot) {
+		return CriticalSectionService.completed(() -> this.acquireOrDrainReplied(resource, slot));
+	}
+
+	/**
+	 * asynchronous counterpart of {@link #release(String, int)}.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param resource the name of the released resource's critical section
+	 * @param slot the slot of the process trying to accces the critical section, assigned at its subscription. Must be suscribed to requested service
+	 * 
+	 * @return completed when the critical section has been released, or failed with a {@link com.ssdd.cs.service.ProcessNotFoundException} 
+	 * when then slot doesn't corresponds to any process suscribed to current service
+	 * */
+	public CompletableFuture<Void> releaseAsync(String resource, int slot) {
+		return CriticalSectionService.completed(() -> {
+			this.release(resource, slot);
+			return null;
+		});
 	}
 	
 	/**
-	 * given a processId checks if is suscribed to current service instance and returns the
-	 * status of the process in the critical section
+	 * used by processes to notify to its associated service that the critical section is requested with the Suzuki and Kasami's algorithm.
 	 * 
 	 * @version 1.0
 	 * @author Hctor Snchez San Blas
 	 * @author Francisco Pinto Santos
 	 * 
-	 * @param processId id of the process we want to check if you have subscribed to this service.
+	 * @param resource the name of the requested resource's critical section
+	 * @param slot the slot of the sender, assigned at its subscription. Must be suscribed to current service.
 	 * 
-	 * @return the status of the process in the system
+	 * @return the process's request number to broadcast, or {@link com.ssdd.cs.bean.SuzukiKasamiProcessState#TOKEN_HELD} if the process holds the token and the critical section has been acquired
 	 * 
-	 * @throws ProcessNotFoundException when then processId doesn't corresponds to any process suscribed to current service
+	 * @throws ProcessNotFoundException when then slot doesn't corresponds to any process suscribed to current service
 	 * */
-	private CritialSectionProcessState getProcessState(String processId) throws ProcessNotFoundException{
-		// check if given processId corresponds to a suscribed process
-		if(! this.processes.keySet().contains(processId)) {
-			LOGGER.log(Level.WARNING, String.format("ERROR the given process is not subscribed %s", processId));
-			throw new ProcessNotFoundException(processId);
+	public long tokenSetRequested(String resource, int slot) throws ProcessNotFoundException {
+		return this.suzukiKasami().setRequested(resource, slot);
+	}
+	
+	/**
+	 * processes the requests of the Suzuki and Kasami's algorithm, send by other processes. The request never blocks: 
+	 * if the process holds the token without using it and the request is outstanding, the token is given up in the response.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param resource the name of the requested resource's critical section
+	 * @param slot the slot of the process that will be asked for the token, assigned at its subscription. Must be suscribed to requested service.
+	 * @param sender the id of the process trying to acccess the critical section.
+	 * @param requestNumber the sender's request number
+	 * 
+	 * @return JSON serialized token, or null if it isn't given up
+	 * 
+	 * @throws ProcessNotFoundException when then slot doesn't corresponds to any process suscribed to current service
+	 * */
+	public String tokenRequest(String resource, int slot, int sender, long requestNumber) throws ProcessNotFoundException {
+		return this.suzukiKasami().request(resource, slot, sender, requestNumber);
+	}
+	
+	/**
+	 * delivers the token of the Suzuki and Kasami's algorithm to a process.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param resource the name of the requested resource's critical section
+	 * @param slot the slot of the token's receiver, assigned at its subscription. Must be suscribed to requested service.
+	 * @param token JSON serialized token
+	 * 
+	 * @throws ProcessNotFoundException when then slot doesn't corresponds to any process suscribed to current service
+	 * */
+	public void tokenDeliver(String resource, int slot, String token) throws ProcessNotFoundException {
+		this.suzukiKasami().deliverToken(resource, slot, token);
+	}
+	
+	/**
+	 * waits for the token of the Suzuki and Kasami's algorithm in a blocking way. Is the in-process counterpart of 
+	 * {@link com.ssdd.cs.service.algorithm.SuzukiKasamiServer#awaitToken(String, int, AsyncResponse)}, and is overriden by {@link com.ssdd.cs.service.CriticalSectionServiceProxy}.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param resource the name of the requested resource's critical section
+	 * @param slot the slot of the sender, assigned at its subscription. Must be suscribed to current service.
+	 * 
+	 * @throws ProcessNotFoundException when then slot doesn't corresponds to any process suscribed to current service
+	 * */
+	public void tokenAwait(String resource, int slot) throws ProcessNotFoundException {
+		this.suzukiKasami().awaitToken(resource, slot);
+	}
+	
+	/**
+	 * used by suscribed processes to to release the critical section with the Suzuki and Kasami's algorithm. If other process is 
+	 * waiting for the token, the token is returned to be sent to it.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param resource the name of the released resource's critical section
+	 * @param slot the slot of the process who releases the critical section, assigned at its subscription. Must be suscribed to requested service
+	 * 
+	 * @return JSON serialized token to send to its next holder, or null if it's kept by the process
+	 * 
+	 * @throws ProcessNotFoundException when then slot doesn't corresponds to any process suscribed to current service
+	 * */
+	public String tokenRelease(String resource, int slot) throws ProcessNotFoundException {
+		return this.suzukiKasami().release(resource, slot);
+	}
+	
+	/**
+	 * sends a message of the Maekawa's algorithm to a process, storing it in the process's mailbox.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param slot the slot of the message's receiver, assigned at its subscription. Must be suscribed to requested service.
+	 * @param message JSON serialized {@link com.ssdd.cs.bean.MaekawaMessage}
+	 * 
+	 * @throws ProcessNotFoundException when then slot doesn't corresponds to any process suscribed to current service
+	 * */
+	public void maekawaSend(int slot, String message) throws ProcessNotFoundException {
+		this.maekawa().send(slot, message);
+	}
+	
+	/**
+	 * receives the messages of the Maekawa's algorithm in a blocking way. Is the in-process counterpart of 
+	 * {@link com.ssdd.cs.service.algorithm.MaekawaServer#receive(int, AsyncResponse)}, and is overriden by {@link com.ssdd.cs.service.CriticalSectionServiceProxy}.
+	 * As the asynchronous one, returns an empty list if there is no message after {@link com.ssdd.util.constants.IConstants#MAEKAWA_RECEIVE_TIMEOUT} 
+	 * seconds, and also if the calling thread is interrupted, keeping its interrupted status.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param slot the slot of the receiver, assigned at its subscription. Must be suscribed to requested service.
+	 * 
+	 * @return JSON serialized list of messages
+	 * 
+	 * @throws ProcessNotFoundException when then slot doesn't corresponds to any process suscribed to current service
+	 * */
+	public String maekawaReceive(int slot) throws ProcessNotFoundException {
+		return this.maekawa().receive(slot);
+	}
+	
+	/**
+	 * locates the REST endpoints of the Suzuki and Kasami's algorithm, served under /cs/sk by the algorithm's server.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @return the server of the Suzuki and Kasami's algorithm
+	 * */
+	@Path("/sk")
+	public SuzukiKasamiServer tokenEndpoints() {
+		return this.suzukiKasami();
+	}
+	
+	/**
+	 * locates the REST endpoints of the Maekawa's algorithm, served under /cs/maekawa by the algorithm's server.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @return the server of the Maekawa's algorithm
+	 * */
+	@Path("/maekawa")
+	public MaekawaServer maekawaEndpoints() {
+		return this.maekawa();
+	}
+	
+	private RicartAgrawalaServer ricartAgrawala() {
+		return (RicartAgrawalaServer) this.servers.get(MutualExclusionAlgorithmType.RICART_AGRAWALA);
+	}
+	
+	private SuzukiKasamiServer suzukiKasami() {
+		return (SuzukiKasamiServer) this.servers.get(MutualExclusionAlgorithmType.SUZUKI_KASAMI);
+	}
+	
+	private MaekawaServer maekawa() {
+		return (MaekawaServer) this.servers.get(MutualExclusionAlgorithmType.MAEKAWA);
+	}
+	
+	/**
+	 * checks if the given slot corresponds to a process suscribed to current service instance.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param slot slot of the process we want to check if you have subscribed to this service.
+	 * 
+	 * @return the ids of the subscribed processes, indexed by their slot
+	 * 
+	 * @throws ProcessNotFoundException when then slot doesn't corresponds to any process suscribed to current service
+	 * */
+	private AtomicIntegerArray checkSuscribed(int slot) throws ProcessNotFoundException{
+		AtomicIntegerArray processes = this.processes;
+		if(slot < 0 || slot >= processes.length() || processes.get(slot) == UNSUSCRIBED) {
+			LOGGER.log(Level.WARNING, String.format("ERROR the given process is not subscribed %d", slot));
+			throw new ProcessNotFoundException(String.valueOf(slot));
+		}
+		return processes;
+	}
+	
+	/**
+	 * cleans the subscribed processes and their state in all resources' critical sections, and allocates the slots
+	 * for the processes that will suscribe.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param numProcesses the number of slots to allocate
+	 * */
+	private void clearProcesses(int numProcesses) {
+		AtomicIntegerArray processes = new AtomicIntegerArray(numProcesses);
+		for(int slot=0; slot<numProcesses; slot++) {
+			processes.set(slot, UNSUSCRIBED);
+		}
+		for(MutualExclusionServer server : this.servers.values()) {
+			server.clear(numProcesses);
+		}
+		this.suscribedCount = new AtomicInteger(0);
+		this.processes = processes;
+		this.restartVersion = this.membershipVersion.incrementAndGet();
+	}
+	
+	/**
+	 * runs a call which doesn't block, providing its result or its error as a completed future.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param call the call
+	 * 
+	 * @return the completed result
+	 * */
+	private static <T> CompletableFuture<T> completed(Callable<T> call) {
+		CompletableFuture<T> result = new CompletableFuture<>();
+		try {
+			result.complete(call.call());
+		} catch (Exception e) {
+			result.completeExceptionally(e);
 		}
-		return this.processes.get(processId);
+		return result;
 	}
 	
 	private void setThreadName(){
 		Thread.currentThread().setName(String.format("CS"));
 	}
 	
-	private void setThreadName(String p){
-		Thread.currentThread().setName(String.format("CS.%s",p));
+	private void setThreadName(int p){
+		Thread.currentThread().setName(String.format("CS.%d",p));
 	}
 }
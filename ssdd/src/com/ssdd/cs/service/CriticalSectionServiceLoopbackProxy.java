@@ -0,0 +1,608 @@
+package com.ssdd.cs.service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+import com.ssdd.cs.bean.CriticalSectionMode;
+import com.ssdd.cs.bean.MembershipView;
+import com.ssdd.util.constants.IConstants;
+
+import jersey.repackaged.com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/** 
+ * Critical section proxy which delivers the messages directly to a {@link com.ssdd.cs.service.CriticalSectionService} 
+ * instance of the same JVM, through its in-process methods, so a whole cluster of services and processes can run in a 
+ * single process without the network stack. Optionally, each message and each response are delayed with a fixed 
+ * latency, to simulate the network.
+ * 
+ * The services are registered by host in a JVM wide registry, see {@link #register(String, CriticalSectionService)}. 
+ * A proxy to a not registered host builds and registers a new service.
+ * 
+ * @version 1.0
+ * @author Hctor Snchez San Blas
+ * @author Francisco Pinto Santos
+*/
+public class CriticalSectionServiceLoopbackProxy extends CriticalSectionService{
+
+	/**
+	 * the services of the JVM, indexed by their host's name
+	 * */
+	private final static Map<String, CriticalSectionService> SERVICES = new ConcurrentHashMap<>();
+	
+	/**
+	 * holder of the timer which delays the asynchronous messages, initialized on first use
+	 * */
+	private static class TimerHolder {
+		private final static ScheduledExecutorService TIMER = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder().setNameFormat("loopback.%d").setDaemon(true).build());
+	}
+	
+	/**
+	 * the name of the service's host
+	 * */
+	private String host;
+	/**
+	 * the service which receives the messages
+	 * */
+	private CriticalSectionService service;
+	/**
+	 * one-way latency (in nanoseconds) of each message
+	 * */
+	private long latency;
+	
+	public CriticalSectionServiceLoopbackProxy(String host) {
+		this(host, TimeUnit.MICROSECONDS.toNanos(Long.getLong(IConstants.CS_LOOPBACK_LATENCY_PROPERTY, IConstants.CS_LOOPBACK_LATENCY)));
+	}
+	
+	public CriticalSectionServiceLoopbackProxy(String host, long latency) {
+		this.host = host;
+		this.service = CriticalSectionServiceLoopbackProxy.service(host);
+		this.latency = latency;
+	}
+	
+	/**
+	 * registers a service of the JVM, to receive the messages sent to the given host through the loopback proxies.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param host the name of the service's host
+	 * @param service the service
+	 * */
+	public static void register(String host, CriticalSectionService service) {
+		SERVICES.put(host, service);
+	}
+	
+	/**
+	 * provides the service of the JVM registered for the given host, building and registering a new one if there isn't any.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param host the name of the service's host
+	 * 
+	 * @return the registered service
+	 * */
+	public static CriticalSectionService service(String host) {
+		return SERVICES.computeIfAbsent(host, h -> new CriticalSectionService());
+	}
+	
+	/**
+	 * See {@link com.ssdd.cs.service.CriticalSectionService#restart(int)}
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param numProcesses the number of processes that will try to access to critial section
+	 * */
+	@Override
+	public void restart(int numProcesses) {
+		this.delay();
+		this.service.restart(numProcesses);
+		this.delay();
+	}
+
+	/**
+	 * See {@link com.ssdd.cs.service.CriticalSectionService#ready()}
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * */
+	@Override
+	public void ready() {
+		this.delay();
+		this.service.ready();
+		this.delay();
+	}
+
+	/**
+	 * See {@link com.ssdd.cs.service.CriticalSectionService#finished()}
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * */
+	@Override
+	public void finished() {
+		this.delay();
+		this.service.finished();
+		this.delay();
+	}
+
+	/**
+	 * See {@link com.ssdd.cs.service.CriticalSectionService#resetBarriers()}
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * */
+	@Override
+	public void resetBarriers() {
+		this.delay();
+		this.service.resetBarriers();
+		this.delay();
+	}
+
+	/**
+	 * See {@link com.ssdd.cs.service.CriticalSectionService#suscribe(int)}
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param processId the id of the process who wants to suscribe to the service
+	 * 
+	 * @return the slot assigned to the process, or -1 if all the slots are assigned
+	 * */
+	@Override
+	public int suscribe(int processId) {
+		this.delay();
+		int response = this.service.suscribe(processId);
+		this.delay();
+		return response;
+	}
+
+	/**
+	 * See {@link com.ssdd.cs.service.CriticalSectionService#suscribeRange(int, int)}
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param rangeStart the id of the first process of the range
+	 * @param rangeEnd the id of the last process of the range, included
+	 * 
+	 * @return String containing a JSON serialized array with the slot assigned to each process of the range
+	 * */
+	@Override
+	public String suscribeRange(int rangeStart, int rangeEnd) {
+		this.delay();
+		String response = this.service.suscribeRange(rangeStart, rangeEnd);
+		this.delay();
+		return response;
+	}
+
+	/**
+	 * See {@link com.ssdd.cs.service.CriticalSectionService#suscribed()}
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @return String containing a JSON serialized array with the list of processes suscribed to the service
+	 * */
+	@Override
+	public String suscribed() {
+		this.delay();
+		String response = this.service.suscribed();
+		this.delay();
+		return response;
+	}
+
+	/**
+	 * See {@link com.ssdd.cs.service.CriticalSectionService#membership(long, int)}
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param version the membership version known by the client, -1 if none
+	 * @param from the slot of the first process to return
+	 * 
+	 * @return the view of the suscribed processes, or null if the membership hasn't changed since the given version
+	 * */
+	@Override
+	public MembershipView membership(long version, int from) {
+		this.delay();
+		MembershipView response = this.service.membership(version, from);
+		this.delay();
+		return response;
+	}
+
+	/**
+	 * See {@link com.ssdd.cs.service.CriticalSectionService#setRequested(String, int, CriticalSectionMode)}
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param resource the name of the requested resource's critical section
+	 * @param slot the slot of the sender, assigned at its subscription. Must be suscribed to the service.
+	 * @param mode the mode in which the critical section is requested
+	 * 
+	 * @return the message timestamp for the client
+	 * 
+	 * @throws ProcessNotFoundException when then slot doesn't corresponds to any process suscribed to the service
+	 * */
+	@Override
+	public long setRequested(String resource, int slot, CriticalSectionMode mode) throws ProcessNotFoundException {
+		this.delay();
+		long response = this.service.setRequested(resource, slot, mode);
+		this.delay();
+		return response;
+	}
+
+	/**
+	 * See {@link com.ssdd.cs.service.CriticalSectionService#setAcquired(String, int)}
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param resource the name of the requested resource's critical section
+	 * @param slot the slot of the sender, assigned at its subscription. Must be suscribed to the service.
+	 * 
+	 * @return JSON serialized list of the processes to request again, empty if the critical section has been acquired
+	 * 
+	 * @throws ProcessNotFoundException when then slot doesn't corresponds to any process suscribed to the service
+	 * */
+	@Override
+	public String setAcquired(String resource, int slot) throws ProcessNotFoundException {
+		this.delay();
+		String response = this.service.setAcquired(resource, slot);
+		this.delay();
+		return response;
+	}
+
+	/**
+	 * See {@link com.ssdd.cs.service.CriticalSectionService#request(String, int, int, long, CriticalSectionMode)}
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param resource the name of the requested resource's critical section
+	 * @param slot the slot of the process that will be asked to access the critical section. Must be suscribed to the service.
+	 * @param sender the id of the process trying to accces the critical section, used to break the ties between timestamps.
+	 * @param messageTimeStamp the message's timestamp (process's lamport time counter value)
+	 * @param mode the mode in which the sender requests the critical section
+	 * 
+	 * @throws ProcessNotFoundException when then slot doesn't corresponds to any process suscribed to the service
+	 * */
+	@Override
+	public void request(String resource, int slot, int sender, long messageTimeStamp, CriticalSectionMode mode) throws ProcessNotFoundException {
+		this.delay();
+		this.service.request(resource, slot, sender, messageTimeStamp, mode);
+		this.delay();
+	}
+
+	/**
+	 * See {@link com.ssdd.cs.service.CriticalSectionService#requests(String, List, int, long, CriticalSectionMode)}
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param resource the name of the requested resource's critical section
+	 * @param slots the slots of the processes that will be asked to access the critical section. Must be suscribed to the service.
+	 * @param sender the id of the process trying to accces the critical section, used to break the ties between timestamps.
+	 * @param messageTimeStamp the message's timestamp (process's lamport time counter value)
+	 * @param mode the mode in which the sender requests the critical section
+	 * 
+	 * @throws ProcessNotFoundException when then slot doesn't corresponds to any process suscribed to the service
+	 * */
+	@Override
+	public void requests(String resource, List<Integer> slots, int sender, long messageTimeStamp, CriticalSectionMode mode) throws ProcessNotFoundException {
+		this.delay();
+		this.service.requests(resource, slots, sender, messageTimeStamp, mode);
+		this.delay();
+	}
+
+	/**
+	 * See {@link com.ssdd.cs.service.CriticalSectionService#release(String, int)}
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param resource the name of the released resource's critical section
+	 * @param slot the slot of the sender, assigned at its subscription. Must be suscribed to the service.
+	 * 
+	 * @throws ProcessNotFoundException when then slot doesn't corresponds to any process suscribed to the service
+	 * */
+	@Override
+	public void release(String resource, int slot) throws ProcessNotFoundException {
+		this.delay();
+		this.service.release(resource, slot);
+		this.delay();
+	}
+
+	/**
+	 * See {@link com.ssdd.cs.service.CriticalSectionService#setRequestedAsync(String, int, CriticalSectionMode)}
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param resource the name of the requested resource's critical section
+	 * @param slot the slot of the sender, assigned at its subscription. Must be suscribed to the service.
+	 * @param mode the mode in which the critical section is requested
+	 * 
+	 * @return the message timestamp for the client
+	 * */
+	@Override
+	public CompletableFuture<Long> setRequestedAsync(String resource, int slot, CriticalSectionMode mode) {
+		return this.delayed(() -> this.service.setRequestedAsync(resource, slot, mode));
+	}
+
+	/**
+	 * See {@link com.ssdd.cs.service.CriticalSectionService#requestsAsync(String, List, int, long, CriticalSectionMode)}
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param resource the name of the requested resource's critical section
+	 * @param slots the slots of the processes that will be asked to access the critical section. Must be suscribed to the service.
+	 * @param sender the id of the process trying to accces the critical section, used to break the ties between timestamps.
+	 * @param messageTimeStamp the message's timestamp (process's lamport time counter value)
+	 * @param mode the mode in which the sender requests the critical section
+	 * 
+	 * @return completed when the access to the critical section is permited by all the processes
+	 * */
+	@Override
+	public CompletableFuture<Void> requestsAsync(String resource, List<Integer> slots, int sender, long messageTimeStamp, CriticalSectionMode mode) {
+		return this.delayed(() -> this.service.requestsAsync(resource, slots, sender, messageTimeStamp, mode));
+	}
+
+	/**
+	 * See {@link com.ssdd.cs.service.CriticalSectionService#acquireOrDrainRepliedAsync(String, int)}
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param resource the name of the requested resource's critical section
+	 * @param slot the slot of the sender, assigned at its subscription. Must be suscribed to the service.
+	 * 
+	 * @return the ids of the processes to request again, empty if the critical section has been acquired
+	 * */
+	@Override
+	public CompletableFuture<int []> acquireOrDrainRepliedAsync(String resource, int slot) {
+		return this.delayed(() -> this.service.acquireOrDrainRepliedAsync(resource, slot));
+	}
+
+	/**
+	 * See {@link com.ssdd.cs.service.CriticalSectionService#releaseAsync(String, int)}
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param resource the name of the released resource's critical section
+	 * @param slot the slot of the sender, assigned at its subscription. Must be suscribed to the service.
+	 * 
+	 * @return completed when the critical section has been released
+	 * */
+	@Override
+	public CompletableFuture<Void> releaseAsync(String resource, int slot) {
+		return this.delayed(() -> this.service.releaseAsync(resource, slot));
+	}
+
+	/**
+	 * See {@link com.ssdd.cs.service.CriticalSectionService#tokenSetRequested(String, int)}
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param resource the name of the requested resource's critical section
+	 * @param slot the slot of the sender, assigned at its subscription. Must be suscribed to the service.
+	 * 
+	 * @return the process's request number to broadcast, or {@link com.ssdd.cs.bean.SuzukiKasamiProcessState#TOKEN_HELD} if the critical section has been acquired
+	 * 
+	 * @throws ProcessNotFoundException when then slot doesn't corresponds to any process suscribed to the service
+	 * */
+	@Override
+	public long tokenSetRequested(String resource, int slot) throws ProcessNotFoundException {
+		this.delay();
+		long response = this.service.tokenSetRequested(resource, slot);
+		this.delay();
+		return response;
+	}
+
+	/**
+	 * See {@link com.ssdd.cs.service.CriticalSectionService#tokenRequest(String, int, int, long)}
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param resource the name of the requested resource's critical section
+	 * @param slot the slot of the process that will be asked for the token. Must be suscribed to the service.
+	 * @param sender the id of the process trying to accces the critical section.
+	 * @param requestNumber the sender's request number
+	 * 
+	 * @return JSON serialized token, or null if it isn't given up
+	 * 
+	 * @throws ProcessNotFoundException when then slot doesn't corresponds to any process suscribed to the service
+	 * */
+	@Override
+	public String tokenRequest(String resource, int slot, int sender, long requestNumber) throws ProcessNotFoundException {
+		this.delay();
+		String response = this.service.tokenRequest(resource, slot, sender, requestNumber);
+		this.delay();
+		return response;
+	}
+
+	/**
+	 * See {@link com.ssdd.cs.service.CriticalSectionService#tokenDeliver(String, int, String)}
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param resource the name of the requested resource's critical section
+	 * @param slot the slot of the token's receiver. Must be suscribed to the service.
+	 * @param token JSON serialized token
+	 * 
+	 * @throws ProcessNotFoundException when then slot doesn't corresponds to any process suscribed to the service
+	 * */
+	@Override
+	public void tokenDeliver(String resource, int slot, String token) throws ProcessNotFoundException {
+		this.delay();
+		this.service.tokenDeliver(resource, slot, token);
+		this.delay();
+	}
+
+	/**
+	 * See {@link com.ssdd.cs.service.CriticalSectionService#tokenAwait(String, int)}
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param resource the name of the requested resource's critical section
+	 * @param slot the slot of the sender, assigned at its subscription. Must be suscribed to the service.
+	 * 
+	 * @throws ProcessNotFoundException when then slot doesn't corresponds to any process suscribed to the service
+	 * */
+	@Override
+	public void tokenAwait(String resource, int slot) throws ProcessNotFoundException {
+		this.delay();
+		this.service.tokenAwait(resource, slot);
+		this.delay();
+	}
+
+	/**
+	 * See {@link com.ssdd.cs.service.CriticalSectionService#tokenRelease(String, int)}
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param resource the name of the released resource's critical section
+	 * @param slot the slot of the sender, assigned at its subscription. Must be suscribed to the service.
+	 * 
+	 * @return JSON serialized token to send to its next holder, or null if it's kept by the process
+	 * 
+	 * @throws ProcessNotFoundException when then slot doesn't corresponds to any process suscribed to the service
+	 * */
+	@Override
+	public String tokenRelease(String resource, int slot) throws ProcessNotFoundException {
+		this.delay();
+		String response = this.service.tokenRelease(resource, slot);
+		this.delay();
+		return response;
+	}
+
+	/**
+	 * See {@link com.ssdd.cs.service.CriticalSectionService#maekawaSend(int, String)}
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param slot the slot of the message's receiver. Must be suscribed to the service.
+	 * @param message JSON serialized {@link com.ssdd.cs.bean.MaekawaMessage}
+	 * 
+	 * @throws ProcessNotFoundException when then slot doesn't corresponds to any process suscribed to the service
+	 * */
+	@Override
+	public void maekawaSend(int slot, String message) throws ProcessNotFoundException {
+		this.delay();
+		this.service.maekawaSend(slot, message);
+		this.delay();
+	}
+
+	/**
+	 * See {@link com.ssdd.cs.service.CriticalSectionService#maekawaReceive(int)}
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param slot the slot of the receiver. Must be suscribed to the service.
+	 * 
+	 * @return JSON serialized list of messages
+	 * 
+	 * @throws ProcessNotFoundException when then slot doesn't corresponds to any process suscribed to the service
+	 * */
+	@Override
+	public String maekawaReceive(int slot) throws ProcessNotFoundException {
+		this.delay();
+		String response = this.service.maekawaReceive(slot);
+		this.delay();
+		return response;
+	}
+
+	/**
+	 * waits the latency of a message. The thread is parked until the deadline, as {@link java.lang.Thread#sleep(long)} 
+	 * can't wait less than a millisecond.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * */
+	private void delay() {
+		if(this.latency <= 0) {
+			return;
+		}
+		long deadline = System.nanoTime() + this.latency;
+		for(long remaining = this.latency; remaining > 0; remaining = deadline - System.nanoTime()) {
+			LockSupport.parkNanos(remaining);
+		}
+	}
+
+	/**
+	 * delivers an asynchronous message with the latency of the message and of its response, as {@link #delay()}, but 
+	 * scheduling the delivery in a timer instead of parking the calling thread.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param message delivers the message to the service
+	 * 
+	 * @return the response of the service
+	 * */
+	private <T> CompletableFuture<T> delayed(Supplier<CompletableFuture<T>> message) {
+		if(this.latency <= 0) {
+			return message.get();
+		}
+		CompletableFuture<T> result = new CompletableFuture<>();
+		TimerHolder.TIMER.schedule(() -> message.get().whenComplete((value, error) -> TimerHolder.TIMER.schedule(() -> {
+			if(null == error) {
+				result.complete(value);
+			}else {
+				result.completeExceptionally(error);
+			}
+		}, this.latency, TimeUnit.NANOSECONDS)), this.latency, TimeUnit.NANOSECONDS);
+		return result;
+	}
+
+	@Override
+	public String toString() {
+		return this.host;
+	}
+}
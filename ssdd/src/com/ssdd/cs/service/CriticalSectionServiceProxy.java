@@ -1,19 +1,41 @@
 package com.ssdd.cs.service;
 
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
-import javax.ws.rs.client.ClientBuilder;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.client.Entity;
+import javax.ws.rs.client.Invocation;
+import javax.ws.rs.client.InvocationCallback;
 import javax.ws.rs.client.WebTarget;
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
-import javax.ws.rs.core.UriBuilder;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.Response.Status;
 
 import com.google.gson.Gson;
-import com.ssdd.util.constants.IConstants;
+import com.ssdd.cs.bean.CriticalSectionMode;
+import com.ssdd.cs.bean.MaekawaMessage;
+import com.ssdd.cs.bean.MembershipView;
+import com.ssdd.cs.bean.SuzukiKasamiToken;
+import com.ssdd.util.http.HttpCallPolicy;
+import com.ssdd.util.http.HttpClientFactory;
+import com.ssdd.util.http.ServiceCallException;
 import com.ssdd.util.logging.SSDDLogFactory;
 
 /** 
- * Critical section proxy, to access a Critical Section service in a easier way
+ * Critical section proxy, to access a Critical Section service in a easier way. The requests are sent with the default 
+ * {@link com.ssdd.util.http.HttpCallPolicy}, and fail with a {@link com.ssdd.util.http.ServiceCallException} when they 
+ * can't be retried anymore. The requests to the critical section carry an idempotency token, so the service doesn't queue
+ * them twice when they are retried. The asynchronous requests of the Ricart and Agrawala's algorithm are sent with the 
+ * asynchronous invocations of the JAX-RS client, and retried with {@link com.ssdd.util.http.HttpCallPolicy#callAsync(String, boolean, Supplier)}.
  * 
  * @version 1.0
  * @author Hctor Snchez San Blas
@@ -34,14 +56,19 @@ public class CriticalSectionServiceProxy extends CriticalSectionService{
 	 * api client to make requests to Critical section service..
 	 * */
 	private WebTarget service;
+	/**
+	 * policy to retry the failed requests
+	 * */
+	private HttpCallPolicy policy;
 	
 	public CriticalSectionServiceProxy(String serviceUri) {
 		this.serviceUri = serviceUri;
-		this.service = ClientBuilder.newClient().target(UriBuilder.fromUri(serviceUri).build());
+		this.service = HttpClientFactory.target(serviceUri);
+		this.policy = HttpCallPolicy.defaults();
 	}
 	
 	/**
-	 * method to parse the /cs/suscribed response from JSON serialized string array, to a String [].
+	 * method to parse the /cs/suscribed response from JSON serialized int array, to a int []. The position of each process is its slot.
 	 * 
 	 * @see com.ssdd.cs.service.CriticalSectionService#suscribed()
 	 * @version 1.0
@@ -50,10 +77,76 @@ public class CriticalSectionServiceProxy extends CriticalSectionService{
 	 * 
 	 * @param response of the /cs/suscribed response
 	 * 
-	 * @return String [] with deserialized response
+	 * @return int [] with deserialized response
+	 * */
+	public static int [] parseSuscribedResponse(String response) {
+		return new Gson().fromJson(response, int[].class);
+	}
+	
+	/**
+	 * method to parse the /cs/suscribe/range response from JSON serialized int array, to a int []. The position of each slot is 
+	 * the position of its process in the range.
+	 * 
+	 * @see com.ssdd.cs.service.CriticalSectionService#suscribeRange(int, int)
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param response of the /cs/suscribe/range response
+	 * 
+	 * @return int [] with deserialized response
+	 * */
+	public static int [] parseSuscribeRangeResponse(String response) {
+		return new Gson().fromJson(response, int[].class);
+	}
+	
+	/**
+	 * method to parse the /cs/set/acquired response from JSON serialized int array, to a int [].
+	 * 
+	 * @see com.ssdd.cs.service.CriticalSectionService#setAcquired(String, int)
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param response of the /cs/set/acquired response
+	 * 
+	 * @return int [] with deserialized response
+	 * */
+	public static int [] parseSetAcquiredResponse(String response) {
+		return new Gson().fromJson(response, int[].class);
+	}
+	
+	/**
+	 * method to parse the /cs/sk/request and /cs/sk/release responses from JSON serialized token, to a {@link com.ssdd.cs.bean.SuzukiKasamiToken}.
+	 * 
+	 * @see com.ssdd.cs.service.CriticalSectionService#tokenRequest(String, int, int, long)
+	 * @see com.ssdd.cs.service.CriticalSectionService#tokenRelease(String, int)
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param response of the /cs/sk/request or /cs/sk/release response
+	 * 
+	 * @return the deserialized token, or null if the response doesn't contain it
+	 * */
+	public static SuzukiKasamiToken parseTokenResponse(String response) {
+		return new Gson().fromJson(response, SuzukiKasamiToken.class);
+	}
+	
+	/**
+	 * method to parse the /cs/maekawa/receive response from JSON serialized list of messages, to a {@link com.ssdd.cs.bean.MaekawaMessage} [].
+	 * 
+	 * @see com.ssdd.cs.service.CriticalSectionService#maekawaReceive(int)
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param response of the /cs/maekawa/receive response
+	 * 
+	 * @return MaekawaMessage [] with deserialized response
 	 * */
-	public static String [] parseSuscribedResponse(String response) {
-		return new Gson().fromJson(response, String[].class);
+	public static MaekawaMessage [] parseMaekawaResponse(String response) {
+		return new Gson().fromJson(response, MaekawaMessage[].class);
 	}
 	
 	/**
@@ -68,12 +161,7 @@ public class CriticalSectionServiceProxy extends CriticalSectionService{
 	@Override
 	public void restart(int numProcesses) {
 		LOGGER.log(Level.INFO, String.format("/cs/restart numProcesses:%d", numProcesses));
-		try {
-			this.service.path("restart").queryParam("numProcesses", numProcesses).request().get();
-		} catch (Exception e) {
-			LOGGER.log(Level.WARNING, String.format("/cs/restart: error %s", e.getMessage()), e);
-			System.exit(IConstants.EXIT_CODE_HTTP_REQUEST_ERROR);
-		}
+		this.policy.run("/cs/restart", true, () -> this.service.path("restart").queryParam("numProcesses", numProcesses).request().get().close());
 	}
 	
 	/**
@@ -86,12 +174,13 @@ public class CriticalSectionServiceProxy extends CriticalSectionService{
 	@Override
 	public void ready() {
 		LOGGER.log(Level.INFO, "/cs/ready");
-		try {
-			this.service.path("ready").request().get();
-		} catch (Exception e) {
-			LOGGER.log(Level.WARNING, String.format("/cs/ready: error %s", e.getMessage()), e);
-			System.exit(IConstants.EXIT_CODE_HTTP_REQUEST_ERROR);
-		}
+		this.policy.run("/cs/ready", false, () -> {
+			Response response = HttpClientFactory.waiting(this.service.path("ready").request()).get();
+			if(response.getStatus() == Status.SERVICE_UNAVAILABLE.getStatusCode()) {
+				LOGGER.log(Level.WARNING, "/cs/ready: broken barrier");
+			}
+			response.close();
+		});
 	}
 	
 	/**
@@ -104,32 +193,64 @@ public class CriticalSectionServiceProxy extends CriticalSectionService{
 	@Override
 	public void finished() {
 		LOGGER.log(Level.INFO, "/cs/finished");
-		try {
-			this.service.path("finished").request().get();
-		} catch (Exception e) {
-			LOGGER.log(Level.WARNING, String.format("/cs/finished: error %s", e.getMessage()), e);
-			System.exit(IConstants.EXIT_CODE_HTTP_REQUEST_ERROR);
-		}
+		this.policy.run("/cs/finished", false, () -> {
+			Response response = HttpClientFactory.waiting(this.service.path("finished").request()).get();
+			if(response.getStatus() == Status.SERVICE_UNAVAILABLE.getStatusCode()) {
+				LOGGER.log(Level.WARNING, "/cs/finished: broken barrier");
+			}
+			response.close();
+		});
+	}
+	
+	/**
+	 * See {@link com.ssdd.cs.service.CriticalSectionService#resetBarriers()}
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * */
+	@Override
+	public void resetBarriers() {
+		LOGGER.log(Level.INFO, "/cs/barriers/reset");
+		this.policy.run("/cs/barriers/reset", true, () -> this.service.path("barriers").path("reset").request().get().close());
 	}
 	
 	/**
-	 * See {@link com.ssdd.cs.service.CriticalSectionService#suscribe(String)}
+	 * See {@link com.ssdd.cs.service.CriticalSectionService#suscribe(int)}
 	 * 
 	 * @version 1.0
 	 * @author Hctor Snchez San Blas
 	 * @author Francisco Pinto Santos
 	 * 
 	 * @param processId the id of the process who wants to suscribe to requested service
+	 * 
+	 * @return the slot assigned to the process, or -1 if all the slots are assigned
 	 * */
 	@Override
-	public void suscribe(String processId){
+	public int suscribe(int processId){
 		LOGGER.log(Level.INFO, "/cs/suscribe");
-		try {
-			this.service.path("suscribe").queryParam("process", processId).request().get();
-		} catch (Exception e) {
-			LOGGER.log(Level.WARNING, String.format("/cs/suscribe: error %s", e.getMessage()), e);
-			System.exit(IConstants.EXIT_CODE_HTTP_REQUEST_ERROR);
-		}
+		return this.policy.call("/cs/suscribe", false, () -> {
+			String response = this.service.path("suscribe").queryParam("process", processId).request(MediaType.TEXT_PLAIN).get(String.class);
+			return Integer.parseInt(response);
+		});
+	}
+
+	/**
+	 * See {@link com.ssdd.cs.service.CriticalSectionService#suscribeRange(int, int)}
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param rangeStart the id of the first process of the range
+	 * @param rangeEnd the id of the last process of the range, included
+	 * 
+	 * @return String containing a JSON serialized array with the slot assigned to each process of the range
+	 * */
+	@Override
+	public String suscribeRange(int rangeStart, int rangeEnd){
+		LOGGER.log(Level.INFO, "/cs/suscribe/range");
+		return this.policy.call("/cs/suscribe/range", false, () -> this.service.path("suscribe").path("range").queryParam("rangeStart", rangeStart).queryParam("rangeEnd", rangeEnd).request(MediaType.APPLICATION_JSON).get(String.class));
 	}
 
 	/**
@@ -144,104 +265,463 @@ public class CriticalSectionServiceProxy extends CriticalSectionService{
 	@Override
 	public String suscribed(){
 		LOGGER.log(Level.INFO, "/cs/suscribed");
-		try {
-			return this.service.path("suscribed").request(MediaType.APPLICATION_JSON).get(String.class);
-		} catch (Exception e) {
-			LOGGER.log(Level.WARNING, String.format("/cs/suscribed: error %s", e.getMessage()), e);
-			System.exit(IConstants.EXIT_CODE_HTTP_REQUEST_ERROR);
-			return null;
-		}
+		return this.policy.call("/cs/suscribed", true, () -> this.service.path("suscribed").request(MediaType.APPLICATION_JSON).get(String.class));
+	}
+
+	/**
+	 * See {@link com.ssdd.cs.service.CriticalSectionService#membership(long, int)}. The known version is sent in the If-None-Match header.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param version the membership version known by the client, -1 if none
+	 * @param from the slot of the first process to return
+	 * 
+	 * @return the view of the suscribed processes, or null if the membership hasn't changed since the given version
+	 * */
+	@Override
+	public MembershipView membership(long version, int from){
+		LOGGER.log(Level.INFO, "/cs/suscribed");
+		return this.policy.call("/cs/suscribed", true, () -> {
+			Response response = this.service.path("suscribed").queryParam("from", from).request(MediaType.APPLICATION_JSON).header(HttpHeaders.IF_NONE_MATCH, new EntityTag(String.valueOf(version))).get();
+			if(response.getStatus() == Status.NOT_MODIFIED.getStatusCode()) {
+				response.close();
+				return null;
+			}
+			long current = Long.parseLong(response.getEntityTag().getValue());
+			int start = Integer.parseInt(response.getHeaderString(SUSCRIBED_FROM_HEADER));
+			return new MembershipView(current, start, CriticalSectionServiceProxy.parseSuscribedResponse(response.readEntity(String.class)));
+		});
 	}
 
 	/**
-	 * See {@link com.ssdd.cs.service.CriticalSectionService#setRequested(String)}
+	 * See {@link com.ssdd.cs.service.CriticalSectionService#setRequested(String, int, CriticalSectionMode)}
 	 * 
 	 * @version 1.0
 	 * @author Hctor Snchez San Blas
 	 * @author Francisco Pinto Santos
 	 * 
-	 * @param processId the id of the sender. Must be suscribed to current service.
+	 * @param resource the name of the requested resource's critical section
+	 * @param slot the slot of the sender, assigned at its subscription. Must be suscribed to current service.
+	 * @param mode the mode in which the critical section is requested
+	 * 
+	 * @return the message timestamp for the client
 	 * 
-	 * @throws ProcessNotFoundException when then processId doesn't corresponds to any process suscribed to current service
+	 * @throws ProcessNotFoundException when then slot doesn't corresponds to any process suscribed to current service
 	 * */
-	public long setRequested(String processId) throws ProcessNotFoundException {
+	@Override
+	public long setRequested(String resource, int slot, CriticalSectionMode mode) throws ProcessNotFoundException {
 		LOGGER.log(Level.INFO, "/set/requested");
-		try {
-			String repsonse = this.service.path("set").path("requested").queryParam("process", processId).request(MediaType.TEXT_PLAIN).get(String.class);
+		return this.call("/cs/set/requested", true, () -> {
+			String repsonse = this.service.path("set").path("requested").queryParam("resource", resource).queryParam("process", slot).queryParam("mode", mode.name()).request(MediaType.TEXT_PLAIN).get(String.class);
 			return Long.parseLong(repsonse);
-		} catch (Exception e) {
-			LOGGER.log(Level.WARNING, String.format("/cs/set/requested: error %s", e.getMessage()), e);
-			System.exit(IConstants.EXIT_CODE_HTTP_REQUEST_ERROR);
-			return 0;
-		}
+		});
 	}
 	
 	/**
-	 * used by processes to notify to its associated service that the critical section is acquired
+	 * See {@link com.ssdd.cs.service.CriticalSectionService#setAcquired(String, int)}
 	 * 
 	 * @version 1.0
 	 * @author Hctor Snchez San Blas
 	 * @author Francisco Pinto Santos
 	 * 
-	 * @param processId the id of the sender. Must be suscribed to current service.
+	 * @param resource the name of the requested resource's critical section
+	 * @param slot the slot of the sender, assigned at its subscription. Must be suscribed to current service.
 	 * 
-	 * @throws ProcessNotFoundException when then processId doesn't corresponds to any process suscribed to current service
+	 * @return JSON serialized list of the processes to request again, empty if the critical section has been acquired
+	 * 
+	 * @throws ProcessNotFoundException when then slot doesn't corresponds to any process suscribed to current service
 	 * */
-	public void setAcquired(String processId) throws ProcessNotFoundException {
+	@Override
+	public String setAcquired(String resource, int slot) throws ProcessNotFoundException {
 		LOGGER.log(Level.INFO, "/set/acquired");
-		try {
-			this.service.path("set").path("acquired").queryParam("process", processId).request().get();
-		} catch (Exception e) {
-			LOGGER.log(Level.WARNING, String.format("/cs/set/acquired: error %s", e.getMessage()), e);
-			System.exit(IConstants.EXIT_CODE_HTTP_REQUEST_ERROR);
-		}
+		return this.call("/cs/set/acquired", false, () -> this.service.path("set").path("acquired").queryParam("resource", resource).queryParam("process", slot).request(MediaType.APPLICATION_JSON).get(String.class));
 	}
 
 	/**
-	 * See {@link com.ssdd.cs.service.CriticalSectionService#request(String, String, long)}
+	 * See {@link com.ssdd.cs.service.CriticalSectionService#request(String, int, int, long, CriticalSectionMode)}
 	 * 
 	 * @version 1.0
 	 * @author Hctor Snchez San Blas
 	 * @author Francisco Pinto Santos
 	 * 
-	 * @param processId the id of the process that will be asked to access the critical section. Must be suscribed to requested service.
-	 * @param sender the id of the process trying to accces the critical section.
+	 * @param resource the name of the requested resource's critical section
+	 * @param slot the slot of the process that will be asked to access the critical section, assigned at its subscription. Must be suscribed to requested service.
+	 * @param sender the id of the process trying to accces the critical section, used to break the ties between timestamps.
 	 * @param messageTimeStamp the message's timestamp (process's lamport time counter value)
+	 * @param mode the mode in which the sender requests the critical section
 	 * 
-	 * @throws ProcessNotFoundException when then processId doesn't corresponds to any process suscribed to requested service
+	 * @throws ProcessNotFoundException when then slot doesn't corresponds to any process suscribed to requested service
 	 * */
 	@Override
-	public void request(String processId, String sender, long messageTimeStamp) throws ProcessNotFoundException{
+	public void request(String resource, int slot, int sender, long messageTimeStamp, CriticalSectionMode mode) throws ProcessNotFoundException{
 		LOGGER.log(Level.INFO, "/cs/request");
-		try {
-			this.service.path("request").queryParam("process", processId).queryParam("sender", sender).queryParam("messageTimeStamp", messageTimeStamp).request().get();
-		} catch (Exception e) {
-			LOGGER.log(Level.WARNING, String.format("/cs/request: error %s", e.getMessage()), e);
-			System.exit(IConstants.EXIT_CODE_HTTP_REQUEST_ERROR);
-		}
+		String token = UUID.randomUUID().toString();
+		this.run("/cs/request", true, () -> HttpClientFactory.waiting(this.service.path("request").queryParam("resource", resource).queryParam("process", slot).queryParam("sender", sender).queryParam("messageTimeStamp", messageTimeStamp).queryParam("mode", mode.name()).queryParam("token", token).request()).get().close());
 	}
 
 	/**
-	 * See {@link com.ssdd.cs.service.CriticalSectionService#release(String)}
+	 * See {@link com.ssdd.cs.service.CriticalSectionService#requests(String, List, int, long, CriticalSectionMode)}
 	 * 
 	 * @version 1.0
 	 * @author Hctor Snchez San Blas
 	 * @author Francisco Pinto Santos
 	 * 
-	 * @param processId the id of the process trying to accces the critical section. Must be suscribed to requested service.
+	 * @param resource the name of the requested resource's critical section
+	 * @param slots the slots of the processes that will be asked to access the critical section, assigned at their subscription. Must be suscribed to requested service.
+	 * @param sender the id of the process trying to accces the critical section, used to break the ties between timestamps.
+	 * @param messageTimeStamp the message's timestamp (process's lamport time counter value)
+	 * @param mode the mode in which the sender requests the critical section
 	 * 
-	 * @throws ProcessNotFoundException when then processId doesn't corresponds to any process suscribed to requested service. 
+	 * @throws ProcessNotFoundException when then any slot doesn't corresponds to any process suscribed to requested service
 	 * */
 	@Override
-	public void release(String processId) throws ProcessNotFoundException{
+	public void requests(String resource, List<Integer> slots, int sender, long messageTimeStamp, CriticalSectionMode mode) throws ProcessNotFoundException{
+		LOGGER.log(Level.INFO, "/cs/requests");
+		String token = UUID.randomUUID().toString();
+		this.run("/cs/requests", true, () -> HttpClientFactory.waiting(this.service.path("requests").queryParam("resource", resource).queryParam("process", slots.toArray()).queryParam("sender", sender).queryParam("messageTimeStamp", messageTimeStamp).queryParam("mode", mode.name()).queryParam("token", token).request()).get().close());
+	}
+
+	/**
+	 * See {@link com.ssdd.cs.service.CriticalSectionService#release(String, int)}
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param resource the name of the released resource's critical section
+	 * @param slot the slot of the process trying to accces the critical section, assigned at its subscription. Must be suscribed to requested service.
+	 * 
+	 * @throws ProcessNotFoundException when then slot doesn't corresponds to any process suscribed to requested service. 
+	 * */
+	@Override
+	public void release(String resource, int slot) throws ProcessNotFoundException{
 		LOGGER.log(Level.INFO, "/cs/release");
+		this.run("/cs/release", true, () -> this.service.path("release").queryParam("resource", resource).queryParam("process", slot).request().get().close());
+	}
+
+	/**
+	 * See {@link com.ssdd.cs.service.CriticalSectionService#setRequestedAsync(String, int, CriticalSectionMode)}
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param resource the name of the requested resource's critical section
+	 * @param slot the slot of the sender, assigned at its subscription. Must be suscribed to current service.
+	 * @param mode the mode in which the critical section is requested
+	 * 
+	 * @return the message timestamp for the client
+	 * */
+	@Override
+	public CompletableFuture<Long> setRequestedAsync(String resource, int slot, CriticalSectionMode mode) {
+		LOGGER.log(Level.INFO, "/set/requested async");
+		return this.callAsync("/cs/set/requested", true, () -> this.service.path("set").path("requested").queryParam("resource", resource).queryParam("process", slot).queryParam("mode", mode.name()).request(MediaType.TEXT_PLAIN), 
+				response -> Long.parseLong(response.readEntity(String.class)));
+	}
+
+	/**
+	 * See {@link com.ssdd.cs.service.CriticalSectionService#requestsAsync(String, List, int, long, CriticalSectionMode)}
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param resource the name of the requested resource's critical section
+	 * @param slots the slots of the processes that will be asked to access the critical section, assigned at their subscription. Must be suscribed to requested service.
+	 * @param sender the id of the process trying to accces the critical section, used to break the ties between timestamps.
+	 * @param messageTimeStamp the message's timestamp (process's lamport time counter value)
+	 * @param mode the mode in which the sender requests the critical section
+	 * 
+	 * @return completed when the access to the critical section is permited by all the processes
+	 * */
+	@Override
+	public CompletableFuture<Void> requestsAsync(String resource, List<Integer> slots, int sender, long messageTimeStamp, CriticalSectionMode mode) {
+		LOGGER.log(Level.INFO, "/cs/requests async");
+		String token = UUID.randomUUID().toString();
+		return this.callAsync("/cs/requests", true, () -> HttpClientFactory.waiting(this.service.path("requests").queryParam("resource", resource).queryParam("process", slots.toArray()).queryParam("sender", sender).queryParam("messageTimeStamp", messageTimeStamp).queryParam("mode", mode.name()).queryParam("token", token).request()), 
+				response -> null);
+	}
+
+	/**
+	 * See {@link com.ssdd.cs.service.CriticalSectionService#acquireOrDrainRepliedAsync(String, int)}
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param resource the name of the requested resource's critical section
+	 * @param slot the slot of the sender, assigned at its subscription. Must be suscribed to current service.
+	 * 
+	 * @return the ids of the processes to request again, empty if the critical section has been acquired
+	 * */
+	@Override
+	public CompletableFuture<int []> acquireOrDrainRepliedAsync(String resource, int slot) {
+		LOGGER.log(Level.INFO, "/set/acquired async");
+		return this.callAsync("/cs/set/acquired", false, () -> this.service.path("set").path("acquired").queryParam("resource", resource).queryParam("process", slot).request(MediaType.APPLICATION_JSON), 
+				response -> CriticalSectionServiceProxy.parseSetAcquiredResponse(response.readEntity(String.class)));
+	}
+
+	/**
+	 * See {@link com.ssdd.cs.service.CriticalSectionService#releaseAsync(String, int)}
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param resource the name of the released resource's critical section
+	 * @param slot the slot of the process trying to accces the critical section, assigned at its subscription. Must be suscribed to requested service.
+	 * 
+	 * @return completed when the critical section has been released
+	 * */
+	@Override
+	public CompletableFuture<Void> releaseAsync(String resource, int slot) {
+		LOGGER.log(Level.INFO, "/cs/release async");
+		return this.callAsync("/cs/release", true, () -> this.service.path("release").queryParam("resource", resource).queryParam("process", slot).request(), 
+				response -> null);
+	}
+
+	/**
+	 * See {@link com.ssdd.cs.service.CriticalSectionService#tokenSetRequested(String, int)}
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param resource the name of the requested resource's critical section
+	 * @param slot the slot of the sender, assigned at its subscription. Must be suscribed to current service.
+	 * 
+	 * @return the process's request number to broadcast, or {@link com.ssdd.cs.bean.SuzukiKasamiProcessState#TOKEN_HELD} if the critical section has been acquired
+	 * 
+	 * @throws ProcessNotFoundException when then slot doesn't corresponds to any process suscribed to current service
+	 * */
+	@Override
+	public long tokenSetRequested(String resource, int slot) throws ProcessNotFoundException {
+		LOGGER.log(Level.INFO, "/cs/sk/set/requested");
+		return this.call("/cs/sk/set/requested", false, () -> {
+			String repsonse = this.service.path("sk").path("set").path("requested").queryParam("resource", resource).queryParam("process", slot).request(MediaType.TEXT_PLAIN).get(String.class);
+			return Long.parseLong(repsonse);
+		});
+	}
+	
+	/**
+	 * See {@link com.ssdd.cs.service.CriticalSectionService#tokenRequest(String, int, int, long)}
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param resource the name of the requested resource's critical section
+	 * @param slot the slot of the process that will be asked for the token, assigned at its subscription. Must be suscribed to requested service.
+	 * @param sender the id of the process trying to accces the critical section.
+	 * @param requestNumber the sender's request number
+	 * 
+	 * @return JSON serialized token, or null if it isn't given up
+	 * 
+	 * @throws ProcessNotFoundException when then slot doesn't corresponds to any process suscribed to requested service
+	 * */
+	@Override
+	public String tokenRequest(String resource, int slot, int sender, long requestNumber) throws ProcessNotFoundException {
+		LOGGER.log(Level.INFO, "/cs/sk/request");
+		return this.call("/cs/sk/request", false, () -> this.service.path("sk").path("request").queryParam("resource", resource).queryParam("process", slot).queryParam("sender", sender).queryParam("requestNumber", requestNumber).request(MediaType.APPLICATION_JSON).get(String.class));
+	}
+	
+	/**
+	 * See {@link com.ssdd.cs.service.CriticalSectionService#tokenDeliver(String, int, String)}
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param resource the name of the requested resource's critical section
+	 * @param slot the slot of the token's receiver, assigned at its subscription. Must be suscribed to requested service.
+	 * @param token JSON serialized token
+	 * 
+	 * @throws ProcessNotFoundException when then slot doesn't corresponds to any process suscribed to requested service
+	 * */
+	@Override
+	public void tokenDeliver(String resource, int slot, String token) throws ProcessNotFoundException {
+		LOGGER.log(Level.INFO, "/cs/sk/token");
+		this.run("/cs/sk/token", false, () -> this.service.path("sk").path("token").queryParam("resource", resource).queryParam("process", slot).request().post(Entity.entity(token, MediaType.APPLICATION_JSON)).close());
+	}
+	
+	/**
+	 * See {@link com.ssdd.cs.service.CriticalSectionService#tokenAwait(String, int)}
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param resource the name of the requested resource's critical section
+	 * @param slot the slot of the sender, assigned at its subscription. Must be suscribed to current service.
+	 * 
+	 * @throws ProcessNotFoundException when then slot doesn't corresponds to any process suscribed to current service
+	 * */
+	@Override
+	public void tokenAwait(String resource, int slot) throws ProcessNotFoundException {
+		LOGGER.log(Level.INFO, "/cs/sk/await");
+		this.run("/cs/sk/await", false, () -> HttpClientFactory.waiting(this.service.path("sk").path("await").queryParam("resource", resource).queryParam("process", slot).request()).get().close());
+	}
+	
+	/**
+	 * See {@link com.ssdd.cs.service.CriticalSectionService#tokenRelease(String, int)}
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param resource the name of the released resource's critical section
+	 * @param slot the slot of the process who releases the critical section, assigned at its subscription. Must be suscribed to requested service
+	 * 
+	 * @return JSON serialized token to send to its next holder, or null if it's kept by the process
+	 * 
+	 * @throws ProcessNotFoundException when then slot doesn't corresponds to any process suscribed to requested service
+	 * */
+	@Override
+	public String tokenRelease(String resource, int slot) throws ProcessNotFoundException {
+		LOGGER.log(Level.INFO, "/cs/sk/release");
+		return this.call("/cs/sk/release", false, () -> this.service.path("sk").path("release").queryParam("resource", resource).queryParam("process", slot).request(MediaType.APPLICATION_JSON).get(String.class));
+	}
+
+	/**
+	 * See {@link com.ssdd.cs.service.CriticalSectionService#maekawaSend(int, String)}
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param slot the slot of the message's receiver, assigned at its subscription. Must be suscribed to requested service.
+	 * @param message JSON serialized {@link com.ssdd.cs.bean.MaekawaMessage}
+	 * 
+	 * @throws ProcessNotFoundException when then slot doesn't corresponds to any process suscribed to requested service
+	 * */
+	@Override
+	public void maekawaSend(int slot, String message) throws ProcessNotFoundException {
+		LOGGER.log(Level.INFO, "/cs/maekawa/send");
+		this.run("/cs/maekawa/send", false, () -> this.service.path("maekawa").path("send").queryParam("process", slot).request().post(Entity.entity(message, MediaType.APPLICATION_JSON)).close());
+	}
+	
+	/**
+	 * See {@link com.ssdd.cs.service.CriticalSectionService#maekawaReceive(int)}
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param slot the slot of the receiver, assigned at its subscription. Must be suscribed to requested service.
+	 * 
+	 * @return JSON serialized list of messages
+	 * 
+	 * @throws ProcessNotFoundException when then slot doesn't corresponds to any process suscribed to requested service
+	 * */
+	@Override
+	public String maekawaReceive(int slot) throws ProcessNotFoundException {
+		LOGGER.log(Level.INFO, "/cs/maekawa/receive");
+		return this.call("/cs/maekawa/receive", false, () -> HttpClientFactory.waiting(this.service.path("maekawa").path("receive").queryParam("process", slot).request(MediaType.APPLICATION_JSON)).get(String.class));
+	}
+
+	/**
+	 * sends a request to a process with {@link com.ssdd.util.http.HttpCallPolicy#call(String, boolean, Callable)}, failing
+	 * with a {@link com.ssdd.cs.service.ProcessNotFoundException} when the process isn't suscribed to the service.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param name the name of the request, for the logs
+	 * @param idempotent true if the request can be received more than once by the service without changing its effect
+	 * @param request sends the request and reads its response
+	 * 
+	 * @return the result of the request
+	 * 
+	 * @throws ProcessNotFoundException when the service responds that the process isn't suscribed to it
+	 * */
+	private <T> T call(String name, boolean idempotent, Callable<T> request) throws ProcessNotFoundException {
 		try {
-			this.service.path("release").queryParam("process", processId).request().get();
-		} catch (Exception e) {
-			LOGGER.log(Level.WARNING, String.format("/cs/release: error %s", e.getMessage()), e);
-			System.exit(IConstants.EXIT_CODE_HTTP_REQUEST_ERROR);
+			return this.policy.call(name, idempotent, request);
+		} catch (ServiceCallException e) {
+			if(e.getStatus() == Status.NOT_FOUND.getStatusCode()) {
+				throw new ProcessNotFoundException();
+			}
+			throw e;
 		}
 	}
+	
+	/**
+	 * sends a request to a process without blocking the calling thread, retrying it as in {@link #call(String, boolean, Callable)}. 
+	 * The response is read in the thread of the HTTP client which receives it, so the reader must not block. With the default 
+	 * connector of the client, each request in flight still waits in a thread of the client's asynchronous pool.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param name the name of the request, for the logs
+	 * @param idempotent true if the request can be received more than once by the service without changing its effect
+	 * @param request builds the request, once by attempt
+	 * @param reader reads the result of a successful response
+	 * 
+	 * @return the result of the request, failed with a {@link com.ssdd.cs.service.ProcessNotFoundException} when the service 
+	 * responds that the process isn't suscribed to it, or with a {@link com.ssdd.util.http.ServiceCallException} when the 
+	 * request fails and can't be retried anymore
+	 * */
+	private <T> CompletableFuture<T> callAsync(String name, boolean idempotent, Supplier<Invocation.Builder> request, Function<Response, T> reader) {
+		CompletableFuture<T> result = new CompletableFuture<>();
+		this.policy.callAsync(name, idempotent, () -> {
+			CompletableFuture<T> attempt = new CompletableFuture<>();
+			request.get().async().get(new InvocationCallback<Response>() {
+				@Override
+				public void completed(Response response) {
+					try {
+						if(response.getStatusInfo().getFamily() != Status.Family.SUCCESSFUL) {
+							throw new WebApplicationException(response);
+						}
+						attempt.complete(reader.apply(response));
+					} catch (RuntimeException e) {
+						attempt.completeExceptionally(e);
+					} finally {
+						response.close();
+					}
+				}
+
+				@Override
+				public void failed(Throwable error) {
+					attempt.completeExceptionally(error);
+				}
+			});
+			return attempt;
+		}).whenComplete((value, error) -> {
+			if(null == error) {
+				result.complete(value);
+			}else if(error instanceof ServiceCallException && ((ServiceCallException) error).getStatus() == Status.NOT_FOUND.getStatusCode()) {
+				result.completeExceptionally(new ProcessNotFoundException());
+			}else {
+				result.completeExceptionally(error);
+			}
+		});
+		return result;
+	}
+	
+	/**
+	 * sends a request without result to a process, as in {@link #call(String, boolean, Callable)}.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param name the name of the request, for the logs
+	 * @param idempotent true if the request can be received more than once by the service without changing its effect
+	 * @param request sends the request and reads its response
+	 * 
+	 * @throws ProcessNotFoundException when the service responds that the process isn't suscribed to it
+	 * */
+	private void run(String name, boolean idempotent, Runnable request) throws ProcessNotFoundException {
+		this.call(name, idempotent, () -> {
+			request.run();
+			return null;
+		});
+	}
 
 	@Override
 	public String toString() {
@@ -0,0 +1,393 @@
+package com.ssdd.cs.service;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.google.gson.Gson;
+import com.ssdd.cs.bean.CriticalSectionMode;
+import com.ssdd.cs.service.tcp.CriticalSectionFrameConnection;
+import com.ssdd.cs.service.tcp.CriticalSectionTcpConnection;
+import com.ssdd.cs.service.tcp.CriticalSectionTcpFrame;
+import com.ssdd.cs.service.tcp.CriticalSectionTcpFrame.PayloadReader;
+import com.ssdd.cs.service.tcp.CriticalSectionTcpFrame.PayloadWriter;
+import com.ssdd.util.constants.IConstants;
+import com.ssdd.util.http.ServiceCallException;
+import com.ssdd.util.logging.SSDDLogFactory;
+
+/** 
+ * Critical section proxy which sends the messages of the Ricart and Agrawala's algorithm through the binary TCP endpoint 
+ * of the service, see {@link com.ssdd.cs.service.tcp.CriticalSectionTcpServer}. The rest of messages (subscriptions, 
+ * barriers, other algorithms, ...) are sent through the REST endpoints, as in {@link com.ssdd.cs.service.CriticalSectionServiceProxy}.
+ * 
+ * @version 1.0
+ * @author Hctor Snchez San Blas
+ * @author Francisco Pinto Santos
+*/
+public class CriticalSectionServiceTcpProxy extends CriticalSectionServiceProxy{
+
+	/**
+	 * Class logger generated with {@link com.ssdd.util.logging.SSDDLogFactory#logger(Class)}
+	 * */
+    private final static Logger LOGGER = SSDDLogFactory.logger(CriticalSectionServiceTcpProxy.class);
+    
+    /**
+	 * connection to the service's endpoint of the binary protocol, shared with the other proxies of the same host
+	 * */
+	private CriticalSectionFrameConnection connection;
+	
+	public CriticalSectionServiceTcpProxy(String host) {
+		this(host, CriticalSectionTcpConnection.get(host, IConstants.CS_TCP_PORT));
+	}
+	
+	protected CriticalSectionServiceTcpProxy(String host, CriticalSectionFrameConnection connection) {
+		super(CriticalSectionService.buildServiceUri(host));
+		this.connection = connection;
+	}
+
+	/**
+	 * See {@link com.ssdd.cs.service.CriticalSectionService#setRequested(String, int, CriticalSectionMode)}
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param resource the name of the requested resource's critical section
+	 * @param slot the slot of the sender, assigned at its subscription. Must be suscribed to current service.
+	 * @param mode the mode in which the critical section is requested
+	 * 
+	 * @return the message timestamp for the client
+	 * 
+	 * @throws ProcessNotFoundException when then slot doesn't corresponds to any process suscribed to current service
+	 * */
+	@Override
+	public long setRequested(String resource, int slot, CriticalSectionMode mode) throws ProcessNotFoundException {
+		LOGGER.log(Level.INFO, "tcp /set/requested");
+		DataInputStream response = this.call("/cs/set/requested", CriticalSectionTcpFrame.SET_REQUESTED, out -> {
+			out.writeUTF(resource);
+			out.writeInt(slot);
+			out.writeByte(mode.ordinal());
+		});
+		try {
+			return response.readLong();
+		} catch (IOException e) {
+			LOGGER.log(Level.WARNING, String.format("tcp /cs/set/requested: error %s", e.getMessage()), e);
+			throw new ServiceCallException("tcp /cs/set/requested", ServiceCallException.NO_STATUS, 1, e);
+		}
+	}
+	
+	/**
+	 * See {@link com.ssdd.cs.service.CriticalSectionService#setAcquired(String, int)}
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param resource the name of the requested resource's critical section
+	 * @param slot the slot of the sender, assigned at its subscription. Must be suscribed to current service.
+	 * 
+	 * @return JSON serialized list of the processes to request again, empty if the critical section has been acquired
+	 * 
+	 * @throws ProcessNotFoundException when then slot doesn't corresponds to any process suscribed to current service
+	 * */
+	@Override
+	public String setAcquired(String resource, int slot) throws ProcessNotFoundException {
+		LOGGER.log(Level.INFO, "tcp /set/acquired");
+		DataInputStream response = this.call("/cs/set/acquired", CriticalSectionTcpFrame.SET_ACQUIRED, out -> {
+			out.writeUTF(resource);
+			out.writeInt(slot);
+		});
+		try {
+			int [] pending = new int [response.readInt()];
+			for(int i=0; i<pending.length; i++) {
+				pending[i] = response.readInt();
+			}
+			return new Gson().toJson(pending);
+		} catch (IOException e) {
+			LOGGER.log(Level.WARNING, String.format("tcp /cs/set/acquired: error %s", e.getMessage()), e);
+			throw new ServiceCallException("tcp /cs/set/acquired", ServiceCallException.NO_STATUS, 1, e);
+		}
+	}
+
+	/**
+	 * See {@link com.ssdd.cs.service.CriticalSectionService#request(String, int, int, long, CriticalSectionMode)}.
+	 * Is sent as a group of requests with a single process.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param resource the name of the requested resource's critical section
+	 * @param slot the slot of the process that will be asked to access the critical section, assigned at its subscription. Must be suscribed to requested service.
+	 * @param sender the id of the process trying to accces the critical section, used to break the ties between timestamps.
+	 * @param messageTimeStamp the message's timestamp (process's lamport time counter value)
+	 * @param mode the mode in which the sender requests the critical section
+	 * 
+	 * @throws ProcessNotFoundException when then slot doesn't corresponds to any process suscribed to requested service
+	 * */
+	@Override
+	public void request(String resource, int slot, int sender, long messageTimeStamp, CriticalSectionMode mode) throws ProcessNotFoundException{
+		this.requests(resource, Collections.singletonList(slot), sender, messageTimeStamp, mode);
+	}
+
+	/**
+	 * See {@link com.ssdd.cs.service.CriticalSectionService#requests(String, List, int, long, CriticalSectionMode)}
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param resource the name of the requested resource's critical section
+	 * @param slots the slots of the processes that will be asked to access the critical section, assigned at their subscription. Must be suscribed to requested service.
+	 * @param sender the id of the process trying to accces the critical section, used to break the ties between timestamps.
+	 * @param messageTimeStamp the message's timestamp (process's lamport time counter value)
+	 * @param mode the mode in which the sender requests the critical section
+	 * 
+	 * @throws ProcessNotFoundException when then any slot doesn't corresponds to any process suscribed to requested service
+	 * */
+	@Override
+	public void requests(String resource, List<Integer> slots, int sender, long messageTimeStamp, CriticalSectionMode mode) throws ProcessNotFoundException{
+		LOGGER.log(Level.INFO, "tcp /cs/requests");
+		this.call("/cs/requests", CriticalSectionTcpFrame.REQUESTS, out -> {
+			out.writeUTF(resource);
+			out.writeInt(sender);
+			out.writeLong(messageTimeStamp);
+			out.writeByte(mode.ordinal());
+			out.writeInt(slots.size());
+			for(int slot : slots) {
+				out.writeInt(slot);
+			}
+		});
+	}
+
+	/**
+	 * See {@link com.ssdd.cs.service.CriticalSectionService#release(String, int)}
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param resource the name of the released resource's critical section
+	 * @param slot the slot of the process trying to accces the critical section, assigned at its subscription. Must be suscribed to requested service.
+	 * 
+	 * @throws ProcessNotFoundException when then slot doesn't corresponds to any process suscribed to requested service. 
+	 * */
+	@Override
+	public void release(String resource, int slot) throws ProcessNotFoundException{
+		LOGGER.log(Level.INFO, "tcp /cs/release");
+		this.call("/cs/release", CriticalSectionTcpFrame.RELEASE, out -> {
+			out.writeUTF(resource);
+			out.writeInt(slot);
+		});
+	}
+
+	/**
+	 * See {@link com.ssdd.cs.service.CriticalSectionService#setRequestedAsync(String, int, CriticalSectionMode)}
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param resource the name of the requested resource's critical section
+	 * @param slot the slot of the sender, assigned at its subscription. Must be suscribed to current service.
+	 * @param mode the mode in which the critical section is requested
+	 * 
+	 * @return the message timestamp for the client
+	 * */
+	@Override
+	public CompletableFuture<Long> setRequestedAsync(String resource, int slot, CriticalSectionMode mode) {
+		LOGGER.log(Level.INFO, "tcp /cs/set/requested async");
+		return this.callAsync("/cs/set/requested", CriticalSectionTcpFrame.SET_REQUESTED, out -> {
+			out.writeUTF(resource);
+			out.writeInt(slot);
+			out.writeByte(mode.ordinal());
+		}, DataInputStream::readLong);
+	}
+
+	/**
+	 * See {@link com.ssdd.cs.service.CriticalSectionService#requestsAsync(String, List, int, long, CriticalSectionMode)}
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param resource the name of the requested resource's critical section
+	 * @param slots the slots of the processes that will be asked to access the critical section, assigned at their subscription. Must be suscribed to requested service.
+	 * @param sender the id of the process trying to accces the critical section, used to break the ties between timestamps.
+	 * @param messageTimeStamp the message's timestamp (process's lamport time counter value)
+	 * @param mode the mode in which the sender requests the critical section
+	 * 
+	 * @return completed when the access to the critical section is permited by all the processes
+	 * */
+	@Override
+	public CompletableFuture<Void> requestsAsync(String resource, List<Integer> slots, int sender, long messageTimeStamp, CriticalSectionMode mode) {
+		LOGGER.log(Level.INFO, "tcp /cs/requests async");
+		return this.callAsync("/cs/requests", CriticalSectionTcpFrame.REQUESTS, out -> {
+			out.writeUTF(resource);
+			out.writeInt(sender);
+			out.writeLong(messageTimeStamp);
+			out.writeByte(mode.ordinal());
+			out.writeInt(slots.size());
+			for(int slot : slots) {
+				out.writeInt(slot);
+			}
+		}, in -> null);
+	}
+
+	/**
+	 * See {@link com.ssdd.cs.service.CriticalSectionService#acquireOrDrainRepliedAsync(String, int)}
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param resource the name of the requested resource's critical section
+	 * @param slot the slot of the sender, assigned at its subscription. Must be suscribed to current service.
+	 * 
+	 * @return the ids of the processes to request again, empty if the critical section has been acquired
+	 * */
+	@Override
+	public CompletableFuture<int []> acquireOrDrainRepliedAsync(String resource, int slot) {
+		LOGGER.log(Level.INFO, "tcp /set/acquired async");
+		return this.callAsync("/cs/set/acquired", CriticalSectionTcpFrame.SET_ACQUIRED, out -> {
+			out.writeUTF(resource);
+			out.writeInt(slot);
+		}, in -> {
+			int [] pending = new int [in.readInt()];
+			for(int i=0; i<pending.length; i++) {
+				pending[i] = in.readInt();
+			}
+			return pending;
+		});
+	}
+
+	/**
+	 * See {@link com.ssdd.cs.service.CriticalSectionService#releaseAsync(String, int)}
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param resource the name of the released resource's critical section
+	 * @param slot the slot of the process trying to accces the critical section, assigned at its subscription. Must be suscribed to requested service.
+	 * 
+	 * @return completed when the critical section has been released
+	 * */
+	@Override
+	public CompletableFuture<Void> releaseAsync(String resource, int slot) {
+		LOGGER.log(Level.INFO, "tcp /cs/release async");
+		return this.callAsync("/cs/release", CriticalSectionTcpFrame.RELEASE, out -> {
+			out.writeUTF(resource);
+			out.writeInt(slot);
+		}, in -> null);
+	}
+
+	/**
+	 * sends a request through the TCP endpoint and waits for its response. 
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param name the name of the request, for the logs
+	 * @param operation the requested operation
+	 * @param arguments writes the arguments of the request
+	 * 
+	 * @return stream over the result of the response
+	 * 
+	 * @throws ProcessNotFoundException when then any slot doesn't corresponds to any process suscribed to requested service
+	 * @throws ServiceCallException when the connection fails or the service can't process the request. The request isn't
+	 * retried, as the connection is shared with the other requests in flight
+	 * */
+	private DataInputStream call(String name, byte operation, PayloadWriter arguments) throws ProcessNotFoundException {
+		CriticalSectionTcpFrame response = null;
+		try {
+			response = this.connection.call(operation, CriticalSectionTcpFrame.payload(arguments));
+		} catch (IOException e) {
+			throw CriticalSectionServiceTcpProxy.error(name, e);
+		}
+		return CriticalSectionServiceTcpProxy.result(name, response);
+	}
+
+	/**
+	 * sends a request through the TCP endpoint without waiting for its response. The result is read by the thread which 
+	 * receives the response, so the reader must not block.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param name the name of the request, for the logs
+	 * @param operation the requested operation
+	 * @param arguments writes the arguments of the request
+	 * @param reader reads the result of the response
+	 * 
+	 * @return the result of the response, failed with a {@link com.ssdd.cs.service.ProcessNotFoundException} when then any slot 
+	 * doesn't corresponds to any process suscribed to requested service, or with a {@link com.ssdd.util.http.ServiceCallException}
+	 * when the connection fails or the service can't process the request
+	 * */
+	private <T> CompletableFuture<T> callAsync(String name, byte operation, PayloadWriter arguments, PayloadReader<T> reader) {
+		CompletableFuture<T> result = new CompletableFuture<>();
+		this.connection.callAsync(operation, CriticalSectionTcpFrame.payload(arguments)).whenComplete((response, error) -> {
+			try {
+				if(error != null) {
+					throw CriticalSectionServiceTcpProxy.error(name, error);
+				}
+				result.complete(reader.read(CriticalSectionServiceTcpProxy.result(name, response)));
+			} catch (IOException e) {
+				result.completeExceptionally(CriticalSectionServiceTcpProxy.error(name, e));
+			} catch (ProcessNotFoundException | RuntimeException e) {
+				result.completeExceptionally(e);
+			}
+		});
+		return result;
+	}
+
+	/**
+	 * wraps an error of the connection, as the requests through the TCP endpoint aren't retried.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param name the name of the request, for the logs
+	 * @param error the error of the connection
+	 * 
+	 * @return the exception to throw
+	 * */
+	private static ServiceCallException error(String name, Throwable error) {
+		LOGGER.log(Level.WARNING, String.format("tcp %s: error %s", name, error.getMessage()), error);
+		return new ServiceCallException("tcp " + name, ServiceCallException.NO_STATUS, 1, error);
+	}
+
+	/**
+	 * checks the status of a response received through the TCP endpoint.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param name the name of the request, for the logs
+	 * @param response the received response
+	 * 
+	 * @return stream over the result of the response
+	 * 
+	 * @throws ProcessNotFoundException when then any slot doesn't corresponds to any process suscribed to requested service
+	 * @throws ServiceCallException when the service can't process the request
+	 * */
+	private static DataInputStream result(String name, CriticalSectionTcpFrame response) throws ProcessNotFoundException {
+		switch(response.getCode()) {
+			case CriticalSectionTcpFrame.OK:
+				return response.input();
+			case CriticalSectionTcpFrame.PROCESS_NOT_FOUND:
+				throw new ProcessNotFoundException();
+			default:
+				LOGGER.log(Level.WARNING, String.format("tcp %s: error status %d", name, response.getCode()));
+				throw new ServiceCallException("tcp " + name, ServiceCallException.NO_STATUS, 1, new IOException(String.format("error status %d", response.getCode())));
+		}
+	}
+}
@@ -0,0 +1,19 @@
+package com.ssdd.cs.service;
+
+import com.ssdd.cs.service.ws.CriticalSectionWebSocketConnection;
+
+/** 
+ * Critical section proxy which sends the messages of the Ricart and Agrawala's algorithm through the WebSocket endpoint 
+ * of the service, see {@link com.ssdd.cs.service.ws.CriticalSectionWebSocketEndpoint}. The messages are the same than in 
+ * {@link com.ssdd.cs.service.CriticalSectionServiceTcpProxy}, but are sent through the servlet container's port.
+ * 
+ * @version 1.0
+ * @author Hctor Snchez San Blas
+ * @author Francisco Pinto Santos
+*/
+public class CriticalSectionServiceWebSocketProxy extends CriticalSectionServiceTcpProxy{
+
+	public CriticalSectionServiceWebSocketProxy(String host) {
+		super(host, CriticalSectionWebSocketConnection.get(host));
+	}
+}
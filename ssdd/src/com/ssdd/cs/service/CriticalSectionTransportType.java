@@ -0,0 +1,85 @@
+package com.ssdd.cs.service;
+
+/**
+ * available transports to send the messages of the critical section to a remote {@link com.ssdd.cs.service.CriticalSectionService}, selectable by name.
+ * 
+ * @version 1.0
+ * @author Hctor Snchez San Blas
+ * @author Francisco Pinto Santos
+ * */
+public enum CriticalSectionTransportType {
+	/**
+	 * REST endpoints with JSON bodies, see {@link com.ssdd.cs.service.CriticalSectionServiceProxy}
+	 * */
+	REST("rest"),
+	/**
+	 * compact binary protocol over persistent TCP connections, see {@link com.ssdd.cs.service.CriticalSectionServiceTcpProxy}
+	 * */
+	TCP("tcp"),
+	/**
+	 * the same binary protocol over a WebSocket session, see {@link com.ssdd.cs.service.CriticalSectionServiceWebSocketProxy}
+	 * */
+	WEBSOCKET("ws"),
+	/**
+	 * direct calls to a service of the same JVM, with an optional injected latency, see {@link com.ssdd.cs.service.CriticalSectionServiceLoopbackProxy}
+	 * */
+	LOOPBACK("local");
+	
+	/**
+	 * short name of the transport, used to select it from the command line
+	 * */
+	private String name;
+	
+	private CriticalSectionTransportType(String name) {
+		this.name = name;
+	}
+	
+	/** 
+	 * builds a proxy to access the service served in the given host through the transport.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param host the IP address and PORT of server in which the service is allocated.
+	 * 
+	 * @return the proxy to access the service
+	*/
+	public CriticalSectionService buildProxy(String host) {
+		switch(this) {
+			case TCP:
+				return new CriticalSectionServiceTcpProxy(host);
+			case WEBSOCKET:
+				return new CriticalSectionServiceWebSocketProxy(host);
+			case LOOPBACK:
+				return new CriticalSectionServiceLoopbackProxy(host);
+			case REST:
+			default:
+				return new CriticalSectionServiceProxy(CriticalSectionService.buildServiceUri(host));
+		}
+	}
+	
+	/** 
+	 * finds a transport by its short name.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param name the transport's short name
+	 * 
+	 * @return the transport, or null if there is no transport with the given name
+	*/
+	public static CriticalSectionTransportType fromName(String name) {
+		for(CriticalSectionTransportType type : CriticalSectionTransportType.values()) {
+			if(type.name.equals(name)) {
+				return type;
+			}
+		}
+		return null;
+	}
+
+	public String getName() {
+		return name;
+	}
+}
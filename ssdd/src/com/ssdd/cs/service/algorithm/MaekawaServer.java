@@ -0,0 +1,160 @@
+package com.ssdd.cs.service.algorithm;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.ws.rs.Consumes;
+import javax.ws.rs.GET;
+import javax.ws.rs.POST;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.Suspended;
+import javax.ws.rs.core.MediaType;
+
+import com.google.gson.Gson;
+import com.ssdd.cs.bean.MaekawaMailbox;
+import com.ssdd.cs.bean.MaekawaMessage;
+import com.ssdd.cs.service.ProcessNotFoundException;
+import com.ssdd.util.constants.IConstants;
+import com.ssdd.util.logging.SSDDLogFactory;
+
+/**
+ * server side of the Maekawa's algorithm (see {@link com.ssdd.cs.client.algorithm.MaekawaAlgorithm}): keeps the mailbox 
+ * of each process, through which the processes exchange the algorithm's messages. Is served as the /cs/maekawa 
+ * sub-resource of {@link com.ssdd.cs.service.CriticalSectionService}.
+ * 
+ * @version 1.0
+ * @author Hctor Snchez San Blas
+ * @author Francisco Pinto Santos
+ * */
+public class MaekawaServer extends MutualExclusionServer {
+
+	/**
+	 * Class logger generated with {@link com.ssdd.util.logging.SSDDLogFactory#logger(Class)}
+	 * */
+	private final static Logger LOGGER = SSDDLogFactory.logger(MaekawaServer.class);
+	/**
+	 * mailboxes of the subscribed processes for the Maekawa's algorithm, indexed by the process's slot
+	 * */
+	private volatile AtomicReferenceArray<MaekawaMailbox> mailboxes;
+	
+	public MaekawaServer(SuscribedProcesses suscribed) {
+		super(suscribed);
+		this.mailboxes = new AtomicReferenceArray<MaekawaMailbox>(0);
+	}
+	
+	@Override
+	public void clear(int numProcesses) {
+		this.mailboxes = new AtomicReferenceArray<MaekawaMailbox>(numProcesses);
+	}
+	
+	/**
+	 * sends a message of the Maekawa's algorithm to a process, storing it in the process's mailbox.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param slot the slot of the message's receiver, assigned at its subscription. Must be suscribed to the service.
+	 * @param message JSON serialized {@link com.ssdd.cs.bean.MaekawaMessage}
+	 * 
+	 * @throws ProcessNotFoundException when then slot doesn't corresponds to any process suscribed to the service
+	 * */
+	@POST
+	@Path("/send")
+	@Consumes(MediaType.APPLICATION_JSON)
+	public void send(@QueryParam(value="process") int slot, String message) throws ProcessNotFoundException {
+		this.setThreadName();
+		MaekawaMessage parsed = new Gson().fromJson(message, MaekawaMessage.class);
+		LOGGER.log(Level.INFO, String.format("/cs/maekawa/send %s %s process %d to slot %d", parsed.getType(), parsed.getResource(), parsed.getSender(), slot));
+		this.getMailbox(slot).post(parsed);
+	}
+	
+	/**
+	 * used by processes to receive the messages of the Maekawa's algorithm sent to them, without blocking the calling thread. 
+	 * The response is resumed with the messages of the process's mailbox as soon as there is any, or with an empty list after 
+	 * {@link com.ssdd.util.constants.IConstants#MAEKAWA_RECEIVE_TIMEOUT} seconds.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param slot the slot of the receiver, assigned at its subscription. Must be suscribed to the service.
+	 * @param response the suspended response, resumed with the JSON serialized list of messages
+	 * 
+	 * @throws ProcessNotFoundException when then slot doesn't corresponds to any process suscribed to the service
+	 * */
+	@GET
+	@Path("/receive")
+	@Produces(MediaType.APPLICATION_JSON)
+	public void receive(@QueryParam(value="process") int slot, @Suspended AsyncResponse response) throws ProcessNotFoundException {
+		this.setThreadName();
+		MaekawaMailbox mailbox = this.getMailbox(slot);
+		Consumer<List<MaekawaMessage>> receiver = messages -> response.resume(new Gson().toJson(messages));
+		response.setTimeout(IConstants.MAEKAWA_RECEIVE_TIMEOUT, TimeUnit.SECONDS);
+		response.setTimeoutHandler(r -> mailbox.cancel(receiver));
+		mailbox.receive(receiver);
+	}
+	
+	/**
+	 * receives the messages of the Maekawa's algorithm in a blocking way. Is the in-process counterpart of 
+	 * {@link #receive(int, AsyncResponse)}. As the asynchronous one, returns an empty list if there is no message after 
+	 * {@link com.ssdd.util.constants.IConstants#MAEKAWA_RECEIVE_TIMEOUT} seconds, and also if the calling thread is 
+	 * interrupted, keeping its interrupted status.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param slot the slot of the receiver, assigned at its subscription. Must be suscribed to the service.
+	 * 
+	 * @return JSON serialized list of messages
+	 * 
+	 * @throws ProcessNotFoundException when then slot doesn't corresponds to any process suscribed to the service
+	 * */
+	public String receive(int slot) throws ProcessNotFoundException {
+		MaekawaMailbox mailbox = this.getMailbox(slot);
+		CompletableFuture<List<MaekawaMessage>> received = new CompletableFuture<>();
+		Consumer<List<MaekawaMessage>> receiver = received::complete;
+		mailbox.receive(receiver);
+		try {
+			return new Gson().toJson(received.get(IConstants.MAEKAWA_RECEIVE_TIMEOUT, TimeUnit.SECONDS));
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (TimeoutException | ExecutionException e) {
+			// the receiver never completes exceptionally, so only the timeout is expected
+		}
+		// cancel the wait, unless the messages have been delivered meanwhile
+		mailbox.cancel(receiver);
+		return new Gson().toJson(received.join());
+	}
+	
+	/**
+	 * given a slot checks if is suscribed to the service and returns the process's mailbox. If the mailbox doesn't exist, 
+	 * is created.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param slot slot of the process we want to check if you have subscribed to the service.
+	 * 
+	 * @return the process's mailbox
+	 * 
+	 * @throws ProcessNotFoundException when then slot doesn't corresponds to any process suscribed to the service
+	 * */
+	private MaekawaMailbox getMailbox(int slot) throws ProcessNotFoundException{
+		AtomicIntegerArray processes = this.checkSuscribed(slot);
+		return MutualExclusionServer.getSlotState(this.mailboxes, processes, slot, id -> new MaekawaMailbox());
+	}
+}
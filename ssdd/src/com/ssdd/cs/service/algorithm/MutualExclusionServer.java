@@ -0,0 +1,116 @@
+package com.ssdd.cs.service.algorithm;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.IntFunction;
+
+import com.ssdd.cs.service.ProcessNotFoundException;
+
+/**
+ * server side of a {@link com.ssdd.cs.client.algorithm.MutualExclusionAlgorithm}: keeps the state of the processes
+ * suscribed to a {@link com.ssdd.cs.service.CriticalSectionService} in the algorithm, and processes the algorithm's 
+ * messages. Each {@link com.ssdd.cs.client.algorithm.MutualExclusionAlgorithmType} builds its server, and the service 
+ * delegates the algorithm's operations to it, while it keeps the subscriptions and the barriers shared by all of them.
+ * 
+ * @version 1.0
+ * @author Hctor Snchez San Blas
+ * @author Francisco Pinto Santos
+ * */
+public abstract class MutualExclusionServer {
+	
+	/**
+	 * check of the subscription of the processes to the service
+	 * */
+	private final SuscribedProcesses suscribed;
+	
+	protected MutualExclusionServer(SuscribedProcesses suscribed) {
+		this.suscribed = suscribed;
+	}
+	
+	/**
+	 * cleans the state of all processes, when the service is restarted.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param numProcesses the number of processes that will suscribe to the service
+	 * */
+	public abstract void clear(int numProcesses);
+	
+	/**
+	 * given a slot checks if is suscribed to the service and returns the status of the process in the given resource,
+	 * from the given resources' structures. If the resource or the process's state in it don't exist, are created.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param resources the states of the processes in each resource, indexed by the process's slot
+	 * @param resource the name of the resource's critical section
+	 * @param slot slot of the process we want to check if you have subscribed to the service.
+	 * @param factory builds the status of a process from its id
+	 * 
+	 * @return the status of the process in the resource
+	 * 
+	 * @throws ProcessNotFoundException when then slot doesn't corresponds to any process suscribed to the service
+	 * */
+	protected <T> T getSlotState(Map<String, AtomicReferenceArray<T>> resources, String resource, int slot, IntFunction<T> factory) throws ProcessNotFoundException{
+		AtomicIntegerArray processes = this.checkSuscribed(slot);
+		AtomicReferenceArray<T> states = resources.get(resource);
+		if(states == null) {
+			states = resources.computeIfAbsent(resource, r -> new AtomicReferenceArray<T>(processes.length()));
+		}
+		return MutualExclusionServer.getSlotState(states, processes, slot, factory);
+	}
+	
+	/**
+	 * checks if the given slot corresponds to a process suscribed to the service.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param slot slot of the process we want to check if you have subscribed to the service.
+	 * 
+	 * @return the ids of the subscribed processes, indexed by their slot
+	 * 
+	 * @throws ProcessNotFoundException when then slot doesn't corresponds to any process suscribed to the service
+	 * */
+	protected AtomicIntegerArray checkSuscribed(int slot) throws ProcessNotFoundException{
+		return this.suscribed.checkSuscribed(slot);
+	}
+	
+	/**
+	 * returns the state in the given slot, setting a new state if the slot is empty. The new state is only built when
+	 * the slot is empty, so the lookups of an existing state don't allocate anything.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param states the states, indexed by the process's slot
+	 * @param processes ids of the subscribed processes, indexed by their slot
+	 * @param slot slot of the process
+	 * @param factory builds the state to set if the slot is empty, from the process's id
+	 * 
+	 * @return the state in the slot
+	 * */
+	protected static <T> T getSlotState(AtomicReferenceArray<T> states, AtomicIntegerArray processes, int slot, IntFunction<T> factory) {
+		T state = states.get(slot);
+		if(state == null) {
+			states.compareAndSet(slot, null, factory.apply(processes.get(slot)));
+			state = states.get(slot);
+		}
+		return state;
+	}
+	
+	protected void setThreadName(){
+		Thread.currentThread().setName(String.format("CS"));
+	}
+	
+	protected void setThreadName(int p){
+		Thread.currentThread().setName(String.format("CS.%d",p));
+	}
+}
@@ -0,0 +1,416 @@
+package com.ssdd.cs.service.algorithm;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.core.Response;
+
+import com.google.gson.Gson;
+import com.ssdd.cs.bean.CritialSectionProcessState;
+import com.ssdd.cs.bean.CriticalSectionMode;
+import com.ssdd.cs.bean.CriticalSectionState;
+import com.ssdd.cs.bean.DeferredBatch;
+import com.ssdd.cs.bean.DeferredReply;
+import com.ssdd.cs.bean.GrantChannel;
+import com.ssdd.cs.bean.LamportCounter;
+import com.ssdd.cs.service.ProcessNotFoundException;
+import com.ssdd.util.logging.SSDDLogFactory;
+
+/**
+ * server side of the Ricart and Agrawala's algorithm (see {@link com.ssdd.cs.client.algorithm.RicartAgrawalaAlgorithm}):
+ * keeps the state of each process in each resource's critical section, and grants or defers the requests sent to them. 
+ * Its REST endpoints are served by {@link com.ssdd.cs.service.CriticalSectionService} at the service's root (/cs/request,
+ * /cs/release, ...), and the transports with persistent connections call it through the service too.
+ * 
+ * @version 1.0
+ * @author Hctor Snchez San Blas
+ * @author Francisco Pinto Santos
+ * */
+public class RicartAgrawalaServer extends MutualExclusionServer {
+
+	/**
+	 * Class logger generated with {@link com.ssdd.util.logging.SSDDLogFactory#logger(Class)}
+	 * */
+	private final static Logger LOGGER = SSDDLogFactory.logger(RicartAgrawalaServer.class);
+	/**
+	 * associates each resource's name to the states of the subscribed processes in the resource's critical section, 
+	 * indexed by the process's slot. Each resource is an independent critical section.
+	 * */
+	private Map<String, AtomicReferenceArray<CritialSectionProcessState>> resources;
+	/**
+	 * groups of requests to the critical section not yet granted, indexed by the idempotency token sent by the client. A 
+	 * retry of a group waits for the already queued one, instead of queueing its requests twice
+	 * */
+	private Map<String, DeferredBatch> pendingRequests;
+	
+	public RicartAgrawalaServer(SuscribedProcesses suscribed) {
+		super(suscribed);
+		this.resources = new ConcurrentHashMap<String, AtomicReferenceArray<CritialSectionProcessState>>();
+		this.pendingRequests = new ConcurrentHashMap<String, DeferredBatch>();
+	}
+	
+	@Override
+	public void clear(int numProcesses) {
+		this.resources.clear();
+		this.pendingRequests.clear();
+	}
+	
+	/**
+	 * updates the process's state when it requests the critical section. See {@link com.ssdd.cs.service.CriticalSectionService#setRequested(String, int, CriticalSectionMode)}.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param resource the name of the requested resource's critical section
+	 * @param slot the slot of the sender, assigned at its subscription. Must be suscribed to the service.
+	 * @param mode the mode in which the critical section is requested
+	 * 
+	 * @return the message timestamp for the client
+	 * 
+	 * @throws ProcessNotFoundException when then slot doesn't corresponds to any process suscribed to the service
+	 * */
+	public long setRequested(String resource, int slot, CriticalSectionMode mode) throws ProcessNotFoundException {
+		// get process
+		CritialSectionProcessState process = this.getProcessState(resource, slot);
+		this.setThreadName(process.getId());
+		LOGGER.log(Level.INFO, String.format("[process: %d] /cs/set/requested %s %s", process.getId(), resource, mode));
+		// get process' lamport time, update process's critical section state and enable queueing
+		return process.setRequested(mode);
+	}
+	
+	/**
+	 * grants a request, or defers it without blocking the calling thread until the process permits the access. 
+	 * See {@link com.ssdd.cs.service.CriticalSectionService#request(String, int, int, long, CriticalSectionMode, String, AsyncResponse)}.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param resource the name of the requested resource's critical section
+	 * @param slot the slot of the process that will be asked to access the critical section. Must be suscribed to the service.
+	 * @param sender the id of the process trying to acccess the critical section, used to break the ties between timestamps.
+	 * @param messageTimeStamp the message's timestamp (process's Lamport time counter value)
+	 * @param mode the mode in which the sender requests the critical section
+	 * @param token idempotency token of the request, the same in all its retries. Can be null
+	 * @param response the suspended response, resumed when the access to the critical section is permited
+	 * 
+	 * @throws ProcessNotFoundException when then slot doesn't corresponds to any process suscribed to the service
+	 * */
+	public void request(String resource, int slot, int sender, long messageTimeStamp, CriticalSectionMode mode, String token, AsyncResponse response) throws ProcessNotFoundException {
+		// get process
+		CritialSectionProcessState process = this.getProcessState(resource, slot);
+		this.setThreadName(process.getId());
+		// a retried request waits for the already queued one
+		DeferredBatch batch = this.deferredBatch(1, token, response);
+		if(null == batch) {
+			LOGGER.log(Level.INFO, String.format("[process: %d] /cs/request %s process %d %s RETRIED", process.getId(), resource, sender, mode));
+			return;
+		}
+		// grant the request, or defer the response until the enter in CS is permited
+		boolean permitEnter = process.request(new DeferredReply(sender, messageTimeStamp, mode, batch));
+		LOGGER.log(Level.INFO, String.format("[process: %d] /cs/request %s process %d %s %s", process.getId(), resource, sender, mode,( permitEnter ? "ALLOWED" : "QUEUED" )));
+	}
+	
+	/**
+	 * grants a request, or defers it and waits until the process permits the access. See 
+	 * {@link com.ssdd.cs.service.CriticalSectionService#request(String, int, int, long, CriticalSectionMode)}.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param resource the name of the requested resource's critical section
+	 * @param slot the slot of the process that will be asked to access the critical section. Must be suscribed to the service.
+	 * @param sender the id of the process trying to acccess the critical section, used to break the ties between timestamps.
+	 * @param messageTimeStamp the message's timestamp (process's Lamport time counter value)
+	 * @param mode the mode in which the sender requests the critical section
+	 * 
+	 * @throws ProcessNotFoundException when then slot doesn't corresponds to any process suscribed to the service
+	 * */
+	public void request(String resource, int slot, int sender, long messageTimeStamp, CriticalSectionMode mode) throws ProcessNotFoundException {
+		// get process
+		CritialSectionProcessState process = this.getProcessState(resource, slot);
+		// grant the request, or defer it and wait until the enter in CS is permited
+		DeferredReply reply = new DeferredReply(sender, messageTimeStamp, mode);
+		if(!process.request(reply)) {
+			reply.await();
+		}
+	}
+	
+	/**
+	 * grants or defers a group of requests without blocking the calling thread, resuming the response once all the processes 
+	 * have granted the access. See {@link com.ssdd.cs.service.CriticalSectionService#requests(String, List, int, long, CriticalSectionMode, String, AsyncResponse)}.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param resource the name of the requested resource's critical section
+	 * @param slots the slots of the processes that will be asked to access the critical section. Must be suscribed to the service.
+	 * @param sender the id of the process trying to acccess the critical section, used to break the ties between timestamps.
+	 * @param messageTimeStamp the message's timestamp (process's Lamport time counter value)
+	 * @param mode the mode in which the sender requests the critical section
+	 * @param token idempotency token of the group of requests, the same in all its retries. Can be null
+	 * @param response the suspended response, resumed when the access to the critical section is permited by all the processes
+	 * 
+	 * @throws ProcessNotFoundException when then any slot doesn't corresponds to any process suscribed to the service
+	 * */
+	public void requests(String resource, List<Integer> slots, int sender, long messageTimeStamp, CriticalSectionMode mode, String token, AsyncResponse response) throws ProcessNotFoundException {
+		this.setThreadName();
+		// get processes, before processing any request
+		CritialSectionProcessState [] processes = this.getProcessStates(resource, slots);
+		LOGGER.log(Level.INFO, String.format("/cs/requests %s process %d %s to %d processes", resource, sender, mode, processes.length));
+		if(processes.length == 0) {
+			response.resume(Response.noContent().build());
+			return;
+		}
+		// a retried group of requests waits for the already queued one
+		DeferredBatch batch = this.deferredBatch(processes.length, token, response);
+		if(null == batch) {
+			LOGGER.log(Level.INFO, String.format("/cs/requests %s process %d %s RETRIED", resource, sender, mode));
+			return;
+		}
+		// grant the requests, or defer the response until the enter in CS is permited by all of them
+		for(CritialSectionProcessState process : processes) {
+			process.request(new DeferredReply(sender, messageTimeStamp, mode, batch));
+		}
+	}
+	
+	/**
+	 * grants or defers a group of requests, and waits until all the processes have granted the access. See 
+	 * {@link com.ssdd.cs.service.CriticalSectionService#requests(String, List, int, long, CriticalSectionMode)}.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param resource the name of the requested resource's critical section
+	 * @param slots the slots of the processes that will be asked to access the critical section. Must be suscribed to the service.
+	 * @param sender the id of the process trying to acccess the critical section, used to break the ties between timestamps.
+	 * @param messageTimeStamp the message's timestamp (process's Lamport time counter value)
+	 * @param mode the mode in which the sender requests the critical section
+	 * 
+	 * @throws ProcessNotFoundException when then any slot doesn't corresponds to any process suscribed to the service
+	 * */
+	public void requests(String resource, List<Integer> slots, int sender, long messageTimeStamp, CriticalSectionMode mode) throws ProcessNotFoundException {
+		// get processes, before processing any request
+		CritialSectionProcessState [] processes = this.getProcessStates(resource, slots);
+		// grant the requests, or defer them and wait until the enter in CS is permited by all of them
+		DeferredBatch batch = new DeferredBatch(processes.length);
+		for(CritialSectionProcessState process : processes) {
+			process.request(new DeferredReply(sender, messageTimeStamp, mode, batch));
+		}
+		batch.await();
+	}
+	
+	/**
+	 * grants or defers a group of requests without blocking the calling thread, delivering the grant through the channel once
+	 * all the processes have granted the access. See {@link com.ssdd.cs.service.CriticalSectionService#requests(String, List, int, long, CriticalSectionMode, GrantChannel, int)}.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param resource the name of the requested resource's critical section
+	 * @param slots the slots of the processes that will be asked to access the critical section. Must be suscribed to the service.
+	 * @param sender the id of the process trying to acccess the critical section, used to break the ties between timestamps.
+	 * @param messageTimeStamp the message's timestamp (process's Lamport time counter value)
+	 * @param mode the mode in which the sender requests the critical section
+	 * @param channel the channel through which the grant is delivered when the access to the critical section is permited by all the processes
+	 * @param id the id of the group of requests in the channel
+	 * 
+	 * @throws ProcessNotFoundException when then any slot doesn't corresponds to any process suscribed to the service
+	 * */
+	public void requests(String resource, List<Integer> slots, int sender, long messageTimeStamp, CriticalSectionMode mode, GrantChannel channel, int id) throws ProcessNotFoundException {
+		// get processes, before processing any request
+		CritialSectionProcessState [] processes = this.getProcessStates(resource, slots);
+		// grant the requests, or defer them until the enter in CS is permited by all of them
+		DeferredBatch batch = new DeferredBatch(processes.length, channel, id);
+		if(processes.length == 0) {
+			channel.granted(new int [] {id});
+		}
+		for(CritialSectionProcessState process : processes) {
+			process.request(new DeferredReply(sender, messageTimeStamp, mode, batch));
+		}
+	}
+	
+	/**
+	 * grants or defers a group of requests without blocking the calling thread. See 
+	 * {@link com.ssdd.cs.service.CriticalSectionService#requestsAsync(String, List, int, long, CriticalSectionMode)}.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param resource the name of the requested resource's critical section
+	 * @param slots the slots of the processes that will be asked to access the critical section. Must be suscribed to the service.
+	 * @param sender the id of the process trying to acccess the critical section, used to break the ties between timestamps.
+	 * @param messageTimeStamp the message's timestamp (process's Lamport time counter value)
+	 * @param mode the mode in which the sender requests the critical section
+	 * 
+	 * @return completed when the access to the critical section is permited by all the processes, or failed with a 
+	 * {@link com.ssdd.cs.service.ProcessNotFoundException} when then any slot doesn't corresponds to any process suscribed to the service
+	 * */
+	public CompletableFuture<Void> requestsAsync(String resource, List<Integer> slots, int sender, long messageTimeStamp, CriticalSectionMode mode) {
+		CompletableFuture<Void> granted = new CompletableFuture<>();
+		try {
+			// get processes, before processing any request
+			CritialSectionProcessState [] processes = this.getProcessStates(resource, slots);
+			if(processes.length == 0) {
+				granted.complete(null);
+				return granted;
+			}
+			// grant the requests, or defer them until the enter in CS is permited by all of them
+			DeferredBatch batch = new DeferredBatch(processes.length, () -> granted.complete(null));
+			for(CritialSectionProcessState process : processes) {
+				process.request(new DeferredReply(sender, messageTimeStamp, mode, batch));
+			}
+		} catch (ProcessNotFoundException e) {
+			granted.completeExceptionally(e);
+		}
+		return granted;
+	}
+	
+	/**
+	 * acquires the critical section if the process holds all the permissions, following the Roucairol and Carvalho's 
+	 * optimization. See {@link com.ssdd.cs.service.CriticalSectionService#setAcquired(String, int)}.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param resource the name of the requested resource's critical section
+	 * @param slot the slot of the sender, assigned at its subscription. Must be suscribed to the service.
+	 * 
+	 * @return JSON serialized list of the processes to request again, empty if the critical section has been acquired
+	 * 
+	 * @throws ProcessNotFoundException when then slot doesn't corresponds to any process suscribed to the service
+	 * */
+	public String setAcquired(String resource, int slot) throws ProcessNotFoundException {
+		// get process
+		CritialSectionProcessState process = this.getProcessState(resource, slot);
+		this.setThreadName(process.getId());
+		LOGGER.log(Level.INFO, String.format("[process: %d] /cs/set/acquired %s", process.getId(), resource));
+		// acquire the critical section if all permissions are held, or take the processes to request again
+		Set<Integer> pending = process.acquireOrDrainReplied();
+		return new Gson().toJson(pending.stream().mapToInt(Integer::intValue).toArray());
+	}
+	
+	/**
+	 * acquires the critical section as {@link #setAcquired(String, int)}, but returning the processes to request again 
+	 * without serializing them.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param resource the name of the requested resource's critical section
+	 * @param slot the slot of the sender, assigned at its subscription. Must be suscribed to the service.
+	 * 
+	 * @return the ids of the processes to request again, empty if the critical section has been acquired
+	 * 
+	 * @throws ProcessNotFoundException when then slot doesn't corresponds to any process suscribed to the service
+	 * */
+	public int [] acquireOrDrainReplied(String resource, int slot) throws ProcessNotFoundException {
+		CritialSectionProcessState process = this.getProcessState(resource, slot);
+		return process.acquireOrDrainReplied().stream().mapToInt(Integer::intValue).toArray();
+	}
+	
+	/**
+	 * releases the critical section, granting the deferred requests. See {@link com.ssdd.cs.service.CriticalSectionService#release(String, int)}.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param resource the name of the released resource's critical section
+	 * @param slot the slot of the process who releases the critical section. Must be suscribed to the service
+	 * 
+	 * @throws ProcessNotFoundException when then slot doesn't corresponds to any process suscribed to the service
+	 * */
+	public void release(String resource, int slot) throws ProcessNotFoundException {
+		// get process
+		CritialSectionProcessState process = this.getProcessState(resource, slot);
+		this.setThreadName(process.getId());
+		LOGGER.log(Level.INFO, String.format("[process: %d] /cs/release %s", process.getId(), resource));
+		// set new state and release queued processes
+		process.release();
+	}
+	
+	/**
+	 * given a slot checks if is suscribed to the service and returns the status of the process in the given resource's 
+	 * critical section. If the resource or the process's state in it don't exist, are created.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param resource the name of the resource's critical section
+	 * @param slot slot of the process we want to check if you have subscribed to the service.
+	 * 
+	 * @return the status of the process in the resource's critical section
+	 * 
+	 * @throws ProcessNotFoundException when then slot doesn't corresponds to any process suscribed to the service
+	 * */
+	private CritialSectionProcessState getProcessState(String resource, int slot) throws ProcessNotFoundException{
+		return this.getSlotState(this.resources, resource, slot, id -> new CritialSectionProcessState(id, new LamportCounter(), CriticalSectionState.FREE));
+	}
+	
+	/**
+	 * returns the status of a group of processes in the given resource's critical section. See {@link #getProcessState(String, int)}
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param resource the name of the resource's critical section
+	 * @param slots slots of the processes.
+	 * 
+	 * @return the status of the processes in the resource's critical section
+	 * 
+	 * @throws ProcessNotFoundException when then any slot doesn't corresponds to any process suscribed to the service
+	 * */
+	private CritialSectionProcessState [] getProcessStates(String resource, List<Integer> slots) throws ProcessNotFoundException{
+		CritialSectionProcessState [] processes = new CritialSectionProcessState[slots.size()];
+		for(int i=0; i<processes.length; i++) {
+			processes[i] = this.getProcessState(resource, slots.get(i));
+		}
+		return processes;
+	}
+	
+	/**
+	 * builds the completion of a group of requests to the critical section which resumes the suspended response. If the 
+	 * group has an idempotency token, the completion is registered under it until all the requests are granted, and a retry
+	 * of the group retargets the registered completion to its response instead of building a new one.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param size the number of requests of the group
+	 * @param token the idempotency token of the group, or null if it hasn't
+	 * @param response the suspended response
+	 * 
+	 * @return the completion of the group, or null if the group is a retry of an already queued one
+	 * */
+	private DeferredBatch deferredBatch(int size, String token, AsyncResponse response) {
+		if(null == token) {
+			return new DeferredBatch(size, response);
+		}
+		DeferredBatch batch = new DeferredBatch(size, response, () -> this.pendingRequests.remove(token));
+		DeferredBatch queued = this.pendingRequests.putIfAbsent(token, batch);
+		if(null != queued) {
+			queued.retarget(response);
+			return null;
+		}
+		return batch;
+	}
+}
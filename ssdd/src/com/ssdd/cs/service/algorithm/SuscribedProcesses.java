@@ -0,0 +1,32 @@
+package com.ssdd.cs.service.algorithm;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import com.ssdd.cs.service.ProcessNotFoundException;
+
+/**
+ * check of the subscription of the processes to a {@link com.ssdd.cs.service.CriticalSectionService}, given to its 
+ * {@link com.ssdd.cs.service.algorithm.MutualExclusionServer}s to find the processes by their slot.
+ * 
+ * @version 1.0
+ * @author Hctor Snchez San Blas
+ * @author Francisco Pinto Santos
+ * */
+@FunctionalInterface
+public interface SuscribedProcesses {
+
+	/**
+	 * checks if the given slot corresponds to a process suscribed to the service.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param slot slot of the process we want to check if you have subscribed to the service.
+	 * 
+	 * @return the ids of the subscribed processes, indexed by their slot
+	 * 
+	 * @throws ProcessNotFoundException when then slot doesn't corresponds to any process suscribed to the service
+	 * */
+	public AtomicIntegerArray checkSuscribed(int slot) throws ProcessNotFoundException;
+}
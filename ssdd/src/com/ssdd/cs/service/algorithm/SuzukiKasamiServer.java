@@ -0,0 +1,222 @@
+package com.ssdd.cs.service.algorithm;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.ws.rs.Consumes;
+import javax.ws.rs.DefaultValue;
+import javax.ws.rs.GET;
+import javax.ws.rs.POST;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.Suspended;
+import javax.ws.rs.core.MediaType;
+
+import com.google.gson.Gson;
+import com.ssdd.cs.bean.DeferredBatch;
+import com.ssdd.cs.bean.SuzukiKasamiProcessState;
+import com.ssdd.cs.bean.SuzukiKasamiToken;
+import com.ssdd.cs.service.CriticalSectionServiceProxy;
+import com.ssdd.cs.service.ProcessNotFoundException;
+import com.ssdd.util.constants.IConstants;
+import com.ssdd.util.logging.SSDDLogFactory;
+
+/**
+ * server side of the Suzuki and Kasami's algorithm (see {@link com.ssdd.cs.client.algorithm.SuzukiKasamiAlgorithm}): 
+ * keeps the state of each process in each resource's algorithm, and passes the token between them. Is served as the 
+ * /cs/sk sub-resource of {@link com.ssdd.cs.service.CriticalSectionService}.
+ * 
+ * @version 1.0
+ * @author Hctor Snchez San Blas
+ * @author Francisco Pinto Santos
+ * */
+public class SuzukiKasamiServer extends MutualExclusionServer {
+
+	/**
+	 * Class logger generated with {@link com.ssdd.util.logging.SSDDLogFactory#logger(Class)}
+	 * */
+	private final static Logger LOGGER = SSDDLogFactory.logger(SuzukiKasamiServer.class);
+	/**
+	 * associates each resource's name to the states of the subscribed processes in the resource's Suzuki and Kasami's 
+	 * algorithm, indexed by the process's slot.
+	 * */
+	private Map<String, AtomicReferenceArray<SuzukiKasamiProcessState>> tokenResources;
+	
+	public SuzukiKasamiServer(SuscribedProcesses suscribed) {
+		super(suscribed);
+		this.tokenResources = new ConcurrentHashMap<String, AtomicReferenceArray<SuzukiKasamiProcessState>>();
+	}
+	
+	@Override
+	public void clear(int numProcesses) {
+		this.tokenResources.clear();
+	}
+	
+	/**
+	 * used by processes to notify to its associated service that the critical section is requested with the Suzuki and Kasami's algorithm.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param resource the name of the requested resource's critical section
+	 * @param slot the slot of the sender, assigned at its subscription. Must be suscribed to the service.
+	 * 
+	 * @return the process's request number to broadcast, or {@link com.ssdd.cs.bean.SuzukiKasamiProcessState#TOKEN_HELD} if the process holds the token and the critical section has been acquired
+	 * 
+	 * @throws ProcessNotFoundException when then slot doesn't corresponds to any process suscribed to the service
+	 * */
+	@GET
+	@Path("/set/requested")
+	@Produces(MediaType.TEXT_PLAIN)
+	public long setRequested(@QueryParam(value="resource") @DefaultValue(IConstants.DEFAULT_RESOURCE) String resource, @QueryParam(value="process") int slot) throws ProcessNotFoundException {
+		SuzukiKasamiProcessState process = this.getTokenState(resource, slot);
+		this.setThreadName(process.getId());
+		LOGGER.log(Level.INFO, String.format("[process: %d] /cs/sk/set/requested %s", process.getId(), resource));
+		return process.setRequested();
+	}
+	
+	/**
+	 * processes the requests of the Suzuki and Kasami's algorithm, send by other processes. The request never blocks: 
+	 * if the process holds the token without using it and the request is outstanding, the token is given up in the response.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param resource the name of the requested resource's critical section
+	 * @param slot the slot of the process that will be asked for the token, assigned at its subscription. Must be suscribed to the service.
+	 * @param sender the id of the process trying to acccess the critical section.
+	 * @param requestNumber the sender's request number
+	 * 
+	 * @return JSON serialized token, or null if it isn't given up
+	 * 
+	 * @throws ProcessNotFoundException when then slot doesn't corresponds to any process suscribed to the service
+	 * */
+	@GET
+	@Path("/request")
+	@Produces(MediaType.APPLICATION_JSON)
+	public String request(@QueryParam(value="resource") @DefaultValue(IConstants.DEFAULT_RESOURCE) String resource, @QueryParam(value="process") int slot, @QueryParam(value="sender") int sender, @QueryParam(value="requestNumber") long requestNumber) throws ProcessNotFoundException {
+		SuzukiKasamiProcessState process = this.getTokenState(resource, slot);
+		this.setThreadName(process.getId());
+		SuzukiKasamiToken token = process.request(sender, requestNumber);
+		LOGGER.log(Level.INFO, String.format("[process: %d] /cs/sk/request %s process %d %s", process.getId(), resource, sender, ( token != null ? "TOKEN" : "NONE" )));
+		return new Gson().toJson(token);
+	}
+	
+	/**
+	 * delivers the token of the Suzuki and Kasami's algorithm to a process.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param resource the name of the requested resource's critical section
+	 * @param slot the slot of the token's receiver, assigned at its subscription. Must be suscribed to the service.
+	 * @param token JSON serialized token
+	 * 
+	 * @throws ProcessNotFoundException when then slot doesn't corresponds to any process suscribed to the service
+	 * */
+	@POST
+	@Path("/token")
+	@Consumes(MediaType.APPLICATION_JSON)
+	public void deliverToken(@QueryParam(value="resource") @DefaultValue(IConstants.DEFAULT_RESOURCE) String resource, @QueryParam(value="process") int slot, String token) throws ProcessNotFoundException {
+		SuzukiKasamiProcessState process = this.getTokenState(resource, slot);
+		this.setThreadName(process.getId());
+		LOGGER.log(Level.INFO, String.format("[process: %d] /cs/sk/token %s", process.getId(), resource));
+		process.deliverToken(CriticalSectionServiceProxy.parseTokenResponse(token));
+	}
+	
+	/**
+	 * used by processes to wait for the token of the Suzuki and Kasami's algorithm, without blocking the calling thread. 
+	 * The response is resumed when the token is held, and the critical section has been acquired.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param resource the name of the requested resource's critical section
+	 * @param slot the slot of the sender, assigned at its subscription. Must be suscribed to the service.
+	 * @param response the suspended response, resumed when the token is held
+	 * 
+	 * @throws ProcessNotFoundException when then slot doesn't corresponds to any process suscribed to the service
+	 * */
+	@GET
+	@Path("/await")
+	public void awaitToken(@QueryParam(value="resource") @DefaultValue(IConstants.DEFAULT_RESOURCE) String resource, @QueryParam(value="process") int slot, @Suspended AsyncResponse response) throws ProcessNotFoundException {
+		SuzukiKasamiProcessState process = this.getTokenState(resource, slot);
+		this.setThreadName(process.getId());
+		LOGGER.log(Level.INFO, String.format("[process: %d] /cs/sk/await %s", process.getId(), resource));
+		process.awaitToken(new DeferredBatch(1, response));
+	}
+	
+	/**
+	 * waits for the token of the Suzuki and Kasami's algorithm in a blocking way. Is the in-process counterpart of 
+	 * {@link #awaitToken(String, int, AsyncResponse)}.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param resource the name of the requested resource's critical section
+	 * @param slot the slot of the sender, assigned at its subscription. Must be suscribed to the service.
+	 * 
+	 * @throws ProcessNotFoundException when then slot doesn't corresponds to any process suscribed to the service
+	 * */
+	public void awaitToken(String resource, int slot) throws ProcessNotFoundException {
+		SuzukiKasamiProcessState process = this.getTokenState(resource, slot);
+		DeferredBatch waiter = new DeferredBatch(1);
+		process.awaitToken(waiter);
+		waiter.await();
+	}
+	
+	/**
+	 * used by suscribed processes to to release the critical section with the Suzuki and Kasami's algorithm. If other process is 
+	 * waiting for the token, the token is returned to be sent to it.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param resource the name of the released resource's critical section
+	 * @param slot the slot of the process who releases the critical section, assigned at its subscription. Must be suscribed to the service
+	 * 
+	 * @return JSON serialized token to send to its next holder, or null if it's kept by the process
+	 * 
+	 * @throws ProcessNotFoundException when then slot doesn't corresponds to any process suscribed to the service
+	 * */
+	@GET
+	@Path("/release")
+	@Produces(MediaType.APPLICATION_JSON)
+	public String release(@QueryParam(value="resource") @DefaultValue(IConstants.DEFAULT_RESOURCE) String resource, @QueryParam(value="process") int slot) throws ProcessNotFoundException {
+		SuzukiKasamiProcessState process = this.getTokenState(resource, slot);
+		this.setThreadName(process.getId());
+		LOGGER.log(Level.INFO, String.format("[process: %d] /cs/sk/release %s", process.getId(), resource));
+		return new Gson().toJson(process.release());
+	}
+	
+	/**
+	 * given a slot checks if is suscribed to the service and returns the status of the process in the given resource's 
+	 * Suzuki and Kasami's algorithm. If the resource or the process's state in it don't exist, are created: the token is 
+	 * given initially to the process {@link com.ssdd.util.constants.IConstants#SUZUKI_KASAMI_INITIAL_TOKEN_HOLDER}.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param resource the name of the resource's critical section
+	 * @param slot slot of the process we want to check if you have subscribed to the service.
+	 * 
+	 * @return the status of the process in the resource's Suzuki and Kasami's algorithm
+	 * 
+	 * @throws ProcessNotFoundException when then slot doesn't corresponds to any process suscribed to the service
+	 * */
+	private SuzukiKasamiProcessState getTokenState(String resource, int slot) throws ProcessNotFoundException{
+		return this.getSlotState(this.tokenResources, resource, slot, id -> new SuzukiKasamiProcessState(id, id == IConstants.SUZUKI_KASAMI_INITIAL_TOKEN_HOLDER));
+	}
+}
@@ -0,0 +1,146 @@
+package com.ssdd.cs.service.tcp;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * connection to an endpoint of the binary protocol of {@link com.ssdd.cs.service.tcp.CriticalSectionTcpFrame}, shared by 
+ * all the proxies of the same host. The requests of many threads are multiplexed in the connection: each request is sent 
+ * with a new id, and the waiting request is completed with the response of the same id. So a deferred request to the 
+ * critical section doesn't hold the connection while it waits. A {@link com.ssdd.cs.service.tcp.CriticalSectionTcpFrame#GRANTED}
+ * response completes all the requests it answers.
+ *
+ * @version 1.0
+ * @author Hctor Snchez San Blas
+ * @author Francisco Pinto Santos
+ */
+public abstract class CriticalSectionFrameConnection {
+
+	/**
+	 * generator of the requests' ids
+	 * */
+	private final AtomicInteger ids;
+	/**
+	 * requests waiting for their response, indexed by id
+	 * */
+	private final Map<Integer, CompletableFuture<CriticalSectionTcpFrame>> pending;
+
+	protected CriticalSectionFrameConnection() {
+		this.ids = new AtomicInteger(0);
+		this.pending = new ConcurrentHashMap<>();
+	}
+
+	/**
+	 * sends a request and waits for its response, while other requests can be sent and answered through the connection.
+	 *
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 *
+	 * @param operation the requested operation
+	 * @param payload the serialized arguments
+	 *
+	 * @return the response
+	 *
+	 * @throws IOException if the connection fails before receiving the response
+	 */
+	public CriticalSectionTcpFrame call(byte operation, byte [] payload) throws IOException {
+		CompletableFuture<CriticalSectionTcpFrame> response = this.callAsync(operation, payload);
+		try {
+			return response.get();
+		} catch (InterruptedException e) {
+			this.pending.values().remove(response);
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("interrupted waiting for the response");
+		} catch (ExecutionException e) {
+			if(e.getCause() instanceof IOException) {
+				throw (IOException) e.getCause();
+			}
+			throw new IOException(e.getCause().getMessage(), e.getCause());
+		}
+	}
+
+	/**
+	 * sends a request without waiting for its response. The request is written by the calling thread, and its response is 
+	 * completed by the thread which receives it, so no thread waits while the request is in flight.
+	 *
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 *
+	 * @param operation the requested operation
+	 * @param payload the serialized arguments
+	 *
+	 * @return the response, failed with an {@link java.io.IOException} if the request can't be sent or the connection fails 
+	 * before receiving the response
+	 */
+	public CompletableFuture<CriticalSectionTcpFrame> callAsync(byte operation, byte [] payload) {
+		int id = this.ids.incrementAndGet();
+		CompletableFuture<CriticalSectionTcpFrame> response = new CompletableFuture<>();
+		this.pending.put(id, response);
+		try {
+			this.send(new CriticalSectionTcpFrame(id, operation, payload));
+		} catch (IOException e) {
+			this.pending.remove(id);
+			response.completeExceptionally(e);
+		}
+		return response;
+	}
+
+	/**
+	 * sends a request through the connection, opening it if it isn't open.
+	 *
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 *
+	 * @param request the request
+	 *
+	 * @throws IOException if the request can't be sent
+	 */
+	protected abstract void send(CriticalSectionTcpFrame request) throws IOException;
+
+	/**
+	 * completes the request waiting for a received response, or all the requests answered by a 
+	 * {@link com.ssdd.cs.service.tcp.CriticalSectionTcpFrame#GRANTED} response.
+	 *
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 *
+	 * @param response the response
+	 *
+	 * @throws IOException if the payload of a {@link com.ssdd.cs.service.tcp.CriticalSectionTcpFrame#GRANTED} response isn't valid
+	 */
+	protected void complete(CriticalSectionTcpFrame response) throws IOException {
+		if(response.getCode() == CriticalSectionTcpFrame.GRANTED) {
+			for(CriticalSectionTcpFrame granted : response.split()) {
+				this.complete(granted);
+			}
+			return;
+		}
+		CompletableFuture<CriticalSectionTcpFrame> request = this.pending.remove(response.getId());
+		if(null != request) {
+			request.complete(response);
+		}
+	}
+
+	/**
+	 * fails all the waiting requests, when the connection fails.
+	 *
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 *
+	 * @param cause the connection's error
+	 */
+	protected void fail(IOException cause) {
+		this.pending.values().forEach(request -> request.completeExceptionally(cause));
+		this.pending.clear();
+	}
+}
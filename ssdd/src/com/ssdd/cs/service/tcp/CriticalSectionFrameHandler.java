@@ -0,0 +1,106 @@
+package com.ssdd.cs.service.tcp;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.ssdd.cs.bean.CriticalSectionMode;
+import com.ssdd.cs.service.CriticalSectionService;
+import com.ssdd.cs.service.ProcessNotFoundException;
+import com.ssdd.util.logging.SSDDLogFactory;
+
+/**
+ * processes the requests of the binary protocol of {@link com.ssdd.cs.service.tcp.CriticalSectionTcpFrame} with a 
+ * {@link com.ssdd.cs.service.CriticalSectionService}, without blocking the calling thread. Is shared by the endpoints 
+ * which serve the protocol.
+ *
+ * @version 1.0
+ * @author Hctor Snchez San Blas
+ * @author Francisco Pinto Santos
+ */
+public final class CriticalSectionFrameHandler {
+
+	/**
+	 * Class logger generated with {@link com.ssdd.util.logging.SSDDLogFactory#logger(Class)}
+	 * */
+	private final static Logger LOGGER = SSDDLogFactory.logger(CriticalSectionFrameHandler.class);
+
+	/**
+	 * the service which processes the requests
+	 * */
+	private final CriticalSectionService service;
+
+	public CriticalSectionFrameHandler(CriticalSectionService service) {
+		this.service = service;
+	}
+
+	/**
+	 * processes a request, replying its response when it is ready. The deferred requests to the critical section are 
+	 * replied from the thread which grants them, and the ones granted together are replied with a single response.
+	 *
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 *
+	 * @param request the request
+	 * @param reply sends the response through the connection which received the request
+	 */
+	public void handle(CriticalSectionTcpFrame request, CriticalSectionFrameReplier reply) {
+		int id = request.getId();
+		DataInputStream in = request.input();
+		try {
+			switch(request.getCode()) {
+				case CriticalSectionTcpFrame.SET_REQUESTED: {
+					String resource = in.readUTF();
+					int slot = in.readInt();
+					CriticalSectionMode mode = CriticalSectionMode.values()[in.readByte()];
+					long messageTimeStamp = this.service.setRequested(resource, slot, mode);
+					reply.reply(new CriticalSectionTcpFrame(id, CriticalSectionTcpFrame.OK, CriticalSectionTcpFrame.payload(out -> out.writeLong(messageTimeStamp))));
+					break;
+				}
+				case CriticalSectionTcpFrame.REQUESTS: {
+					String resource = in.readUTF();
+					int sender = in.readInt();
+					long messageTimeStamp = in.readLong();
+					CriticalSectionMode mode = CriticalSectionMode.values()[in.readByte()];
+					List<Integer> slots = new ArrayList<>();
+					for(int i=in.readInt(); i>0; i--) {
+						slots.add(in.readInt());
+					}
+					// answered when the last process grants the access, maybe from other thread and together with other requests
+					this.service.requests(resource, slots, sender, messageTimeStamp, mode, reply, id);
+					break;
+				}
+				case CriticalSectionTcpFrame.SET_ACQUIRED: {
+					String resource = in.readUTF();
+					int slot = in.readInt();
+					int [] pending = this.service.acquireOrDrainReplied(resource, slot);
+					reply.reply(new CriticalSectionTcpFrame(id, CriticalSectionTcpFrame.OK, CriticalSectionTcpFrame.payload(out -> {
+						out.writeInt(pending.length);
+						for(int process : pending) {
+							out.writeInt(process);
+						}
+					})));
+					break;
+				}
+				case CriticalSectionTcpFrame.RELEASE: {
+					String resource = in.readUTF();
+					int slot = in.readInt();
+					this.service.release(resource, slot);
+					reply.reply(new CriticalSectionTcpFrame(id, CriticalSectionTcpFrame.OK));
+					break;
+				}
+				default:
+					throw new IOException(String.format("unknown operation %d", request.getCode()));
+			}
+		} catch (ProcessNotFoundException e) {
+			reply.reply(new CriticalSectionTcpFrame(id, CriticalSectionTcpFrame.PROCESS_NOT_FOUND));
+		} catch (IOException | RuntimeException e) {
+			LOGGER.log(Level.WARNING, String.format("error processing operation %d %s", request.getCode(), e.getMessage()), e);
+			reply.reply(new CriticalSectionTcpFrame(id, CriticalSectionTcpFrame.ERROR));
+		}
+	}
+}
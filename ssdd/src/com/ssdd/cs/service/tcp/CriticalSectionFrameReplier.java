@@ -0,0 +1,63 @@
+package com.ssdd.cs.service.tcp;
+
+import java.util.function.Consumer;
+
+import com.ssdd.cs.bean.GrantChannel;
+
+/**
+ * sends the responses of the binary protocol of {@link com.ssdd.cs.service.tcp.CriticalSectionTcpFrame} through a 
+ * connection of an endpoint. There is one for each connection, so it is also the {@link com.ssdd.cs.bean.GrantChannel} of 
+ * the deferred requests received through it: the requests granted together are answered with a single 
+ * {@link com.ssdd.cs.service.tcp.CriticalSectionTcpFrame#GRANTED} response.
+ *
+ * @version 1.0
+ * @author Hctor Snchez San Blas
+ * @author Francisco Pinto Santos
+ */
+public final class CriticalSectionFrameReplier implements GrantChannel {
+
+	/**
+	 * sends a response through the connection
+	 * */
+	private final Consumer<CriticalSectionTcpFrame> send;
+
+	public CriticalSectionFrameReplier(Consumer<CriticalSectionTcpFrame> send) {
+		this.send = send;
+	}
+
+	/**
+	 * sends a response through the connection.
+	 *
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 *
+	 * @param response the response
+	 */
+	public void reply(CriticalSectionTcpFrame response) {
+		this.send.accept(response);
+	}
+
+	/**
+	 * answers successfully a group of granted requests, with a single response.
+	 *
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 *
+	 * @param ids the ids of the granted requests
+	 */
+	@Override
+	public void granted(int [] ids) {
+		if(ids.length == 1) {
+			this.reply(new CriticalSectionTcpFrame(ids[0], CriticalSectionTcpFrame.OK));
+			return;
+		}
+		this.reply(new CriticalSectionTcpFrame(0, CriticalSectionTcpFrame.GRANTED, CriticalSectionTcpFrame.payload(out -> {
+			out.writeInt(ids.length);
+			for(int id : ids) {
+				out.writeInt(id);
+			}
+		})));
+	}
+}
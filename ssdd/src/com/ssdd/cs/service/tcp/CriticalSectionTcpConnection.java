@@ -0,0 +1,141 @@
+package com.ssdd.cs.service.tcp;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * persistent connection to the binary TCP endpoint of a {@link com.ssdd.cs.service.CriticalSectionService}, see 
+ * {@link com.ssdd.cs.service.tcp.CriticalSectionTcpServer}. The requests are written in a blocking socket, and a reader 
+ * thread completes the waiting requests with their responses.
+ *
+ * @version 1.0
+ * @author Hctor Snchez San Blas
+ * @author Francisco Pinto Santos
+ */
+public final class CriticalSectionTcpConnection extends CriticalSectionFrameConnection {
+
+	/**
+	 * the connections, indexed by host and port
+	 * */
+	private final static Map<String, CriticalSectionTcpConnection> CONNECTIONS = new ConcurrentHashMap<>();
+
+	/**
+	 * address of the TCP endpoint
+	 * */
+	private final InetSocketAddress address;
+	/**
+	 * the connection's socket, null until the first request or after an error
+	 * */
+	private SocketChannel channel;
+	/**
+	 * lock to serialize the writes of the requests. Unlike a monitor, a virtual thread blocked writing while it holds the 
+	 * lock doesn't pin its carrier thread
+	 * */
+	private final ReentrantLock writeLock;
+
+	private CriticalSectionTcpConnection(String host, int port) {
+		super();
+		this.address = new InetSocketAddress(host, port);
+		this.writeLock = new ReentrantLock();
+	}
+
+	/**
+	 * provides the shared connection to the given host, which is opened with the first request.
+	 *
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 *
+	 * @param host the IP address of the server in which the service is allocated
+	 * @param port the port of the TCP endpoint
+	 *
+	 * @return the connection
+	 */
+	public static CriticalSectionTcpConnection get(String host, int port) {
+		return CONNECTIONS.computeIfAbsent(host + ":" + port, key -> new CriticalSectionTcpConnection(host, port));
+	}
+
+	/**
+	 * writes a request in the socket, opening it if it isn't open.
+	 *
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 *
+	 * @param request the request
+	 *
+	 * @throws IOException if the socket can't be opened or written
+	 */
+	@Override
+	protected void send(CriticalSectionTcpFrame request) throws IOException {
+		ByteBuffer buffer = request.encode();
+		this.writeLock.lock();
+		try {
+			SocketChannel channel = this.connect();
+			while(buffer.hasRemaining()) {
+				channel.write(buffer);
+			}
+		}finally {
+			this.writeLock.unlock();
+		}
+	}
+
+	/**
+	 * opens the socket if it isn't open, starting its reader thread. Must be called holding {@link #writeLock}.
+	 *
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 *
+	 * @return the open socket
+	 *
+	 * @throws IOException if the socket can't be opened
+	 */
+	private SocketChannel connect() throws IOException {
+		if(null == this.channel || !this.channel.isOpen()) {
+			SocketChannel channel = SocketChannel.open(this.address);
+			channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+			Thread reader = new Thread(() -> this.receive(channel), String.format("CS.tcp.%s", this.address));
+			reader.setDaemon(true);
+			reader.start();
+			this.channel = channel;
+		}
+		return this.channel;
+	}
+
+	/**
+	 * reads the responses of a socket until it is closed, completing the requests waiting for them. When the socket fails, 
+	 * all the waiting requests fail, and the socket is opened again with the next request.
+	 *
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 *
+	 * @param channel the socket to read
+	 */
+	private void receive(SocketChannel channel) {
+		try {
+			while(true) {
+				this.complete(CriticalSectionTcpFrame.read(channel));
+			}
+		} catch (IOException e) {
+			this.writeLock.lock();
+			try {
+				try {
+					channel.close();
+				} catch (IOException ignored) {
+					// already failed
+				}
+				this.fail(e);
+			}finally {
+				this.writeLock.unlock();
+			}
+		}
+	}
+}
@@ -0,0 +1,301 @@
+package com.ssdd.cs.service.tcp;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+
+/**
+ * frame of the binary protocol of the critical section's TCP transport. Each frame is sent length-prefixed:
+ * <pre>
+ * [int length][int id][byte code][payload]
+ * </pre>
+ * where the length counts the bytes after itself. The id of a request is copied in its response, so many requests can
+ * be multiplexed in the same connection and answered in any order. The code is the operation in the requests, and the
+ * status in the responses. The payload is written with a {@link java.io.DataOutputStream}.
+ * 
+ * The requests to the critical section granted together are answered with a single {@link #GRANTED} response, whose
+ * payload holds the ids of all of them.
+ *
+ * @version 1.0
+ * @author Hctor Snchez San Blas
+ * @author Francisco Pinto Santos
+ */
+public final class CriticalSectionTcpFrame {
+
+	/**
+	 * operation of {@link com.ssdd.cs.service.CriticalSectionService#setRequested(String, int, com.ssdd.cs.bean.CriticalSectionMode)}
+	 * */
+	public static final byte SET_REQUESTED = 1;
+	/**
+	 * operation of {@link com.ssdd.cs.service.CriticalSectionService#requests(String, java.util.List, int, long, com.ssdd.cs.bean.CriticalSectionMode)}
+	 * */
+	public static final byte REQUESTS = 2;
+	/**
+	 * operation of {@link com.ssdd.cs.service.CriticalSectionService#setAcquired(String, int)}
+	 * */
+	public static final byte SET_ACQUIRED = 3;
+	/**
+	 * operation of {@link com.ssdd.cs.service.CriticalSectionService#release(String, int)}
+	 * */
+	public static final byte RELEASE = 4;
+	/**
+	 * status of a successful response
+	 * */
+	public static final byte OK = 0;
+	/**
+	 * status of a response to a request for a process not suscribed to the service
+	 * */
+	public static final byte PROCESS_NOT_FOUND = 1;
+	/**
+	 * status of a response to a request which couldn't be processed
+	 * */
+	public static final byte ERROR = 2;
+	/**
+	 * status of a response which answers successfully many requests at once. Its payload is the number of requests and 
+	 * their ids, and its own id isn't used
+	 * */
+	public static final byte GRANTED = 3;
+	/**
+	 * size of the length prefix
+	 * */
+	public static final int LENGTH_SIZE = Integer.BYTES;
+	/**
+	 * size of the id and the code, counted in the length
+	 * */
+	public static final int HEADER_SIZE = Integer.BYTES + Byte.BYTES;
+	/**
+	 * maximum length accepted, to reject corrupted frames before allocating them
+	 * */
+	public static final int MAX_LENGTH = 1 << 20;
+
+	/**
+	 * id of the request, copied in its response
+	 * */
+	private final int id;
+	/**
+	 * operation of a request, or status of a response
+	 * */
+	private final byte code;
+	/**
+	 * serialized arguments of the request, or result of the response
+	 * */
+	private final byte [] payload;
+
+	public CriticalSectionTcpFrame(int id, byte code, byte [] payload) {
+		this.id = id;
+		this.code = code;
+		this.payload = payload;
+	}
+
+	public CriticalSectionTcpFrame(int id, byte code) {
+		this(id, code, new byte [0]);
+	}
+
+	/**
+	 * serializes the frame, with its length prefix.
+	 *
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 *
+	 * @return buffer ready to be written in a channel
+	 */
+	public ByteBuffer encode() {
+		ByteBuffer buffer = ByteBuffer.allocate(LENGTH_SIZE + HEADER_SIZE + this.payload.length);
+		buffer.putInt(HEADER_SIZE + this.payload.length);
+		buffer.putInt(this.id);
+		buffer.put(this.code);
+		buffer.put(this.payload);
+		buffer.flip();
+		return buffer;
+	}
+
+	/**
+	 * deserializes the next frame of a buffer in read mode, if it has been completely received. Otherwise the buffer is left
+	 * untouched, to wait for the rest of the frame.
+	 *
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 *
+	 * @param buffer the received bytes
+	 *
+	 * @return the frame, or null if it isn't complete
+	 *
+	 * @throws IOException if the length of the frame isn't valid
+	 */
+	public static CriticalSectionTcpFrame decode(ByteBuffer buffer) throws IOException {
+		if(buffer.remaining() < LENGTH_SIZE) {
+			return null;
+		}
+		int length = CriticalSectionTcpFrame.checkLength(buffer.getInt(buffer.position()));
+		if(buffer.remaining() < LENGTH_SIZE + length) {
+			return null;
+		}
+		buffer.getInt();
+		int id = buffer.getInt();
+		byte code = buffer.get();
+		byte [] payload = new byte [length - HEADER_SIZE];
+		buffer.get(payload);
+		return new CriticalSectionTcpFrame(id, code, payload);
+	}
+
+	/**
+	 * reads the next frame of a blocking channel.
+	 *
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 *
+	 * @param channel the channel to read
+	 *
+	 * @return the frame
+	 *
+	 * @throws IOException if the channel is closed, or the length of the frame isn't valid
+	 */
+	public static CriticalSectionTcpFrame read(ReadableByteChannel channel) throws IOException {
+		ByteBuffer length = CriticalSectionTcpFrame.readFully(channel, ByteBuffer.allocate(LENGTH_SIZE));
+		ByteBuffer frame = CriticalSectionTcpFrame.readFully(channel, ByteBuffer.allocate(CriticalSectionTcpFrame.checkLength(length.getInt())));
+		int id = frame.getInt();
+		byte code = frame.get();
+		byte [] payload = new byte [frame.remaining()];
+		frame.get(payload);
+		return new CriticalSectionTcpFrame(id, code, payload);
+	}
+
+	/**
+	 * serializes the arguments or the result of a frame.
+	 *
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 *
+	 * @param writer writes the values in the payload
+	 *
+	 * @return the payload
+	 */
+	public static byte [] payload(PayloadWriter writer) {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (DataOutputStream out = new DataOutputStream(bytes)){
+			writer.write(out);
+		} catch (IOException e) {
+			// never thrown writing in memory
+			throw new IllegalStateException(e);
+		}
+		return bytes.toByteArray();
+	}
+
+	/**
+	 * provides a stream to deserialize the payload.
+	 *
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 *
+	 * @return stream over the payload
+	 */
+	public DataInputStream input() {
+		return new DataInputStream(new ByteArrayInputStream(this.payload));
+	}
+
+	/**
+	 * checks the length prefix of a frame.
+	 *
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 *
+	 * @param length the length prefix
+	 *
+	 * @return the length, if it is valid
+	 *
+	 * @throws IOException if the length isn't valid
+	 */
+	private static int checkLength(int length) throws IOException {
+		if(length < HEADER_SIZE || length > MAX_LENGTH) {
+			throw new IOException(String.format("invalid frame length %d", length));
+		}
+		return length;
+	}
+
+	/**
+	 * reads a blocking channel until the buffer is full.
+	 *
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 *
+	 * @param channel the channel to read
+	 * @param buffer the buffer to fill
+	 *
+	 * @return the buffer, in read mode
+	 *
+	 * @throws IOException if the channel is closed before filling the buffer
+	 */
+	private static ByteBuffer readFully(ReadableByteChannel channel, ByteBuffer buffer) throws IOException {
+		while(buffer.hasRemaining()) {
+			if(channel.read(buffer) < 0) {
+				throw new EOFException("connection closed");
+			}
+		}
+		buffer.flip();
+		return buffer;
+	}
+
+	/**
+	 * splits a {@link #GRANTED} response in the successful responses of each of the requests it answers.
+	 *
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 *
+	 * @return the responses of the answered requests
+	 *
+	 * @throws IOException if the payload isn't valid
+	 */
+	public CriticalSectionTcpFrame [] split() throws IOException {
+		DataInputStream in = this.input();
+		CriticalSectionTcpFrame [] responses = new CriticalSectionTcpFrame [in.readInt()];
+		for(int i=0; i<responses.length; i++) {
+			responses[i] = new CriticalSectionTcpFrame(in.readInt(), OK);
+		}
+		return responses;
+	}
+
+	public int getId() {
+		return id;
+	}
+
+	public byte getCode() {
+		return code;
+	}
+
+	/**
+	 * writes the values of a payload.
+	 *
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 */
+	@FunctionalInterface
+	public interface PayloadWriter {
+		void write(DataOutputStream out) throws IOException;
+	}
+
+	/**
+	 * reads the values of a payload.
+	 *
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 */
+	@FunctionalInterface
+	public interface PayloadReader<T> {
+		T read(DataInputStream in) throws IOException;
+	}
+}
@@ -0,0 +1,340 @@
+package com.ssdd.cs.service.tcp;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.ssdd.cs.service.CriticalSectionService;
+import com.ssdd.util.logging.SSDDLogFactory;
+
+/**
+ * binary TCP endpoint of a {@link com.ssdd.cs.service.CriticalSectionService}, served next to its REST endpoints. Serves the 
+ * messages of the Ricart and Agrawala's algorithm with the frames of {@link com.ssdd.cs.service.tcp.CriticalSectionTcpFrame}, 
+ * over persistent connections.
+ * 
+ * All the connections are served by a single thread with a {@link java.nio.channels.Selector}. The requests are processed 
+ * without blocking by a {@link com.ssdd.cs.service.tcp.CriticalSectionFrameHandler}: the deferred requests to the critical 
+ * section are answered from the thread which grants them, by queueing the response in the connection and waking up the 
+ * selector to write it.
+ *
+ * @version 1.0
+ * @author Hctor Snchez San Blas
+ * @author Francisco Pinto Santos
+ */
+public final class CriticalSectionTcpServer implements Runnable{
+
+	/**
+	 * Class logger generated with {@link com.ssdd.util.logging.SSDDLogFactory#logger(Class)}
+	 * */
+	private final static Logger LOGGER = SSDDLogFactory.logger(CriticalSectionTcpServer.class);
+	/**
+	 * initial size of the read buffer of each connection
+	 * */
+	private final static int READ_BUFFER_SIZE = 64 * 1024;
+	/**
+	 * the running server, null if it isn't started
+	 * */
+	private static CriticalSectionTcpServer instance;
+
+	/**
+	 * processes the requests with the service
+	 * */
+	private final CriticalSectionFrameHandler handler;
+	/**
+	 * selector of the accepted connections and the server socket
+	 * */
+	private final Selector selector;
+	/**
+	 * server socket listening for new connections
+	 * */
+	private final ServerSocketChannel server;
+	/**
+	 * connections with responses queued since the last selection, to be registered for writing
+	 * */
+	private final Queue<Connection> pendingWrites;
+	/**
+	 * false when the server has been stopped
+	 * */
+	private volatile boolean running;
+
+	private CriticalSectionTcpServer(CriticalSectionService service, int port) throws IOException {
+		this.handler = new CriticalSectionFrameHandler(service);
+		this.pendingWrites = new ConcurrentLinkedQueue<>();
+		this.selector = Selector.open();
+		this.server = ServerSocketChannel.open();
+		this.server.setOption(StandardSocketOptions.SO_REUSEADDR, true);
+		this.server.bind(new InetSocketAddress(port));
+		this.server.configureBlocking(false);
+		this.server.register(this.selector, SelectionKey.OP_ACCEPT);
+		this.running = true;
+	}
+
+	/**
+	 * starts the server, if it isn't already started. If the port can't be bound the error is logged and only the REST 
+	 * endpoints are served.
+	 *
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 *
+	 * @param service the service which processes the requests
+	 * @param port the port to listen in
+	 */
+	public static synchronized void start(CriticalSectionService service, int port) {
+		if(null != instance) {
+			return;
+		}
+		try {
+			instance = new CriticalSectionTcpServer(service, port);
+			Thread thread = new Thread(instance, "CS.tcp");
+			thread.setDaemon(true);
+			thread.start();
+			LOGGER.log(Level.INFO, String.format("TCP endpoint listening in port %d", port));
+		} catch (IOException e) {
+			LOGGER.log(Level.WARNING, String.format("TCP endpoint: error starting in port %d %s", port, e.getMessage()), e);
+		}
+	}
+
+	/**
+	 * stops the server, closing all its connections.
+	 *
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 */
+	public static synchronized void stop() {
+		if(null != instance) {
+			instance.running = false;
+			instance.selector.wakeup();
+			instance = null;
+		}
+	}
+
+	/**
+	 * selection loop, accepting the new connections, reading their requests and writing their queued responses.
+	 *
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 */
+	@Override
+	public void run() {
+		try {
+			while(this.running) {
+				this.selector.select();
+				Connection pending;
+				while((pending = this.pendingWrites.poll()) != null) {
+					pending.registerWrite();
+				}
+				Iterator<SelectionKey> keys = this.selector.selectedKeys().iterator();
+				while(keys.hasNext()) {
+					SelectionKey key = keys.next();
+					keys.remove();
+					if(!key.isValid()) {
+						continue;
+					}
+					if(key.isAcceptable()) {
+						this.accept();
+						continue;
+					}
+					Connection connection = (Connection) key.attachment();
+					try {
+						if(key.isReadable()) {
+							connection.read();
+						}
+						if(key.isValid() && key.isWritable()) {
+							connection.flush();
+						}
+					} catch (IOException e) {
+						LOGGER.log(Level.INFO, String.format("TCP endpoint: connection closed %s", e.getMessage()));
+						connection.close();
+					}
+				}
+			}
+		} catch (IOException e) {
+			LOGGER.log(Level.WARNING, String.format("TCP endpoint: error %s", e.getMessage()), e);
+		} finally {
+			this.close();
+		}
+	}
+
+	/**
+	 * accepts a new connection, registering it for reading.
+	 *
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 *
+	 * @throws IOException if the connection can't be accepted
+	 */
+	private void accept() throws IOException {
+		SocketChannel channel = this.server.accept();
+		if(null == channel) {
+			return;
+		}
+		channel.configureBlocking(false);
+		channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+		Connection connection = new Connection(channel);
+		connection.key = channel.register(this.selector, SelectionKey.OP_READ, connection);
+	}
+
+	/**
+	 * closes the server socket, the selector and all the connections.
+	 *
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 */
+	private void close() {
+		try {
+			for(SelectionKey key : this.selector.keys()) {
+				key.channel().close();
+			}
+			this.selector.close();
+		} catch (IOException e) {
+			LOGGER.log(Level.WARNING, String.format("TCP endpoint: error closing %s", e.getMessage()), e);
+		}
+	}
+
+	/**
+	 * accepted connection, with its partially received request and its queued responses.
+	 *
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 */
+	private final class Connection {
+
+		/**
+		 * the connection's socket
+		 * */
+		private final SocketChannel channel;
+		/**
+		 * key of the connection in the selector
+		 * */
+		private SelectionKey key;
+		/**
+		 * bytes received and not yet processed, in write mode
+		 * */
+		private ByteBuffer in;
+		/**
+		 * serialized responses not yet written
+		 * */
+		private final Queue<ByteBuffer> out;
+		/**
+		 * sends the responses of the requests received through the connection
+		 * */
+		private final CriticalSectionFrameReplier replier;
+
+		private Connection(SocketChannel channel) {
+			this.channel = channel;
+			this.in = ByteBuffer.allocate(READ_BUFFER_SIZE);
+			this.out = new ConcurrentLinkedQueue<>();
+			this.replier = new CriticalSectionFrameReplier(this::send);
+		}
+
+		/**
+		 * reads the available bytes, and processes all the completely received requests.
+		 *
+		 * @version 1.0
+		 * @author Hctor Snchez San Blas
+		 * @author Francisco Pinto Santos
+		 *
+		 * @throws IOException if the connection is closed or a frame isn't valid
+		 */
+		private void read() throws IOException {
+			if(this.channel.read(this.in) < 0) {
+				throw new IOException("closed by peer");
+			}
+			this.in.flip();
+			CriticalSectionTcpFrame request;
+			while((request = CriticalSectionTcpFrame.decode(this.in)) != null) {
+				CriticalSectionTcpServer.this.handler.handle(request, this.replier);
+			}
+			this.in.compact();
+			// make room for a frame bigger than the buffer
+			if(!this.in.hasRemaining()) {
+				this.in.flip();
+				this.in = ByteBuffer.allocate(this.in.capacity() * 2).put(this.in);
+			}
+		}
+
+		/**
+		 * queues a response, and wakes up the selector to write it.
+		 *
+		 * @version 1.0
+		 * @author Hctor Snchez San Blas
+		 * @author Francisco Pinto Santos
+		 *
+		 * @param response the response
+		 */
+		private void send(CriticalSectionTcpFrame response) {
+			this.out.add(response.encode());
+			CriticalSectionTcpServer.this.pendingWrites.add(this);
+			CriticalSectionTcpServer.this.selector.wakeup();
+		}
+
+		/**
+		 * registers the connection for writing its queued responses.
+		 *
+		 * @version 1.0
+		 * @author Hctor Snchez San Blas
+		 * @author Francisco Pinto Santos
+		 */
+		private void registerWrite() {
+			if(this.key.isValid()) {
+				this.key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+			}
+		}
+
+		/**
+		 * writes the queued responses, until the socket's buffer is full. When all of them are written, the connection is
+		 * registered only for reading.
+		 *
+		 * @version 1.0
+		 * @author Hctor Snchez San Blas
+		 * @author Francisco Pinto Santos
+		 *
+		 * @throws IOException if the connection is closed
+		 */
+		private void flush() throws IOException {
+			ByteBuffer response;
+			while((response = this.out.peek()) != null) {
+				this.channel.write(response);
+				if(response.hasRemaining()) {
+					return;
+				}
+				this.out.poll();
+			}
+			// a response queued from now on registers the connection again
+			this.key.interestOps(SelectionKey.OP_READ);
+		}
+
+		/**
+		 * closes the connection, discarding its queued responses.
+		 *
+		 * @version 1.0
+		 * @author Hctor Snchez San Blas
+		 * @author Francisco Pinto Santos
+		 */
+		private void close() {
+			this.key.cancel();
+			this.out.clear();
+			try {
+				this.channel.close();
+			} catch (IOException e) {
+				LOGGER.log(Level.WARNING, String.format("TCP endpoint: error closing connection %s", e.getMessage()), e);
+			}
+		}
+	}
+}
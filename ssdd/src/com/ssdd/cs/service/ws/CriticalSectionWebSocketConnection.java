@@ -0,0 +1,155 @@
+package com.ssdd.cs.service.ws;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+import javax.websocket.ClientEndpointConfig;
+import javax.websocket.CloseReason;
+import javax.websocket.ContainerProvider;
+import javax.websocket.DeploymentException;
+import javax.websocket.Endpoint;
+import javax.websocket.EndpointConfig;
+import javax.websocket.MessageHandler;
+import javax.websocket.Session;
+
+import com.ssdd.cs.service.tcp.CriticalSectionFrameConnection;
+import com.ssdd.cs.service.tcp.CriticalSectionTcpFrame;
+import com.ssdd.util.constants.IConstants;
+
+/**
+ * single duplex WebSocket session with the {@link com.ssdd.cs.service.ws.CriticalSectionWebSocketEndpoint} of a host, shared
+ * by all the proxies of the host. The requests are sent as binary messages, and the session's message handler completes 
+ * the waiting requests with their responses.
+ *
+ * @version 1.0
+ * @author Hctor Snchez San Blas
+ * @author Francisco Pinto Santos
+ */
+public final class CriticalSectionWebSocketConnection extends CriticalSectionFrameConnection {
+
+	/**
+	 * the connections, indexed by host
+	 * */
+	private final static Map<String, CriticalSectionWebSocketConnection> CONNECTIONS = new ConcurrentHashMap<>();
+
+	/**
+	 * URI of the WebSocket endpoint
+	 * */
+	private final URI uri;
+	/**
+	 * the session, null until the first request
+	 * */
+	private Session session;
+	/**
+	 * lock to serialize the sends of the requests, which doesn't pin the carrier of a virtual thread blocked in a send
+	 * */
+	private final ReentrantLock writeLock;
+
+	private CriticalSectionWebSocketConnection(String host) {
+		super();
+		this.uri = URI.create(String.format(IConstants.BASE_URI_FORMAT, host).replaceFirst("^http", "ws") + IConstants.CS_WEBSOCKET_PATH);
+		this.writeLock = new ReentrantLock();
+	}
+
+	/**
+	 * provides the shared connection to the given host, which is opened with the first request.
+	 *
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 *
+	 * @param host the IP address of the server in which the service is allocated
+	 *
+	 * @return the connection
+	 */
+	public static CriticalSectionWebSocketConnection get(String host) {
+		return CONNECTIONS.computeIfAbsent(host, key -> new CriticalSectionWebSocketConnection(host));
+	}
+
+	/**
+	 * sends a request through the session, opening it if it isn't open.
+	 *
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 *
+	 * @param request the request
+	 *
+	 * @throws IOException if the session can't be opened or the request can't be sent
+	 */
+	@Override
+	protected void send(CriticalSectionTcpFrame request) throws IOException {
+		this.writeLock.lock();
+		try {
+			this.connect().getBasicRemote().sendBinary(request.encode());
+		}finally {
+			this.writeLock.unlock();
+		}
+	}
+
+	/**
+	 * opens the session if it isn't open. Must be called holding {@link #writeLock}.
+	 *
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 *
+	 * @return the open session
+	 *
+	 * @throws IOException if the session can't be opened
+	 */
+	private Session connect() throws IOException {
+		if(null == this.session || !this.session.isOpen()) {
+			try {
+				this.session = ContainerProvider.getWebSocketContainer().connectToServer(new Receiver(), ClientEndpointConfig.Builder.create().build(), this.uri);
+			} catch (DeploymentException e) {
+				throw new IOException(String.format("error connecting to %s", this.uri), e);
+			}
+		}
+		return this.session;
+	}
+
+	/**
+	 * client endpoint of the session, which receives the responses. When the session is closed, all the waiting requests fail, 
+	 * and the session is opened again with the next request.
+	 *
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 */
+	private final class Receiver extends Endpoint {
+
+		@Override
+		public void onOpen(Session session, EndpointConfig config) {
+			session.setMaxBinaryMessageBufferSize(CriticalSectionTcpFrame.LENGTH_SIZE + CriticalSectionTcpFrame.MAX_LENGTH);
+			// anonymous class, so the container can resolve the type of the messages
+			session.addMessageHandler(new MessageHandler.Whole<ByteBuffer>() {
+				@Override
+				public void onMessage(ByteBuffer message) {
+					try {
+						CriticalSectionTcpFrame response = CriticalSectionTcpFrame.decode(message);
+						if(null != response) {
+							CriticalSectionWebSocketConnection.this.complete(response);
+						}
+					} catch (IOException e) {
+						CriticalSectionWebSocketConnection.this.fail(e);
+					}
+				}
+			});
+		}
+
+		@Override
+		public void onClose(Session session, CloseReason reason) {
+			CriticalSectionWebSocketConnection.this.fail(new IOException(String.format("session closed %s", reason.getReasonPhrase())));
+		}
+
+		@Override
+		public void onError(Session session, Throwable error) {
+			CriticalSectionWebSocketConnection.this.fail(new IOException(error.getMessage(), error));
+		}
+	}
+}
@@ -0,0 +1,171 @@
+package com.ssdd.cs.service.ws;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.websocket.OnError;
+import javax.websocket.OnMessage;
+import javax.websocket.OnOpen;
+import javax.websocket.Session;
+import javax.websocket.server.ServerEndpoint;
+
+import com.ssdd.cs.service.CriticalSectionService;
+import com.ssdd.cs.service.tcp.CriticalSectionFrameHandler;
+import com.ssdd.cs.service.tcp.CriticalSectionFrameReplier;
+import com.ssdd.cs.service.tcp.CriticalSectionTcpFrame;
+import com.ssdd.util.constants.IConstants;
+import com.ssdd.util.logging.SSDDLogFactory;
+
+/**
+ * WebSocket endpoint of the {@link com.ssdd.cs.service.CriticalSectionService}, served by the servlet container next to the
+ * REST endpoints. Each client keeps a single duplex session with the service, in which the requests and their responses
+ * travel as binary messages with the frames of {@link com.ssdd.cs.service.tcp.CriticalSectionTcpFrame}, correlated by their
+ * id. The deferred requests to the critical section are pushed through the session when they are granted, so they don't
+ * hold an HTTP connection while they wait.
+ *
+ * @version 1.0
+ * @author Hctor Snchez San Blas
+ * @author Francisco Pinto Santos
+ */
+@ServerEndpoint(IConstants.CS_WEBSOCKET_PATH)
+public class CriticalSectionWebSocketEndpoint {
+
+	/**
+	 * Class logger generated with {@link com.ssdd.util.logging.SSDDLogFactory#logger(Class)}
+	 * */
+	private final static Logger LOGGER = SSDDLogFactory.logger(CriticalSectionWebSocketEndpoint.class);
+
+	/**
+	 * processes the requests with the service's singleton, null until it is bound
+	 * */
+	private static volatile CriticalSectionFrameHandler handler;
+	/**
+	 * sends the responses through the endpoint's session, set when the session is opened
+	 * */
+	private CriticalSectionFrameReplier replier;
+	/**
+	 * lock to serialize the sends through the endpoint's session, which doesn't pin the carrier of a virtual thread blocked in a send
+	 * */
+	private final ReentrantLock writeLock = new ReentrantLock();
+
+	/**
+	 * binds the endpoint to the service's singleton. The endpoint is instanced by the container for each session, while
+	 * the service is instanced by Jersey.
+	 *
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 *
+	 * @param service the service which processes the requests
+	 */
+	public static void bind(CriticalSectionService service) {
+		handler = new CriticalSectionFrameHandler(service);
+	}
+
+	/**
+	 * configures a new session.
+	 *
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 *
+	 * @param session the new session
+	 */
+	@OnOpen
+	public void open(Session session) {
+		session.setMaxBinaryMessageBufferSize(CriticalSectionTcpFrame.LENGTH_SIZE + CriticalSectionTcpFrame.MAX_LENGTH);
+		this.replier = new CriticalSectionFrameReplier(response -> this.send(session, response));
+	}
+
+	/**
+	 * processes a request received in a session, pushing its response through the session when it is ready.
+	 *
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 *
+	 * @param session the session which received the request
+	 * @param message the serialized request
+	 */
+	@OnMessage
+	public void message(Session session, ByteBuffer message) {
+		CriticalSectionTcpFrame request = null;
+		try {
+			request = CriticalSectionTcpFrame.decode(message);
+			if(null == request) {
+				throw new IOException("incomplete frame");
+			}
+		} catch (IOException e) {
+			LOGGER.log(Level.WARNING, String.format("WebSocket endpoint: error %s", e.getMessage()), e);
+			CriticalSectionWebSocketEndpoint.close(session);
+			return;
+		}
+		CriticalSectionFrameHandler handler = CriticalSectionWebSocketEndpoint.handler;
+		if(null == handler) {
+			// the service hasn't received yet any REST request
+			this.send(session, new CriticalSectionTcpFrame(request.getId(), CriticalSectionTcpFrame.ERROR));
+			return;
+		}
+		handler.handle(request, this.replier);
+	}
+
+	/**
+	 * logs the errors of a session.
+	 *
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 *
+	 * @param session the failed session
+	 * @param error the error
+	 */
+	@OnError
+	public void error(Session session, Throwable error) {
+		LOGGER.log(Level.INFO, String.format("WebSocket endpoint: session %s closed %s", session.getId(), error.getMessage()));
+	}
+
+	/**
+	 * sends a response through a session. The sends are serialized with {@link #writeLock}, because the responses of the 
+	 * deferred requests are sent from the threads which grant them.
+	 *
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 *
+	 * @param session the session which received the request
+	 * @param response the response
+	 */
+	private void send(Session session, CriticalSectionTcpFrame response) {
+		this.writeLock.lock();
+		try {
+			if(session.isOpen()) {
+				session.getBasicRemote().sendBinary(response.encode());
+			}
+		} catch (IOException e) {
+			LOGGER.log(Level.WARNING, String.format("WebSocket endpoint: error sending %s", e.getMessage()), e);
+			CriticalSectionWebSocketEndpoint.close(session);
+		}finally {
+			this.writeLock.unlock();
+		}
+	}
+
+	/**
+	 * closes a session.
+	 *
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 *
+	 * @param session the session
+	 */
+	private static void close(Session session) {
+		try {
+			session.close();
+		} catch (IOException e) {
+			LOGGER.log(Level.WARNING, String.format("WebSocket endpoint: error closing %s", e.getMessage()), e);
+		}
+	}
+}
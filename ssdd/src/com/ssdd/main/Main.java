@@ -3,6 +3,7 @@ package com.ssdd.main;
 import java.util.Arrays;
 
 import com.ssdd.util.constants.IConstants;
+import com.ssdd.util.http.ServiceCallException;
 
 /**
  * main class
@@ -23,26 +24,52 @@ public class Main {
 		String command = args[0];
 		args = Arrays.copyOfRange(args, 1, args.length);
 		
-		switch(command) {
-			case "-h": 
-			case "help":
-				System.err.println("usage: <command>");
-				System.err.println("\t supervisor: for ntp sampling and log correction. use supervisor -h for help.");
-				System.err.println("\t simulation: for critical section simulation. use simulation -h for help.");
-				System.err.println("\t verification: for log verification. use verification -h for help.");
-				break;
-			case "supervisor":
-				MainSupervisor.main(args);
-				break;
-			case "simulation":
-				MainSimulation.main(args);
-				break;
-			case "verification":
-				MainLogVerification.main(args);
-				break;
-			default:
-				System.out.println("ERROR: selected command (" + command + ") not found. use -h option for information.");
-				System.exit(IConstants.EXIT_CODE_ARGS_ERROR);
+		// a failed request to the services ends the process
+		try {
+			switch(command) {
+				case "-h": 
+				case "help":
+					System.err.println("usage: <command>");
+					System.err.println("\t supervisor: for ntp sampling and log correction. use supervisor -h for help.");
+					System.err.println("\t simulation: for critical section simulation. use simulation -h for help.");
+					System.err.println("\t verification: for log verification. use verification -h for help.");
+					System.err.println("\t comparison: for message count comparison between mutual exclusion algorithms. use comparison -h for help.");
+					System.err.println("\t latency: for message latency measurement of the transports. use latency -h for help.");
+					System.err.println("\t cluster: for algorithm benchmarks with a whole cluster in the same JVM. use cluster -h for help.");
+					System.err.println("\t contention: for comparison between the lock-free and the synchronized critical section states under contention. use contention -h for help.");
+					System.err.println("\t server: for serving the services from an embedded HTTP server, without Tomcat. use server -h for help.");
+					break;
+				case "supervisor":
+					MainSupervisor.main(args);
+					break;
+				case "simulation":
+					MainSimulation.main(args);
+					break;
+				case "verification":
+					MainLogVerification.main(args);
+					break;
+				case "comparison":
+					MainMessageComparison.main(args);
+					break;
+				case "latency":
+					MainTransportLatency.main(args);
+					break;
+				case "cluster":
+					MainLoopbackCluster.main(args);
+					break;
+				case "contention":
+					MainStateContention.main(args);
+					break;
+				case "server":
+					MainServer.main(args);
+					break;
+				default:
+					System.out.println("ERROR: selected command (" + command + ") not found. use -h option for information.");
+					System.exit(IConstants.EXIT_CODE_ARGS_ERROR);
+			}
+		} catch (ServiceCallException e) {
+			System.err.println("ERROR: " + e.getMessage());
+			System.exit(IConstants.EXIT_CODE_HTTP_REQUEST_ERROR);
 		}
 	}
 }
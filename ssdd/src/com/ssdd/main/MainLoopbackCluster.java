@@ -0,0 +1,324 @@
+package com.ssdd.main;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.ssdd.cs.bean.CriticalSectionMode;
+import com.ssdd.cs.client.CriticalSectionClient;
+import com.ssdd.cs.client.HierarchicalCriticalSectionClient;
+import com.ssdd.cs.client.LockHandle;
+import com.ssdd.cs.client.algorithm.MutualExclusionAlgorithmType;
+import com.ssdd.cs.service.CriticalSectionService;
+import com.ssdd.cs.service.CriticalSectionServiceLoopbackProxy;
+import com.ssdd.simulation.MessageCountingService;
+import com.ssdd.util.concurrent.VirtualThreads;
+import com.ssdd.util.constants.IConstants;
+import com.ssdd.util.constants.ISimulationConstants;
+import com.ssdd.util.logging.SSDDLogFactory;
+
+/**
+ * Main class to benchmark a mutual exclusion algorithm with a whole cluster running in the same JVM: the processes are 
+ * distributed among several {@link com.ssdd.simulation.MessageCountingService}, and send their messages through the 
+ * in-JVM loopback transport ({@link com.ssdd.cs.service.CriticalSectionServiceLoopbackProxy}), optionally with an injected 
+ * latency. Each process enters {@link com.ssdd.util.constants.ISimulationConstants#CLUSTER_NUM_ITERATIONS} times in the 
+ * critical section, checking that the mutual exclusion is never violated. In hierarchical mode the processes of each service
+ * share a {@link com.ssdd.cs.client.HierarchicalCriticalSectionClient}, and in asynchronous mode each process enters 
+ * through {@link com.ssdd.cs.client.CriticalSectionClient#acquireAsync()} instead of in its own thread. In mixed mode half of the processes 
+ * (the readers) hold the critical section in shared mode for a while, and the others alternate shared and exclusive entries, 
+ * checking also that no process is inside in shared mode while other is in exclusive mode.
+ * 
+ * @version 1.0
+ * @author Hctor Snchez San Blas
+ * @author Francisco Pinto Santos
+ * */
+public class MainLoopbackCluster {
+
+	/**
+	 * Class logger generated with {@link com.ssdd.util.logging.SSDDLogFactory#logger(Class)}
+	 * */
+    private final static Logger LOGGER = SSDDLogFactory.logger(MainLoopbackCluster.class);
+    
+    /**
+	 * format of the names of the services' hosts
+	 * */
+    private final static String HOST_FORMAT = "local%d";
+    
+    /**
+	 * amount added to the number of processes inside the critical section by an exclusive entry, larger than any number of shared entries
+	 * */
+    private final static int EXCLUSIVE_ENTRY = 1 << 20;
+	
+	public static void main(String [] args) {
+		// take the options
+		MutualExclusionAlgorithmType algorithm = MutualExclusionAlgorithmType.RICART_AGRAWALA;
+		long latency = IConstants.CS_LOOPBACK_LATENCY;
+		boolean hierarchical = false;
+		boolean async = false;
+		boolean mixed = false;
+		while(args.length > 0 && args[0].startsWith("--")) {
+			if(args[0].contentEquals("--algorithm") && args.length > 1 && MutualExclusionAlgorithmType.fromName(args[1]) != null) {
+				algorithm = MutualExclusionAlgorithmType.fromName(args[1]);
+				args = Arrays.copyOfRange(args, 2, args.length);
+			}else if(args[0].contentEquals("--latency") && args.length > 1) {
+				latency = Long.parseLong(args[1]);
+				args = Arrays.copyOfRange(args, 2, args.length);
+			}else if(args[0].contentEquals("--hierarchical")) {
+				hierarchical = true;
+				args = Arrays.copyOfRange(args, 1, args.length);
+			}else if(args[0].contentEquals("--async")) {
+				async = true;
+				args = Arrays.copyOfRange(args, 1, args.length);
+			}else if(args[0].contentEquals("--mixed")) {
+				mixed = true;
+				args = Arrays.copyOfRange(args, 1, args.length);
+			}else if(args[0].contentEquals("--virtual")) {
+				VirtualThreads.enable();
+				args = Arrays.copyOfRange(args, 1, args.length);
+			}else {
+				System.err.println(String.format("ERROR: unknown option %s. use -h for help.", args[0]));
+				System.exit(IConstants.EXIT_CODE_ARGS_ERROR);
+			}
+		}
+		
+		// args length check
+		if(args.length < 2) {
+			if(args.length > 0 && (args[0].contentEquals("-h") || args[0].contentEquals("help"))) {
+				System.err.println("usage: [--algorithm <ra|sk|mk>] [--latency <latency>] [--hierarchical] [--async] [--mixed] [--virtual] <numProcesses> <numServices>");
+				System.err.println("NOTE: --algorithm selects Ricart and Argawala's (ra, by default), Suzuki and Kasami's (sk) or Maekawa's (mk) algorithm.");
+				System.err.println("NOTE: --latency is the one-way latency (in microseconds) injected in each message, 0 by default.");
+				System.err.println("NOTE: the processes are assigned to the services in round robin.");
+				System.err.println("NOTE: with --hierarchical the processes of each service share a client, and contend first locally (one host per service).");
+				System.err.println("NOTE: with --async the processes acquire and release the critical section asynchronously, without a thread by process.");
+				System.err.println("NOTE: with --mixed the processes with even id hold the critical section in shared mode, and the others alternate shared and exclusive entries.");
+				System.err.println("NOTE: with --virtual each process and each message send runs in a virtual thread, to simulate tens of thousands of processes. Needs Java 21 or later: the virtual threads path hasn't been run yet, as no Java 21 runtime was available, so it is untested.");
+				return;
+			}
+			System.err.println("ERROR: error number of arguments. use -h for help.");
+			System.exit(IConstants.EXIT_CODE_ARGS_ERROR);
+		}
+		
+		// take arguments
+		int numProcesses = Integer.parseInt(args[0]);
+		int numServices = Integer.parseInt(args[1]);
+		
+		// one client by process, or by service shared by its processes in hierarchical mode
+		int numClients = (hierarchical) ? numServices : numProcesses;
+		
+		// register the services, and build their proxies
+		MessageCountingService [] counters = new MessageCountingService [numServices];
+		CriticalSectionService [] services = new CriticalSectionService [numServices];
+		for(int i=0; i<numServices; i++) {
+			String host = String.format(HOST_FORMAT, i);
+			counters[i] = new MessageCountingService();
+			counters[i].restart(numClients);
+			CriticalSectionServiceLoopbackProxy.register(host, counters[i]);
+			services[i] = new CriticalSectionServiceLoopbackProxy(host, TimeUnit.MICROSECONDS.toNanos(latency));
+		}
+		
+		// build and subscribe the clients
+		String [] ids = new String [numClients];
+		for(int i=0; i<numClients; i++) {
+			ids[i] = String.valueOf(i+1);
+		}
+		List<CriticalSectionClient> clients = new ArrayList<>();
+		for(int i=0; i<numClients; i++) {
+			CriticalSectionClient client = (hierarchical) 
+					? new HierarchicalCriticalSectionClient(ids[i], services[i % numServices], ids, services, algorithm)
+					: new CriticalSectionClient(ids[i], services[i % numServices], ids, services, algorithm);
+			client.suscribe();
+			clients.add(client);
+		}
+		
+		// run the processes, counting the processes inside the critical section
+		AtomicInteger inside = new AtomicInteger(0);
+		String violation = String.format("mutual exclusion violated by %s with %d processes", algorithm.getName(), numProcesses);
+		long start = System.nanoTime();
+		MainLoopbackCluster.runAll(clients, "C%s", CriticalSectionClient::ready);
+		if(async) {
+			ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor();
+			List<CompletableFuture<Void>> processes = new ArrayList<>();
+			for(int p=0; p<numProcesses; p++) {
+				CriticalSectionClient client = clients.get(p % numClients);
+				boolean reader = MainLoopbackCluster.isReader(mixed, client);
+				CompletableFuture<Void> entries = CompletableFuture.completedFuture(null);
+				for(int i=0; i<ISimulationConstants.CLUSTER_NUM_ITERATIONS; i++) {
+					CriticalSectionMode mode = MainLoopbackCluster.mode(mixed, client, i);
+					// the critical section is held until the next task of the pool, or the timer for the readers, so other holders can overlap with it
+					entries = entries.thenCompose(entered -> client.acquireAsync(IConstants.DEFAULT_RESOURCE, mode)).thenCompose(handle -> {
+						MainLoopbackCluster.enter(inside, mode, violation);
+						CompletableFuture<LockHandle> held = new CompletableFuture<>();
+						timer.schedule(() -> held.complete(handle), (reader) ? ISimulationConstants.CLUSTER_SHARED_HOLD_TIME : 0, TimeUnit.MILLISECONDS);
+						return held;
+					}).thenComposeAsync(handle -> {
+						MainLoopbackCluster.leave(inside, mode);
+						return handle.releaseAsync();
+					});
+				}
+				processes.add(entries);
+			}
+			try {
+				CompletableFuture.allOf(processes.toArray(new CompletableFuture<?> [processes.size()])).join();
+			} catch (CompletionException e) {
+				LOGGER.log(Level.WARNING, String.format("cluster: error %s", e.getCause().getMessage()), e.getCause());
+				System.exit(IConstants.EXIT_CODE_SIMULATION_ERROR);
+			}
+			timer.shutdown();
+		}else {
+			List<CriticalSectionClient> processes = new ArrayList<>();
+			for(int p=0; p<numProcesses; p++) {
+				processes.add(clients.get(p % numClients));
+			}
+			boolean mixedEntries = mixed;
+			MainLoopbackCluster.runAll(processes, "P%s", client -> {
+				boolean reader = MainLoopbackCluster.isReader(mixedEntries, client);
+				for(int i=0; i<ISimulationConstants.CLUSTER_NUM_ITERATIONS; i++) {
+					CriticalSectionMode mode = MainLoopbackCluster.mode(mixedEntries, client, i);
+					client.acquire(IConstants.DEFAULT_RESOURCE, mode);
+					MainLoopbackCluster.enter(inside, mode, violation);
+					// let other holders run, so they can overlap with this one
+					if(reader) {
+						MainLoopbackCluster.sleep(ISimulationConstants.CLUSTER_SHARED_HOLD_TIME);
+					}else {
+						Thread.yield();
+					}
+					MainLoopbackCluster.leave(inside, mode);
+					client.release(IConstants.DEFAULT_RESOURCE);
+				}
+			});
+		}
+		MainLoopbackCluster.runAll(clients, "C%s", CriticalSectionClient::finished);
+		long elapsed = System.nanoTime() - start;
+		
+		// print the results
+		long messages = Arrays.stream(counters).mapToLong(MessageCountingService::getMessages).sum();
+		int entries = numProcesses * ISimulationConstants.CLUSTER_NUM_ITERATIONS;
+		System.out.println("N\tservices\talgorithm\tlatency(us)\telapsed(ms)\tentries/s\tmessages/entry");
+		System.out.println(String.format("%d\t%d\t%s\t%d\t%d\t%.2f\t%.2f", numProcesses, numServices, algorithm.getName(), latency, 
+				TimeUnit.NANOSECONDS.toMillis(elapsed), entries / (elapsed / 1e9), (double) messages / entries));
+	}
+	
+	/**
+	 * runs a task for each client in its own thread, and waits for all of them.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param clients the clients, repeated once by process which uses them
+	 * @param nameFormat format of the threads' names, with the client's id as argument
+	 * @param task the task to run with each client
+	 * */
+	private static void runAll(List<CriticalSectionClient> clients, String nameFormat, Consumer<CriticalSectionClient> task) {
+		List<Thread> threads = new ArrayList<>();
+		for(CriticalSectionClient client : clients) {
+			threads.add(VirtualThreads.start(String.format(nameFormat, client.getID()), () -> task.accept(client)));
+		}
+		for(Thread thread : threads) {
+			try {
+				thread.join();
+			} catch (InterruptedException e) {
+				LOGGER.log(Level.WARNING, String.format("cluster: error %s", e.getMessage()), e);
+				System.exit(IConstants.EXIT_CODE_THREAD_ERROR);
+			}
+		}
+	}
+	
+	/**
+	 * checks if a process is a reader, which only enters the critical section in shared mode and holds it for 
+	 * {@link com.ssdd.util.constants.ISimulationConstants#CLUSTER_SHARED_HOLD_TIME} milliseconds.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param mixed flag that indicates if the shared and exclusive entries are mixed
+	 * @param client the process's client
+	 * 
+	 * @return true if the process is a reader
+	 * */
+	private static boolean isReader(boolean mixed, CriticalSectionClient client) {
+		return mixed && client.getNumericID() % 2 == 0;
+	}
+	
+	/**
+	 * returns the mode of a process's entry: exclusive, or in mixed mode shared for the readers and alternating shared and 
+	 * exclusive for the other processes, so they request the exclusive mode right after holding the shared one.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param mixed flag that indicates if the shared and exclusive entries are mixed
+	 * @param client the process's client
+	 * @param iteration the entry's number
+	 * 
+	 * @return the mode of the entry
+	 * */
+	private static CriticalSectionMode mode(boolean mixed, CriticalSectionClient client, int iteration) {
+		return (MainLoopbackCluster.isReader(mixed, client) || (mixed && iteration % 2 == 0)) ? CriticalSectionMode.SHARED : CriticalSectionMode.EXCLUSIVE;
+	}
+	
+	/**
+	 * holds the critical section for a while.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param time the time to hold it, in milliseconds
+	 * */
+	private static void sleep(long time) {
+		try {
+			Thread.sleep(time);
+		} catch (InterruptedException e) {
+			LOGGER.log(Level.WARNING, String.format("cluster: error %s", e.getMessage()), e);
+			System.exit(IConstants.EXIT_CODE_THREAD_ERROR);
+		}
+	}
+	
+	/**
+	 * enters the critical section, exiting with an error if other process is inside in exclusive mode, or in any mode 
+	 * when entering in exclusive mode.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param inside number of processes inside the critical section, adding {@link #EXCLUSIVE_ENTRY} by process in exclusive mode
+	 * @param mode the mode of the entry
+	 * @param violation the message to log if the mutual exclusion is violated
+	 * */
+	private static void enter(AtomicInteger inside, CriticalSectionMode mode, String violation) {
+		boolean violated = (mode == CriticalSectionMode.EXCLUSIVE) 
+				? inside.addAndGet(EXCLUSIVE_ENTRY) != EXCLUSIVE_ENTRY 
+				: inside.incrementAndGet() > EXCLUSIVE_ENTRY;
+		if(violated) {
+			LOGGER.log(Level.WARNING, violation);
+			System.exit(IConstants.EXIT_CODE_SIMULATION_ERROR);
+		}
+	}
+	
+	/**
+	 * leaves the critical section entered with {@link #enter(AtomicInteger, CriticalSectionMode, String)}.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param inside number of processes inside the critical section
+	 * @param mode the mode of the entry
+	 * */
+	private static void leave(AtomicInteger inside, CriticalSectionMode mode) {
+		inside.addAndGet((mode == CriticalSectionMode.EXCLUSIVE) ? -EXCLUSIVE_ENTRY : -1);
+	}
+}
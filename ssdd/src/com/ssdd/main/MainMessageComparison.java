@@ -0,0 +1,130 @@
+package com.ssdd.main;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.ssdd.cs.client.CriticalSectionClient;
+import com.ssdd.cs.client.algorithm.MutualExclusionAlgorithmType;
+import com.ssdd.cs.service.CriticalSectionService;
+import com.ssdd.simulation.MessageCountingService;
+import com.ssdd.util.constants.IConstants;
+import com.ssdd.util.constants.ISimulationConstants;
+import com.ssdd.util.logging.SSDDLogFactory;
+
+/**
+ * Main class to compare the number of messages by critical section entry of the mutual exclusion algorithms. 
+ * All the processes run in the same JVM, subscribed to a single in-process {@link com.ssdd.simulation.MessageCountingService}.
+ * The comparison fails if the Ricart and Argawala's algorithm exceeds its bound of 2(N-1) messages by entry.
+ * 
+ * @version 1.0
+ * @author Hctor Snchez San Blas
+ * @author Francisco Pinto Santos
+ * */
+public class MainMessageComparison {
+
+	/**
+	 * Class logger generated with {@link com.ssdd.util.logging.SSDDLogFactory#logger(Class)}
+	 * */
+    private final static Logger LOGGER = SSDDLogFactory.logger(MainMessageComparison.class);
+    
+    /**
+	 * number of processes compared when none is given
+	 * */
+    private final static int [] DEFAULT_NUM_PROCESSES = {16, 64, 256};
+	
+	public static void main(String [] args) {
+		if(args.length > 0 && (args[0].contentEquals("-h") || args[0].contentEquals("help"))) {
+			System.err.println("usage: [<numProcesses1> ... <numProcessesN>]");
+			System.err.println("NOTE: by default the algorithms are compared with 16, 64 and 256 processes.");
+			return;
+		}
+		
+		// take arguments
+		int [] numProcesses = DEFAULT_NUM_PROCESSES;
+		if(args.length > 0) {
+			numProcesses = new int [args.length];
+			for(int i=0; i<args.length; i++) {
+				numProcesses[i] = Integer.parseInt(args[i]);
+			}
+		}
+		
+		System.out.println("N\talgorithm\tmessages/entry");
+		for(int n : numProcesses) {
+			for(MutualExclusionAlgorithmType algorithm : MutualExclusionAlgorithmType.values()) {
+				double messages = MainMessageComparison.compare(n, algorithm);
+				System.out.println(String.format("%d\t%s\t%.2f", n, algorithm.getName(), messages));
+				if(algorithm == MutualExclusionAlgorithmType.RICART_AGRAWALA && messages > 2 * (n - 1)) {
+					LOGGER.log(Level.WARNING, String.format("%s exceeds 2(N-1) = %d messages by entry with %d processes", algorithm.getName(), 2 * (n - 1), n));
+					System.exit(IConstants.EXIT_CODE_SIMULATION_ERROR);
+				}
+			}
+		}
+	}
+	
+	/** 
+	 * runs n processes which enter {@link com.ssdd.util.constants.ISimulationConstants#COMPARISON_NUM_ITERATIONS} times 
+	 * in the critical section with the given algorithm, checking that the mutual exclusion is never violated. The processes 
+	 * are subscribed to a new service, so nothing left by the previous comparisons reaches them.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param n the number of processes
+	 * @param algorithm the mutual exclusion algorithm
+	 * 
+	 * @return the average number of messages by critical section entry
+	*/
+	private static double compare(int n, MutualExclusionAlgorithmType algorithm) {
+		LOGGER.log(Level.INFO, String.format("comparing %s with %d processes", algorithm.getName(), n));
+		MessageCountingService service = new MessageCountingService();
+		service.restart(n);
+		
+		// build and subscribe the processes
+		String [] processes = new String [n];
+		for(int i=0; i<n; i++) {
+			processes[i] = String.valueOf(i+1);
+		}
+		CriticalSectionService [] services = new CriticalSectionService [] { service };
+		List<CriticalSectionClient> clients = new ArrayList<>();
+		for(String process : processes) {
+			CriticalSectionClient client = new CriticalSectionClient(process, service, processes, services, algorithm);
+			client.suscribe();
+			clients.add(client);
+		}
+		
+		// run the processes, counting the processes inside the critical section
+		AtomicInteger inside = new AtomicInteger(0);
+		List<Thread> threads = new ArrayList<>();
+		for(CriticalSectionClient client : clients) {
+			Thread thread = new Thread(() -> {
+				client.ready();
+				for(int i=0; i<ISimulationConstants.COMPARISON_NUM_ITERATIONS; i++) {
+					client.acquire();
+					if(inside.incrementAndGet() > 1) {
+						LOGGER.log(Level.WARNING, String.format("mutual exclusion violated by %s with %d processes", algorithm.getName(), n));
+						System.exit(IConstants.EXIT_CODE_SIMULATION_ERROR);
+					}
+					inside.decrementAndGet();
+					client.release();
+				}
+				client.finished();
+			}, String.format("P%s", client.getID()));
+			threads.add(thread);
+			thread.start();
+		}
+		for(Thread thread : threads) {
+			try {
+				thread.join();
+			} catch (InterruptedException e) {
+				LOGGER.log(Level.WARNING, String.format("compare: error %s", e.getMessage()), e);
+				System.exit(IConstants.EXIT_CODE_THREAD_ERROR);
+			}
+		}
+		
+		return (double) service.getMessages() / (n * ISimulationConstants.COMPARISON_NUM_ITERATIONS);
+	}
+}
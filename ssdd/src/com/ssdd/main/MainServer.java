@@ -0,0 +1,53 @@
+package com.ssdd.main;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.ssdd.util.constants.IConstants;
+import com.ssdd.util.constants.IHttpConstants;
+import com.ssdd.util.http.server.JdkHttpContainer;
+import com.ssdd.util.http.server.SSDDApplication;
+import com.ssdd.util.logging.SSDDLogFactory;
+
+/**
+ * Main class to serve the NTP, critical section and log services from an embedded HTTP server, without Tomcat. The 
+ * services are served in the same URIs than in the WAR, see {@link com.ssdd.util.constants.IConstants#BASE_URI_FORMAT}, 
+ * but without the WebSocket endpoint, which needs a servlet container.
+ * 
+ * @version 1.0
+ * @author Hctor Snchez San Blas
+ * @author Francisco Pinto Santos
+ * */
+public class MainServer {
+
+	/**
+	 * Class logger generated with {@link com.ssdd.util.logging.SSDDLogFactory#logger(Class)}
+	 * */
+    private final static Logger LOGGER = SSDDLogFactory.logger(MainServer.class);
+	
+	public static void main(String [] args) {
+		if(args.length > 0 && (args[0].contentEquals("-h") || args[0].contentEquals("help"))) {
+			System.err.println("usage: [<port>]");
+			System.err.println(String.format("NOTE: by default the services are served in the port %d, under the path %s.", IHttpConstants.HTTP_SERVER_PORT, IHttpConstants.HTTP_SERVER_CONTEXT_PATH));
+			System.err.println("NOTE: the server runs until the process is stopped.");
+			return;
+		}
+		
+		// take arguments
+		int port = (args.length > 0) ? Integer.parseInt(args[0]) : IHttpConstants.HTTP_SERVER_PORT;
+		
+		// start the server, and stop it when the process is stopped
+		long start = System.nanoTime();
+		JdkHttpContainer container = new JdkHttpContainer(new SSDDApplication());
+		try {
+			container.start(port, IHttpConstants.HTTP_SERVER_CONTEXT_PATH);
+		} catch (IOException e) {
+			LOGGER.log(Level.WARNING, String.format("server: error starting in port %d %s", port, e.getMessage()), e);
+			System.exit(IConstants.EXIT_CODE_IO_ERROR);
+		}
+		Runtime.getRuntime().addShutdownHook(new Thread(container::stop, "http.shutdown"));
+		System.out.println(String.format("serving in port %d under %s, started in %d ms", port, IHttpConstants.HTTP_SERVER_CONTEXT_PATH, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)));
+	}
+}
@@ -6,8 +6,12 @@ import java.util.List;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import com.ssdd.cs.client.algorithm.MutualExclusionAlgorithmType;
+import com.ssdd.cs.service.CriticalSectionServiceLoopbackProxy;
+import com.ssdd.cs.service.CriticalSectionTransportType;
 import com.ssdd.simulation.SimulationProcess;
 import com.ssdd.simulation.SimulationProcessBuilder;
+import com.ssdd.util.concurrent.VirtualThreads;
 import com.ssdd.util.constants.IConstants;
 import com.ssdd.util.logging.SSDDLogFactory;
 
@@ -26,11 +30,39 @@ public class MainSimulation {
     private final static Logger LOGGER = SSDDLogFactory.logger(MainSimulation.class);
     
 	public static void main(String [] args) {
+		// take the options
+		boolean hierarchical = false;
+		MutualExclusionAlgorithmType algorithm = MutualExclusionAlgorithmType.RICART_AGRAWALA;
+		CriticalSectionTransportType transport = CriticalSectionTransportType.REST;
+		while(args.length > 0 && args[0].startsWith("--")) {
+			if(args[0].contentEquals("--hierarchical")) {
+				hierarchical = true;
+				args = Arrays.copyOfRange(args, 1, args.length);
+			}else if(args[0].contentEquals("--algorithm") && args.length > 1 && MutualExclusionAlgorithmType.fromName(args[1]) != null) {
+				algorithm = MutualExclusionAlgorithmType.fromName(args[1]);
+				args = Arrays.copyOfRange(args, 2, args.length);
+			}else if(args[0].contentEquals("--transport") && args.length > 1 && CriticalSectionTransportType.fromName(args[1]) != null) {
+				transport = CriticalSectionTransportType.fromName(args[1]);
+				args = Arrays.copyOfRange(args, 2, args.length);
+			}else if(args[0].contentEquals("--virtual")) {
+				VirtualThreads.enable();
+				args = Arrays.copyOfRange(args, 1, args.length);
+			}else {
+				System.err.println(String.format("ERROR: unknown option %s. use -h for help.", args[0]));
+				System.exit(IConstants.EXIT_CODE_ARGS_ERROR);
+			}
+		}
+		
 		// args length check
 		if(args.length < 5) {
-			if(args[0].contentEquals("-h") || args[0].contentEquals("help")) {
-				System.err.println("usage: <logFile> <numProcess> <assignedProcessRangeStart> <assignedProcessRangeEnd> <assignedServerPosition> <server1> [<server2> ... <serverN>]");
+			if(args.length > 0 && (args[0].contentEquals("-h") || args[0].contentEquals("help"))) {
+				System.err.println("usage: [--hierarchical] [--algorithm <ra|sk|mk>] [--transport <rest|tcp|ws|local>] [--virtual] <logFile> <numProcess> <assignedProcessRangeStart> <assignedProcessRangeEnd> <assignedServerPosition> <server1> [<server2> ... <serverN>]");
 				System.err.println("NOTE: assignedServerPosition is the server position in the server array given in next parameters, from 0 to N-1.");
+				System.err.println("NOTE: --algorithm selects Ricart and Argawala's (ra, by default), Suzuki and Kasami's (sk) or Maekawa's (mk) algorithm.");
+				System.err.println("NOTE: --transport selects REST endpoints (rest, by default), the binary TCP endpoint (tcp) or the WebSocket endpoint (ws) for the Ricart and Argawala's messages.");
+				System.err.println("NOTE: with --transport local all the messages are delivered to services running in the same JVM, named by the given servers and restarted with the given number of processes. A latency (in microseconds) can be injected with -Dssdd.loopback.latency=<latency>.");
+				System.err.println("NOTE: with --hierarchical the processes of the host contend first locally, and only the local winner takes part in the critical section among hosts (one host per server).");
+				System.err.println("NOTE: with --virtual (or -Dssdd.virtualThreads=true) each process and each message send runs in a virtual thread. Needs Java 21 or later: the virtual threads path hasn't been run yet, as no Java 21 runtime was available, so it is untested.");
 				return;
 			}
 			System.err.println("ERROR: error number of arguments. use -h for help.");
@@ -63,7 +95,18 @@ public class MainSimulation {
 			+ "\n\t assigned range start: " + assignedProcessIdRangeStart
 			+ "\n\t assigned range start: " + assignedProcessIdRangeEnd
 			+ "\n\t asigned server: " + assignedService
-			+ "\n\t servers: " + Arrays.toString(servers));
+			+ "\n\t servers: " + Arrays.toString(servers)
+			+ "\n\t hierarchical: " + hierarchical
+			+ "\n\t algorithm: " + algorithm
+			+ "\n\t transport: " + transport
+			+ "\n\t virtual threads: " + VirtualThreads.isEnabled());
+		
+		// the services of the JVM aren't restarted by the supervisor
+		if(transport == CriticalSectionTransportType.LOOPBACK) {
+			for(String server : servers) {
+				CriticalSectionServiceLoopbackProxy.service(server).restart(numberOfProcesses);
+			}
+		}
 
 		// instance builder
 		SimulationProcessBuilder builder = new SimulationProcessBuilder();
@@ -73,6 +116,9 @@ public class MainSimulation {
 			.logFile(simulationLogFile)
 			.numProcesses(numberOfProcesses)
 			.asignedService(assignedService)
+			.hierarchical(hierarchical)
+			.algorithm(algorithm)
+			.transport(transport)
 			.assignedIdRange(assignedProcessIdRangeStart, assignedProcessIdRangeEnd);
 
 		// build process arrays
@@ -85,14 +131,15 @@ public class MainSimulation {
 		}
 		
 		// start processes
+		List<Thread> threads = new ArrayList<>();
 		for(SimulationProcess p : processes)
-			p.start();
+			threads.add(VirtualThreads.start(p.getName(), p));
 		
 		// wait for nodes to finish
 
-		for(SimulationProcess p : processes){
+		for(Thread thread : threads){
 			try {
-				p.join();
+				thread.join();
 			} catch (InterruptedException e) {
 				LOGGER.log(Level.WARNING, String.format("ERROR when waiting for processes to finish: %s", e.getMessage()), e);
 				System.exit(IConstants.EXIT_CODE_THREAD_ERROR);
@@ -0,0 +1,292 @@
+package com.ssdd.main;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.ssdd.cs.bean.CritialSectionProcessState;
+import com.ssdd.cs.bean.CriticalSectionMode;
+import com.ssdd.cs.bean.CriticalSectionState;
+import com.ssdd.cs.bean.DeferredReply;
+import com.ssdd.cs.bean.LamportCounter;
+import com.ssdd.simulation.SynchronizedProcessState;
+import com.ssdd.util.constants.IConstants;
+import com.ssdd.util.constants.ISimulationConstants;
+import com.ssdd.util.logging.SSDDLogFactory;
+
+/**
+ * Main class to compare the lock-free {@link com.ssdd.cs.bean.CritialSectionProcessState} with the synchronized state it 
+ * replaced ({@link com.ssdd.simulation.SynchronizedProcessState}) under contention. In each round a process holds the critical 
+ * section, all the waiters send it a request at the same moment, and the process releases it once all the waiters are 
+ * blocked waiting for the grant, so they are deferred and granted at once. The time of the rounds is measured from the requests until the last 
+ * waiter has been granted, together with the time spent processing each request and the release.
+ * 
+ * @version 1.0
+ * @author Hctor Snchez San Blas
+ * @author Francisco Pinto Santos
+ * */
+public class MainStateContention {
+
+	/**
+	 * Class logger generated with {@link com.ssdd.util.logging.SSDDLogFactory#logger(Class)}
+	 * */
+    private final static Logger LOGGER = SSDDLogFactory.logger(MainStateContention.class);
+    
+    /**
+	 * numbers of concurrent waiters compared when none is given
+	 * */
+    private final static int [] DEFAULT_NUM_WAITERS = {8, 64, 512};
+    
+    /**
+	 * id of the process which holds the critical section, lower than any waiter's id
+	 * */
+    private final static int HOLDER_ID = 0;
+	
+	public static void main(String [] args) {
+		if(args.length > 0 && (args[0].contentEquals("-h") || args[0].contentEquals("help"))) {
+			System.err.println("usage: [<numWaiters1> ... <numWaitersN>]");
+			System.err.println("NOTE: by default the states are compared with 8, 64 and 512 concurrent waiters.");
+			return;
+		}
+		
+		// take arguments
+		int [] numWaiters = DEFAULT_NUM_WAITERS;
+		if(args.length > 0) {
+			numWaiters = new int [args.length];
+			for(int i=0; i<args.length; i++) {
+				numWaiters[i] = Integer.parseInt(args[i]);
+			}
+		}
+		
+		System.out.println("waiters\tstate\tus/round\tus/request\tus/release");
+		for(int n : numWaiters) {
+			MainStateContention.measure(n, "synchronized", new SynchronizedContendedState());
+			MainStateContention.measure(n, "lock-free", new LockFreeContendedState());
+		}
+	}
+	
+	/** 
+	 * measures the rounds of n waiters contending for a state, and prints the average time (in microseconds) of each round, 
+	 * of each request and of each release. The first {@link com.ssdd.util.constants.ISimulationConstants#CONTENTION_WARMUP_ITERATIONS} 
+	 * rounds aren't measured.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param n the number of waiters
+	 * @param name the name of the state
+	 * @param state the contended state
+	*/
+	private static void measure(int n, String name, ContendedState state) {
+		LOGGER.log(Level.INFO, String.format("measuring %s state with %d waiters", name, n));
+		int rounds = ISimulationConstants.CONTENTION_WARMUP_ITERATIONS + ISimulationConstants.CONTENTION_NUM_ITERATIONS;
+		// the waiters wait for the round to start, and for the others once they have been granted
+		CyclicBarrier start = new CyclicBarrier(n + 1);
+		CyclicBarrier granted = new CyclicBarrier(n + 1);
+		AtomicInteger sent = new AtomicInteger(0);
+		LongAdder requesting = new LongAdder();
+		List<Thread> waiters = new ArrayList<>();
+		for(int w=1; w<=n; w++) {
+			int sender = w;
+			Thread waiter = new Thread(() -> {
+				for(int i=0; i<rounds; i++) {
+					MainStateContention.await(start);
+					long requestStart = System.nanoTime();
+					Runnable grantWait = state.request(sender);
+					if(i >= ISimulationConstants.CONTENTION_WARMUP_ITERATIONS) {
+						requesting.add(System.nanoTime() - requestStart);
+					}
+					sent.incrementAndGet();
+					grantWait.run();
+					MainStateContention.await(granted);
+				}
+			}, String.format("%s.%d", name, w));
+			waiter.setDaemon(true);
+			waiter.start();
+			waiters.add(waiter);
+		}
+		
+		long elapsed = 0;
+		long releasing = 0;
+		for(int i=0; i<rounds; i++) {
+			state.hold();
+			sent.set(0);
+			long roundStart = System.nanoTime();
+			MainStateContention.await(start);
+			// once a waiter has sent its request, it only blocks waiting for the grant
+			while(sent.get() < n || !MainStateContention.areWaiting(waiters)) {
+				Thread.yield();
+			}
+			long releaseStart = System.nanoTime();
+			state.release();
+			long releaseEnd = System.nanoTime();
+			MainStateContention.await(granted);
+			if(i >= ISimulationConstants.CONTENTION_WARMUP_ITERATIONS) {
+				elapsed += System.nanoTime() - roundStart;
+				releasing += releaseEnd - releaseStart;
+			}
+		}
+		
+		int measured = ISimulationConstants.CONTENTION_NUM_ITERATIONS;
+		System.out.println(String.format("%d\t%s\t%.2f\t%.2f\t%.2f", n, name, elapsed / 1000.0 / measured, 
+				requesting.sum() / 1000.0 / (measured * n), releasing / 1000.0 / measured));
+	}
+	
+	/** 
+	 * checks if all the waiters are blocked.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param waiters the waiters' threads
+	 * 
+	 * @return true if no waiter is running
+	*/
+	private static boolean areWaiting(List<Thread> waiters) {
+		for(Thread waiter : waiters) {
+			if(waiter.getState() != Thread.State.WAITING) {
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	/** 
+	 * waits until all the threads of a round have reached a barrier.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param barrier the barrier
+	*/
+	private static void await(CyclicBarrier barrier) {
+		try {
+			barrier.await();
+		} catch (InterruptedException | BrokenBarrierException e) {
+			LOGGER.log(Level.WARNING, String.format("await: error %s", e.getMessage()), e);
+			System.exit(IConstants.EXIT_CODE_THREAD_ERROR);
+		}
+	}
+	
+	/**
+	 * the operations of a process's state measured under contention.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * */
+	private interface ContendedState {
+		
+		/** 
+		 * requests and acquires the critical section, without other requesting process.
+		 * 
+		 * @version 1.0
+		 * @author Hctor Snchez San Blas
+		 * @author Francisco Pinto Santos
+		*/
+		public void hold();
+		
+		/** 
+		 * processes a request of a waiter.
+		 * 
+		 * @version 1.0
+		 * @author Hctor Snchez San Blas
+		 * @author Francisco Pinto Santos
+		 * 
+		 * @param sender the waiter's id
+		 * 
+		 * @return waits until the request is granted
+		*/
+		public Runnable request(int sender);
+		
+		/** 
+		 * releases the critical section, granting the deferred requests.
+		 * 
+		 * @version 1.0
+		 * @author Hctor Snchez San Blas
+		 * @author Francisco Pinto Santos
+		*/
+		public void release();
+	}
+	
+	/**
+	 * the synchronized state, where a deferred request blocks until it's granted.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * */
+	private static class SynchronizedContendedState implements ContendedState {
+		
+		private SynchronizedProcessState state = new SynchronizedProcessState(HOLDER_ID);
+		
+		private long timeStamp;
+		
+		@Override
+		public void hold() {
+			this.timeStamp = this.state.setRequested();
+			this.state.setAcquired();
+		}
+		
+		@Override
+		public Runnable request(int sender) {
+			Semaphore waiting = this.state.request(sender, this.timeStamp + 1);
+			return () -> {
+				if(waiting != null) {
+					waiting.acquireUninterruptibly();
+				}
+			};
+		}
+		
+		@Override
+		public void release() {
+			this.state.release();
+		}
+	}
+	
+	/**
+	 * the lock-free state, where a deferred request is stored as a {@link com.ssdd.cs.bean.DeferredReply} whose thread is 
+	 * parked until it's granted.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * */
+	private static class LockFreeContendedState implements ContendedState {
+		
+		private CritialSectionProcessState state = new CritialSectionProcessState(HOLDER_ID, new LamportCounter(), CriticalSectionState.FREE);
+		
+		private long timeStamp;
+		
+		@Override
+		public void hold() {
+			this.timeStamp = this.state.setRequested(CriticalSectionMode.EXCLUSIVE);
+			// the waiters granted in the previous round are returned first, as if they had been requested again
+			boolean acquired = false;
+			while(!acquired) {
+				acquired = this.state.acquireOrDrainReplied().isEmpty();
+			}
+		}
+		
+		@Override
+		public Runnable request(int sender) {
+			DeferredReply reply = new DeferredReply(sender, this.timeStamp + 1, CriticalSectionMode.EXCLUSIVE);
+			this.state.request(reply);
+			return reply::await;
+		}
+		
+		@Override
+		public void release() {
+			this.state.release();
+		}
+	}
+}
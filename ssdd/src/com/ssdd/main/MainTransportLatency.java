@@ -0,0 +1,116 @@
+package com.ssdd.main;
+
+import java.util.Collections;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.ssdd.cs.bean.CriticalSectionMode;
+import com.ssdd.cs.service.CriticalSectionService;
+import com.ssdd.cs.service.CriticalSectionTransportType;
+import com.ssdd.cs.service.ProcessNotFoundException;
+import com.ssdd.cs.service.tcp.CriticalSectionTcpServer;
+import com.ssdd.util.constants.IConstants;
+import com.ssdd.util.constants.ISimulationConstants;
+import com.ssdd.util.logging.SSDDLogFactory;
+
+/**
+ * Main class to measure the latency of the messages of the Ricart and Agrawala's algorithm with each transport. 
+ * Without server, the latency of the TCP transport is measured over loopback against an in-process service, and the 
+ * latency of the in-JVM loopback transport against a service of the same JVM.
+ * 
+ * @version 1.0
+ * @author Hctor Snchez San Blas
+ * @author Francisco Pinto Santos
+ * */
+public class MainTransportLatency {
+
+	/**
+	 * Class logger generated with {@link com.ssdd.util.logging.SSDDLogFactory#logger(Class)}
+	 * */
+    private final static Logger LOGGER = SSDDLogFactory.logger(MainTransportLatency.class);
+    
+    /**
+	 * number of messages sent in each critical section entry
+	 * */
+    private final static int MESSAGES_BY_ENTRY = 4;
+	
+	public static void main(String [] args) {
+		if(args.length > 0 && (args[0].contentEquals("-h") || args[0].contentEquals("help"))) {
+			System.err.println("usage: [<server>]");
+			System.err.println("NOTE: with a server, the REST, TCP and WebSocket transports of its service are measured. The service is restarted.");
+			System.err.println("NOTE: without server, the TCP transport is measured over loopback against an in-process service, and the local transport against a service of the same JVM.");
+			return;
+		}
+		
+		System.out.println("transport	us/message");
+		if(args.length > 0) {
+			for(CriticalSectionTransportType transport : CriticalSectionTransportType.values()) {
+				if(transport == CriticalSectionTransportType.LOOPBACK) {
+					continue;
+				}
+				double latency = MainTransportLatency.measure(CriticalSectionService.buildProxy(args[0], transport));
+				System.out.println(String.format("%s\t%.2f", transport.getName(), latency));
+			}
+		}else {
+			CriticalSectionService service = new CriticalSectionService();
+			CriticalSectionTcpServer.start(service, IConstants.CS_TCP_PORT);
+			double latency = MainTransportLatency.measure(service, CriticalSectionService.buildProxy("localhost", CriticalSectionTransportType.TCP));
+			System.out.println(String.format("%s\t%.2f", CriticalSectionTransportType.TCP.getName(), latency));
+			CriticalSectionTcpServer.stop();
+			latency = MainTransportLatency.measure(CriticalSectionService.buildProxy("localhost", CriticalSectionTransportType.LOOPBACK));
+			System.out.println(String.format("%s\t%.2f", CriticalSectionTransportType.LOOPBACK.getName(), latency));
+		}
+	}
+	
+	/** 
+	 * measures the latency of the messages sent to a remote service.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param service the proxy of the service
+	 * 
+	 * @return the average latency (in microseconds) of each message
+	*/
+	private static double measure(CriticalSectionService service) {
+		return MainTransportLatency.measure(service, service);
+	}
+	
+	/** 
+	 * measures the latency of the messages of a process which enters in the critical section with another idle process:
+	 * each entry sends the set requested, requests, set acquired and release messages, one after the other.
+	 * The first {@link com.ssdd.util.constants.ISimulationConstants#LATENCY_WARMUP_ITERATIONS} entries aren't measured.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param service the service to restart and subscribe the processes
+	 * @param transport the service to send the measured messages
+	 * 
+	 * @return the average latency (in microseconds) of each message
+	*/
+	private static double measure(CriticalSectionService service, CriticalSectionService transport) {
+		service.restart(2);
+		int slot = service.suscribe(1);
+		int other = service.suscribe(2);
+		try {
+			long start = 0;
+			for(int i=0; i<ISimulationConstants.LATENCY_WARMUP_ITERATIONS + ISimulationConstants.LATENCY_NUM_ITERATIONS; i++) {
+				if(i == ISimulationConstants.LATENCY_WARMUP_ITERATIONS) {
+					start = System.nanoTime();
+				}
+				long messageTimeStamp = transport.setRequested(IConstants.DEFAULT_RESOURCE, slot, CriticalSectionMode.EXCLUSIVE);
+				transport.requests(IConstants.DEFAULT_RESOURCE, Collections.singletonList(other), 1, messageTimeStamp, CriticalSectionMode.EXCLUSIVE);
+				transport.setAcquired(IConstants.DEFAULT_RESOURCE, slot);
+				transport.release(IConstants.DEFAULT_RESOURCE, slot);
+			}
+			return (System.nanoTime() - start) / 1000.0 / (ISimulationConstants.LATENCY_NUM_ITERATIONS * MESSAGES_BY_ENTRY);
+		} catch (ProcessNotFoundException e) {
+			LOGGER.log(Level.WARNING, String.format("measure: error %s", e.getMessage()), e);
+			System.exit(IConstants.EXIT_CODE_SIMULATION_ERROR);
+			return 0;
+		}
+	}
+}
@@ -13,6 +13,7 @@ import com.ssdd.ntp.bean.Pair;
 import com.ssdd.ntp.service.NTPService;
 import com.ssdd.ntp.service.NTPServiceProxy;
 import com.ssdd.util.constants.INtpConstants;
+import com.ssdd.util.http.ServiceCallException;
 import com.ssdd.util.logging.SSDDLogFactory;
 
 
@@ -76,7 +77,12 @@ public class NTPClient {
 		for(int currIteration=0; currIteration<INtpConstants.NUM_SAMPLES && failed<INtpConstants.MAX_FAILED_ATTEMPTS; currIteration++) {
 			// get times
 			time0 = System.currentTimeMillis();			
-			long [] response = NTPServiceProxy.parseTimeResponse(service.time());
+			long [] response = null;
+			try {
+				response = NTPServiceProxy.parseTimeResponse(service.time());
+			} catch (ServiceCallException e) {
+				LOGGER.log(Level.WARNING, String.format("error sampling service %s: %s", service, e.getMessage()));
+			}
 			time3 = System.currentTimeMillis();
 
 			if(response == null) {
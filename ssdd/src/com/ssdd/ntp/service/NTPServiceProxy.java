@@ -4,13 +4,13 @@ import java.io.Serializable;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
-import javax.ws.rs.client.ClientBuilder;
 import javax.ws.rs.client.WebTarget;
 import javax.ws.rs.core.MediaType;
-import javax.ws.rs.core.UriBuilder;
 
 import com.google.gson.Gson;
-import com.ssdd.util.constants.IConstants;
+import com.ssdd.util.constants.INtpConstants;
+import com.ssdd.util.http.HttpCallPolicy;
+import com.ssdd.util.http.HttpClientFactory;
 import com.ssdd.util.logging.SSDDLogFactory;
 
 /** 
@@ -48,27 +48,27 @@ public class NTPServiceProxy extends NTPService implements Serializable{
 	public NTPServiceProxy(String serverIp, String serviceUri) {
 		this.serverIp = serverIp;
 		this.serviceUri = serviceUri;
-		this.service = ClientBuilder.newClient().target(UriBuilder.fromUri(serviceUri).build());
+		this.service = HttpClientFactory.target(serviceUri);
 	}
 	
 	/**
-	 * See {@link com.ssdd.ntp.service.NTPService#time()}
+	 * See {@link com.ssdd.ntp.service.NTPService#time()}. Is sent as a hedged request (see {@link com.ssdd.util.http.HttpCallPolicy#hedged(String, long, java.util.concurrent.Callable)}),
+	 * so a slow response doesn't stall the sampling. The response of a hedged request was sent after the first one, so 
+	 * the sample's times are still ordered, only with a greater delay.
+	 * 
 	 * @version 1.0
 	 * @author Hctor Snchez San Blas
 	 * @author Francisco Pinto Santos
 	 * 
 	 * @return array with to long, corresponding to time1 and time2 in "time1_time2" response.
+	 * 
+	 * @throws com.ssdd.util.http.ServiceCallException when the request fails, and can't be retried anymore
 	 * */
 	@Override
 	public String time() {
 		LOGGER.log(Level.INFO, "/ntp/time");
-		try {
-			return this.service.path("time").request(MediaType.TEXT_PLAIN).get(String.class);
-		} catch (Exception e) {
-			LOGGER.log(Level.WARNING, String.format("time: ERROR %s", e.getMessage()), e);
-			System.exit(IConstants.EXIT_CODE_HTTP_REQUEST_ERROR);
-			return null;
-		}
+		return HttpCallPolicy.defaults().hedged("/ntp/time", Integer.getInteger(INtpConstants.HEDGE_DELAY_PROPERTY, INtpConstants.HEDGE_DELAY), 
+				() -> this.service.path("time").request(MediaType.TEXT_PLAIN).get(String.class));
 	}
 	
 	/**
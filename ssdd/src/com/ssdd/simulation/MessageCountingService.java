@@ -0,0 +1,78 @@
+package com.ssdd.simulation;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.ssdd.cs.bean.CriticalSectionMode;
+import com.ssdd.cs.service.CriticalSectionService;
+import com.ssdd.cs.service.ProcessNotFoundException;
+
+/** 
+ * in-process {@link com.ssdd.cs.service.CriticalSectionService} which counts the messages exchanged between processes 
+ * by the mutual exclusion algorithms, to compare them. Only the messages between processes are counted, not the ones 
+ * between a process and its associated service. The requests of the Ricart and Agrawala's algorithm are counted twice, 
+ * because each one is answered with a reply.
+ * 
+ * @version 1.0
+ * @author Hctor Snchez San Blas
+ * @author Francisco Pinto Santos
+*/
+public class MessageCountingService extends CriticalSectionService{
+
+	/** 
+	 * number of messages exchanged since the last restart
+	*/
+	private AtomicLong messages;
+	
+	public MessageCountingService() {
+		super();
+		this.messages = new AtomicLong(0);
+	}
+	
+	@Override
+	public void restart(int numProcesses) {
+		super.restart(numProcesses);
+		this.messages.set(0);
+	}
+	
+	@Override
+	public void request(String resource, int slot, int sender, long messageTimeStamp, CriticalSectionMode mode) throws ProcessNotFoundException {
+		this.messages.addAndGet(2);
+		super.request(resource, slot, sender, messageTimeStamp, mode);
+	}
+	
+	@Override
+	public void requests(String resource, List<Integer> slots, int sender, long messageTimeStamp, CriticalSectionMode mode) throws ProcessNotFoundException {
+		this.messages.addAndGet(2 * slots.size());
+		super.requests(resource, slots, sender, messageTimeStamp, mode);
+	}
+	
+	@Override
+	public CompletableFuture<Void> requestsAsync(String resource, List<Integer> slots, int sender, long messageTimeStamp, CriticalSectionMode mode) {
+		this.messages.addAndGet(2 * slots.size());
+		return super.requestsAsync(resource, slots, sender, messageTimeStamp, mode);
+	}
+	
+	@Override
+	public String tokenRequest(String resource, int slot, int sender, long requestNumber) throws ProcessNotFoundException {
+		this.messages.incrementAndGet();
+		return super.tokenRequest(resource, slot, sender, requestNumber);
+	}
+	
+	@Override
+	public void tokenDeliver(String resource, int slot, String token) throws ProcessNotFoundException {
+		this.messages.incrementAndGet();
+		super.tokenDeliver(resource, slot, token);
+	}
+	
+	@Override
+	public void maekawaSend(int slot, String message) throws ProcessNotFoundException {
+		this.messages.incrementAndGet();
+		super.maekawaSend(slot, message);
+	}
+
+	public long getMessages() {
+		return messages.get();
+	}
+}
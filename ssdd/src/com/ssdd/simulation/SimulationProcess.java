@@ -8,6 +8,7 @@ import com.ssdd.cs.client.CriticalSectionClient;
 import com.ssdd.util.Utils;
 import com.ssdd.util.constants.ISimulationConstants;
 import com.ssdd.util.constants.IConstants;
+import com.ssdd.util.http.ServiceCallException;
 import com.ssdd.util.logging.SSDDLogFactory;
 
 /** 
@@ -17,7 +18,7 @@ import com.ssdd.util.logging.SSDDLogFactory;
  * @author Hctor Snchez San Blas
  * @author Francisco Pinto Santos
 */
-public class SimulationProcess extends Thread{
+public class SimulationProcess implements Runnable{
 
 	/**
 	 * Class logger generated with {@link com.ssdd.util.logging.SSDDLogFactory#logger(Class)}
@@ -42,35 +43,38 @@ public class SimulationProcess extends Thread{
     private SimulationLog csLog;
 	
 	public SimulationProcess(String processId, String logFile, CriticalSectionClient cs) {
-		super();
 		this.cs = cs;
 		this.processId = processId;
 		this.generator = new Random();
 		this.csLog = new SimulationLog(processId, logFile);
-		// set thread name
-		this.setName(String.format("P%s", processId));
 	}
 	
 	/** 
-	 * Behaviour to be executed as a independient Thread.
+	 * Behaviour to be executed as a independient Thread, platform or virtual (see {@link com.ssdd.util.concurrent.VirtualThreads}).
 	 * For {@link com.ssdd.util.constants.ISimulationConstants#SIMULATION_NUM_ITERATIONS} times sleep during a random 
 	 * interval of time simulating a calulation. Then try acces to critical section.
+	 * If a request to the services fails, the simulation can't continue and the process exits.
 	 * 
 	 * @version 1.0
 	 * @author Hctor Snchez San Blas
 	 * @author Francisco Pinto Santos
 	*/
 	public void run() {
-		// wait until the other processs are ready
-		this.cs.ready();
-		// iterate N times simulating calculus and entering in the critical section
-		for(int i=1; i<= ISimulationConstants.SIMULATION_NUM_ITERATIONS; i++) {
-			LOGGER.log(Level.INFO, String.format("iter %d", i));
-			this.simulateSleep(ISimulationConstants.SIMULATION_MIN_CALULUS_TIME, ISimulationConstants.SIMULATION_MAX_CALULUS_TIME);
-			this.enterCriticalSection();
+		try {
+			// wait until the other processs are ready
+			this.cs.ready();
+			// iterate N times simulating calculus and entering in the critical section
+			for(int i=1; i<= ISimulationConstants.SIMULATION_NUM_ITERATIONS; i++) {
+				LOGGER.log(Level.INFO, String.format("iter %d", i));
+				this.simulateSleep(ISimulationConstants.SIMULATION_MIN_CALULUS_TIME, ISimulationConstants.SIMULATION_MAX_CALULUS_TIME);
+				this.enterCriticalSection();
+			}
+			// wait untill all processs has finished
+			this.cs.finished();
+		} catch (ServiceCallException e) {
+			LOGGER.log(Level.WARNING, String.format("run: error %s", e.getMessage()), e);
+			System.exit(IConstants.EXIT_CODE_HTTP_REQUEST_ERROR);
 		}
-		// wait untill all processs has finished
-		this.cs.finished();
 		this.csLog.close();
 	}
 	
@@ -123,4 +127,16 @@ public class SimulationProcess extends Thread{
 		}
 	}
 	
+	/** 
+	 * provides the name of the thread which runs the process.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @return the thread's name
+	*/
+	public String getName() {
+		return String.format("P%s", this.processId);
+	}
 }
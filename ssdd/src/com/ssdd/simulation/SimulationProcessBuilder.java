@@ -1,7 +1,13 @@
 package com.ssdd.simulation;
 
+import java.util.Arrays;
+
 import com.ssdd.cs.client.CriticalSectionClient;
+import com.ssdd.cs.client.HierarchicalCriticalSectionClient;
+import com.ssdd.cs.client.algorithm.MutualExclusionAlgorithmType;
 import com.ssdd.cs.service.CriticalSectionService;
+import com.ssdd.cs.service.CriticalSectionServiceProxy;
+import com.ssdd.cs.service.CriticalSectionTransportType;
 
 /**
  * Builder to create {@link com.ssdd.simulation.SimulationProcess}
@@ -21,9 +27,17 @@ public class SimulationProcessBuilder {
 	
 	private String [] servers;
 	private String asignedService;
+	
+	private boolean hierarchical;
+	private MutualExclusionAlgorithmType algorithm = MutualExclusionAlgorithmType.RICART_AGRAWALA;
+	private CriticalSectionTransportType transport = CriticalSectionTransportType.REST;
+	private CriticalSectionClient hostCs;
+	private int [] slots;
 
 	/**
-	 * builds a {@link com.ssdd.simulation.SimulationProcess} with the setted parameters 
+	 * builds a {@link com.ssdd.simulation.SimulationProcess} with the setted parameters. In hierarchical mode, all the 
+	 * built processes share the same {@link com.ssdd.cs.client.HierarchicalCriticalSectionClient}. Otherwise, the processes of the
+	 * assigned range are subscribed all together in the first build, see {@link #suscribeRange()}.
 	 * 
 	 * @version 1.0
 	 * @author Hctor Snchez San Blas
@@ -32,12 +46,43 @@ public class SimulationProcessBuilder {
 	 * @return SimulationProcess build with the provied data in other methods
 	 * */
 	public SimulationProcess build() {
-		CriticalSectionClient cs = this.buildCsClient();
-		cs.suscribe();
+		CriticalSectionClient cs;
+		if(this.hierarchical) {
+			if(this.hostCs == null) {
+				this.hostCs = this.buildHierarchicalCsClient();
+				this.hostCs.suscribe();
+			}
+			cs = this.hostCs;
+		}else {
+			cs = this.buildCsClient();
+			int process = Integer.parseInt(this.processId);
+			if(process >= this.processIdRagneStart && process <= this.processIdRagneEnd) {
+				cs.suscribe(this.suscribeRange()[process - this.processIdRagneStart]);
+			}else {
+				cs.suscribe();
+			}
+		}
 		return new SimulationProcess(processId, logFile, cs);
 	}
 	
 	
+	/**
+	 * subscribes all the processes of the assigned range to the assigned service in a single call, the first time is called.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @return the slots assigned to the processes of the range, in the order of their ids
+	 * */
+	private int [] suscribeRange() {
+		if(this.slots == null) {
+			CriticalSectionService service = CriticalSectionService.buildProxy(this.asignedService, this.transport);
+			this.slots = CriticalSectionServiceProxy.parseSuscribeRangeResponse(service.suscribeRange(this.processIdRagneStart, this.processIdRagneEnd));
+		}
+		return this.slots;
+	}
+	
 	/**
 	 * builds a {@link com.ssdd.cs.service.CriticalSectionService} client.
 	 * 
@@ -50,9 +95,28 @@ public class SimulationProcessBuilder {
 	private CriticalSectionClient buildCsClient() {
 		CriticalSectionService [] services = new CriticalSectionService [this.servers.length];
 		for(int i=0; i<services.length; i++) 
-			services[i] = CriticalSectionService.buildProxy(servers[i]);
+			services[i] = CriticalSectionService.buildProxy(servers[i], this.transport);
 		String [] processes = this.buildProcessIds(1, this.numProcesses);
-		return new CriticalSectionClient(processId, CriticalSectionService.buildProxy(this.asignedService), processes, services);
+		return new CriticalSectionClient(processId, CriticalSectionService.buildProxy(this.asignedService, this.transport), processes, services, this.algorithm);
+	}
+	
+	/**
+	 * builds a {@link com.ssdd.cs.client.HierarchicalCriticalSectionClient} to be shared by all the processes of the host.
+	 * Each host takes part in the critical section among hosts with the id of its assigned server's position, from 1 to N.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @return {@link com.ssdd.cs.client.HierarchicalCriticalSectionClient}  to be used as critical section interface
+	 * */
+	private CriticalSectionClient buildHierarchicalCsClient() {
+		CriticalSectionService [] services = new CriticalSectionService [this.servers.length];
+		for(int i=0; i<services.length; i++) 
+			services[i] = CriticalSectionService.buildProxy(servers[i], this.transport);
+		String hostId = String.format("%d", Arrays.asList(this.servers).indexOf(this.asignedService) + 1);
+		String [] hosts = this.buildProcessIds(1, this.servers.length);
+		return new HierarchicalCriticalSectionClient(hostId, CriticalSectionService.buildProxy(this.asignedService, this.transport), hosts, services, this.algorithm);
 	}
 	
 	/**
@@ -86,7 +150,7 @@ public class SimulationProcessBuilder {
 	
 	public SimulationProcessBuilder assignedIdRange(int min, int max) {
 		this.setProcessIdRagneStart(min);
-		this.setProcessIdRagneStart(max);
+		this.setProcessIdRagneEnd(max);
 		return this;
 	}
 	
@@ -100,6 +164,21 @@ public class SimulationProcessBuilder {
 		return this;
 	}
 	
+	public SimulationProcessBuilder hierarchical(boolean hierarchical) {
+		this.setHierarchical(hierarchical);
+		return this;
+	}
+	
+	public SimulationProcessBuilder algorithm(MutualExclusionAlgorithmType algorithm) {
+		this.setAlgorithm(algorithm);
+		return this;
+	}
+	
+	public SimulationProcessBuilder transport(CriticalSectionTransportType transport) {
+		this.setTransport(transport);
+		return this;
+	}
+	
 	public SimulationProcessBuilder logFile(String file) {
 		this.setLogFile(file);
 		return this;
@@ -153,6 +232,30 @@ public class SimulationProcessBuilder {
 		this.asignedService = asignedService;
 	}
 
+	public boolean isHierarchical() {
+		return hierarchical;
+	}
+
+	public void setHierarchical(boolean hierarchical) {
+		this.hierarchical = hierarchical;
+	}
+
+	public MutualExclusionAlgorithmType getAlgorithm() {
+		return algorithm;
+	}
+
+	public void setAlgorithm(MutualExclusionAlgorithmType algorithm) {
+		this.algorithm = algorithm;
+	}
+
+	public CriticalSectionTransportType getTransport() {
+		return transport;
+	}
+
+	public void setTransport(CriticalSectionTransportType transport) {
+		this.transport = transport;
+	}
+
 	public String getLogFile() {
 		return logFile;
 	}
@@ -0,0 +1,165 @@
+package com.ssdd.simulation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+
+import com.ssdd.cs.bean.CriticalSectionState;
+
+/** 
+ * the process's state in the critical section context as it was before being lock-free, kept to compare it with 
+ * {@link com.ssdd.cs.bean.CritialSectionProcessState} under contention. Every operation takes a semaphore, and each 
+ * deferred request waits in its own semaphore, kept in a synchronized list until the critical section is released.
+ * 
+ * @version 1.0
+ * @author Hctor Snchez San Blas
+ * @author Francisco Pinto Santos
+ */
+public class SynchronizedProcessState {
+
+	/**
+     * the process's id
+     * */
+	private int id;
+	/**
+     * process's Lamport counter, guarded by {@link #lock}
+     * */
+	private long counter;
+	/**
+     * the process's timestamp for the last request
+     * */
+	private long lastTimeStamp;
+	/**
+     * the critical section's state in the process's context
+     * */
+	private CriticalSectionState state;
+	/**
+     * lock to serialize the operations over the state
+     * */
+	private Semaphore lock;
+	/**
+     * flag that indicates that the requests are deferred, guarded by the monitor of {@link #waitingProcesses}
+     * */
+	private boolean queueingAllowed;
+	/**
+     * semaphores of the deferred requests
+     * */
+	private List<Semaphore> waitingProcesses;
+	
+	public SynchronizedProcessState(int id) {
+		this.id = id;
+		this.counter = 0;
+		this.lastTimeStamp = 0;
+		this.state = CriticalSectionState.FREE;
+		this.lock = new Semaphore(1);
+		this.queueingAllowed = false;
+		this.waitingProcesses = new ArrayList<>();
+	}
+	
+	/** 
+	 * sets the critical section's state as requested, storing the process's current counter value as the request's timestamp.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @return the request's timestamp
+	 */
+	public long setRequested() {
+		this.lock.acquireUninterruptibly();
+		this.lastTimeStamp = this.counter;
+		this.state = CriticalSectionState.REQUESTED;
+		synchronized(this.waitingProcesses) {
+			this.queueingAllowed = true;
+		}
+		this.lock.release();
+		return this.lastTimeStamp;
+	}
+	
+	/** 
+	 * sets the critical section's state as acquired.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 */
+	public void setAcquired() {
+		this.lock.acquireUninterruptibly();
+		this.counter++;
+		this.state = CriticalSectionState.ACQUIRED;
+		this.lock.release();
+	}
+	
+	/** 
+	 * processes a request to the critical section. If the request is deferred, the request's sender must wait in the returned 
+	 * semaphore until the access is granted.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param sender the process's id of the request's sender
+	 * @param senderTimeStamp the Lamport counter value of the request's sender
+	 * 
+	 * @return the semaphore in which the request waits, or null if the access is granted
+	 */
+	public Semaphore request(int sender, long senderTimeStamp) {
+		this.lock.acquireUninterruptibly();
+		this.counter = Math.max(this.counter, senderTimeStamp) + 1;
+		boolean permitEnter = this.permitEnter(sender, senderTimeStamp);
+		this.lock.release();
+		
+		Semaphore waiting = null;
+		if(!permitEnter) {
+			synchronized(this.waitingProcesses) {
+				if(this.queueingAllowed) {
+					waiting = new Semaphore(0);
+					this.waitingProcesses.add(waiting);
+				}
+			}
+		}
+		return waiting;
+	}
+	
+	/** 
+	 * sets the critical section's state as free, and wakes all the deferred requests.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 */
+	public void release() {
+		this.lock.acquireUninterruptibly();
+		this.state = CriticalSectionState.FREE;
+		synchronized(this.waitingProcesses) {
+			this.waitingProcesses.forEach(Semaphore::release);
+			this.waitingProcesses.clear();
+			this.queueingAllowed = false;
+		}
+		this.lock.release();
+	}
+	
+	/** 
+	 * decides if a request is granted with the criteria set on the Ricart and Argawala's algorithm.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param sender the process's id of the request's sender
+	 * @param senderTimeStamp the Lamport counter value of the request's sender
+	 * 
+	 * @return true if the request is granted and false if it must wait
+	 */
+	private boolean permitEnter(int sender, long senderTimeStamp) {
+		switch(this.state) {
+			case FREE:
+				return true;
+			case REQUESTED:
+				return (this.lastTimeStamp == senderTimeStamp) ? (sender < this.id) : (senderTimeStamp < this.lastTimeStamp);
+			case ACQUIRED:
+			default:
+				return false;
+		}
+	}
+}
@@ -1,10 +1,13 @@
 package com.ssdd.util.concurrent;
 
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.SynchronousQueue;
 import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -13,7 +16,19 @@ import com.ssdd.util.logging.SSDDLogFactory;
 
 import jersey.repackaged.com.google.common.util.concurrent.ThreadFactoryBuilder;
 
-
+/** 
+ * performs a group of communication tasks in a concurrent way, and waits for all of them to finish.
+ * 
+ * The tasks of all the senders are run in a single long-lived executor, so its threads are reused between multicasts 
+ * instead of being created for each of them. The tasks usually block until they are answered (e.g. a deferred request to
+ * the critical section), so the executor grows up to {@link com.ssdd.util.constants.IConstants#CONCURRENT_EXECUTOR_MAX_THREADS}
+ * threads instead of queueing them; when all of them are busy, the task is run by the sender's thread. When the virtual 
+ * threads are enabled (see {@link com.ssdd.util.concurrent.VirtualThreads}), each task is run in a new virtual thread instead.
+ * 
+ * @version 1.0
+ * @author Hctor Snchez San Blas
+ * @author Francisco Pinto Santos
+ */
 public class ConcurrentExecutor {
 	
 	/**
@@ -22,13 +37,17 @@ public class ConcurrentExecutor {
     private final static Logger LOGGER = SSDDLogFactory.logger(ConcurrentExecutor.class);
 
     /**
-     * ThreadPool to perform concurrent communication tasks.
+     * number of tasks of the last multicast not yet finished
+     * */
+    private CountDownLatch pending;
+    /**
+     * first error thrown by the tasks, rethrown by {@link #await()}
      * */
-    private ExecutorService pool;
+    private final AtomicReference<RuntimeException> error = new AtomicReference<>();
 	
     /** 
-     * creates a threadpool with tasks.size() threads, to perform all the tasks in a concurrent way.
-     * Then stops the threadpool to forbid the creation of new tasks in current pool.
+     * performs all the tasks in a concurrent way in the shared threadpool, without waiting for them to finish.
+     * While a task runs, its thread is named after the sender's thread, followed by the task's index.
      * 
      * @version 1.0
      * @author Hctor Snchez San Blas
@@ -37,16 +56,27 @@ public class ConcurrentExecutor {
      * @param tasks tasks to perform in a concurrent way
     */
 	public void multicastSend(List<Runnable> tasks) {
-
-		// create new thread pool
-		ThreadFactory nameThreadFactory = new ThreadFactoryBuilder().setNameFormat(Thread.currentThread().getName() + ".%d").build();
-		this.pool = Executors.newFixedThreadPool(tasks.size(), nameThreadFactory);
+		String name = Thread.currentThread().getName();
+		this.pending = new CountDownLatch(tasks.size());
 		
-		// send communicationTasks.size() messages	
-		tasks.forEach(task -> this.pool.submit(task));
-			
-		// shutdown the pool when all tasks has finished
-		this.pool.shutdown();	
+		// send communicationTasks.size() messages, keeping the first error
+		for(int i=0; i<tasks.size(); i++) {
+			Runnable task = tasks.get(i);
+			String taskName = String.format("%s.%d", name, i);
+			Pool.INSTANCE.execute(() -> {
+				Thread thread = Thread.currentThread();
+				String poolName = thread.getName();
+				thread.setName(taskName);
+				try {
+					task.run();
+				} catch (RuntimeException e) {
+					this.error.compareAndSet(null, e);
+				} finally {
+					thread.setName(poolName);
+					this.pending.countDown();
+				}
+			});
+		}
 	}
 	
 	/** 
@@ -55,14 +85,56 @@ public class ConcurrentExecutor {
      * @version 1.0
      * @author Hctor Snchez San Blas
      * @author Francisco Pinto Santos
+     * 
+     * @throws RuntimeException the first error thrown by any of the tasks, once all of them have finished (e.g. a 
+     * {@link com.ssdd.util.http.ServiceCallException} of a failed request)
      * */
 	public void await() {
 		try {
-			this.pool.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+			this.pending.await();
 		} catch (InterruptedException e) {
 			LOGGER.log(Level.WARNING, String.format("await: InterruptedException: error %s", e.getMessage()), e);
 			System.exit(IConstants.EXIT_CODE_THREAD_ERROR);
 		}
+		RuntimeException error = this.error.getAndSet(null);
+		if(null != error) {
+			throw error;
+		}
+	}
+	
+	/** 
+     * builds the shared threadpool, without idle threads until the first multicast. Its size can be configured with the 
+     * ssdd.executor.maxThreads system property. If the virtual threads are enabled, builds an executor which runs each task
+     * in a new virtual thread.
+     * 
+     * @version 1.0
+     * @author Hctor Snchez San Blas
+     * @author Francisco Pinto Santos
+     * 
+     * @return the threadpool
+     * */
+	private static ExecutorService buildPool() {
+		if(VirtualThreads.isEnabled()) {
+			return VirtualThreads.newThreadPerTaskExecutor("multicast.%d");
+		}
+		ThreadFactory nameThreadFactory = new ThreadFactoryBuilder().setNameFormat("multicast.%d").setDaemon(true).build();
+		int maxThreads = Integer.getInteger(IConstants.CONCURRENT_EXECUTOR_MAX_THREADS_PROPERTY, IConstants.CONCURRENT_EXECUTOR_MAX_THREADS);
+		return new ThreadPoolExecutor(0, maxThreads, IConstants.CONCURRENT_EXECUTOR_KEEP_ALIVE, TimeUnit.SECONDS, new SynchronousQueue<>(), nameThreadFactory, new ThreadPoolExecutor.CallerRunsPolicy());
+	}
+	
+	/** 
+	 * holder of the executor shared by all the senders to perform concurrent communication tasks. It is built with the 
+	 * first multicast, once the threads' mode has been chosen at startup.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 */
+	private static final class Pool {
+		
+		/**
+		 * the shared executor
+		 * */
+		private final static ExecutorService INSTANCE = ConcurrentExecutor.buildPool();
 	}
-
 }
@@ -0,0 +1,179 @@
+package com.ssdd.util.concurrent;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.ssdd.util.constants.IConstants;
+import com.ssdd.util.logging.SSDDLogFactory;
+
+/** 
+ * chooses at startup whether the simulated processes and the concurrent senders run in virtual threads or in platform 
+ * threads. Virtual threads don't hold a platform thread while they block in a request or a sleep, so a single host can 
+ * simulate tens of thousands of processes.
+ * 
+ * Virtual threads are available since Java 21, while the application is built for Java 8, so they are built through 
+ * reflection. When the JVM doesn't support them, the platform threads are used.
+ * 
+ * @version 1.0
+ * @author Hctor Snchez San Blas
+ * @author Francisco Pinto Santos
+ */
+public final class VirtualThreads {
+
+	/**
+	 * Class logger generated with {@link com.ssdd.util.logging.SSDDLogFactory#logger(Class)}
+	 * */
+	private final static Logger LOGGER = SSDDLogFactory.logger(VirtualThreads.class);
+	/**
+	 * factory of virtual threads, null if the JVM doesn't support them
+	 * */
+	private final static ThreadFactory FACTORY = VirtualThreads.buildFactory();
+	/**
+	 * true if the threads are started as virtual threads. Is enabled with the ssdd.virtualThreads system property or with 
+	 * {@link #enable()}
+	 * */
+	private static volatile boolean enabled = Boolean.getBoolean(IConstants.VIRTUAL_THREADS_PROPERTY) && VirtualThreads.enable();
+	
+	private VirtualThreads() {
+		
+	}
+	
+	/** 
+	 * starts the threads as virtual threads from now on, if the JVM supports them. Must be called at startup, before any 
+	 * thread is started.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @return true if the virtual threads are enabled, false if the JVM doesn't support them
+	 */
+	public static boolean enable() {
+		if(!VirtualThreads.isSupported()) {
+			LOGGER.log(Level.WARNING, String.format("virtual threads need Java 21 or later, running in Java %s with platform threads", System.getProperty("java.version")));
+			return false;
+		}
+		enabled = true;
+		return true;
+	}
+	
+	/** 
+	 * starts a thread to run a task, as a virtual thread if they are enabled. The platform threads aren't daemon threads, so
+	 * the JVM waits for them, while the virtual threads are always daemon threads: the threads which must end before the 
+	 * JVM exits have to be joined.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param name the thread's name
+	 * @param task the task to run
+	 * 
+	 * @return the started thread
+	 */
+	public static Thread start(String name, Runnable task) {
+		return VirtualThreads.start(name, task, false);
+	}
+	
+	/** 
+	 * starts a daemon thread to run a long-lived helper task (which the JVM mustn't wait for), as a virtual thread if they 
+	 * are enabled.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param name the thread's name
+	 * @param task the task to run
+	 * 
+	 * @return the started thread
+	 */
+	public static Thread startDaemon(String name, Runnable task) {
+		return VirtualThreads.start(name, task, true);
+	}
+	
+	/** 
+	 * starts a thread to run a task, as a virtual thread if they are enabled, or as a platform thread with the given daemon 
+	 * status otherwise.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param name the thread's name
+	 * @param task the task to run
+	 * @param daemon true to start the platform thread as a daemon thread
+	 * 
+	 * @return the started thread
+	 */
+	private static Thread start(String name, Runnable task, boolean daemon) {
+		Thread thread = enabled ? FACTORY.newThread(task) : new Thread(task);
+		thread.setName(name);
+		if(!enabled) {
+			thread.setDaemon(daemon);
+		}
+		thread.start();
+		return thread;
+	}
+	
+	/** 
+	 * builds an executor which runs each task in a new virtual thread. Must be used only if the virtual threads are enabled.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param nameFormat format of the threads' names, with the thread's number as argument
+	 * 
+	 * @return the executor
+	 * 
+	 * @throws IllegalStateException if the virtual threads aren't enabled
+	 */
+	public static ExecutorService newThreadPerTaskExecutor(String nameFormat) {
+		if(!enabled) {
+			throw new IllegalStateException("virtual threads aren't enabled");
+		}
+		AtomicLong count = new AtomicLong(0);
+		ThreadFactory factory = task -> {
+			Thread thread = FACTORY.newThread(task);
+			thread.setName(String.format(nameFormat, count.getAndIncrement()));
+			return thread;
+		};
+		try {
+			return (ExecutorService) Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class).invoke(null, factory);
+		} catch (ReflectiveOperationException e) {
+			// the JVM supports virtual threads, so it has the executor too
+			throw new IllegalStateException(e);
+		}
+	}
+	
+	/** 
+	 * builds a factory of virtual threads with Thread.ofVirtual().factory().
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @return the factory, or null if the JVM doesn't support virtual threads
+	 */
+	private static ThreadFactory buildFactory() {
+		try {
+			Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+			return (ThreadFactory) Class.forName("java.lang.Thread$Builder").getMethod("factory").invoke(builder);
+		} catch (ReflectiveOperationException e) {
+			return null;
+		}
+	}
+
+	public static boolean isSupported() {
+		return null != FACTORY;
+	}
+	
+	public static boolean isEnabled() {
+		return enabled;
+	}
+}
@@ -13,6 +13,55 @@ public interface IConstants {
 	 * Base URI format string to build URIs for services
 	 * */
 	public static final String BASE_URI_FORMAT = "http://%s:8080/ssdd";
+	/**
+	 * Port of the binary TCP endpoint of the critical section services, served next to the REST endpoints
+	 * */
+	public static final int CS_TCP_PORT = 8081;
+	/**
+	 * Path, relative to the base URI, of the WebSocket endpoint of the critical section services
+	 * */
+	public static final String CS_WEBSOCKET_PATH = "/ws/cs";
+	/**
+	 * One-way latency (in microseconds) injected in each message of the in-JVM loopback transport. Can be overriden with the
+	 * ssdd.loopback.latency system property
+	 * */
+	public static final long CS_LOOPBACK_LATENCY = 0;
+	public static final String CS_LOOPBACK_LATENCY_PROPERTY = "ssdd.loopback.latency";
+	/**
+	 * Maximum number of threads of the executor shared by all the concurrent senders, see {@link com.ssdd.util.concurrent.ConcurrentExecutor}.
+	 * Can be overriden with the ssdd.executor.maxThreads system property
+	 * */
+	public static final int CONCURRENT_EXECUTOR_MAX_THREADS = 4096;
+	public static final String CONCURRENT_EXECUTOR_MAX_THREADS_PROPERTY = "ssdd.executor.maxThreads";
+	/**
+	 * Time (in seconds) that an idle thread of the executor shared by all the concurrent senders is kept alive
+	 * */
+	public static final long CONCURRENT_EXECUTOR_KEEP_ALIVE = 60;
+	/**
+	 * System property which runs the simulated processes and the concurrent senders in virtual threads when it is true,
+	 * see {@link com.ssdd.util.concurrent.VirtualThreads}
+	 * */
+	public static final String VIRTUAL_THREADS_PROPERTY = "ssdd.virtualThreads";
+	/**
+	 * Name of the resource's critical section used when no resource is given
+	 * */
+	public static final String DEFAULT_RESOURCE = "default";
+	/**
+	 * Maximum number of consecutive local handoffs of a critical section held by a host in the hierarchical mode, before releasing it to other hosts
+	 * */
+	public static final int HIERARCHICAL_MAX_LOCAL_HANDOFFS = 5;
+	/**
+	 * Id of the process who holds initially the token of the Suzuki and Kasami's algorithm
+	 * */
+	public static final int SUZUKI_KASAMI_INITIAL_TOKEN_HOLDER = 1;
+	/**
+	 * Maximum time (in seconds) to wait for messages of the Maekawa's algorithm in a mailbox, before returning an empty list
+	 * */
+	public static final long MAEKAWA_RECEIVE_TIMEOUT = 30;
+	/**
+	 * Maximum time (in seconds) that a process waits in the ready and finished barriers, before the barrier is broken
+	 * */
+	public static final long BARRIER_TIMEOUT = 1800;
 	/**
 	 * Error code given when an error related to HTTP request occurs.
 	 * */
@@ -0,0 +1,56 @@
+package com.ssdd.util.constants;
+
+/** 
+ * Stores the constant values for the HTTP client shared by the service proxies.
+ * 
+ * @version 1.0
+ * @author Hctor Snchez San Blas
+ * @author Francisco Pinto Santos
+*/
+public interface IHttpConstants {
+	/** 
+	 * Maximum time (in milliseconds) to establish a connection. Can be overriden with the ssdd.http.connectTimeout system property.
+	 */
+	public static final int HTTP_CONNECT_TIMEOUT = 5000;
+	public static final String HTTP_CONNECT_TIMEOUT_PROPERTY = "ssdd.http.connectTimeout";
+	/** 
+	 * Maximum time (in milliseconds) to wait for a response, except in the requests which wait for other processes (barriers,
+	 * deferred replies to the critical section requests, ...), which never time out. Can be overriden with the 
+	 * ssdd.http.readTimeout system property.
+	 */
+	public static final int HTTP_READ_TIMEOUT = 30000;
+	public static final String HTTP_READ_TIMEOUT_PROPERTY = "ssdd.http.readTimeout";
+	/** 
+	 * Value of the timeouts to wait without limit.
+	 */
+	public static final int HTTP_NO_TIMEOUT = 0;
+	/** 
+	 * Maximum number of attempts of each request, including the first one. Can be overriden with the ssdd.http.maxAttempts 
+	 * system property.
+	 */
+	public static final int HTTP_MAX_ATTEMPTS = 4;
+	public static final String HTTP_MAX_ATTEMPTS_PROPERTY = "ssdd.http.maxAttempts";
+	/** 
+	 * Time (in milliseconds) to wait before the first retry of a failed request, doubled in each of the next retries. Can be 
+	 * overriden with the ssdd.http.backoff system property.
+	 */
+	public static final int HTTP_INITIAL_BACKOFF = 100;
+	public static final String HTTP_INITIAL_BACKOFF_PROPERTY = "ssdd.http.backoff";
+	/** 
+	 * Maximum time (in milliseconds) to wait before a retry. Can be overriden with the ssdd.http.maxBackoff system property.
+	 */
+	public static final int HTTP_MAX_BACKOFF = 3200;
+	public static final String HTTP_MAX_BACKOFF_PROPERTY = "ssdd.http.maxBackoff";
+	/** 
+	 * Port of the embedded HTTP server, the same than Tomcat's one in {@link com.ssdd.util.constants.IConstants#BASE_URI_FORMAT}.
+	 */
+	public static final int HTTP_SERVER_PORT = 8080;
+	/** 
+	 * Context path of the services in the embedded HTTP server, the same than the WAR's one in {@link com.ssdd.util.constants.IConstants#BASE_URI_FORMAT}.
+	 */
+	public static final String HTTP_SERVER_CONTEXT_PATH = "/ssdd";
+	/** 
+	 * Maximum number of pending connections of the embedded HTTP server.
+	 */
+	public static final int HTTP_SERVER_BACKLOG = 1024;
+}
@@ -30,4 +30,11 @@ public interface INtpConstants {
 	 * Maximum failed attempts for the time sample request process  (/ntp/time) in the NTP service.
 	 * */
 	public static final int MAX_FAILED_ATTEMPTS = 10;
+	/**
+	 * Time (in milliseconds) to wait for the response of a time sample request before sending a second one (hedged request)
+	 * to the same service. Must be greater than {@link #MAX_SLEEP_MS}, as the service waits between samples. 0 to disable 
+	 * the hedged requests. Can be overriden with the ssdd.ntp.hedgeDelay system property.
+	 * */
+	public static final int HEDGE_DELAY = (int) MAX_SLEEP_MS + 500;
+	public static final String HEDGE_DELAY_PROPERTY = "ssdd.ntp.hedgeDelay";
 }
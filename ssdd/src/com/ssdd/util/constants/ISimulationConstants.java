@@ -28,4 +28,33 @@ public interface ISimulationConstants {
 	 * Maximum time (in milliseconds) of critical section wait in application.
 	 */
 	public static final long SIMULATION_MAX_CRITICAL_SECTION_TIME = 300;	
+	/** 
+	 * Number of critical section entries of each process in the message count comparison between algorithms.
+	 */
+	public static final int COMPARISON_NUM_ITERATIONS = 5;
+	/** 
+	 * Number of measured critical section entries in the latency measurement of the transports.
+	 */
+	public static final int LATENCY_NUM_ITERATIONS = 10000;
+	/** 
+	 * Number of critical section entries before the measured ones in the latency measurement of the transports, to warm up the connections and the JIT.
+	 */
+	public static final int LATENCY_WARMUP_ITERATIONS = 1000;
+	/** 
+	 * Number of critical section entries of each process in the benchmark of the in-JVM clusters.
+	 */
+	public static final int CLUSTER_NUM_ITERATIONS = 5;
+	/** 
+	 * Time (in milliseconds) that the readers of the mixed mode of the in-JVM clusters benchmark hold the critical section in shared mode, 
+	 * so the other processes can enter in shared mode and request it in exclusive mode meanwhile.
+	 */
+	public static final long CLUSTER_SHARED_HOLD_TIME = 2;
+	/** 
+	 * Number of measured rounds in the contention benchmark of the critical section states.
+	 */
+	public static final int CONTENTION_NUM_ITERATIONS = 200;
+	/** 
+	 * Number of rounds before the measured ones in the contention benchmark of the critical section states, to warm up the JIT.
+	 */
+	public static final int CONTENTION_WARMUP_ITERATIONS = 50;
 }
@@ -0,0 +1,352 @@
+package com.ssdd.util.http;
+
+import java.net.ConnectException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.ws.rs.ProcessingException;
+import javax.ws.rs.WebApplicationException;
+
+import com.ssdd.util.constants.IHttpConstants;
+import com.ssdd.util.logging.SSDDLogFactory;
+
+import jersey.repackaged.com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Policy to send the requests of the service proxies, retrying the failed ones with exponential backoff. A request is only 
+ * retried when sending it again is safe:
+ * <ul>
+ * 	<li>an idempotent request is retried after any failure of the connection (refused, reset, timed out, ...) and after any 
+ * 	server error (5xx status).</li>
+ * 	<li>a non idempotent request is only retried when the connection is refused, because then the server hasn't received it.</li>
+ * </ul>
+ * The errors of the request itself (4xx status) are never retried. Once a request can't be retried anymore, it fails with a 
+ * {@link com.ssdd.util.http.ServiceCallException}.
+ * 
+ * @version 1.0
+ * @author Hctor Snchez San Blas
+ * @author Francisco Pinto Santos
+ * */
+public class HttpCallPolicy {
+	
+	/**
+	 * Class logger generated with {@link com.ssdd.util.logging.SSDDLogFactory#logger(Class)}
+	 * */
+	private final static Logger LOGGER = SSDDLogFactory.logger(HttpCallPolicy.class);
+	
+	/**
+	 * holder of the default policy, of the pool of the hedged requests and of the timer of the asynchronous retries, 
+	 * initialized on first use
+	 * */
+	private static class PolicyHolder {
+		private final static HttpCallPolicy DEFAULT = new HttpCallPolicy(
+				Integer.getInteger(IHttpConstants.HTTP_MAX_ATTEMPTS_PROPERTY, IHttpConstants.HTTP_MAX_ATTEMPTS), 
+				Integer.getInteger(IHttpConstants.HTTP_INITIAL_BACKOFF_PROPERTY, IHttpConstants.HTTP_INITIAL_BACKOFF),
+				Integer.getInteger(IHttpConstants.HTTP_MAX_BACKOFF_PROPERTY, IHttpConstants.HTTP_MAX_BACKOFF));
+		private final static ExecutorService HEDGE_POOL = Executors.newCachedThreadPool(new ThreadFactoryBuilder().setNameFormat("hedge.%d").setDaemon(true).build());
+		private final static ScheduledExecutorService RETRY_TIMER = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder().setNameFormat("retry.%d").setDaemon(true).build());
+	}
+	
+	/**
+	 * maximum number of attempts of each request, including the first one
+	 * */
+	private final int maxAttempts;
+	/**
+	 * time (in milliseconds) to wait before the first retry
+	 * */
+	private final long initialBackoff;
+	/**
+	 * maximum time (in milliseconds) to wait before a retry
+	 * */
+	private final long maxBackoff;
+	
+	public HttpCallPolicy(int maxAttempts, long initialBackoff, long maxBackoff) {
+		this.maxAttempts = Math.max(1, maxAttempts);
+		this.initialBackoff = Math.max(1, initialBackoff);
+		this.maxBackoff = Math.max(this.initialBackoff, maxBackoff);
+	}
+	
+	/**
+	 * provides the policy configured with the constants of {@link com.ssdd.util.constants.IHttpConstants}, or with their
+	 * system properties.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @return the default policy
+	 * */
+	public static HttpCallPolicy defaults() {
+		return PolicyHolder.DEFAULT;
+	}
+	
+	/**
+	 * sends a request, retrying it while it fails and can be retried.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param name the name of the request, for the logs
+	 * @param idempotent true if the request can be received more than once by the server without changing its effect
+	 * @param request sends the request and reads its response
+	 * 
+	 * @return the result of the request
+	 * 
+	 * @throws ServiceCallException when the request fails, and can't be retried anymore
+	 * */
+	public <T> T call(String name, boolean idempotent, Callable<T> request) {
+		for(int attempt=1; ; attempt++) {
+			try {
+				return request.call();
+			} catch (Exception e) {
+				if(attempt >= this.maxAttempts || !HttpCallPolicy.isRetryable(e, idempotent)) {
+					LOGGER.log(Level.WARNING, String.format("%s: error %s", name, e.getMessage()), e);
+					throw new ServiceCallException(name, HttpCallPolicy.status(e), attempt, e);
+				}
+				long backoff = this.backoff(attempt);
+				LOGGER.log(Level.INFO, String.format("%s: attempt %d failed (%s), retrying in %d ms", name, attempt, e.getMessage(), backoff));
+				try {
+					Thread.sleep(backoff);
+				} catch (InterruptedException ie) {
+					Thread.currentThread().interrupt();
+					throw new ServiceCallException(name, HttpCallPolicy.status(e), attempt, e);
+				}
+			}
+		}
+	}
+	
+	/**
+	 * sends a request without blocking the calling thread, retrying it while it fails and can be retried as in 
+	 * {@link #call(String, boolean, Callable)}. The retries are scheduled after their backoff in a timer, instead of sleeping.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param name the name of the request, for the logs
+	 * @param idempotent true if the request can be received more than once by the server without changing its effect
+	 * @param request sends the request, and provides its result when the response is received
+	 * 
+	 * @return the result of the request, failed with a {@link com.ssdd.util.http.ServiceCallException} when the request 
+	 * fails and can't be retried anymore
+	 * */
+	public <T> CompletableFuture<T> callAsync(String name, boolean idempotent, Supplier<CompletableFuture<T>> request) {
+		CompletableFuture<T> result = new CompletableFuture<>();
+		this.attemptAsync(name, idempotent, request, result, 1);
+		return result;
+	}
+	
+	/**
+	 * sends an attempt of an asynchronous request, scheduling the next one if it fails and can be retried.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param name the name of the request, for the logs
+	 * @param idempotent true if the request can be received more than once by the server without changing its effect
+	 * @param request sends the request, and provides its result when the response is received
+	 * @param result the result of the request, completed by the last attempt
+	 * @param attempt the number of the attempt, from 1
+	 * */
+	private <T> void attemptAsync(String name, boolean idempotent, Supplier<CompletableFuture<T>> request, CompletableFuture<T> result, int attempt) {
+		CompletableFuture<T> response;
+		try {
+			response = request.get();
+		} catch (RuntimeException e) {
+			response = new CompletableFuture<>();
+			response.completeExceptionally(e);
+		}
+		response.whenComplete((value, error) -> {
+			if(null == error) {
+				result.complete(value);
+				return;
+			}
+			Throwable cause = (error instanceof CompletionException && error.getCause() != null) ? error.getCause() : error;
+			Exception e = (cause instanceof Exception) ? (Exception) cause : new ExecutionException(cause);
+			if(attempt >= this.maxAttempts || !HttpCallPolicy.isRetryable(e, idempotent)) {
+				LOGGER.log(Level.WARNING, String.format("%s: error %s", name, e.getMessage()), e);
+				result.completeExceptionally(new ServiceCallException(name, HttpCallPolicy.status(e), attempt, e));
+				return;
+			}
+			long backoff = this.backoff(attempt);
+			LOGGER.log(Level.INFO, String.format("%s: attempt %d failed (%s), retrying in %d ms", name, attempt, e.getMessage(), backoff));
+			PolicyHolder.RETRY_TIMER.schedule(() -> this.attemptAsync(name, idempotent, request, result, attempt + 1), backoff, TimeUnit.MILLISECONDS);
+		});
+	}
+	
+	/**
+	 * sends a request without result, retrying it as in {@link #call(String, boolean, Callable)}.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param name the name of the request, for the logs
+	 * @param idempotent true if the request can be received more than once by the server without changing its effect
+	 * @param request sends the request and reads its response
+	 * 
+	 * @throws ServiceCallException when the request fails, and can't be retried anymore
+	 * */
+	public void run(String name, boolean idempotent, Runnable request) {
+		this.call(name, idempotent, () -> {
+			request.run();
+			return null;
+		});
+	}
+	
+	/**
+	 * sends an idempotent request as in {@link #call(String, boolean, Callable)}, and if it doesn't respond in the given 
+	 * time, sends it again without cancelling the first one (hedged request). The first successful response is returned, 
+	 * so a slow connection or a stalled server thread doesn't delay the result beyond the delay plus the time of a new 
+	 * request.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param name the name of the request, for the logs
+	 * @param delay time (in milliseconds) to wait before sending the second request, 0 to never send it
+	 * @param request sends the request and reads its response
+	 * 
+	 * @return the result of the first request to succeed
+	 * 
+	 * @throws ServiceCallException when both requests fail
+	 * */
+	public <T> T hedged(String name, long delay, Callable<T> request) {
+		if(delay <= 0) {
+			return this.call(name, true, request);
+		}
+		CompletableFuture<T> result = new CompletableFuture<>();
+		AtomicInteger pending = new AtomicInteger(1);
+		PolicyHolder.HEDGE_POOL.execute(() -> this.attempt(name, request, result, pending));
+		try {
+			try {
+				return result.get(delay, TimeUnit.MILLISECONDS);
+			} catch (TimeoutException e) {
+				LOGGER.log(Level.INFO, String.format("%s: no response in %d ms, sending hedged request", name, delay));
+				pending.incrementAndGet();
+				PolicyHolder.HEDGE_POOL.execute(() -> this.attempt(name, request, result, pending));
+				return result.get();
+			}
+		} catch (ExecutionException e) {
+			throw (ServiceCallException) e.getCause();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new ServiceCallException(name, ServiceCallException.NO_STATUS, 1, e);
+		}
+	}
+	
+	/**
+	 * sends one of the requests of {@link #hedged(String, long, Callable)}, completing the result with its response. If it
+	 * fails, the result is only completed when it was the last pending request.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param name the name of the request, for the logs
+	 * @param request sends the request and reads its response
+	 * @param result the result shared by the hedged requests
+	 * @param pending number of hedged requests not yet finished
+	 * */
+	private <T> void attempt(String name, Callable<T> request, CompletableFuture<T> result, AtomicInteger pending) {
+		try {
+			result.complete(this.call(name, true, request));
+		} catch (ServiceCallException e) {
+			if(pending.decrementAndGet() == 0) {
+				result.completeExceptionally(e);
+			}
+		}
+	}
+	
+	/**
+	 * calculates the time to wait before a retry: grows exponentially with the number of attempts up to the maximum, and 
+	 * is randomized between its half and its whole value, so the clients which failed at the same time don't retry at the
+	 * same time.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param attempt the number of the failed attempt, starting at 1
+	 * 
+	 * @return the time (in milliseconds) to wait
+	 * */
+	private long backoff(int attempt) {
+		long backoff = Math.min(this.maxBackoff, this.initialBackoff << Math.min(attempt - 1, 30));
+		return ThreadLocalRandom.current().nextLong(backoff / 2, backoff + 1);
+	}
+	
+	/**
+	 * checks if a failed request can be sent again.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param e the error of the request
+	 * @param idempotent true if the request can be received more than once by the server
+	 * 
+	 * @return true if the request can be retried
+	 * */
+	private static boolean isRetryable(Exception e, boolean idempotent) {
+		if(e instanceof WebApplicationException) {
+			return idempotent && HttpCallPolicy.status(e) >= 500;
+		}else if(e instanceof ProcessingException) {
+			return idempotent || HttpCallPolicy.isConnectionRefused(e);
+		}
+		return false;
+	}
+	
+	/**
+	 * checks if a request failed because the connection was refused.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param e the error of the request
+	 * 
+	 * @return true if any of the causes of the error is a {@link java.net.ConnectException}
+	 * */
+	private static boolean isConnectionRefused(Throwable e) {
+		for(Throwable cause = e; cause != null; cause = cause.getCause()) {
+			if(cause instanceof ConnectException) {
+				return true;
+			}
+		}
+		return false;
+	}
+	
+	/**
+	 * provides the HTTP status of the response of a failed request.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param e the error of the request
+	 * 
+	 * @return the status, or {@link com.ssdd.util.http.ServiceCallException#NO_STATUS} if there wasn't any response
+	 * */
+	private static int status(Exception e) {
+		if(e instanceof WebApplicationException) {
+			return ((WebApplicationException) e).getResponse().getStatus();
+		}
+		return ServiceCallException.NO_STATUS;
+	}
+}
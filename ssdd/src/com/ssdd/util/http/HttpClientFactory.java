@@ -0,0 +1,98 @@
+package com.ssdd.util.http;
+
+import javax.ws.rs.client.Client;
+import javax.ws.rs.client.ClientBuilder;
+import javax.ws.rs.client.Invocation;
+import javax.ws.rs.client.WebTarget;
+import javax.ws.rs.core.UriBuilder;
+
+import org.glassfish.jersey.client.ClientProperties;
+
+import com.ssdd.util.constants.IHttpConstants;
+
+/**
+ * Factory to provide the HTTP client shared by all the service proxies of the process. The client is thread safe and is
+ * built once, so its configuration isn't repeated by each proxy. It isn't a connection pool: it uses the default connector
+ * of Jersey, over the JDK's HttpURLConnection, which opens a connection for each request in flight and only reuses the 
+ * idle ones through the keep-alive cache of the JVM, with its default settings. The connections aren't bounded on purpose, 
+ * as the deferred replies and the barriers keep their connections until other processes release them: with a bounded 
+ * number of connections, the requests which release them could wait forever for a free one.
+ * 
+ * To be reused, the connections must be released reading or closing each response.
+ * 
+ * The requests of the client time out after {@link com.ssdd.util.constants.IHttpConstants#HTTP_CONNECT_TIMEOUT} milliseconds 
+ * without connecting, and {@link com.ssdd.util.constants.IHttpConstants#HTTP_READ_TIMEOUT} milliseconds without response. 
+ * The requests which wait for other processes must disable the read timeout with {@link #waiting(Invocation.Builder)}.
+ * 
+ * @version 1.0
+ * @author Hctor Snchez San Blas
+ * @author Francisco Pinto Santos
+ * */
+public class HttpClientFactory {
+	
+	/**
+	 * holder of the shared client, initialized on first use
+	 * */
+	private static class ClientHolder {
+		private final static Client CLIENT = HttpClientFactory.buildClient();
+	}
+	
+	/**
+	 * provides the process's shared HTTP client.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @return the shared {@link javax.ws.rs.client.Client}
+	 * */
+	public static Client client() {
+		return ClientHolder.CLIENT;
+	}
+	
+	/**
+	 * builds a target of the shared HTTP client for the given URI.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param uri the URI of the target
+	 * 
+	 * @return a {@link javax.ws.rs.client.WebTarget} to the given URI
+	 * */
+	public static WebTarget target(String uri) {
+		return HttpClientFactory.client().target(UriBuilder.fromUri(uri).build());
+	}
+	
+	/**
+	 * disables the read timeout of a request, for the requests whose response waits for other processes (barriers, deferred 
+	 * replies, ...) an unbounded time.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param request the request
+	 * 
+	 * @return the same request, without read timeout
+	 * */
+	public static Invocation.Builder waiting(Invocation.Builder request) {
+		return request.property(ClientProperties.READ_TIMEOUT, IHttpConstants.HTTP_NO_TIMEOUT);
+	}
+	
+	/**
+	 * builds the client with the connect and read timeouts.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @return a new {@link javax.ws.rs.client.Client}
+	 * */
+	private static Client buildClient() {
+		return ClientBuilder.newClient()
+				.property(ClientProperties.CONNECT_TIMEOUT, Integer.getInteger(IHttpConstants.HTTP_CONNECT_TIMEOUT_PROPERTY, IHttpConstants.HTTP_CONNECT_TIMEOUT))
+				.property(ClientProperties.READ_TIMEOUT, Integer.getInteger(IHttpConstants.HTTP_READ_TIMEOUT_PROPERTY, IHttpConstants.HTTP_READ_TIMEOUT));
+	}
+}
@@ -0,0 +1,54 @@
+package com.ssdd.util.http;
+
+/**
+ * Exception thrown by the service proxies when a request fails, once it can't be retried anymore. Is unchecked, so the
+ * proxies keep the signatures of the services, and the failure is reported to the caller instead of stopping the process.
+ * 
+ * @version 1.0
+ * @author Hctor Snchez San Blas
+ * @author Francisco Pinto Santos
+ * */
+public class ServiceCallException extends RuntimeException {
+
+	/**
+	 * version uid neccesary to stop the eclipse warnings
+	 */
+	private static final long serialVersionUID = -6113046830410952470L;
+	
+	/**
+	 * value of {@link #status} when the request failed without response
+	 * */
+	public static final int NO_STATUS = -1;
+	
+	/**
+	 * the name of the failed request
+	 * */
+	private final String request;
+	/**
+	 * the HTTP status of the response, or {@link #NO_STATUS} if there wasn't any
+	 * */
+	private final int status;
+	/**
+	 * number of attempts of the request
+	 * */
+	private final int attempts;
+
+	public ServiceCallException(String request, int status, int attempts, Throwable cause) {
+		super(String.format("%s failed after %d attempts: %s", request, attempts, cause.getMessage()), cause);
+		this.request = request;
+		this.status = status;
+		this.attempts = attempts;
+	}
+
+	public String getRequest() {
+		return request;
+	}
+
+	public int getStatus() {
+		return status;
+	}
+
+	public int getAttempts() {
+		return attempts;
+	}
+}
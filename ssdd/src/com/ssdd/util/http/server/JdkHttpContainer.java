@@ -0,0 +1,309 @@
+package com.ssdd.util.http.server;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.security.Principal;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.ws.rs.core.Application;
+import javax.ws.rs.core.Response.Status;
+import javax.ws.rs.core.SecurityContext;
+
+import org.glassfish.jersey.internal.MapPropertiesDelegate;
+import org.glassfish.jersey.server.ApplicationHandler;
+import org.glassfish.jersey.server.ContainerException;
+import org.glassfish.jersey.server.ContainerRequest;
+import org.glassfish.jersey.server.ContainerResponse;
+import org.glassfish.jersey.server.ResourceConfig;
+import org.glassfish.jersey.server.spi.Container;
+import org.glassfish.jersey.server.spi.ContainerResponseWriter;
+
+import com.ssdd.util.constants.IHttpConstants;
+import com.ssdd.util.logging.SSDDLogFactory;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import jersey.repackaged.com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Jersey container over the HTTP server of the JDK ({@link com.sun.net.httpserver.HttpServer}), to serve a JAX-RS 
+ * application without a servlet container. Each request is handled in a thread of a pool, and the suspended responses
+ * ({@link javax.ws.rs.container.AsyncResponse}) are supported: the exchange is kept open after the request is handled, 
+ * until the response is resumed, and their timeouts are scheduled in a dedicated thread.
+ * 
+ * @version 1.0
+ * @author Hctor Snchez San Blas
+ * @author Francisco Pinto Santos
+ * */
+public class JdkHttpContainer implements HttpHandler, Container {
+
+	/**
+	 * Class logger generated with {@link com.ssdd.util.logging.SSDDLogFactory#logger(Class)}
+	 * */
+	private final static Logger LOGGER = SSDDLogFactory.logger(JdkHttpContainer.class);
+	
+	/**
+	 * security context of the requests, which are never authenticated
+	 * */
+	private final static SecurityContext ANONYMOUS = new SecurityContext() {
+		public Principal getUserPrincipal() {
+			return null;
+		}
+		public boolean isUserInRole(String role) {
+			return false;
+		}
+		public boolean isSecure() {
+			return false;
+		}
+		public String getAuthenticationScheme() {
+			return null;
+		}
+	};
+	
+	/**
+	 * Jersey's handler of the application
+	 * */
+	private volatile ApplicationHandler application;
+	/**
+	 * the HTTP server, null until the container is started
+	 * */
+	private HttpServer server;
+	/**
+	 * pool of the threads which handle the requests
+	 * */
+	private ExecutorService workers;
+	/**
+	 * thread which runs the timeouts of the suspended responses
+	 * */
+	private ScheduledExecutorService timeouts;
+	
+	public JdkHttpContainer(Application application) {
+		this.application = new ApplicationHandler(application);
+	}
+	
+	/**
+	 * starts the HTTP server, serving the application under the given context path.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param port the port to listen
+	 * @param contextPath the path of the application, relative to the root of the server
+	 * 
+	 * @throws IOException if the port can't be bound
+	 * */
+	public synchronized void start(int port, String contextPath) throws IOException {
+		this.workers = Executors.newCachedThreadPool(new ThreadFactoryBuilder().setNameFormat("http.%d").build());
+		this.timeouts = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder().setNameFormat("http.timeout").setDaemon(true).build());
+		this.server = HttpServer.create(new InetSocketAddress(port), IHttpConstants.HTTP_SERVER_BACKLOG);
+		this.server.setExecutor(this.workers);
+		this.server.createContext(contextPath, this);
+		this.server.start();
+		this.application.onStartup(this);
+	}
+	
+	/**
+	 * stops the HTTP server, closing the open exchanges, and shuts the application down.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * */
+	public synchronized void stop() {
+		if(null == this.server) {
+			return;
+		}
+		this.server.stop(0);
+		this.workers.shutdownNow();
+		this.timeouts.shutdownNow();
+		this.application.onShutdown(this);
+		this.server = null;
+	}
+	
+	/**
+	 * handles an exchange of the HTTP server, passing its request to the application. If the response is suspended, 
+	 * returns without closing the exchange.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * 
+	 * @param exchange the exchange with the request
+	 * */
+	@Override
+	public void handle(HttpExchange exchange) throws IOException {
+		// build the URIs of the application and of the request
+		String host = exchange.getRequestHeaders().getFirst("Host");
+		if(null == host) {
+			InetSocketAddress address = exchange.getLocalAddress();
+			host = address.getHostString() + ":" + address.getPort();
+		}
+		String contextPath = exchange.getHttpContext().getPath();
+		URI baseUri = URI.create("http://" + host + (contextPath.endsWith("/") ? contextPath : contextPath + "/"));
+		URI requestUri = URI.create("http://" + host + exchange.getRequestURI().toString());
+		
+		// build the request
+		ContainerRequest request = new ContainerRequest(baseUri, requestUri, exchange.getRequestMethod(), ANONYMOUS, new MapPropertiesDelegate());
+		for(Map.Entry<String, List<String>> header : exchange.getRequestHeaders().entrySet()) {
+			request.headers(header.getKey(), header.getValue());
+		}
+		request.setEntityStream(exchange.getRequestBody());
+		request.setWriter(new ResponseWriter(exchange));
+		try {
+			this.application.handle(request);
+		} catch (RuntimeException e) {
+			LOGGER.log(Level.WARNING, String.format("handle: error %s", e.getMessage()), e);
+			exchange.sendResponseHeaders(Status.INTERNAL_SERVER_ERROR.getStatusCode(), -1);
+			exchange.close();
+		}
+	}
+
+	@Override
+	public ResourceConfig getConfiguration() {
+		return this.application.getConfiguration();
+	}
+
+	@Override
+	public ApplicationHandler getApplicationHandler() {
+		return this.application;
+	}
+
+	@Override
+	public void reload() {
+		this.reload(this.getConfiguration());
+	}
+
+	@Override
+	public void reload(ResourceConfig configuration) {
+		this.application.onShutdown(this);
+		this.application = new ApplicationHandler(configuration);
+		this.application.onReload(this);
+		this.application.onStartup(this);
+	}
+	
+	/**
+	 * writes the response of an exchange, once the application has processed its request.
+	 * 
+	 * @version 1.0
+	 * @author Hctor Snchez San Blas
+	 * @author Francisco Pinto Santos
+	 * */
+	private class ResponseWriter implements ContainerResponseWriter {
+		
+		/**
+		 * the exchange
+		 * */
+		private final HttpExchange exchange;
+		/**
+		 * true once the status and headers of the response have been sent
+		 * */
+		private final AtomicBoolean committed;
+		/**
+		 * the handler of the timeout of the suspended response, null if it isn't suspended
+		 * */
+		private volatile TimeoutHandler timeoutHandler;
+		/**
+		 * scheduled timeout of the suspended response, null if there isn't any
+		 * */
+		private final AtomicReference<ScheduledFuture<?>> timeout;
+		
+		public ResponseWriter(HttpExchange exchange) {
+			this.exchange = exchange;
+			this.committed = new AtomicBoolean(false);
+			this.timeout = new AtomicReference<>();
+		}
+
+		@Override
+		public OutputStream writeResponseStatusAndHeaders(long contentLength, ContainerResponse response) throws ContainerException {
+			this.committed.set(true);
+			for(Map.Entry<String, List<String>> header : response.getStringHeaders().entrySet()) {
+				this.exchange.getResponseHeaders().put(header.getKey(), header.getValue());
+			}
+			try {
+				// the JDK server sends the body chunked with a length of 0, and without body with a length of -1
+				int status = response.getStatus();
+				if(status == Status.NO_CONTENT.getStatusCode() || status == Status.NOT_MODIFIED.getStatusCode() || contentLength == 0) {
+					this.exchange.sendResponseHeaders(status, -1);
+				}else {
+					this.exchange.sendResponseHeaders(status, contentLength < 0 ? 0 : contentLength);
+				}
+			} catch (IOException e) {
+				throw new ContainerException(e);
+			}
+			return this.exchange.getResponseBody();
+		}
+
+		@Override
+		public boolean suspend(long timeOut, TimeUnit timeUnit, TimeoutHandler timeoutHandler) {
+			this.timeoutHandler = timeoutHandler;
+			this.setSuspendTimeout(timeOut, timeUnit);
+			return true;
+		}
+
+		@Override
+		public void setSuspendTimeout(long timeOut, TimeUnit timeUnit) throws IllegalStateException {
+			if(null == this.timeoutHandler) {
+				throw new IllegalStateException("the response is not suspended");
+			}
+			ScheduledFuture<?> timeout = (timeOut > 0) ? JdkHttpContainer.this.timeouts.schedule(() -> this.timeoutHandler.onTimeout(this), timeOut, timeUnit) : null;
+			ScheduledFuture<?> previous = this.timeout.getAndSet(timeout);
+			if(null != previous) {
+				previous.cancel(false);
+			}
+		}
+
+		@Override
+		public void commit() {
+			this.cancelTimeout();
+			this.exchange.close();
+		}
+
+		@Override
+		public void failure(Throwable error) {
+			this.cancelTimeout();
+			LOGGER.log(Level.WARNING, String.format("failure: error %s", error.getMessage()), error);
+			try {
+				if(!this.committed.getAndSet(true)) {
+					this.exchange.sendResponseHeaders(Status.INTERNAL_SERVER_ERROR.getStatusCode(), -1);
+				}
+			} catch (IOException e) {
+				LOGGER.log(Level.WARNING, String.format("failure: error %s", e.getMessage()), e);
+			} finally {
+				this.exchange.close();
+			}
+		}
+
+		@Override
+		public boolean enableResponseBuffering() {
+			return true;
+		}
+		
+		/**
+		 * cancels the scheduled timeout of the suspended response, if any.
+		 * 
+		 * @version 1.0
+		 * @author Hctor Snchez San Blas
+		 * @author Francisco Pinto Santos
+		 * */
+		private void cancelTimeout() {
+			ScheduledFuture<?> timeout = this.timeout.getAndSet(null);
+			if(null != timeout) {
+				timeout.cancel(false);
+			}
+		}
+	}
+}
@@ -0,0 +1,31 @@
+package com.ssdd.util.http.server;
+
+import org.glassfish.jersey.server.ResourceConfig;
+import org.glassfish.jersey.server.ServerProperties;
+
+import com.ssdd.cs.service.CriticalSectionService;
+import com.ssdd.cs.service.ProcessNotFoundException;
+import com.ssdd.ntp.service.NTPService;
+import com.ssdd.util.logging.centralized.service.CentralizedLogService;
+
+/**
+ * JAX-RS application with the NTP, critical section and log resources, and their providers, registered explicitly
+ * instead of found scanning their packages. Is used by the WAR (see web.xml) and by the embedded HTTP server.
+ * 
+ * The automatic discovery of features and the unused features (WADL, bean validation) are disabled, so the application 
+ * starts faster.
+ * 
+ * @version 1.0
+ * @author Hctor Snchez San Blas
+ * @author Francisco Pinto Santos
+ * */
+public class SSDDApplication extends ResourceConfig {
+
+	public SSDDApplication() {
+		super(NTPService.class, CriticalSectionService.class, CentralizedLogService.class, ProcessNotFoundException.class);
+		this.property(ServerProperties.FEATURE_AUTO_DISCOVERY_DISABLE, true);
+		this.property(ServerProperties.METAINF_SERVICES_LOOKUP_DISABLE, true);
+		this.property(ServerProperties.WADL_FEATURE_DISABLE, true);
+		this.property(ServerProperties.BV_FEATURE_DISABLE, true);
+	}
+}
@@ -1,12 +1,12 @@
 package com.ssdd.util.logging.centralized.service;
 
-import javax.ws.rs.client.ClientBuilder;
 import javax.ws.rs.client.WebTarget;
 import javax.ws.rs.core.MediaType;
-import javax.ws.rs.core.UriBuilder;
 
 import org.glassfish.jersey.uri.UriComponent;
 
+import com.ssdd.util.http.HttpClientFactory;
+
 /** 
  * Centralized log proxy, to access a Centralized log service in a easier way
  * 
@@ -22,7 +22,7 @@ public class CentralizedLogServiceProxy extends CentralizedLogService{
 	private WebTarget service;
 	
 	public CentralizedLogServiceProxy(String serviceUri) {
-		this.service = ClientBuilder.newClient().target(UriBuilder.fromUri(serviceUri).build());
+		this.service = HttpClientFactory.target(serviceUri);
 	}
 
 	/**
@@ -71,7 +71,7 @@ public class CentralizedLogServiceProxy extends CentralizedLogService{
 	public void log(String line){
 		try {
 			String encodedLine = UriComponent.encode(line, UriComponent.Type.FRAGMENT);
-			this.service.path("write").queryParam("line", encodedLine).request().get();
+			this.service.path("write").queryParam("line", encodedLine).request().get().close();
 		} catch (Exception e) {}
 	}
 }